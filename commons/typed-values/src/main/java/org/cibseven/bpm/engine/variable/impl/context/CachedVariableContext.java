@@ -0,0 +1,85 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.variable.impl.context;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.cibseven.bpm.engine.variable.context.VariableContext;
+import org.cibseven.bpm.engine.variable.value.TypedValue;
+
+/**
+ * Resolves the variables of the wrapped context on first access and keeps
+ * the resolved values, so that each variable is converted or deserialized at
+ * most once, no matter how often it is accessed. Variables which are never
+ * accessed are never resolved.
+ *
+ * <p>The context is meant to be used for the duration of a single evaluation.
+ * It is not thread-safe and does not see changes of the wrapped context after
+ * a variable was resolved.</p>
+ */
+public class CachedVariableContext implements VariableContext {
+
+  protected final VariableContext delegateContext;
+
+  protected final Map<String, TypedValue> resolvedValues = new HashMap<String, TypedValue>();
+  protected final Map<String, Boolean> containedVariables = new HashMap<String, Boolean>();
+  protected Set<String> keySet;
+
+  public CachedVariableContext(VariableContext delegateContext) {
+    this.delegateContext = delegateContext;
+  }
+
+  public TypedValue resolve(String variableName) {
+    if (resolvedValues.containsKey(variableName)) {
+      return resolvedValues.get(variableName);
+    }
+
+    TypedValue resolvedValue = delegateContext.resolve(variableName);
+    resolvedValues.put(variableName, resolvedValue);
+    return resolvedValue;
+  }
+
+  public boolean containsVariable(String variableName) {
+    if (resolvedValues.get(variableName) != null) {
+      return true;
+    }
+
+    Boolean containsVariable = containedVariables.get(variableName);
+    if (containsVariable == null) {
+      containsVariable = delegateContext.containsVariable(variableName);
+      containedVariables.put(variableName, containsVariable);
+    }
+    return containsVariable;
+  }
+
+  public Set<String> keySet() {
+    if (keySet == null) {
+      keySet = delegateContext.keySet();
+    }
+    return keySet;
+  }
+
+  public static CachedVariableContext wrap(VariableContext variableContext) {
+    if (variableContext instanceof CachedVariableContext) {
+      return (CachedVariableContext) variableContext;
+    }
+    return new CachedVariableContext(variableContext);
+  }
+
+}
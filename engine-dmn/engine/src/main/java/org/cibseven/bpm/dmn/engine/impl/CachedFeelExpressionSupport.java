@@ -0,0 +1,37 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.dmn.engine.impl;
+
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleExpression;
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleUnaryTests;
+import org.cibseven.bpm.dmn.feel.impl.FeelEngine;
+
+/**
+ * Caches the FEEL expression parsed by a {@link FeelEngine}. A cached
+ * expression is only returned to the engine which parsed it.
+ */
+public interface CachedFeelExpressionSupport {
+
+  void cacheSimpleExpression(FeelEngine feelEngine, CompiledSimpleExpression expression);
+
+  CompiledSimpleExpression getCachedSimpleExpression(FeelEngine feelEngine);
+
+  void cacheSimpleUnaryTests(FeelEngine feelEngine, CompiledSimpleUnaryTests unaryTests);
+
+  CompiledSimpleUnaryTests getCachedSimpleUnaryTests(FeelEngine feelEngine);
+
+}
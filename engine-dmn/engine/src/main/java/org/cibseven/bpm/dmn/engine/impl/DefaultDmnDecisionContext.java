@@ -36,6 +36,8 @@ import org.cibseven.bpm.dmn.engine.impl.hitpolicy.HitPolicyEntry;
 import org.cibseven.bpm.engine.variable.VariableMap;
 import org.cibseven.bpm.engine.variable.Variables;
 import org.cibseven.bpm.engine.variable.context.VariableContext;
+import org.cibseven.bpm.engine.variable.impl.context.CachedVariableContext;
+import org.cibseven.bpm.engine.variable.impl.context.CompositeVariableContext;
 import org.cibseven.bpm.model.dmn.HitPolicy;
 
 /**
@@ -72,7 +74,9 @@ public class DefaultDmnDecisionContext {
     if(decision.getKey() == null) {
       throw LOG.unableToFindAnyDecisionTable();
     }
-    VariableMap variableMap = buildVariableMapFromVariableContext(variableContext);
+    // results of required decisions shadow the variables of the given context
+    VariableMap variableMap = Variables.createVariables();
+    VariableContext evaluationVariableContext = buildVariableContext(variableContext, variableMap);
 
     List<DmnDecision> requiredDecisions = new ArrayList<DmnDecision>();
     buildDecisionTree(decision, requiredDecisions);
@@ -82,7 +86,7 @@ public class DefaultDmnDecisionContext {
 
     for (DmnDecision evaluateDecision : requiredDecisions) {
       DmnDecisionLogicEvaluationHandler handler = getDecisionEvaluationHandler(evaluateDecision);
-      DmnDecisionLogicEvaluationEvent evaluatedEvent = handler.evaluate(evaluateDecision, variableMap.asVariableContext());
+      DmnDecisionLogicEvaluationEvent evaluatedEvent = handler.evaluate(evaluateDecision, evaluationVariableContext);
       evaluatedEvents.add(evaluatedEvent);
 
       evaluatedResult = handler.generateDecisionResult(evaluatedEvent);
@@ -95,16 +99,13 @@ public class DefaultDmnDecisionContext {
     return evaluatedResult;
   }
 
-  protected VariableMap buildVariableMapFromVariableContext(VariableContext variableContext) {
-
-    VariableMap variableMap = Variables.createVariables();
-
-    Set<String> variables = variableContext.keySet();
-    for(String variable: variables) {
-      variableMap.put(variable, variableContext.resolve(variable));
-    }
-
-    return variableMap;
+  /**
+   * Variables of the given context are resolved lazily and at most once per
+   * evaluation, so that only the variables which are accessed by the decisions
+   * are converted or deserialized.
+   */
+  protected VariableContext buildVariableContext(VariableContext variableContext, VariableMap requiredDecisionResults) {
+    return CompositeVariableContext.compose(requiredDecisionResults.asVariableContext(), CachedVariableContext.wrap(variableContext));
   }
 
   protected void buildDecisionTree(DmnDecision decision, List<DmnDecision> requiredDecisions) {
@@ -85,6 +85,12 @@ public class DefaultDmnEngineConfiguration extends DmnEngineConfiguration {
 
   protected boolean returnBlankTableOutputAsNull = false;
 
+  /**
+   * Use the rule index of decision tables to match simple FEEL input entries
+   * without evaluating them one by one
+   */
+  protected boolean decisionTableRuleIndexEnabled = true;
+
   @Override
   public DmnEngine buildEngine() {
     init();
@@ -625,4 +631,25 @@ public class DefaultDmnEngineConfiguration extends DmnEngineConfiguration {
     return this;
   }
 
+  /**
+   * @return whether the rule index of decision tables is used to match simple FEEL input entries
+   */
+  public boolean isDecisionTableRuleIndexEnabled() {
+    return decisionTableRuleIndexEnabled;
+  }
+
+  /**
+   * Controls whether the rule index of decision tables is used to match simple
+   * FEEL input entries (literals, comparisons and intervals) by lookup instead
+   * of evaluating every input entry of every rule. The index is only used
+   * together with the default FEEL engine.
+   *
+   * @param decisionTableRuleIndexEnabled toggles the usage of the rule index
+   * @return this
+   */
+  public DefaultDmnEngineConfiguration setDecisionTableRuleIndexEnabled(boolean decisionTableRuleIndexEnabled) {
+    this.decisionTableRuleIndexEnabled = decisionTableRuleIndexEnabled;
+    return this;
+  }
+
 }
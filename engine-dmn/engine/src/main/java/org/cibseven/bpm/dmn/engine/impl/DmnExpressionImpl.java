@@ -20,8 +20,11 @@ import javax.script.CompiledScript;
 
 import org.cibseven.bpm.dmn.engine.impl.spi.el.ElExpression;
 import org.cibseven.bpm.dmn.engine.impl.spi.type.DmnTypeDefinition;
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleExpression;
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleUnaryTests;
+import org.cibseven.bpm.dmn.feel.impl.FeelEngine;
 
-public class DmnExpressionImpl implements CachedCompiledScriptSupport, CachedExpressionSupport {
+public class DmnExpressionImpl implements CachedCompiledScriptSupport, CachedExpressionSupport, CachedFeelExpressionSupport {
 
   protected String id;
   protected String name;
@@ -32,6 +35,7 @@ public class DmnExpressionImpl implements CachedCompiledScriptSupport, CachedExp
 
   protected CompiledScript cachedCompiledScript;
   protected ElExpression cachedExpression;
+  protected volatile CachedFeelExpression cachedFeelExpression;
 
   public String getId() {
     return id;
@@ -99,4 +103,41 @@ public class DmnExpressionImpl implements CachedCompiledScriptSupport, CachedExp
   public void setCachedExpression(ElExpression expression) {
     this.cachedExpression = expression;
   }
+
+  public void cacheSimpleExpression(FeelEngine feelEngine, CompiledSimpleExpression expression) {
+    this.cachedFeelExpression = new CachedFeelExpression(feelEngine, expression);
+  }
+
+  public CompiledSimpleExpression getCachedSimpleExpression(FeelEngine feelEngine) {
+    CachedFeelExpression cached = this.cachedFeelExpression;
+    if (cached != null && cached.feelEngine == feelEngine && cached.expression instanceof CompiledSimpleExpression) {
+      return (CompiledSimpleExpression) cached.expression;
+    }
+    return null;
+  }
+
+  public void cacheSimpleUnaryTests(FeelEngine feelEngine, CompiledSimpleUnaryTests unaryTests) {
+    this.cachedFeelExpression = new CachedFeelExpression(feelEngine, unaryTests);
+  }
+
+  public CompiledSimpleUnaryTests getCachedSimpleUnaryTests(FeelEngine feelEngine) {
+    CachedFeelExpression cached = this.cachedFeelExpression;
+    if (cached != null && cached.feelEngine == feelEngine && cached.expression instanceof CompiledSimpleUnaryTests) {
+      return (CompiledSimpleUnaryTests) cached.expression;
+    }
+    return null;
+  }
+
+  protected static class CachedFeelExpression {
+
+    protected final FeelEngine feelEngine;
+    protected final Object expression;
+
+    protected CachedFeelExpression(FeelEngine feelEngine, Object expression) {
+      this.feelEngine = feelEngine;
+      this.expression = expression;
+    }
+
+  }
+
 }
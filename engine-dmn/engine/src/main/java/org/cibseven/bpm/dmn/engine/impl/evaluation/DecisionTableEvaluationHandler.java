@@ -17,6 +17,7 @@
 package org.cibseven.bpm.dmn.engine.impl.evaluation;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,7 +43,9 @@ import org.cibseven.bpm.dmn.engine.impl.delegate.DmnDecisionTableEvaluationEvent
 import org.cibseven.bpm.dmn.engine.impl.delegate.DmnEvaluatedDecisionRuleImpl;
 import org.cibseven.bpm.dmn.engine.impl.delegate.DmnEvaluatedInputImpl;
 import org.cibseven.bpm.dmn.engine.impl.delegate.DmnEvaluatedOutputImpl;
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleUnaryTests;
 import org.cibseven.bpm.dmn.feel.impl.FeelEngine;
+import org.cibseven.bpm.dmn.feel.impl.scala.ScalaFeelEngineFactory;
 import org.cibseven.bpm.engine.variable.Variables;
 import org.cibseven.bpm.engine.variable.context.VariableContext;
 import org.cibseven.bpm.engine.variable.impl.context.CompositeVariableContext;
@@ -61,6 +64,8 @@ public class DecisionTableEvaluationHandler implements DmnDecisionLogicEvaluatio
 
   protected final boolean returnBlankTableOutputAsNull;
 
+  protected final boolean useRuleIndex;
+
   public DecisionTableEvaluationHandler(DefaultDmnEngineConfiguration configuration) {
     expressionEvaluationHandler = new ExpressionEvaluationHandler(configuration);
     feelEngine = configuration.getFeelEngine();
@@ -71,6 +76,14 @@ public class DecisionTableEvaluationHandler implements DmnDecisionLogicEvaluatio
     inputEntryExpressionLanguage = configuration.getDefaultInputEntryExpressionLanguage();
     outputEntryExpressionLanguage = configuration.getDefaultOutputEntryExpressionLanguage();
     returnBlankTableOutputAsNull = configuration.isReturnBlankTableOutputAsNull();
+
+    // the rule index mirrors the semantics of the default FEEL engine for
+    // input entries without expression language
+    useRuleIndex = configuration.isDecisionTableRuleIndexEnabled()
+        && configuration.getFeelEngineFactory() != null
+        && configuration.getFeelEngineFactory().getClass() == ScalaFeelEngineFactory.class
+        && inputEntryExpressionLanguage != null
+        && expressionEvaluationHandler.isFeelExpressionLanguage(inputEntryExpressionLanguage);
   }
 
   @Override
@@ -99,6 +112,12 @@ public class DecisionTableEvaluationHandler implements DmnDecisionLogicEvaluatio
   }
 
   protected void evaluateDecisionTable(DmnDecisionTableImpl decisionTable, VariableContext variableContext, DmnDecisionTableEvaluationEventImpl evaluationResult) {
+    DecisionTableRuleIndex ruleIndex = decisionTable.getRuleIndex();
+    if (useRuleIndex && ruleIndex != null && ruleIndex.getRuleCount() == decisionTable.getRules().size()) {
+      evaluateDecisionTableWithRuleIndex(decisionTable, ruleIndex, variableContext, evaluationResult);
+      return;
+    }
+
     int inputSize = decisionTable.getInputs().size();
     List<DmnDecisionTableRuleImpl> matchingRules = new ArrayList<DmnDecisionTableRuleImpl>(decisionTable.getRules());
     for (int inputIdx = 0; inputIdx < inputSize; inputIdx++) {
@@ -117,6 +136,58 @@ public class DecisionTableEvaluationHandler implements DmnDecisionLogicEvaluatio
     setEvaluationOutput(decisionTable, matchingRules, variableContext, evaluationResult);
   }
 
+  protected void evaluateDecisionTableWithRuleIndex(DmnDecisionTableImpl decisionTable, DecisionTableRuleIndex ruleIndex, VariableContext variableContext, DmnDecisionTableEvaluationEventImpl evaluationResult) {
+    List<DmnDecisionTableRuleImpl> rules = decisionTable.getRules();
+    int inputSize = decisionTable.getInputs().size();
+
+    BitSet matchingRuleIndexes = new BitSet(rules.size());
+    matchingRuleIndexes.set(0, rules.size());
+
+    for (int inputIdx = 0; inputIdx < inputSize; inputIdx++) {
+      // evaluate input
+      DmnDecisionTableInputImpl input = decisionTable.getInputs().get(inputIdx);
+      DmnEvaluatedInput evaluatedInput = evaluateInput(input, variableContext);
+      evaluationResult.getInputs().add(evaluatedInput);
+
+      if (matchingRuleIndexes.isEmpty()) {
+        continue;
+      }
+
+      VariableContext localVariableContext = getLocalVariableContext(input, evaluatedInput, variableContext);
+
+      DecisionTableInputIndex inputIndex = ruleIndex.getInputIndex(inputIdx);
+      Object inputValue = evaluatedInput.getValue() != null ? evaluatedInput.getValue().getValue() : null;
+      BitSet applicableRuleIndexes = inputIndex.getMatchingRules(inputValue);
+
+      BitSet evaluatedRuleIndexes;
+      if (applicableRuleIndexes == null) {
+        // the value cannot be looked up, evaluate the input entries of all remaining rules
+        applicableRuleIndexes = new BitSet(rules.size());
+        evaluatedRuleIndexes = matchingRuleIndexes;
+      }
+      else {
+        evaluatedRuleIndexes = (BitSet) inputIndex.getComplexRules().clone();
+        evaluatedRuleIndexes.and(matchingRuleIndexes);
+      }
+
+      for (int ruleIdx = evaluatedRuleIndexes.nextSetBit(0); ruleIdx >= 0; ruleIdx = evaluatedRuleIndexes.nextSetBit(ruleIdx + 1)) {
+        DmnExpressionImpl condition = rules.get(ruleIdx).getConditions().get(inputIdx);
+        if (isConditionApplicable(input, condition, localVariableContext)) {
+          applicableRuleIndexes.set(ruleIdx);
+        }
+      }
+
+      matchingRuleIndexes.and(applicableRuleIndexes);
+    }
+
+    List<DmnDecisionTableRuleImpl> matchingRules = new ArrayList<DmnDecisionTableRuleImpl>(matchingRuleIndexes.cardinality());
+    for (int ruleIdx = matchingRuleIndexes.nextSetBit(0); ruleIdx >= 0; ruleIdx = matchingRuleIndexes.nextSetBit(ruleIdx + 1)) {
+      matchingRules.add(rules.get(ruleIdx));
+    }
+
+    setEvaluationOutput(decisionTable, matchingRules, variableContext, evaluationResult);
+  }
+
   protected DmnEvaluatedInput evaluateInput(DmnDecisionTableInputImpl input, VariableContext variableContext) {
     DmnEvaluatedInputImpl evaluatedInput = new DmnEvaluatedInputImpl(input);
 
@@ -246,7 +317,23 @@ public class DecisionTableEvaluationHandler implements DmnDecisionLogicEvaluatio
   protected Object evaluateFeelSimpleUnaryTests(DmnDecisionTableInputImpl input, DmnExpressionImpl condition, VariableContext variableContext) {
     String expressionText = condition.getExpression();
     if (expressionText != null) {
-      return feelEngine.evaluateSimpleUnaryTests(expressionText, input.getInputVariable(), variableContext);
+      CompiledSimpleUnaryTests unaryTests = condition.getCachedSimpleUnaryTests(feelEngine);
+
+      if (unaryTests == null) {
+        synchronized (condition) {
+          unaryTests = condition.getCachedSimpleUnaryTests(feelEngine);
+          if (unaryTests == null) {
+            unaryTests = feelEngine.compileSimpleUnaryTests(expressionText);
+            if (unaryTests == null) {
+              // the FEEL engine does not support parsed expressions
+              return feelEngine.evaluateSimpleUnaryTests(expressionText, input.getInputVariable(), variableContext);
+            }
+            condition.cacheSimpleUnaryTests(feelEngine, unaryTests);
+          }
+        }
+      }
+
+      return unaryTests.evaluate(input.getInputVariable(), variableContext);
     }
     else {
       return null;
@@ -0,0 +1,280 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.dmn.engine.impl.evaluation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.cibseven.bpm.dmn.engine.impl.DmnExpressionImpl;
+import org.cibseven.bpm.dmn.engine.impl.evaluation.RuleIntervalTree.RuleInterval;
+
+/**
+ * <p>Index of the input entries of all rules for one input of a decision table.</p>
+ *
+ * <p>Input entries which are empty or <code>-</code> match every value.
+ * FEEL simple unary tests which only consist of (comma separated) string,
+ * number or boolean literals, comparisons with a number
+ * (<code>&lt; 10</code>) or number intervals (<code>[1..10[</code>) are
+ * indexed in a hash map respectively an interval tree. All other input
+ * entries (and entries with an explicit expression language) are complex
+ * and have to be evaluated by the expression language.</p>
+ *
+ * <p>The index is only used for string, number and boolean input values of
+ * the same kind as the indexed literals. Otherwise all input entries are
+ * evaluated by the expression language, so that the result (and any
+ * evaluation exception) is the same as without the index.</p>
+ */
+public class DecisionTableInputIndex {
+
+  protected static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+  protected static final Pattern STRING = Pattern.compile("\"([^\"\\\\]*)\"");
+  protected static final Pattern COMPARISON = Pattern.compile("(<=|>=|<|>)\\s*(-?\\d+(\\.\\d+)?)");
+  protected static final Pattern INTERVAL = Pattern.compile("([\\[\\]\\(])\\s*(-?\\d+(\\.\\d+)?)\\s*\\.\\.\\s*(-?\\d+(\\.\\d+)?)\\s*([\\[\\]\\)])");
+
+  protected enum LiteralKind { STRING, NUMBER, BOOLEAN }
+
+  protected final BitSet wildcardRules = new BitSet();
+  protected final BitSet complexRules = new BitSet();
+  protected final Map<Object, BitSet> equalityRules = new HashMap<>();
+  protected RuleIntervalTree intervalRules;
+
+  /** kind of all indexed literals, <code>null</code> if nothing is indexed */
+  protected LiteralKind literalKind;
+
+  public DecisionTableInputIndex(List<DmnExpressionImpl> conditions) {
+    List<RuleInterval> intervals = new ArrayList<>();
+
+    for (int ruleIndex = 0; ruleIndex < conditions.size(); ruleIndex++) {
+      indexCondition(ruleIndex, conditions.get(ruleIndex), intervals);
+    }
+
+    intervalRules = new RuleIntervalTree(intervals);
+  }
+
+  /**
+   * @return the rules which match the value without expression language
+   *   evaluation (the complex rules are never contained), or <code>null</code>
+   *   if the value cannot be looked up and all rules have to be evaluated
+   */
+  public BitSet getMatchingRules(Object value) {
+    if (literalKind == null) {
+      return (BitSet) wildcardRules.clone();
+    }
+
+    Object key = normalizeValue(value);
+    if (key == null || getLiteralKind(key) != literalKind) {
+      return null;
+    }
+
+    BitSet matchingRules = (BitSet) wildcardRules.clone();
+
+    BitSet equalRules = equalityRules.get(key);
+    if (equalRules != null) {
+      matchingRules.or(equalRules);
+    }
+
+    if (literalKind == LiteralKind.NUMBER && !intervalRules.isEmpty()) {
+      intervalRules.collectMatchingRules((BigDecimal) key, matchingRules);
+    }
+
+    return matchingRules;
+  }
+
+  public BitSet getComplexRules() {
+    return complexRules;
+  }
+
+  public boolean isIndexed() {
+    return literalKind != null;
+  }
+
+  // index creation //////////////////////////////////////////////////////////
+
+  protected void indexCondition(int ruleIndex, DmnExpressionImpl condition, List<RuleInterval> intervals) {
+    String text = condition != null ? condition.getExpression() : null;
+    if (text == null || text.trim().isEmpty()) {
+      // input entries without expressions are true
+      wildcardRules.set(ruleIndex);
+      return;
+    }
+
+    if (condition.getExpressionLanguage() != null) {
+      complexRules.set(ruleIndex);
+      return;
+    }
+
+    text = text.trim();
+    if (text.equals("-")) {
+      wildcardRules.set(ruleIndex);
+      return;
+    }
+
+    List<Object> literals = new ArrayList<>();
+    List<RuleInterval> ruleIntervals = new ArrayList<>();
+    for (String unaryTest : splitUnaryTests(text)) {
+      if (!parseUnaryTest(ruleIndex, unaryTest.trim(), literals, ruleIntervals)) {
+        complexRules.set(ruleIndex);
+        return;
+      }
+    }
+
+    LiteralKind kind = ruleIntervals.isEmpty() ? null : LiteralKind.NUMBER;
+    for (Object literal : literals) {
+      LiteralKind kindOfLiteral = getLiteralKind(literal);
+      if (kind != null && kind != kindOfLiteral) {
+        complexRules.set(ruleIndex);
+        return;
+      }
+      kind = kindOfLiteral;
+    }
+
+    if (literalKind != null && literalKind != kind) {
+      // a column mixing literal kinds is evaluated by the expression language
+      complexRules.set(ruleIndex);
+      return;
+    }
+    literalKind = kind;
+
+    for (Object literal : literals) {
+      BitSet rules = equalityRules.get(literal);
+      if (rules == null) {
+        rules = new BitSet();
+        equalityRules.put(literal, rules);
+      }
+      rules.set(ruleIndex);
+    }
+    intervals.addAll(ruleIntervals);
+  }
+
+  protected boolean parseUnaryTest(int ruleIndex, String unaryTest, List<Object> literals, List<RuleInterval> intervals) {
+    Matcher matcher = STRING.matcher(unaryTest);
+    if (matcher.matches()) {
+      literals.add(matcher.group(1));
+      return true;
+    }
+
+    if (NUMBER.matcher(unaryTest).matches()) {
+      literals.add(normalizeNumber(new BigDecimal(unaryTest)));
+      return true;
+    }
+
+    if (unaryTest.equals("true") || unaryTest.equals("false")) {
+      literals.add(Boolean.valueOf(unaryTest));
+      return true;
+    }
+
+    matcher = COMPARISON.matcher(unaryTest);
+    if (matcher.matches()) {
+      String operator = matcher.group(1);
+      BigDecimal endpoint = new BigDecimal(matcher.group(2));
+      if (operator.startsWith("<")) {
+        intervals.add(new RuleInterval(ruleIndex, null, false, endpoint, operator.equals("<=")));
+      }
+      else {
+        intervals.add(new RuleInterval(ruleIndex, endpoint, operator.equals(">="), null, false));
+      }
+      return true;
+    }
+
+    matcher = INTERVAL.matcher(unaryTest);
+    if (matcher.matches()) {
+      BigDecimal low = new BigDecimal(matcher.group(2));
+      BigDecimal high = new BigDecimal(matcher.group(4));
+      boolean lowInclusive = matcher.group(1).equals("[");
+      boolean highInclusive = matcher.group(6).equals("]");
+      intervals.add(new RuleInterval(ruleIndex, low, lowInclusive, high, highInclusive));
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Splits a disjunction of unary tests at the commas outside of string literals.
+   */
+  protected List<String> splitUnaryTests(String text) {
+    List<String> unaryTests = new ArrayList<>();
+    boolean inString = false;
+    int start = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '"') {
+        inString = !inString;
+      }
+      else if (c == ',' && !inString) {
+        unaryTests.add(text.substring(start, i));
+        start = i + 1;
+      }
+    }
+    unaryTests.add(text.substring(start));
+    return unaryTests;
+  }
+
+  // values ///////////////////////////////////////////////////////////////////
+
+  protected static Object normalizeValue(Object value) {
+    if (value instanceof String || value instanceof Boolean) {
+      return value;
+    }
+    else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return normalizeNumber(BigDecimal.valueOf(((Number) value).longValue()));
+    }
+    else if (value instanceof Double || value instanceof Float) {
+      double doubleValue = ((Number) value).doubleValue();
+      if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+        return null;
+      }
+      return normalizeNumber(BigDecimal.valueOf(doubleValue));
+    }
+    else if (value instanceof BigDecimal) {
+      return normalizeNumber((BigDecimal) value);
+    }
+    else if (value instanceof BigInteger) {
+      return normalizeNumber(new BigDecimal((BigInteger) value));
+    }
+    else {
+      return null;
+    }
+  }
+
+  protected static BigDecimal normalizeNumber(BigDecimal number) {
+    if (number.signum() == 0) {
+      return BigDecimal.ZERO;
+    }
+    return number.stripTrailingZeros();
+  }
+
+  protected static LiteralKind getLiteralKind(Object literal) {
+    if (literal instanceof String) {
+      return LiteralKind.STRING;
+    }
+    else if (literal instanceof Boolean) {
+      return LiteralKind.BOOLEAN;
+    }
+    else {
+      return LiteralKind.NUMBER;
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.dmn.engine.impl.evaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cibseven.bpm.dmn.engine.impl.DmnDecisionTableImpl;
+import org.cibseven.bpm.dmn.engine.impl.DmnDecisionTableRuleImpl;
+import org.cibseven.bpm.dmn.engine.impl.DmnExpressionImpl;
+
+/**
+ * Per input indexes of the rules of a decision table, built when the decision
+ * table is transformed. The {@link DecisionTableEvaluationHandler} uses them to
+ * determine the matching rules of simple input entries without evaluating each
+ * entry by the FEEL engine.
+ */
+public class DecisionTableRuleIndex {
+
+  protected final int ruleCount;
+  protected final List<DecisionTableInputIndex> inputIndexes;
+
+  public DecisionTableRuleIndex(DmnDecisionTableImpl decisionTable) {
+    List<DmnDecisionTableRuleImpl> rules = decisionTable.getRules();
+    int inputCount = decisionTable.getInputs().size();
+
+    ruleCount = rules.size();
+    inputIndexes = new ArrayList<>(inputCount);
+
+    for (int inputIdx = 0; inputIdx < inputCount; inputIdx++) {
+      List<DmnExpressionImpl> conditions = new ArrayList<>(ruleCount);
+      for (DmnDecisionTableRuleImpl rule : rules) {
+        conditions.add(rule.getConditions().get(inputIdx));
+      }
+      inputIndexes.add(new DecisionTableInputIndex(conditions));
+    }
+  }
+
+  public int getRuleCount() {
+    return ruleCount;
+  }
+
+  public DecisionTableInputIndex getInputIndex(int inputIdx) {
+    return inputIndexes.get(inputIdx);
+  }
+
+}
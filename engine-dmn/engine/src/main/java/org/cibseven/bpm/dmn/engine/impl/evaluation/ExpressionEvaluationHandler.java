@@ -26,6 +26,7 @@ import javax.script.ScriptException;
 
 import org.cibseven.bpm.dmn.engine.impl.CachedCompiledScriptSupport;
 import org.cibseven.bpm.dmn.engine.impl.CachedExpressionSupport;
+import org.cibseven.bpm.dmn.engine.impl.CachedFeelExpressionSupport;
 import org.cibseven.bpm.dmn.engine.impl.DefaultDmnEngineConfiguration;
 import org.cibseven.bpm.dmn.engine.impl.DmnEngineLogger;
 import org.cibseven.bpm.dmn.engine.impl.DmnExpressionImpl;
@@ -33,6 +34,7 @@ import org.cibseven.bpm.dmn.engine.impl.el.VariableContextScriptBindings;
 import org.cibseven.bpm.dmn.engine.impl.spi.el.DmnScriptEngineResolver;
 import org.cibseven.bpm.dmn.engine.impl.spi.el.ElExpression;
 import org.cibseven.bpm.dmn.engine.impl.spi.el.ElProvider;
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleExpression;
 import org.cibseven.bpm.dmn.feel.impl.FeelEngine;
 import org.cibseven.bpm.engine.variable.context.VariableContext;
 import org.cibseven.commons.utils.StringUtil;
@@ -56,7 +58,7 @@ public class ExpressionEvaluationHandler {
     if (expressionText != null) {
 
       if (isFeelExpressionLanguage(expressionLanguage)) {
-        return evaluateFeelSimpleExpression(expressionText, variableContext);
+        return evaluateFeelSimpleExpression(expressionText, variableContext, expression);
 
       } else if (isElExpression(expressionLanguage)) {
         return evaluateElExpression(expressionLanguage, expressionText, variableContext, expression);
@@ -133,6 +135,26 @@ public class ExpressionEvaluationHandler {
     return feelEngine.evaluateSimpleExpression(expressionText, variableContext);
   }
 
+  protected Object evaluateFeelSimpleExpression(String expressionText, VariableContext variableContext, CachedFeelExpressionSupport cachedFeelExpressionSupport) {
+    CompiledSimpleExpression compiledExpression = cachedFeelExpressionSupport.getCachedSimpleExpression(feelEngine);
+
+    if (compiledExpression == null) {
+      synchronized (cachedFeelExpressionSupport) {
+        compiledExpression = cachedFeelExpressionSupport.getCachedSimpleExpression(feelEngine);
+        if (compiledExpression == null) {
+          compiledExpression = feelEngine.compileSimpleExpression(expressionText);
+          if (compiledExpression == null) {
+            // the FEEL engine does not support parsed expressions
+            return evaluateFeelSimpleExpression(expressionText, variableContext);
+          }
+          cachedFeelExpressionSupport.cacheSimpleExpression(feelEngine, compiledExpression);
+        }
+      }
+    }
+
+    return compiledExpression.evaluate(variableContext);
+  }
+
   // helper ///////////////////////////////////////////////////////////////////
 
   protected String getExpressionTextForLanguage(DmnExpressionImpl expression, String expressionLanguage) {
@@ -0,0 +1,233 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.dmn.engine.impl.evaluation;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static interval tree over numeric rule intervals of one decision table input.
+ * Returns the rules whose interval contains a value in O(log n + m).
+ */
+public class RuleIntervalTree {
+
+  protected final Node root;
+
+  public RuleIntervalTree(List<RuleInterval> intervals) {
+    root = intervals.isEmpty() ? null : buildNode(new ArrayList<>(intervals));
+  }
+
+  public boolean isEmpty() {
+    return root == null;
+  }
+
+  /**
+   * Sets the rule index of every interval which contains the value.
+   */
+  public void collectMatchingRules(BigDecimal value, BitSet matchingRules) {
+    Node node = root;
+    while (node != null) {
+      int comparison = value.compareTo(node.center);
+
+      if (comparison < 0) {
+        for (RuleInterval interval : node.intervalsByLow) {
+          if (interval.isLowAbove(value)) {
+            break;
+          }
+          if (interval.contains(value)) {
+            matchingRules.set(interval.getRuleIndex());
+          }
+        }
+        node = node.left;
+      }
+      else if (comparison > 0) {
+        for (RuleInterval interval : node.intervalsByHigh) {
+          if (interval.isHighBelow(value)) {
+            break;
+          }
+          if (interval.contains(value)) {
+            matchingRules.set(interval.getRuleIndex());
+          }
+        }
+        node = node.right;
+      }
+      else {
+        for (RuleInterval interval : node.intervalsByLow) {
+          if (interval.contains(value)) {
+            matchingRules.set(interval.getRuleIndex());
+          }
+        }
+        node = null;
+      }
+    }
+  }
+
+  protected Node buildNode(List<RuleInterval> intervals) {
+    BigDecimal center = selectCenter(intervals);
+
+    List<RuleInterval> leftIntervals = new ArrayList<>();
+    List<RuleInterval> rightIntervals = new ArrayList<>();
+    List<RuleInterval> centerIntervals = new ArrayList<>();
+
+    for (RuleInterval interval : intervals) {
+      if (interval.isHighBelow(center)) {
+        leftIntervals.add(interval);
+      }
+      else if (interval.isLowAbove(center)) {
+        rightIntervals.add(interval);
+      }
+      else {
+        centerIntervals.add(interval);
+      }
+    }
+
+    Node node = new Node(center);
+    if (leftIntervals.size() == intervals.size() || rightIntervals.size() == intervals.size()) {
+      // no progress (e.g. all bounds exclusive at the center), keep them in this node
+      centerIntervals = intervals;
+    }
+    else {
+      node.left = leftIntervals.isEmpty() ? null : buildNode(leftIntervals);
+      node.right = rightIntervals.isEmpty() ? null : buildNode(rightIntervals);
+    }
+
+    node.intervalsByLow = new ArrayList<>(centerIntervals);
+    Collections.sort(node.intervalsByLow, RuleInterval.LOW_COMPARATOR);
+    node.intervalsByHigh = new ArrayList<>(centerIntervals);
+    Collections.sort(node.intervalsByHigh, RuleInterval.HIGH_COMPARATOR);
+
+    return node;
+  }
+
+  protected BigDecimal selectCenter(List<RuleInterval> intervals) {
+    List<BigDecimal> endpoints = new ArrayList<>();
+    for (RuleInterval interval : intervals) {
+      if (interval.getLow() != null) {
+        endpoints.add(interval.getLow());
+      }
+      if (interval.getHigh() != null) {
+        endpoints.add(interval.getHigh());
+      }
+    }
+    Collections.sort(endpoints);
+    return endpoints.get(endpoints.size() / 2);
+  }
+
+  protected static class Node {
+
+    protected final BigDecimal center;
+    protected List<RuleInterval> intervalsByLow;
+    protected List<RuleInterval> intervalsByHigh;
+    protected Node left;
+    protected Node right;
+
+    protected Node(BigDecimal center) {
+      this.center = center;
+    }
+  }
+
+  /**
+   * A numeric interval of a rule; a <code>null</code> bound is unbounded.
+   */
+  public static class RuleInterval {
+
+    /** ascending by lower bound, unbounded and inclusive bounds first */
+    protected static final Comparator<RuleInterval> LOW_COMPARATOR = new Comparator<RuleInterval>() {
+      public int compare(RuleInterval interval, RuleInterval other) {
+        if (interval.low == null || other.low == null) {
+          return interval.low == null ? (other.low == null ? 0 : -1) : 1;
+        }
+        int comparison = interval.low.compareTo(other.low);
+        if (comparison == 0) {
+          comparison = Boolean.compare(other.lowInclusive, interval.lowInclusive);
+        }
+        return comparison;
+      }
+    };
+
+    /** descending by upper bound, unbounded and inclusive bounds first */
+    protected static final Comparator<RuleInterval> HIGH_COMPARATOR = new Comparator<RuleInterval>() {
+      public int compare(RuleInterval interval, RuleInterval other) {
+        if (interval.high == null || other.high == null) {
+          return interval.high == null ? (other.high == null ? 0 : -1) : 1;
+        }
+        int comparison = other.high.compareTo(interval.high);
+        if (comparison == 0) {
+          comparison = Boolean.compare(other.highInclusive, interval.highInclusive);
+        }
+        return comparison;
+      }
+    };
+
+    protected final int ruleIndex;
+    protected final BigDecimal low;
+    protected final boolean lowInclusive;
+    protected final BigDecimal high;
+    protected final boolean highInclusive;
+
+    public RuleInterval(int ruleIndex, BigDecimal low, boolean lowInclusive, BigDecimal high, boolean highInclusive) {
+      this.ruleIndex = ruleIndex;
+      this.low = low;
+      this.lowInclusive = lowInclusive;
+      this.high = high;
+      this.highInclusive = highInclusive;
+    }
+
+    public int getRuleIndex() {
+      return ruleIndex;
+    }
+
+    public BigDecimal getLow() {
+      return low;
+    }
+
+    public BigDecimal getHigh() {
+      return high;
+    }
+
+    public boolean contains(BigDecimal value) {
+      return !isLowAbove(value) && !isHighBelow(value);
+    }
+
+    /**
+     * @return true if all values of the interval are greater than the given value
+     */
+    public boolean isLowAbove(BigDecimal value) {
+      if (low == null) {
+        return false;
+      }
+      int comparison = low.compareTo(value);
+      return comparison > 0 || (comparison == 0 && !lowInclusive);
+    }
+
+    /**
+     * @return true if all values of the interval are less than the given value
+     */
+    public boolean isHighBelow(BigDecimal value) {
+      if (high == null) {
+        return false;
+      }
+      int comparison = high.compareTo(value);
+      return comparison < 0 || (comparison == 0 && !highInclusive);
+    }
+  }
+
+}
@@ -40,6 +40,7 @@ import org.cibseven.bpm.dmn.engine.impl.DmnDecisionTableRuleImpl;
 import org.cibseven.bpm.dmn.engine.impl.DmnExpressionImpl;
 import org.cibseven.bpm.dmn.engine.impl.DmnLogger;
 import org.cibseven.bpm.dmn.engine.impl.DmnVariableImpl;
+import org.cibseven.bpm.dmn.engine.impl.evaluation.DecisionTableRuleIndex;
 import org.cibseven.bpm.dmn.engine.impl.spi.hitpolicy.DmnHitPolicyHandlerRegistry;
 import org.cibseven.bpm.dmn.engine.impl.spi.transform.DmnElementTransformContext;
 import org.cibseven.bpm.dmn.engine.impl.spi.transform.DmnElementTransformHandler;
@@ -329,6 +330,8 @@ public class DefaultDmnTransform implements DmnTransform, DmnElementTransformCon
       }
     }
 
+    dmnDecisionTable.setRuleIndex(new DecisionTableRuleIndex(dmnDecisionTable));
+
     return dmnDecisionTable;
   }
 
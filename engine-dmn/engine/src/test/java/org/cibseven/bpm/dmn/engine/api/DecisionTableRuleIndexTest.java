@@ -0,0 +1,119 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.dmn.engine.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cibseven.bpm.dmn.engine.DmnDecisionResult;
+import org.cibseven.bpm.dmn.engine.impl.DefaultDmnEngineConfiguration;
+import org.cibseven.bpm.dmn.engine.impl.DmnDecisionTableImpl;
+import org.cibseven.bpm.dmn.engine.test.DecisionResource;
+import org.cibseven.bpm.dmn.engine.test.DmnEngineTest;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.junit.After;
+import org.junit.Test;
+
+public class DecisionTableRuleIndexTest extends DmnEngineTest {
+
+  public static final String RULE_INDEX_DMN = "DecisionTableRuleIndex.dmn";
+
+  protected static final List<String> CATEGORIES = Arrays.asList("gold", "silver", "bronze", "other");
+  protected static final List<Object> AMOUNTS = Arrays.<Object>asList(
+      0, 9, 10, 50, 51, 75, 99, 100L, 150, 200, 201, 1000, 1001, 99.5, 75.0, 9.99, -1);
+
+  @After
+  public void reset() {
+    getConfiguration().setDecisionTableRuleIndexEnabled(true);
+  }
+
+  @Test
+  @DecisionResource(resource = RULE_INDEX_DMN)
+  public void shouldBuildRuleIndexOnTransform() {
+    DmnDecisionTableImpl decisionTable = (DmnDecisionTableImpl) decision.getDecisionLogic();
+
+    assertThat(decisionTable.getRuleIndex()).isNotNull();
+    assertThat(decisionTable.getRuleIndex().getRuleCount()).isEqualTo(7);
+    assertThat(decisionTable.getRuleIndex().getInputIndex(0).isIndexed()).isTrue();
+    assertThat(decisionTable.getRuleIndex().getInputIndex(0).getComplexRules().cardinality()).isEqualTo(1);
+    assertThat(decisionTable.getRuleIndex().getInputIndex(1).isIndexed()).isTrue();
+    assertThat(decisionTable.getRuleIndex().getInputIndex(1).getComplexRules().isEmpty()).isTrue();
+  }
+
+  @Test
+  @DecisionResource(resource = RULE_INDEX_DMN)
+  public void shouldMatchEqualityAndRanges() {
+    assertThat(evaluate("gold", 150)).containsExactly("r1");
+    assertThat(evaluate("gold", 10)).containsExactly("r2");
+    assertThat(evaluate("gold", 100)).containsExactly("r1");
+    assertThat(evaluate("silver", 5)).containsExactly("r3", "r4");
+    assertThat(evaluate("silver", 99.5)).containsExactly("r4", "r6");
+    assertThat(evaluate("bronze", 50)).containsExactly("r4");
+    assertThat(evaluate("bronze", 200)).containsExactly("r4", "r5");
+    assertThat(evaluate("other", 1001)).containsExactly("r4", "r7");
+  }
+
+  @Test
+  @DecisionResource(resource = RULE_INDEX_DMN)
+  public void shouldMatchSameRulesAsWithoutIndex() {
+    for (String category : CATEGORIES) {
+      for (Object amount : AMOUNTS) {
+        getConfiguration().setDecisionTableRuleIndexEnabled(true);
+        List<String> indexedRules = evaluate(category, amount);
+
+        getConfiguration().setDecisionTableRuleIndexEnabled(false);
+        List<String> interpretedRules = evaluate(category, amount);
+
+        assertThat(indexedRules)
+          .describedAs("category %s, amount %s", category, amount)
+          .isEqualTo(interpretedRules);
+      }
+    }
+  }
+
+  @Test
+  @DecisionResource(resource = RULE_INDEX_DMN)
+  public void shouldEvaluateValuesOfOtherKindWithoutIndex() {
+    getConfiguration().setDecisionTableRuleIndexEnabled(false);
+    List<String> interpretedRules = evaluate("gold", null);
+
+    getConfiguration().setDecisionTableRuleIndexEnabled(true);
+    List<String> indexedRules = evaluate("gold", null);
+
+    assertThat(indexedRules).isEqualTo(interpretedRules);
+  }
+
+  protected List<String> evaluate(String category, Object amount) {
+    DmnDecisionResult result = dmnEngine.evaluateDecision(decision, Variables.createVariables()
+        .putValue("category", category)
+        .putValue("amount", amount));
+
+    List<String> rules = new ArrayList<>();
+    for (Object rule : result.collectEntries("rule")) {
+      rules.add((String) rule);
+    }
+    return rules;
+  }
+
+  protected DefaultDmnEngineConfiguration getConfiguration() {
+    return (DefaultDmnEngineConfiguration) dmnEngine.getConfiguration();
+  }
+
+}
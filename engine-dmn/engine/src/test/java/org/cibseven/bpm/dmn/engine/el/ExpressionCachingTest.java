@@ -16,6 +16,7 @@
  */
 package org.cibseven.bpm.dmn.engine.el;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.cibseven.bpm.engine.variable.Variables.emptyVariableContext;
 import static org.mockito.Mockito.*;
 
@@ -30,6 +31,9 @@ import org.cibseven.bpm.dmn.engine.impl.el.DefaultScriptEngineResolver;
 import org.cibseven.bpm.dmn.engine.impl.evaluation.ExpressionEvaluationHandler;
 import org.cibseven.bpm.dmn.engine.impl.spi.el.ElExpression;
 import org.cibseven.bpm.dmn.engine.impl.spi.el.ElProvider;
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleExpression;
+import org.cibseven.bpm.dmn.feel.impl.FeelEngine;
+import org.cibseven.bpm.dmn.feel.impl.scala.ScalaFeelEngineFactory;
 import org.codehaus.groovy.jsr223.GroovyScriptEngineImpl;
 import org.junit.Before;
 import org.junit.Test;
@@ -117,6 +121,38 @@ public class ExpressionCachingTest {
     inOrder.verify(elProviderSpy, times(0)).createExpression(anyString());
   }
 
+  @Test
+  public void testFeelExpressionCaching() {
+
+    // given
+    FeelEngine feelEngineSpy = spy(new ScalaFeelEngineFactory().createInstance());
+    DefaultDmnEngineConfiguration configuration = new DefaultDmnEngineConfiguration();
+    configuration.setFeelEngineFactory(() -> feelEngineSpy);
+    configuration.init();
+    expressionEvaluationHandler = new ExpressionEvaluationHandler(configuration);
+
+    DmnExpressionImpl expression = createExpression("1 > 2", "feel");
+
+    // when
+    Object result = expressionEvaluationHandler.evaluateExpression("feel", expression, emptyVariableContext());
+
+    // then
+    assertThat(result).isEqualTo(false);
+    InOrder inOrder = inOrder(expression, feelEngineSpy);
+    inOrder.verify(expression, atLeastOnce()).getCachedSimpleExpression(feelEngineSpy);
+    inOrder.verify(feelEngineSpy, times(1)).compileSimpleExpression(anyString());
+    inOrder.verify(expression, times(1)).cacheSimpleExpression(eq(feelEngineSpy), any(CompiledSimpleExpression.class));
+
+    // when (2)
+    result = expressionEvaluationHandler.evaluateExpression("feel", expression, emptyVariableContext());
+
+    // then (2)
+    assertThat(result).isEqualTo(false);
+    inOrder.verify(expression, atLeastOnce()).getCachedSimpleExpression(feelEngineSpy);
+    inOrder.verify(feelEngineSpy, times(0)).compileSimpleExpression(anyString());
+    verify(feelEngineSpy, never()).evaluateSimpleExpression(anyString(), any());
+  }
+
   private DmnExpressionImpl createExpression(String text, String language) {
     DmnExpressionImpl expression = spy(new DmnExpressionImpl());
     expression.setExpression(text);
@@ -20,8 +20,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.cibseven.bpm.dmn.engine.test.asserts.DmnEngineTestAssertions.assertThat;
 import static org.cibseven.bpm.engine.variable.Variables.createVariables;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.cibseven.bpm.dmn.engine.DmnDecisionRequirementsGraph;
 import org.cibseven.bpm.dmn.engine.DmnDecisionResult;
@@ -31,6 +33,8 @@ import org.cibseven.bpm.dmn.engine.DmnEngineException;
 import org.cibseven.bpm.dmn.engine.impl.DefaultDmnEngineConfiguration;
 import org.cibseven.bpm.dmn.engine.impl.DmnEvaluationException;
 import org.cibseven.bpm.dmn.engine.test.DmnEngineTest;
+import org.cibseven.bpm.engine.variable.context.VariableContext;
+import org.cibseven.bpm.engine.variable.value.TypedValue;
 import org.cibseven.commons.utils.IoUtil;
 import org.junit.Test;
 
@@ -334,4 +338,45 @@ public class DmnDecisionEvaluationTest extends DmnEngineTest {
       .isNotNull()
       .isEqualTo("Steak");
   }
+
+  @Test
+  public void shouldResolveOnlyAccessedVariablesOncePerEvaluation() {
+    CountingVariableContext variableContext = new CountingVariableContext(createVariables()
+      .putValue("ff", "ff")
+      .putValue("unused", "unused")
+      .asVariableContext());
+
+    DmnDecisionTableResult results = dmnEngine.evaluateDecisionTable(parseDecisionFromFile("A", DMN_SHARED_DECISIONS), variableContext);
+
+    assertThat(results)
+      .hasSingleResult()
+      .containsEntry("aa", "aa");
+    assertThat(variableContext.resolvedVariables)
+      .containsEntry("ff", 1)
+      .doesNotContainKey("unused");
+  }
+
+  protected static class CountingVariableContext implements VariableContext {
+
+    protected final VariableContext delegateContext;
+    protected final Map<String, Integer> resolvedVariables = new HashMap<>();
+
+    public CountingVariableContext(VariableContext delegateContext) {
+      this.delegateContext = delegateContext;
+    }
+
+    public TypedValue resolve(String variableName) {
+      resolvedVariables.merge(variableName, 1, Integer::sum);
+      return delegateContext.resolve(variableName);
+    }
+
+    public boolean containsVariable(String variableName) {
+      return delegateContext.containsVariable(variableName);
+    }
+
+    public Set<String> keySet() {
+      return delegateContext.keySet();
+    }
+
+  }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.dmn.feel.impl;
+
+import org.cibseven.bpm.engine.variable.context.VariableContext;
+
+/**
+ * A FEEL simple unary tests expression which was parsed once by a
+ * {@link FeelEngine} and can be evaluated repeatedly.
+ */
+public interface CompiledSimpleUnaryTests {
+
+  /**
+   * Evaluate the simple unary tests expression
+   *
+   * @param inputName the name of the variable which is tested
+   * @param variableContext the variable context are available
+   * @return the result of the simple unary tests expression
+   *
+   * @throws FeelException
+   *           if the expression cannot be parsed or evaluated
+   */
+  boolean evaluate(String inputName, VariableContext variableContext);
+
+}
@@ -49,4 +49,30 @@ public interface FeelEngine {
    */
   boolean evaluateSimpleUnaryTests(String simpleUnaryTests, String inputName, VariableContext variableContext);
 
+  /**
+   * Parse a FEEL simple expression once, so that it can be evaluated
+   * repeatedly without parsing the expression text again. A parse error is
+   * reported when the returned expression is evaluated.
+   *
+   * @param simpleExpression the simple expression to parse
+   * @return the parsed expression or <code>null</code> if the engine
+   *         does not support parsed expressions
+   */
+  default CompiledSimpleExpression compileSimpleExpression(String simpleExpression) {
+    return null;
+  }
+
+  /**
+   * Parse a FEEL simple unary tests expression once, so that it can be
+   * evaluated repeatedly without parsing the expression text again. A parse
+   * error is reported when the returned expression is evaluated.
+   *
+   * @param simpleUnaryTests the simple unary tests expression to parse
+   * @return the parsed expression or <code>null</code> if the engine
+   *         does not support parsed expressions
+   */
+  default CompiledSimpleUnaryTests compileSimpleUnaryTests(String simpleUnaryTests) {
+    return null;
+  }
+
 }
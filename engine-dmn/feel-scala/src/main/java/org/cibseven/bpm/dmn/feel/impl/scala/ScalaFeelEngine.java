@@ -16,6 +16,8 @@
  */
 package org.cibseven.bpm.dmn.feel.impl.scala;
 
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleExpression;
+import org.cibseven.bpm.dmn.feel.impl.CompiledSimpleUnaryTests;
 import org.cibseven.bpm.dmn.feel.impl.FeelEngine;
 import org.cibseven.bpm.dmn.feel.impl.scala.function.CustomFunctionTransformer;
 import org.cibseven.bpm.dmn.feel.impl.scala.function.FeelCustomFunctionProvider;
@@ -28,6 +30,7 @@ import org.camunda.feel.context.CustomContext;
 import org.camunda.feel.context.VariableProvider;
 import org.camunda.feel.context.VariableProvider.StaticVariableProvider;
 import org.camunda.feel.impl.JavaValueMapper;
+import org.camunda.feel.syntaxtree.ParsedExpression;
 import org.camunda.feel.valuemapper.CustomValueMapper;
 import org.camunda.feel.valuemapper.ValueMapper.CompositeValueMapper;
 import camundajar.impl.scala.collection.immutable.List;
@@ -62,52 +65,36 @@ public class ScalaFeelEngine implements FeelEngine {
   }
 
   public <T> T evaluateSimpleExpression(String expression, VariableContext variableContext) {
-
-    CustomContext context = new CustomContext() {
-      public VariableProvider variableProvider() {
-        return new ContextVariableWrapper(variableContext);
-      }
-    };
-
-    Either either = feelEngine.evalExpression(expression, context);
-
-    if (either instanceof Right) {
-      Right right = (Right) either;
-
-      return (T) right.value();
-
-    } else {
-      Left left = (Left) either;
-      Failure failure = (Failure) left.value();
-      String message = failure.message();
-
-      throw LOGGER.evaluationException(message);
-
-    }
+    return compileSimpleExpression(expression).evaluate(variableContext);
   }
 
   public boolean evaluateSimpleUnaryTests(String expression,
                                           String inputVariable,
                                           VariableContext variableContext) {
-    Map inputVariableMap = new Map.Map1(INPUT_VARIABLE_NAME, inputVariable);
-
-    StaticVariableProvider inputVariableContext = new StaticVariableProvider(inputVariableMap);
+    return compileSimpleUnaryTests(expression).evaluate(inputVariable, variableContext);
+  }
 
-    ContextVariableWrapper contextVariableWrapper = new ContextVariableWrapper(variableContext);
+  @Override
+  public CompiledSimpleExpression compileSimpleExpression(String expression) {
+    return new ParsedSimpleExpression(feelEngine.parseExpression(expression));
+  }
 
-    CustomContext context = new CustomContext() {
-      public VariableProvider variableProvider() {
-        return new CompositeVariableProvider(toScalaList(inputVariableContext, contextVariableWrapper));
-      }
-    };
+  @Override
+  public CompiledSimpleUnaryTests compileSimpleUnaryTests(String expression) {
+    return new ParsedSimpleUnaryTests(feelEngine.parseUnaryTests(expression));
+  }
 
-    Either either = feelEngine.evalUnaryTests(expression, context);
+  protected Object evaluate(Either parseResult, CustomContext context) {
+    Either either = parseResult;
+    if (parseResult instanceof Right) {
+      ParsedExpression parsedExpression = (ParsedExpression) ((Right) parseResult).value();
+      either = feelEngine.eval(parsedExpression, context);
+    }
 
     if (either instanceof Right) {
       Right right = (Right) either;
-      Object value = right.value();
 
-      return BoxesRunTime.unboxToBoolean(value);
+      return right.value();
 
     } else {
       Left left = (Left) either;
@@ -154,5 +141,53 @@ public class ScalaFeelEngine implements FeelEngine {
       .build();
   }
 
-}
+  protected class ParsedSimpleExpression implements CompiledSimpleExpression {
+
+    protected final Either parseResult;
 
+    public ParsedSimpleExpression(Either parseResult) {
+      this.parseResult = parseResult;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T evaluate(VariableContext variableContext) {
+      CustomContext context = new CustomContext() {
+        public VariableProvider variableProvider() {
+          return new ContextVariableWrapper(variableContext);
+        }
+      };
+
+      return (T) ScalaFeelEngine.this.evaluate(parseResult, context);
+    }
+
+  }
+
+  protected class ParsedSimpleUnaryTests implements CompiledSimpleUnaryTests {
+
+    protected final Either parseResult;
+
+    public ParsedSimpleUnaryTests(Either parseResult) {
+      this.parseResult = parseResult;
+    }
+
+    public boolean evaluate(String inputVariable, VariableContext variableContext) {
+      Map inputVariableMap = new Map.Map1(INPUT_VARIABLE_NAME, inputVariable);
+
+      StaticVariableProvider inputVariableContext = new StaticVariableProvider(inputVariableMap);
+
+      ContextVariableWrapper contextVariableWrapper = new ContextVariableWrapper(variableContext);
+
+      CustomContext context = new CustomContext() {
+        public VariableProvider variableProvider() {
+          return new CompositeVariableProvider(toScalaList(inputVariableContext, contextVariableWrapper));
+        }
+      };
+
+      Object value = ScalaFeelEngine.this.evaluate(parseResult, context);
+
+      return BoxesRunTime.unboxToBoolean(value);
+    }
+
+  }
+
+}
@@ -21,6 +21,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.ServletContext;
@@ -44,6 +46,15 @@ import org.cibseven.bpm.engine.rest.util.EngineUtil;
 
 
 /**
+ * Handles long polling fetch and lock requests.
+ *
+ * <p>The pending requests are distributed to a configurable number of handler
+ * shards (servlet context parameter <code>fetch-and-lock-handler-shards</code>,
+ * default 1) by the hash of their worker id. Every shard has its own queue,
+ * pending requests, condition and thread, so that a slow fetch only delays the
+ * requests of its own shard. This handler is shard 0; the additional shards are
+ * instances of this class as well.</p>
+ *
  * @author Tassilo Weidner
  */
 public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
@@ -52,11 +63,13 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
 
   protected static final String UNIQUE_WORKER_REQUEST_PARAM_NAME = "fetch-and-lock-unique-worker-request";
   protected static final String BLOCKING_QUEUE_CAPACITY_PARAM_NAME = "fetch-and-lock-queue-capacity";
+  protected static final String HANDLER_SHARDS_PARAM_NAME = "fetch-and-lock-handler-shards";
 
   protected static final long PENDING_REQUEST_FETCH_INTERVAL = 30L * 1000;
   protected static final long MAX_BACK_OFF_TIME = Long.MAX_VALUE;
   protected static final long MAX_REQUEST_TIMEOUT = 1800000; // 30 minutes
   protected static final int DEFAULT_BLOCKING_QUEUE_CAPACITY = 200;
+  protected static final int DEFAULT_HANDLER_SHARDS = 1;
 
   protected SingleConsumerCondition condition;
 
@@ -64,13 +77,36 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
   protected List<FetchAndLockRequest> pendingRequests = new ArrayList<>();
   protected List<FetchAndLockRequest> newRequests = new ArrayList<>();
 
-  protected Thread handlerThread = new Thread(this, this.getClass().getSimpleName());
+  protected Thread handlerThread;
 
   protected volatile boolean isRunning = false;
 
   protected boolean isUniqueWorkerRequest = false;
 
+  protected int shardIndex;
+
+  /**
+   * The additional shards 1 to n-1; always empty for the additional shards themselves.
+   */
+  protected List<FetchAndLockHandlerImpl> shards = new ArrayList<>();
+
+  protected final AtomicLong acquisitionCount = new AtomicLong();
+  protected final AtomicLong totalAcquisitionTime = new AtomicLong();
+  protected volatile long lastAcquisitionTime = 0;
+  protected volatile long maxAcquisitionTime = 0;
+
   public FetchAndLockHandlerImpl() {
+    this(0);
+  }
+
+  protected FetchAndLockHandlerImpl(int shardIndex) {
+    this.shardIndex = shardIndex;
+
+    String threadName = this.getClass().getSimpleName();
+    if (shardIndex > 0) {
+      threadName += "-" + shardIndex;
+    }
+    this.handlerThread = new Thread(this, threadName);
     this.condition = new SingleConsumerCondition(handlerThread);
   }
 
@@ -105,6 +141,7 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     LOG.log(Level.FINEST, "Number of pending requests {0}", pendingRequests.size());
 
     long backoffTime = MAX_BACK_OFF_TIME; //timestamp
+    long acquisitionStart = System.nanoTime();
 
     Iterator<FetchAndLockRequest> iterator = pendingRequests.iterator();
     while (iterator.hasNext()) {
@@ -145,6 +182,8 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
       }
     }
 
+    recordAcquisitionTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - acquisitionStart));
+
     final long waitTime = Math.max(0, backoffTime);
 
     if (pendingRequests.isEmpty()) {
@@ -187,10 +226,18 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     }
 
     ProcessEngineImpl.EXT_TASK_CONDITIONS.addConsumer(condition);
+
+    for (FetchAndLockHandlerImpl shard : shards) {
+      shard.start();
+    }
   }
 
   @Override
   public void shutdown() {
+    for (FetchAndLockHandlerImpl shard : shards) {
+      shard.shutdown();
+    }
+
     try {
       ProcessEngineImpl.EXT_TASK_CONDITIONS.removeConsumer(condition);
     }
@@ -230,6 +277,12 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
   }
 
   protected void addRequest(FetchAndLockRequest request) {
+    FetchAndLockHandlerImpl shard = selectShard(request);
+    if (shard != this) {
+      shard.addRequest(request);
+      return;
+    }
+
     if (!queue.offer(request)) {
       AsyncResponse asyncResponse = request.getAsyncResponse();
       errorTooManyRequests(asyncResponse);
@@ -238,6 +291,33 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     condition.signal();
   }
 
+  /**
+   * Requests of the same worker are always handled by the same shard, so that
+   * unique worker requests can be detected within a shard.
+   */
+  protected FetchAndLockHandlerImpl selectShard(FetchAndLockRequest request) {
+    if (shards.isEmpty()) {
+      return this;
+    }
+
+    String workerId = request.getDto().getWorkerId();
+    int hash = workerId != null ? workerId.hashCode() : 0;
+    int index = Math.floorMod(hash, shards.size() + 1);
+
+    return index == 0 ? this : shards.get(index - 1);
+  }
+
+  protected void recordAcquisitionTime(long millis) {
+    acquisitionCount.incrementAndGet();
+    totalAcquisitionTime.addAndGet(millis);
+    lastAcquisitionTime = millis;
+    if (millis > maxAcquisitionTime) {
+      maxAcquisitionTime = millis;
+    }
+
+    LOG.log(Level.FINEST, "Acquisition of shard {0} took {1}ms", new Object[] { shardIndex, millis });
+  }
+
   protected FetchAndLockResult tryFetchAndLock(FetchAndLockRequest request) {
 
     ProcessEngine processEngine = null;
@@ -344,6 +424,7 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
   public void contextInitialized(ServletContextEvent servletContextEvent) {
     ServletContext servletContext;
     int queueCapacity = DEFAULT_BLOCKING_QUEUE_CAPACITY;
+    int shardCount = DEFAULT_HANDLER_SHARDS;
 
     if (servletContextEvent != null) {
       servletContext = servletContextEvent.getServletContext();
@@ -351,10 +432,28 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
       if (servletContext != null) {
         parseUniqueWorkerRequestParam(servletContext.getInitParameter(UNIQUE_WORKER_REQUEST_PARAM_NAME));
         queueCapacity = parseBlockingQueueCapacityParam(servletContext.getInitParameter(BLOCKING_QUEUE_CAPACITY_PARAM_NAME));
+        shardCount = parseHandlerShardsParam(servletContext.getInitParameter(HANDLER_SHARDS_PARAM_NAME));
       }
     }
 
     initializeQueue(queueCapacity);
+    initializeShards(shardCount, queueCapacity);
+  }
+
+  protected void initializeShards(int shardCount, int queueCapacity) {
+    LOG.log(Level.FINEST, "Initializing {0} handler shards", shardCount);
+
+    shards = new ArrayList<>();
+    for (int i = 1; i < shardCount; i++) {
+      FetchAndLockHandlerImpl shard = createShard(i);
+      shard.isUniqueWorkerRequest = isUniqueWorkerRequest;
+      shard.initializeQueue(queueCapacity);
+      shards.add(shard);
+    }
+  }
+
+  protected FetchAndLockHandlerImpl createShard(int shardIndex) {
+    return new FetchAndLockHandlerImpl(shardIndex);
   }
 
   protected void parseUniqueWorkerRequestParam(String uniqueWorkerRequestParam) {
@@ -386,7 +485,53 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     return capacity;
   }
 
+  private static int parseHandlerShardsParam(String handlerShardsParam) {
+    int shardCount = DEFAULT_HANDLER_SHARDS;
+    if (handlerShardsParam != null) {
+      try {
+        final int parsedShardCount = Integer.parseInt(handlerShardsParam);
+        if (parsedShardCount <= 0) {
+          throw new NumberFormatException("Parameter " + HANDLER_SHARDS_PARAM_NAME + " has to be greater than zero");
+        }
+        shardCount = parsedShardCount;
+      } catch (NumberFormatException e) {
+        LOG.log(Level.WARNING, "Invalid handler shards parameter: [" + handlerShardsParam + "], falling back to default value", e);
+      }
+    }
+    return shardCount;
+  }
+
   public List<FetchAndLockRequest> getPendingRequests() {
     return pendingRequests;
   }
+
+  public List<FetchAndLockHandlerImpl> getShards() {
+    return shards;
+  }
+
+  /**
+   * @return the statistics of this handler followed by the statistics of the additional shards
+   */
+  public List<FetchAndLockShardStatistics> getShardStatistics() {
+    List<FetchAndLockShardStatistics> statistics = new ArrayList<>();
+    statistics.add(getStatistics());
+    for (FetchAndLockHandlerImpl shard : shards) {
+      statistics.add(shard.getStatistics());
+    }
+    return statistics;
+  }
+
+  protected FetchAndLockShardStatistics getStatistics() {
+    long acquisitions = acquisitionCount.get();
+    long averageAcquisitionTime = acquisitions > 0 ? totalAcquisitionTime.get() / acquisitions : 0;
+
+    return new FetchAndLockShardStatistics(
+        shardIndex,
+        queue != null ? queue.size() : 0,
+        pendingRequests.size(),
+        acquisitions,
+        lastAcquisitionTime,
+        averageAcquisitionTime,
+        maxAcquisitionTime);
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.rest.impl;
+
+/**
+ * Snapshot of the queue depth and the acquisition times of one shard of the
+ * {@link FetchAndLockHandlerImpl}. Times are in milliseconds; an acquisition
+ * fetches all pending requests of the shard once.
+ */
+public class FetchAndLockShardStatistics {
+
+  protected int shardIndex;
+  protected int queueDepth;
+  protected int pendingRequests;
+  protected long acquisitionCount;
+  protected long lastAcquisitionTime;
+  protected long averageAcquisitionTime;
+  protected long maxAcquisitionTime;
+
+  public FetchAndLockShardStatistics(int shardIndex, int queueDepth, int pendingRequests, long acquisitionCount,
+      long lastAcquisitionTime, long averageAcquisitionTime, long maxAcquisitionTime) {
+    this.shardIndex = shardIndex;
+    this.queueDepth = queueDepth;
+    this.pendingRequests = pendingRequests;
+    this.acquisitionCount = acquisitionCount;
+    this.lastAcquisitionTime = lastAcquisitionTime;
+    this.averageAcquisitionTime = averageAcquisitionTime;
+    this.maxAcquisitionTime = maxAcquisitionTime;
+  }
+
+  public int getShardIndex() {
+    return shardIndex;
+  }
+
+  /**
+   * @return the number of new requests that were not yet taken over by the shard thread
+   */
+  public int getQueueDepth() {
+    return queueDepth;
+  }
+
+  public int getPendingRequests() {
+    return pendingRequests;
+  }
+
+  public long getAcquisitionCount() {
+    return acquisitionCount;
+  }
+
+  public long getLastAcquisitionTime() {
+    return lastAcquisitionTime;
+  }
+
+  public long getAverageAcquisitionTime() {
+    return averageAcquisitionTime;
+  }
+
+  public long getMaxAcquisitionTime() {
+    return maxAcquisitionTime;
+  }
+
+  @Override
+  public String toString() {
+    return "FetchAndLockShardStatistics [shardIndex=" + shardIndex
+        + ", queueDepth=" + queueDepth
+        + ", pendingRequests=" + pendingRequests
+        + ", acquisitionCount=" + acquisitionCount
+        + ", lastAcquisitionTime=" + lastAcquisitionTime
+        + ", averageAcquisitionTime=" + averageAcquisitionTime
+        + ", maxAcquisitionTime=" + maxAcquisitionTime + "]";
+  }
+
+}
@@ -18,6 +18,7 @@ package org.cibseven.bpm.engine.rest.impl;
 
 import static org.cibseven.bpm.engine.rest.impl.FetchAndLockHandlerImpl.BLOCKING_QUEUE_CAPACITY_PARAM_NAME;
 import static org.cibseven.bpm.engine.rest.impl.FetchAndLockHandlerImpl.DEFAULT_BLOCKING_QUEUE_CAPACITY;
+import static org.cibseven.bpm.engine.rest.impl.FetchAndLockHandlerImpl.HANDLER_SHARDS_PARAM_NAME;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -491,6 +492,72 @@ public class FetchAndLockHandlerTest {
     assertThat(handler.queue.remainingCapacity(), is(DEFAULT_BLOCKING_QUEUE_CAPACITY));
   }
 
+  @Test
+  public void shouldInitialiseShardsWithSpecifiedParam() {
+    // given
+    when(servletContext.getInitParameter(HANDLER_SHARDS_PARAM_NAME)).then(invocation -> "3");
+
+    // when
+    handler.contextInitialized(servletContextEvent);
+
+    // then
+    assertThat(handler.getShards().size(), is(2));
+    assertThat(handler.getShards().get(0).queue.remainingCapacity(), is(DEFAULT_BLOCKING_QUEUE_CAPACITY));
+    assertThat(handler.getShardStatistics().size(), is(3));
+  }
+
+  @Test
+  public void shouldInitialiseNoShardsIfInvalidParam() {
+    // given
+    when(servletContext.getInitParameter(HANDLER_SHARDS_PARAM_NAME)).then(invocation -> "0");
+
+    // when
+    handler.contextInitialized(servletContextEvent);
+
+    // then
+    assertThat(handler.getShards().size(), is(0));
+  }
+
+  @Test
+  public void shouldDistributeRequestsToShardsByWorkerId() {
+    // given
+    when(servletContext.getInitParameter(HANDLER_SHARDS_PARAM_NAME)).then(invocation -> "2");
+    handler.contextInitialized(servletContextEvent);
+    when(externalTaskQueryTopicBuilder.execute()).thenReturn(Collections.emptyList());
+
+    // when
+    handler.addPendingRequest(createDto(5000L, "worker1"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "worker1"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "worker2"), mock(AsyncResponse.class), processEngine);
+
+    // then
+    FetchAndLockHandlerImpl shard = handler.getShards().get(0);
+    assertThat(handler.queue.size(), is(1));
+    assertThat(shard.queue.size(), is(2));
+
+    List<FetchAndLockShardStatistics> statistics = handler.getShardStatistics();
+    assertThat(statistics.get(0).getQueueDepth(), is(1));
+    assertThat(statistics.get(1).getShardIndex(), is(1));
+    assertThat(statistics.get(1).getQueueDepth(), is(2));
+  }
+
+  @Test
+  public void shouldRecordAcquisitionStatistics() {
+    // given
+    when(externalTaskQueryTopicBuilder.execute()).thenReturn(Collections.emptyList());
+    handler.addPendingRequest(createDto(5000L), mock(AsyncResponse.class), processEngine);
+
+    // when
+    handler.acquire();
+    handler.acquire();
+
+    // then
+    FetchAndLockShardStatistics statistics = handler.getShardStatistics().get(0);
+    assertThat(statistics.getAcquisitionCount(), is(2L));
+    assertThat(statistics.getPendingRequests(), is(1));
+    assertThat(statistics.getQueueDepth(), is(0));
+  }
+
   protected FetchExternalTasksExtendedDto createDto(Long responseTimeout, String workerId) {
     FetchExternalTasksExtendedDto externalTask = new FetchExternalTasksExtendedDto();
 
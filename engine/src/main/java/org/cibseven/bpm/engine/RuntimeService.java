@@ -37,6 +37,7 @@ import org.cibseven.bpm.engine.migration.MigrationPlanExecutionBuilder;
 import org.cibseven.bpm.engine.repository.Deployment;
 import org.cibseven.bpm.engine.repository.ProcessDefinition;
 import org.cibseven.bpm.engine.runtime.ActivityInstance;
+import org.cibseven.bpm.engine.runtime.BulkMessageCorrelationBuilder;
 import org.cibseven.bpm.engine.runtime.ConditionEvaluationBuilder;
 import org.cibseven.bpm.engine.runtime.EventSubscriptionQuery;
 import org.cibseven.bpm.engine.runtime.Execution;
@@ -2234,6 +2235,15 @@ public interface RuntimeService {
    */
   MessageCorrelationAsyncBuilder createMessageCorrelationAsync(String messageName);
 
+  /**
+   * Define the correlation of many messages using a fluent builder. The
+   * messages are grouped into few transactions and the subscriptions of the
+   * messages of one transaction are looked up together.
+   *
+   * @return the fluent builder for defining the bulk message correlation.
+   */
+  BulkMessageCorrelationBuilder createBulkMessageCorrelation();
+
   /**
    * Define a modification of a process instance in terms of activity cancellations
    * and instantiations via a fluent builder. Instructions are executed in the order they are specified.
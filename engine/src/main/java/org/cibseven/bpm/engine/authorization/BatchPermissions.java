@@ -98,7 +98,10 @@ public enum BatchPermissions implements Permission {
   CREATE_BATCH_CORRELATE_MESSAGE("CREATE_BATCH_CORRELATE_MESSAGE", 262_144),
 
   /** Indicates that CREATE_BATCH_DELETE_DEPLOYMENTS interactions are permitted */
-  CREATE_BATCH_DELETE_DEPLOYMENTS("CREATE_BATCH_DELETE_DEPLOYMENTS", 524_288);
+  CREATE_BATCH_DELETE_DEPLOYMENTS("CREATE_BATCH_DELETE_DEPLOYMENTS", 524_288),
+
+  /** Indicates that CREATE_BATCH_SIGNAL_EVENT interactions are permitted */
+  CREATE_BATCH_SIGNAL_EVENT("CREATE_BATCH_SIGNAL_EVENT", 1_048_576);
 
   protected static final Resource[] RESOURCES = new Resource[] { Resources.BATCH };
 
@@ -52,6 +52,7 @@ public interface Batch {
   String TYPE_SET_VARIABLES = "set-variables";
   String TYPE_CORRELATE_MESSAGE = "correlate-message";
   String TYPE_DEPLOYMENT_DELETION = "deployment-deletion";
+  String TYPE_SIGNAL_EVENT = "signal-event";
 
   /**
    * @return the id of the batch
@@ -16,6 +16,7 @@
  */
 package org.cibseven.bpm.engine.dmn;
 
+import java.util.List;
 import java.util.Map;
 
 import org.cibseven.bpm.dmn.engine.DmnDecisionTableResult;
@@ -73,4 +74,31 @@ public interface DecisionEvaluationBuilder {
    */
   DmnDecisionTableResult evaluate();
 
+  /**
+   * Evaluates the decision once for each of the given input values. The
+   * decision definition is resolved and authorized only once and all
+   * evaluations are executed in a single transaction, so that their history
+   * is written together. Input values set by {@link #variables(Map)} are
+   * ignored.
+   *
+   * <p>All history of the evaluations is kept in memory until the
+   * transaction is committed, so very large inputs should be split into
+   * chunks.</p>
+   *
+   * @param variablesList the input values of the evaluations
+   *
+   * @return the results of the evaluations, in the order of the given input values.
+   *
+   * @throws NotFoundException
+   *           when no decision definition is deployed with the given id / key.
+   *
+   * @throws NotValidException
+   *           when the given decision definition id / key or the list of input values is null.
+   *
+   * @throws AuthorizationException
+   *           if the user has no {@link Permissions#CREATE_INSTANCE} permission
+   *           on {@link Resources#DECISION_DEFINITION}.
+   */
+  List<DmnDecisionTableResult> evaluateAll(List<? extends Map<String, Object>> variablesList);
+
 }
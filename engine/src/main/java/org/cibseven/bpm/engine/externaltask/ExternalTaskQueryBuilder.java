@@ -17,6 +17,7 @@
 package org.cibseven.bpm.engine.externaltask;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Thorben Lindhauer
@@ -43,4 +44,22 @@ public interface ExternalTaskQueryBuilder {
    *   successfully locked
    */
   List<LockedExternalTask> execute();
+
+  /**
+   * Performs the fetching like {@link #execute()}. If no task can be locked,
+   * the request waits until tasks of one of the given topics become available
+   * or the timeout expires (long polling). Waiting requests do not block the
+   * calling thread and are only fetched again when tasks of one of their topics
+   * are created or unlocked, or periodically to find tasks whose lock expired.
+   *
+   * <p>The returned future is completed by a background thread of the process
+   * engine. Dependent actions should use the asynchronous methods of
+   * {@link CompletableFuture} if they take long.</p>
+   *
+   * @param timeout the maximum time in milliseconds to wait for tasks;
+   *   <code>0</code> returns immediately like {@link #execute()}
+   * @return a future that completes with the fetched and locked tasks, with an
+   *   empty list if the timeout expired, or exceptionally if fetching failed
+   */
+  CompletableFuture<List<LockedExternalTask>> asyncResponse(long timeout);
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl;
+
+import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureNotEmpty;
+import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensurePositive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cibseven.bpm.engine.exception.NotValidException;
+import org.cibseven.bpm.engine.impl.cmd.CorrelateMessagesCmd;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.runtime.BulkMessageCorrelationResultImpl;
+import org.cibseven.bpm.engine.runtime.BulkMessageCorrelationBuilder;
+import org.cibseven.bpm.engine.runtime.BulkMessageCorrelationResult;
+import org.cibseven.bpm.engine.runtime.MessageCorrelationBuilder;
+
+public class BulkMessageCorrelationBuilderImpl implements BulkMessageCorrelationBuilder {
+
+  protected CommandExecutor commandExecutor;
+
+  protected List<MessageCorrelationBuilderImpl> messageCorrelations = new ArrayList<>();
+  protected int transactionSize = DEFAULT_TRANSACTION_SIZE;
+
+  public BulkMessageCorrelationBuilderImpl(CommandExecutor commandExecutor) {
+    ensureNotNull("commandExecutor", commandExecutor);
+    this.commandExecutor = commandExecutor;
+  }
+
+  @Override
+  public BulkMessageCorrelationBuilder message(MessageCorrelationBuilder messageCorrelation) {
+    ensureNotNull("messageCorrelation", messageCorrelation);
+    MessageCorrelationBuilderImpl builder = (MessageCorrelationBuilderImpl) messageCorrelation;
+
+    if (builder.isStartMessagesOnly()) {
+      builder.ensureCorrelationVariablesNotSet();
+      builder.ensureProcessDefinitionAndTenantIdNotSet();
+    } else {
+      builder.ensureProcessDefinitionIdNotSet();
+      builder.ensureProcessInstanceAndTenantIdNotSet();
+    }
+
+    messageCorrelations.add(builder);
+    return this;
+  }
+
+  @Override
+  public BulkMessageCorrelationBuilder messages(List<MessageCorrelationBuilder> messageCorrelations) {
+    ensureNotNull("messageCorrelations", messageCorrelations);
+    for (MessageCorrelationBuilder messageCorrelation : messageCorrelations) {
+      message(messageCorrelation);
+    }
+    return this;
+  }
+
+  @Override
+  public BulkMessageCorrelationBuilder transactionSize(int transactionSize) {
+    ensurePositive(NotValidException.class, "transactionSize", (long) transactionSize);
+    this.transactionSize = transactionSize;
+    return this;
+  }
+
+  @Override
+  public List<BulkMessageCorrelationResult> correlate() {
+    ensureNotEmpty(NotValidException.class, "messageCorrelations", messageCorrelations);
+
+    List<BulkMessageCorrelationResult> results = new ArrayList<>(messageCorrelations.size());
+    int endOfFailedTransaction = 0;
+
+    while (results.size() < messageCorrelations.size()) {
+      List<MessageCorrelationBuilderImpl> remaining = messageCorrelations.subList(results.size(), messageCorrelations.size());
+      int size = results.size() < endOfFailedTransaction ? 1 : transactionSize;
+
+      try {
+        // each invocation correlates at least one message
+        results.addAll(commandExecutor.execute(new CorrelateMessagesCmd(remaining, size)));
+      }
+      catch (RuntimeException e) {
+        if (size == 1) {
+          results.add(BulkMessageCorrelationResultImpl.failed(remaining.get(0).getMessageName(), e));
+        }
+        else {
+          // the failing message is not known, so the messages of the transaction are retried one by one
+          endOfFailedTransaction = results.size() + size;
+        }
+      }
+    }
+    return results;
+  }
+
+}
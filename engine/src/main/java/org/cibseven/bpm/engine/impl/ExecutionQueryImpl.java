@@ -16,10 +16,12 @@
  */
 package org.cibseven.bpm.engine.impl;
 
+import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureNotEmpty;
 import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.cibseven.bpm.engine.impl.event.EventType;
 
 import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
@@ -44,6 +46,7 @@ public class ExecutionQueryImpl extends AbstractVariableQueryImpl<ExecutionQuery
   protected String activityId;
   protected String executionId;
   protected String processInstanceId;
+  protected Set<String> processInstanceIds;
   protected List<EventSubscriptionQueryValue> eventSubscriptions;
   protected SuspensionState suspensionState;
   protected String incidentType;
@@ -79,6 +82,17 @@ public class ExecutionQueryImpl extends AbstractVariableQueryImpl<ExecutionQuery
     return this;
   }
 
+  /**
+   * Only select executions of the process instances with the given ids.
+   * Used internally, e.g. to restrict message correlation to the candidates
+   * of the correlation key index.
+   */
+  public ExecutionQueryImpl processInstanceIds(Set<String> processInstanceIds) {
+    ensureNotEmpty("Set of process instance ids", processInstanceIds);
+    this.processInstanceIds = processInstanceIds;
+    return this;
+  }
+
   public ExecutionQuery processInstanceBusinessKey(String businessKey) {
     ensureNotNull("Business key", businessKey);
     this.businessKey = businessKey;
@@ -243,8 +257,8 @@ public class ExecutionQueryImpl extends AbstractVariableQueryImpl<ExecutionQuery
     return processInstanceId;
   }
 
-  public String getProcessInstanceIds() {
-    return null;
+  public Set<String> getProcessInstanceIds() {
+    return processInstanceIds;
   }
 
   public String getBusinessKey() {
@@ -36,6 +36,7 @@ import org.cibseven.bpm.engine.impl.cmd.SetExternalTaskPriorityCmd;
 import org.cibseven.bpm.engine.impl.cmd.SetExternalTaskRetriesCmd;
 import org.cibseven.bpm.engine.impl.cmd.UnlockExternalTaskCmd;
 import org.cibseven.bpm.engine.impl.cmd.UpdateExternalTaskRetriesBuilderImpl;
+import org.cibseven.bpm.engine.impl.externaltask.ExternalTaskLongPollingRegistry;
 import org.cibseven.bpm.engine.impl.externaltask.ExternalTaskQueryTopicBuilderImpl;
 
 /**
@@ -45,6 +46,16 @@ import org.cibseven.bpm.engine.impl.externaltask.ExternalTaskQueryTopicBuilderIm
  */
 public class ExternalTaskServiceImpl extends ServiceImpl implements ExternalTaskService {
 
+  protected ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry;
+
+  public ExternalTaskLongPollingRegistry getExternalTaskLongPollingRegistry() {
+    return externalTaskLongPollingRegistry;
+  }
+
+  public void setExternalTaskLongPollingRegistry(ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry) {
+    this.externalTaskLongPollingRegistry = externalTaskLongPollingRegistry;
+  }
+
   @Override
   public ExternalTaskQueryBuilder fetchAndLock(int maxTasks, String workerId) {
     return fetchAndLock(maxTasks, workerId, false);
@@ -52,12 +63,14 @@ public class ExternalTaskServiceImpl extends ServiceImpl implements ExternalTask
 
   @Override
   public ExternalTaskQueryBuilder fetchAndLock(int maxTasks, String workerId, boolean usePriority) {
-    return new ExternalTaskQueryTopicBuilderImpl(commandExecutor, workerId, maxTasks, usePriority);
+    return new ExternalTaskQueryTopicBuilderImpl(commandExecutor, workerId, maxTasks, usePriority)
+        .setExternalTaskLongPollingRegistry(externalTaskLongPollingRegistry);
   }
 
   @Override
   public FetchAndLockBuilder fetchAndLock() {
-    return new FetchAndLockBuilderImpl(commandExecutor);
+    return new FetchAndLockBuilderImpl(commandExecutor)
+        .setExternalTaskLongPollingRegistry(externalTaskLongPollingRegistry);
   }
 
   @Override
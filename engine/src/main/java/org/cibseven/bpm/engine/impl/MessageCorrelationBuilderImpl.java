@@ -411,4 +411,8 @@ public class MessageCorrelationBuilderImpl implements MessageCorrelationBuilder
     return executionsOnly;
   }
 
+  public boolean isStartMessagesOnly() {
+    return startMessagesOnly;
+  }
+
 }
@@ -35,12 +35,16 @@ import org.cibseven.bpm.engine.RuntimeService;
 import org.cibseven.bpm.engine.TaskService;
 import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.cibseven.bpm.engine.impl.cfg.TransactionContextFactory;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationService;
 import org.cibseven.bpm.engine.impl.el.ExpressionManager;
+import org.cibseven.bpm.engine.impl.externaltask.ExternalTaskLongPollingRegistry;
+import org.cibseven.bpm.engine.impl.history.HistoryEventOutboxWriter;
 import org.cibseven.bpm.engine.impl.history.HistoryLevel;
 import org.cibseven.bpm.engine.impl.history.event.SimpleIpBasedProvider;
 import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
 import org.cibseven.bpm.engine.impl.interceptor.SessionFactory;
 import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.cibseven.bpm.engine.impl.runtime.CorrelationKeyIndexer;
 import org.cibseven.bpm.engine.impl.metrics.reporter.DbMetricsReporter;
 import org.cibseven.bpm.engine.impl.util.CompositeCondition;
 
@@ -120,6 +124,22 @@ public class ProcessEngineImpl implements ProcessEngine {
       jobExecutor.registerProcessEngine(this);
     }
 
+    ClusterNotificationService clusterNotificationService = processEngineConfiguration.getClusterNotificationService();
+    if (clusterNotificationService != null) {
+      clusterNotificationService.start(processEngineConfiguration);
+    }
+
+    HistoryEventOutboxWriter historyEventOutboxWriter = processEngineConfiguration.getHistoryEventOutboxWriter();
+    if (historyEventOutboxWriter != null && processEngineConfiguration.isAsyncDbHistoryWriterActivate()) {
+      historyEventOutboxWriter.start();
+    }
+
+    CorrelationKeyIndexer correlationKeyIndexer = processEngineConfiguration.getCorrelationKeyIndexer();
+    if (correlationKeyIndexer != null) {
+      // indexes the correlation key variables that were written before their names were configured
+      correlationKeyIndexer.start();
+    }
+
     if (processEngineConfiguration.isMetricsEnabled()) {
       String reporterId;
       // only use a deprecated, custom MetricsReporterIdProvider,
@@ -168,6 +188,26 @@ public class ProcessEngineImpl implements ProcessEngine {
       jobExecutor.unregisterProcessEngine(this);
     }
 
+    ClusterNotificationService clusterNotificationService = processEngineConfiguration.getClusterNotificationService();
+    if (clusterNotificationService != null) {
+      clusterNotificationService.stop();
+    }
+
+    HistoryEventOutboxWriter historyEventOutboxWriter = processEngineConfiguration.getHistoryEventOutboxWriter();
+    if (historyEventOutboxWriter != null) {
+      historyEventOutboxWriter.stop();
+    }
+
+    CorrelationKeyIndexer correlationKeyIndexer = processEngineConfiguration.getCorrelationKeyIndexer();
+    if (correlationKeyIndexer != null) {
+      correlationKeyIndexer.stop();
+    }
+
+    ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry = processEngineConfiguration.getExternalTaskLongPollingRegistry();
+    if (externalTaskLongPollingRegistry != null) {
+      externalTaskLongPollingRegistry.close();
+    }
+
     commandExecutorSchemaOperations.execute(new SchemaOperationProcessEngineClose());
 
     processEngineConfiguration.close();
@@ -55,6 +55,7 @@ import org.cibseven.bpm.engine.migration.MigrationPlan;
 import org.cibseven.bpm.engine.migration.MigrationPlanBuilder;
 import org.cibseven.bpm.engine.migration.MigrationPlanExecutionBuilder;
 import org.cibseven.bpm.engine.runtime.ActivityInstance;
+import org.cibseven.bpm.engine.runtime.BulkMessageCorrelationBuilder;
 import org.cibseven.bpm.engine.runtime.ConditionEvaluationBuilder;
 import org.cibseven.bpm.engine.runtime.EventSubscriptionQuery;
 import org.cibseven.bpm.engine.runtime.ExecutionQuery;
@@ -761,6 +762,11 @@ public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
     return new MessageCorrelationAsyncBuilderImpl(commandExecutor, messageName);
   }
 
+  @Override
+  public BulkMessageCorrelationBuilder createBulkMessageCorrelation() {
+    return new BulkMessageCorrelationBuilderImpl(commandExecutor);
+  }
+
   @Override
   public ProcessInstanceModificationBuilder createProcessInstanceModification(String processInstanceId) {
     return new ProcessInstanceModificationBuilderImpl(commandExecutor, processInstanceId);
@@ -20,8 +20,10 @@ import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.util.Map;
 
+import org.cibseven.bpm.engine.batch.Batch;
 import org.cibseven.bpm.engine.impl.cmd.CommandLogger;
 import org.cibseven.bpm.engine.impl.cmd.SignalEventReceivedCmd;
+import org.cibseven.bpm.engine.impl.cmd.batch.SendSignalBatchCmd;
 import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
 import org.cibseven.bpm.engine.runtime.SignalEventReceivedBuilder;
 import org.cibseven.bpm.engine.variable.VariableMap;
@@ -94,6 +96,15 @@ public class SignalEventReceivedBuilderImpl implements SignalEventReceivedBuilde
     commandExecutor.execute(command);
   }
 
+  @Override
+  public Batch sendAsync() {
+    if (executionId != null) {
+      throw LOG.exceptionDeliverSignalAsyncToSingleExecution();
+    }
+
+    return commandExecutor.execute(new SendSignalBatchCmd(this));
+  }
+
   public String getSignalName() {
     return signalName;
   }
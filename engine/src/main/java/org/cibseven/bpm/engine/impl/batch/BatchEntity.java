@@ -361,7 +361,8 @@ public class BatchEntity implements Batch, DbEntity, HasDbReferences, Nameable,
 
     if (Batch.TYPE_SET_VARIABLES.equals(type) ||
         Batch.TYPE_PROCESS_INSTANCE_MIGRATION.equals(type) ||
-        Batch.TYPE_CORRELATE_MESSAGE.equals(type)) {
+        Batch.TYPE_CORRELATE_MESSAGE.equals(type) ||
+        Batch.TYPE_SIGNAL_EVENT.equals(type)) {
       deleteVariables(commandContext);
     }
 
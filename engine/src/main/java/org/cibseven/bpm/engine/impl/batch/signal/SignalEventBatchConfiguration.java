@@ -0,0 +1,54 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.batch.signal;
+
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.batch.BatchConfiguration;
+import org.cibseven.bpm.engine.impl.batch.DeploymentMappings;
+
+/**
+ * Configuration of a batch that delivers a signal. The ids are the ids of the
+ * signal event subscriptions that receive the signal.
+ */
+public class SignalEventBatchConfiguration extends BatchConfiguration {
+
+  protected String signalName;
+
+  public SignalEventBatchConfiguration(List<String> ids,
+                                       DeploymentMappings mappings,
+                                       String signalName,
+                                       String batchId) {
+    super(ids, mappings, batchId);
+    this.signalName = signalName;
+  }
+
+  public SignalEventBatchConfiguration(List<String> ids,
+                                       DeploymentMappings mappings,
+                                       String signalName) {
+    this(ids, mappings, signalName, null);
+  }
+
+  public String getSignalName() {
+    return signalName;
+  }
+
+  public void setSignalName(String signalName) {
+    this.signalName = signalName;
+  }
+
+}
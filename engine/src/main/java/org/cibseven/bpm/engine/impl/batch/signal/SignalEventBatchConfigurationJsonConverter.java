@@ -0,0 +1,67 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.batch.signal;
+
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.batch.AbstractBatchConfigurationObjectConverter;
+import org.cibseven.bpm.engine.impl.batch.DeploymentMappingJsonConverter;
+import org.cibseven.bpm.engine.impl.batch.DeploymentMappings;
+import org.cibseven.bpm.engine.impl.util.JsonUtil;
+
+import com.google.gson.JsonObject;
+
+public class SignalEventBatchConfigurationJsonConverter
+    extends AbstractBatchConfigurationObjectConverter<SignalEventBatchConfiguration> {
+
+  public static final SignalEventBatchConfigurationJsonConverter INSTANCE = new SignalEventBatchConfigurationJsonConverter();
+
+  public static final String SIGNAL_NAME = "signalName";
+  public static final String EVENT_SUBSCRIPTION_IDS = "eventSubscriptionIds";
+  public static final String EVENT_SUBSCRIPTION_ID_MAPPINGS = "eventSubscriptionIdMappings";
+  public static final String BATCH_ID = "batchId";
+
+  @Override
+  public JsonObject writeConfiguration(SignalEventBatchConfiguration configuration) {
+    JsonObject json = JsonUtil.createObject();
+
+    JsonUtil.addField(json, SIGNAL_NAME, configuration.getSignalName());
+    JsonUtil.addListField(json, EVENT_SUBSCRIPTION_IDS, configuration.getIds());
+    JsonUtil.addListField(json, EVENT_SUBSCRIPTION_ID_MAPPINGS, DeploymentMappingJsonConverter.INSTANCE, configuration.getIdMappings());
+    JsonUtil.addField(json, BATCH_ID, configuration.getBatchId());
+
+    return json;
+  }
+
+  @Override
+  public SignalEventBatchConfiguration readConfiguration(JsonObject json) {
+    return new SignalEventBatchConfiguration(
+        readEventSubscriptionIds(json),
+        readIdMappings(json),
+        JsonUtil.getString(json, SIGNAL_NAME),
+        JsonUtil.getString(json, BATCH_ID));
+  }
+
+  protected List<String> readEventSubscriptionIds(JsonObject json) {
+    return JsonUtil.asStringList(JsonUtil.getArray(json, EVENT_SUBSCRIPTION_IDS));
+  }
+
+  protected DeploymentMappings readIdMappings(JsonObject json) {
+    return JsonUtil.asList(JsonUtil.getArray(json, EVENT_SUBSCRIPTION_ID_MAPPINGS), DeploymentMappingJsonConverter.INSTANCE, DeploymentMappings::new);
+  }
+
+}
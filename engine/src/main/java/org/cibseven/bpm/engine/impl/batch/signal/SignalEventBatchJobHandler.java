@@ -0,0 +1,150 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.batch.signal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cibseven.bpm.engine.batch.Batch;
+import org.cibseven.bpm.engine.impl.batch.AbstractBatchJobHandler;
+import org.cibseven.bpm.engine.impl.batch.BatchJobContext;
+import org.cibseven.bpm.engine.impl.batch.BatchJobDeclaration;
+import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.core.variable.VariableUtil;
+import org.cibseven.bpm.engine.impl.event.EventType;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.jobexecutor.JobDeclaration;
+import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.JobEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.MessageEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.cibseven.bpm.engine.impl.pvm.PvmProcessInstance;
+import org.cibseven.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.cibseven.bpm.engine.variable.VariableMap;
+import org.cibseven.bpm.engine.variable.impl.VariableMapImpl;
+
+/**
+ * Job handler for signal event jobs. The jobs deliver a signal to a list of
+ * signal event subscriptions. Subscriptions that were removed or whose
+ * execution was suspended since the batch was created do not receive the signal.
+ */
+public class SignalEventBatchJobHandler extends AbstractBatchJobHandler<SignalEventBatchConfiguration> {
+
+  public static final BatchJobDeclaration JOB_DECLARATION = new BatchJobDeclaration(Batch.TYPE_SIGNAL_EVENT);
+
+  @Override
+  public String getType() {
+    return Batch.TYPE_SIGNAL_EVENT;
+  }
+
+  @Override
+  public JobDeclaration<BatchJobContext, MessageEntity> getJobDeclaration() {
+    return JOB_DECLARATION;
+  }
+
+  @Override
+  protected SignalEventBatchConfigurationJsonConverter getJsonConverterInstance() {
+    return SignalEventBatchConfigurationJsonConverter.INSTANCE;
+  }
+
+  @Override
+  protected SignalEventBatchConfiguration createJobConfiguration(SignalEventBatchConfiguration configuration, List<String> eventSubscriptionIdsForJob) {
+    return new SignalEventBatchConfiguration(
+        eventSubscriptionIdsForJob,
+        null,
+        configuration.getSignalName(),
+        configuration.getBatchId());
+  }
+
+  @Override
+  protected void postProcessJob(SignalEventBatchConfiguration configuration, JobEntity job, SignalEventBatchConfiguration jobConfiguration) {
+    // if there is only one subscription to signal, set the process instance id to the job so exclusive scheduling is possible
+    if (jobConfiguration.getIds() != null && jobConfiguration.getIds().size() == 1) {
+      EventSubscriptionEntity eventSubscription = Context.getCommandContext()
+          .getEventSubscriptionManager()
+          .findEventSubscriptionById(jobConfiguration.getIds().get(0));
+      if (eventSubscription != null) {
+        job.setProcessInstanceId(eventSubscription.getProcessInstanceId());
+      }
+    }
+  }
+
+  @Override
+  public void executeHandler(SignalEventBatchConfiguration batchConfiguration,
+                             ExecutionEntity execution,
+                             CommandContext commandContext,
+                             String tenantId) {
+    String signalName = batchConfiguration.getSignalName();
+    VariableMap variables = findVariables(batchConfiguration.getBatchId(), commandContext);
+
+    EventSubscriptionManager eventSubscriptionManager = commandContext.getEventSubscriptionManager();
+    for (String eventSubscriptionId : batchConfiguration.getIds()) {
+      EventSubscriptionEntity eventSubscription = eventSubscriptionManager.findEventSubscriptionById(eventSubscriptionId);
+
+      if (isActiveSignalEventSubscription(commandContext, eventSubscription, signalName)) {
+        if (eventSubscription.getExecutionId() != null) {
+          eventSubscription.eventReceived(variables, false);
+        } else {
+          startProcessInstance(commandContext, eventSubscription, variables);
+        }
+      }
+    }
+  }
+
+  protected boolean isActiveSignalEventSubscription(CommandContext commandContext, EventSubscriptionEntity eventSubscription, String signalName) {
+    if (eventSubscription == null
+        || commandContext.getDbEntityManager().isDeleted(eventSubscription)
+        || !eventSubscription.isSubscriptionForEventType(EventType.SIGNAL)
+        || !signalName.equals(eventSubscription.getEventName())) {
+      return false;
+    }
+
+    if (eventSubscription.getExecutionId() != null) {
+      ExecutionEntity subscriptionExecution = eventSubscription.getExecution();
+      return !subscriptionExecution.isEnded()
+          && !subscriptionExecution.isCanceled()
+          && !subscriptionExecution.isSuspended();
+    }
+    return true;
+  }
+
+  protected void startProcessInstance(CommandContext commandContext, EventSubscriptionEntity eventSubscription, VariableMap variables) {
+    ProcessDefinitionEntity processDefinition = commandContext.getProcessEngineConfiguration()
+        .getDeploymentCache()
+        .findDeployedProcessDefinitionById(eventSubscription.getConfiguration());
+
+    if (!processDefinition.isSuspended()) {
+      ActivityImpl signalStartEvent = processDefinition.findActivity(eventSubscription.getActivityId());
+      PvmProcessInstance processInstance = processDefinition.createProcessInstanceForInitial(signalStartEvent);
+      processInstance.start(variables);
+    }
+  }
+
+  protected VariableMap findVariables(String batchId, CommandContext commandContext) {
+    if (batchId != null) {
+      Map<String, ?> variables = VariableUtil.findBatchVariablesSerialized(batchId, commandContext);
+      if (variables != null) {
+        return new VariableMapImpl(new HashMap<>(variables));
+      }
+    }
+    return null;
+  }
+
+}
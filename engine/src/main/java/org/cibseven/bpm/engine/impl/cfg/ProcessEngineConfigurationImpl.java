@@ -112,6 +112,7 @@ import org.cibseven.bpm.engine.impl.batch.message.MessageCorrelationBatchJobHand
 import org.cibseven.bpm.engine.impl.batch.removaltime.BatchSetRemovalTimeJobHandler;
 import org.cibseven.bpm.engine.impl.batch.removaltime.DecisionSetRemovalTimeJobHandler;
 import org.cibseven.bpm.engine.impl.batch.removaltime.ProcessSetRemovalTimeJobHandler;
+import org.cibseven.bpm.engine.impl.batch.signal.SignalEventBatchJobHandler;
 import org.cibseven.bpm.engine.impl.batch.update.UpdateProcessInstancesSuspendStateJobHandler;
 import org.cibseven.bpm.engine.impl.batch.variables.BatchSetVariablesHandler;
 import org.cibseven.bpm.engine.impl.bpmn.behavior.ExternalTaskActivityBehavior;
@@ -133,6 +134,9 @@ import org.cibseven.bpm.engine.impl.cfg.multitenancy.TenantCommandChecker;
 import org.cibseven.bpm.engine.impl.cfg.multitenancy.TenantIdProvider;
 import org.cibseven.bpm.engine.impl.cfg.standalone.StandaloneTransactionContextFactory;
 import org.cibseven.bpm.engine.impl.cmd.HistoryCleanupCmd;
+import org.cibseven.bpm.engine.impl.cmd.IndexCorrelationKeysCmd;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationService;
+import org.cibseven.bpm.engine.impl.cluster.DefaultClusterNotificationListener;
 import org.cibseven.bpm.engine.impl.cmmn.CaseServiceImpl;
 import org.cibseven.bpm.engine.impl.cmmn.deployer.CmmnDeployer;
 import org.cibseven.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionManager;
@@ -143,9 +147,12 @@ import org.cibseven.bpm.engine.impl.cmmn.transformer.CmmnTransformFactory;
 import org.cibseven.bpm.engine.impl.cmmn.transformer.CmmnTransformListener;
 import org.cibseven.bpm.engine.impl.cmmn.transformer.CmmnTransformer;
 import org.cibseven.bpm.engine.impl.cmmn.transformer.DefaultCmmnTransformFactory;
+import org.cibseven.bpm.engine.impl.db.AuthorizationDecisionCache;
+import org.cibseven.bpm.engine.impl.db.DbEntity;
 import org.cibseven.bpm.engine.impl.db.DbIdGenerator;
 import org.cibseven.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
 import org.cibseven.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
+import org.cibseven.bpm.engine.impl.db.entitymanager.cache.SecondLevelEntityCache;
 import org.cibseven.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
 import org.cibseven.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.cibseven.bpm.engine.impl.delegate.DefaultDelegateInterceptor;
@@ -175,6 +182,7 @@ import org.cibseven.bpm.engine.impl.event.EventHandlerImpl;
 import org.cibseven.bpm.engine.impl.event.EventType;
 import org.cibseven.bpm.engine.impl.event.SignalEventHandler;
 import org.cibseven.bpm.engine.impl.externaltask.DefaultExternalTaskPriorityProvider;
+import org.cibseven.bpm.engine.impl.externaltask.ExternalTaskLongPollingRegistry;
 import org.cibseven.bpm.engine.impl.form.deployer.CamundaFormDefinitionDeployer;
 import org.cibseven.bpm.engine.impl.form.engine.FormEngine;
 import org.cibseven.bpm.engine.impl.form.engine.HtmlFormEngine;
@@ -195,11 +203,14 @@ import org.cibseven.bpm.engine.impl.form.validator.MinValidator;
 import org.cibseven.bpm.engine.impl.form.validator.ReadOnlyValidator;
 import org.cibseven.bpm.engine.impl.form.validator.RequiredValidator;
 import org.cibseven.bpm.engine.impl.history.DefaultHistoryRemovalTimeProvider;
+import org.cibseven.bpm.engine.impl.history.HistoryEventOutboxConsistencyCommandExecutor;
+import org.cibseven.bpm.engine.impl.history.HistoryEventOutboxWriter;
 import org.cibseven.bpm.engine.impl.history.HistoryLevel;
 import org.cibseven.bpm.engine.impl.history.HistoryRemovalTimeProvider;
 import org.cibseven.bpm.engine.impl.history.event.HistoricDecisionInstanceManager;
 import org.cibseven.bpm.engine.impl.history.event.HostnameProvider;
 import org.cibseven.bpm.engine.impl.history.event.SimpleIpBasedProvider;
+import org.cibseven.bpm.engine.impl.history.handler.AsyncDbHistoryEventHandler;
 import org.cibseven.bpm.engine.impl.history.handler.CompositeDbHistoryEventHandler;
 import org.cibseven.bpm.engine.impl.history.handler.CompositeHistoryEventHandler;
 import org.cibseven.bpm.engine.impl.history.handler.DbHistoryEventHandler;
@@ -293,12 +304,15 @@ import org.cibseven.bpm.engine.impl.persistence.GenericManagerFactory;
 import org.cibseven.bpm.engine.impl.persistence.deploy.Deployer;
 import org.cibseven.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
 import org.cibseven.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
+import org.cibseven.bpm.engine.impl.persistence.deploy.cache.ConditionalStartEventCache;
 import org.cibseven.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
 import org.cibseven.bpm.engine.impl.persistence.entity.AttachmentManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.AuthorizationEntity;
 import org.cibseven.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.BatchManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.ByteArrayManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.CommentManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.CorrelationKeyManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.DeploymentManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionManager;
@@ -317,9 +331,11 @@ import org.cibseven.bpm.engine.impl.persistence.entity.HistoricProcessInstanceMa
 import org.cibseven.bpm.engine.impl.persistence.entity.HistoricStatisticsManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.HistoricTaskInstanceManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.HistoricVariableInstanceManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.HistoryEventOutboxManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.IdentityInfoManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.IdentityLinkManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.IncidentManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
 import org.cibseven.bpm.engine.impl.persistence.entity.JobDefinitionManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.JobManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.MeterLogManager;
@@ -332,12 +348,14 @@ import org.cibseven.bpm.engine.impl.persistence.entity.StatisticsManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.TableDataManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.TaskManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.TaskReportManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.TenantEntity;
 import org.cibseven.bpm.engine.impl.persistence.entity.TenantManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.UserOperationLogManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.VariableInstanceManager;
 import org.cibseven.bpm.engine.impl.repository.DefaultDeploymentHandlerFactory;
 import org.cibseven.bpm.engine.impl.runtime.ConditionHandler;
 import org.cibseven.bpm.engine.impl.runtime.CorrelationHandler;
+import org.cibseven.bpm.engine.impl.runtime.CorrelationKeyIndexer;
 import org.cibseven.bpm.engine.impl.runtime.DefaultConditionHandler;
 import org.cibseven.bpm.engine.impl.runtime.DefaultCorrelationHandler;
 import org.cibseven.bpm.engine.impl.runtime.DefaultDeserializationTypeValidator;
@@ -368,6 +386,7 @@ import org.cibseven.bpm.engine.impl.variable.serializer.ByteArrayValueSerializer
 import org.cibseven.bpm.engine.impl.variable.serializer.DateValueSerializer;
 import org.cibseven.bpm.engine.impl.variable.serializer.DefaultVariableSerializers;
 import org.cibseven.bpm.engine.impl.variable.serializer.DoubleValueSerializer;
+import org.cibseven.bpm.engine.impl.variable.serializer.CompactJavaObjectSerializer;
 import org.cibseven.bpm.engine.impl.variable.serializer.FileValueSerializer;
 import org.cibseven.bpm.engine.impl.variable.serializer.IntegerValueSerializer;
 import org.cibseven.bpm.engine.impl.variable.serializer.JavaObjectSerializer;
@@ -524,9 +543,58 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected boolean jobExecutorAcquireExclusiveOverProcessHierarchies = false;
 
+  /**
+   * When set to true, the job executor acquires jobs with a locking read that skips
+   * rows which are already locked by a concurrent acquisition
+   * (<code>SELECT ... FOR UPDATE SKIP LOCKED</code>, <code>READPAST</code> on SQL Server).
+   * <p>
+   * Concurrent job executors then claim disjoint sets of jobs instead of competing for the
+   * same ones and resolving the conflicts with optimistic locking. This reduces the number of
+   * wasted acquisition cycles in clusters with many job executor nodes.
+   * <p>
+   * The mode requires a database that supports skipping locked rows (e.g. PostgreSQL 9.5+,
+   * Oracle, MySQL 8+, MariaDB 10.6+, SQL Server, DB2 and H2 2.2+). On Oracle, candidates that
+   * are locked by a concurrent acquisition reduce the size of the acquired batch.
+   * <p>
+   * Default value: false; jobs are acquired optimistically.
+   */
+  protected boolean jobExecutorAcquireWithSkipLocked = false;
+
+  /**
+   * If true, consecutive inserts of historic activity instances, historic variable
+   * instances and historic variable updates are written with one multi-row
+   * INSERT statement per flush instead of one statement per row.
+   * <p>
+   * Only applies if {@link #isJdbcBatchProcessing() JDBC batch processing} is enabled.
+   * <p>
+   * Default value: false
+   */
+  protected boolean jdbcMultiRowHistoryInserts = false;
+
+  /**
+   * Propagates job executor and external task hints to the other nodes of a cluster,
+   * see {@link ClusterNotificationService}.
+   * <p>
+   * Default value: null; nodes discover work created on other nodes by polling only.
+   */
+  protected ClusterNotificationService clusterNotificationService;
+
   // EXTERNAL TASK /////////////////////////////////////////////////////////////
   protected PriorityProvider<ExternalTaskActivityBehavior> externalTaskPriorityProvider;
 
+  /**
+   * Parks long polling fetch and lock requests of the engine API, see
+   * {@link org.cibseven.bpm.engine.externaltask.ExternalTaskQueryBuilder#asyncResponse(long)}.
+   */
+  protected ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry;
+
+  /**
+   * The interval in milliseconds in which parked long polling requests are
+   * fetched again even if no tasks of their topics became available on this
+   * node, e.g. to find tasks whose lock expired.
+   */
+  protected long externalTaskLongPollingRecheckInterval = 30000;
+
   // MYBATIS SQL SESSION FACTORY //////////////////////////////////////////////
 
   protected SqlSessionFactory sqlSessionFactory;
@@ -591,8 +659,74 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected VariableSerializerFactory fallbackSerializerFactory;
   protected boolean implicitVariableUpdateDetectionEnabled = true;
 
+  /**
+   * If true, reading a single variable of an execution whose variables are not
+   * loaded yet fetches only the variable with this name instead of all
+   * variables of the execution.
+   */
+  protected boolean enableFetchVariablesByName = false;
+
+  /**
+   * If true, the content of file variables is only fetched from the byte array
+   * table when it is accessed, not already when the variable is read.
+   */
+  protected boolean enableLazyFileValueLoading = false;
+
+  /**
+   * If true, variable instances with identical serialized content share one
+   * byte array. The byte array is deleted once no variable instance references
+   * it anymore.
+   */
+  protected boolean enableByteArrayDeduplication = false;
+
+  /**
+   * If true, the atomic operations of a command reuse their invocation objects
+   * and the BPMN stack trace only keeps the data needed for the non-verbose
+   * output. Has no effect if {@link #isBpmnStacktraceVerbose} is enabled.
+   */
+  protected boolean enableAtomicOperationInvocationReuse = false;
+
+  /**
+   * The names of the process variables that are used as correlation keys.
+   * Their values are kept in the correlation key index, which message
+   * correlation uses to find the candidate process instances before it
+   * evaluates the variable conditions. When the process engine starts, the
+   * {@link CorrelationKeyIndexer} indexes the variables that were written
+   * before a name was added and removes the index of names that are no longer
+   * contained in the background; until the index of a name is complete,
+   * correlations do not use it. Since values
+   * are only indexed while a name is contained in this list, all process
+   * engines that share a database must use the same list. Names that are
+   * longer than 49 characters are indexed but never used for correlation.
+   * Empty by default, i.e. no variables are indexed.
+   */
+  protected List<String> correlationKeyVariableNames = new ArrayList<>();
+
+  /** Indexes the correlation keys of the variables that were written before their names were configured. */
+  protected CorrelationKeyIndexer correlationKeyIndexer;
+
+  /** The number of variables the {@link CorrelationKeyIndexer} indexes per transaction. */
+  protected int correlationKeyIndexerBatchSize = IndexCorrelationKeysCmd.DEFAULT_BATCH_SIZE;
+
+  /** The time in milliseconds the {@link CorrelationKeyIndexer} waits before it retries a failed batch. */
+  protected long correlationKeyIndexerRetryInterval = 10000;
+
   protected String defaultSerializationFormat = Variables.SerializationDataFormats.JAVA.getName();
   protected boolean javaSerializationFormatEnabled = false;
+
+  /**
+   * The size in bytes from which objects serialized with the
+   * {@link CompactJavaObjectSerializer#SERIALIZATION_DATA_FORMAT compact java
+   * serialization format} are compressed. A negative value disables compression.
+   */
+  protected int compactSerializationCompressionThreshold = CompactJavaObjectSerializer.DEFAULT_COMPRESSION_THRESHOLD;
+
+  /**
+   * The size in bytes up to which objects serialized with the compact java
+   * serialization format are compressed. Compressed values that claim a larger
+   * size are rejected as corrupt instead of being inflated.
+   */
+  protected int compactSerializationMaxInflatedSize = CompactJavaObjectSerializer.DEFAULT_MAX_INFLATED_SIZE;
   protected String defaultCharsetName = null;
   protected Charset defaultCharset = null;
 
@@ -786,6 +920,42 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected boolean enableDefaultDbHistoryEventHandler = true;
 
+  /**
+   * If true, the default history event handler collects the history events of
+   * a transaction in the history event outbox (table ACT_HI_EVT_OUTBOX) instead
+   * of writing them to the history tables. The outbox is written to the history
+   * tables by the {@link HistoryEventOutboxWriter} after the transaction committed.
+   * Only applies if {@link #enableDefaultDbHistoryEventHandler} is true.
+   */
+  protected boolean asyncDbHistoryEnabled = false;
+
+  /** If true, this process engine runs the background thread of the {@link HistoryEventOutboxWriter}. */
+  protected boolean asyncDbHistoryWriterActivate = true;
+
+  /** The maximum number of outbox entries that are written in one transaction. */
+  protected int asyncDbHistoryWriterBatchSize = 100;
+
+  /** The maximum time in milliseconds the {@link HistoryEventOutboxWriter} waits before it checks the outbox. */
+  protected long asyncDbHistoryWriterInterval = 1000;
+
+  /**
+   * The number of attempts to write an outbox entry. An entry that failed this
+   * often is skipped by the {@link HistoryEventOutboxWriter} and remains in the
+   * outbox, so that its history can be inspected and repaired manually.
+   */
+  protected int asyncDbHistoryWriterRetries = 3;
+
+  /**
+   * If true, the history service writes the outbox before it executes a command,
+   * so that history queries see the history of all committed transactions. Every
+   * history service call then takes the cluster-wide outbox lock. Callers that
+   * only need read-your-writes consistency for some queries can instead call
+   * {@link HistoryEventOutboxWriter#writeAll()} before those queries.
+   */
+  protected boolean asyncDbHistoryQueryConsistency = false;
+
+  protected HistoryEventOutboxWriter historyEventOutboxWriter;
+
   protected PermissionProvider permissionProvider;
 
   protected boolean isExecutionTreePrefetchEnabled = true;
@@ -837,6 +1007,58 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected DbEntityCacheKeyMapping dbEntityCacheKeyMapping = DbEntityCacheKeyMapping.defaultEntityCacheKeyMapping();
 
+  /**
+   * If true, the entities of the {@link #secondLevelEntityCacheTypes} that are selected by id are
+   * cached across commands in the {@link SecondLevelEntityCache}.
+   */
+  protected boolean secondLevelEntityCacheEnabled = false;
+
+  /**
+   * The read-mostly entity types that are cached in the {@link SecondLevelEntityCache}. Modifications
+   * by other process engine nodes are visible after {@link #secondLevelEntityCacheTimeToLive} at the latest.
+   */
+  protected Set<Class<? extends DbEntity>> secondLevelEntityCacheTypes = new HashSet<>(Arrays.asList(
+      JobDefinitionEntity.class, TenantEntity.class, AuthorizationEntity.class));
+
+  /** The maximum number of entities in the {@link SecondLevelEntityCache}. */
+  protected int secondLevelEntityCacheCapacity = 1000;
+
+  /** The time in milliseconds an entity is kept in the {@link SecondLevelEntityCache}. */
+  protected long secondLevelEntityCacheTimeToLive = 10000;
+
+  protected SecondLevelEntityCache secondLevelEntityCache;
+
+  /**
+   * If true, the results of authorization checks for single resources are cached across commands
+   * in the {@link AuthorizationDecisionCache}. Modifications of authorizations by other process
+   * engine nodes are visible after {@link #authorizationDecisionCacheTimeToLive} at the latest.
+   */
+  protected boolean authorizationDecisionCacheEnabled = false;
+
+  /** The maximum number of users (and their groups) for which decisions are cached. */
+  protected int authorizationDecisionCacheCapacity = 10000;
+
+  /** The maximum number of decisions that are cached for one user. */
+  protected int authorizationDecisionCacheMaxDecisionsPerUser = 1000;
+
+  /** The time in milliseconds the decisions for a user are kept in the {@link AuthorizationDecisionCache}. */
+  protected long authorizationDecisionCacheTimeToLive = 10000;
+
+  protected AuthorizationDecisionCache authorizationDecisionCache;
+
+  /**
+   * If true, the conditional start event subscriptions are cached across commands in the
+   * {@link ConditionalStartEventCache}, grouped by the variable names their conditions declare.
+   * Deployments by other process engine nodes are visible after
+   * {@link #conditionalStartEventCacheTimeToLive} at the latest.
+   */
+  protected boolean conditionalStartEventCacheEnabled = false;
+
+  /** The time in milliseconds the subscriptions are kept in the {@link ConditionalStartEventCache}. */
+  protected long conditionalStartEventCacheTimeToLive = 10000;
+
+  protected ConditionalStartEventCache conditionalStartEventCache;
+
   /**
    * the metrics registry
    */
@@ -1196,6 +1418,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
     initExceptionCodeProvider();
     initCommandExecutors();
+    initExternalTaskLongPollingRegistry();
     initServices();
     initIdGenerator();
     initFailedJobCommandFactory();
@@ -1204,6 +1427,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initExternalTaskPriorityProvider();
     initBatchHandlers();
     initJobExecutor();
+    initClusterNotificationService();
     initTransactionFactory();
     initSqlSessionFactory();
     initIdentityProviderSessionFactory();
@@ -1216,6 +1440,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initProcessApplicationManager();
     initCorrelationHandler();
     initConditionHandler();
+    initConditionalStartEventCache();
     initIncidentHandlers();
     initPasswordDigest();
     initDeploymentRegistration();
@@ -1569,6 +1794,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
       DeleteDeploymentsJobHandler deleteDeploymentsJobHandler = new DeleteDeploymentsJobHandler();
       batchHandlers.put(deleteDeploymentsJobHandler.getType(), deleteDeploymentsJobHandler);
+
+      SignalEventBatchJobHandler signalEventBatchJobHandler = new SignalEventBatchJobHandler();
+      batchHandlers.put(signalEventBatchJobHandler.getType(), signalEventBatchJobHandler);
     }
 
     if (customBatchJobHandlers != null) {
@@ -1666,6 +1894,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   // services /////////////////////////////////////////////////////////////////
 
   protected void initServices() {
+    initHistoryEventOutboxWriter();
+
     initService(repositoryService);
     initService(runtimeService);
     initService(historyService);
@@ -1688,6 +1918,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     if (service instanceof RepositoryServiceImpl) {
       ((RepositoryServiceImpl) service).setDeploymentCharset(getDefaultCharset());
     }
+    if (service instanceof ExternalTaskServiceImpl) {
+      ((ExternalTaskServiceImpl) service).setExternalTaskLongPollingRegistry(externalTaskLongPollingRegistry);
+    }
+    if (service instanceof HistoryServiceImpl && historyEventOutboxWriter != null && asyncDbHistoryQueryConsistency) {
+      ((HistoryServiceImpl) service).setCommandExecutor(
+          new HistoryEventOutboxConsistencyCommandExecutor(commandExecutorTxRequired, historyEventOutboxWriter));
+    }
+  }
+
+  protected void initHistoryEventOutboxWriter() {
+    if (historyEventOutboxWriter == null && asyncDbHistoryEnabled) {
+      historyEventOutboxWriter = new HistoryEventOutboxWriter(this);
+    }
   }
 
   // DataSource ///////////////////////////////////////////////////////////////
@@ -2017,10 +2260,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
       initPersistenceProviders();
 
-      addSessionFactory(new DbEntityManagerFactory(idGenerator));
+      initSecondLevelEntityCache();
+      initAuthorizationDecisionCache();
+      addSessionFactory(new DbEntityManagerFactory(idGenerator, secondLevelEntityCache, authorizationDecisionCache));
 
       addSessionFactory(new GenericManagerFactory(AttachmentManager.class));
       addSessionFactory(new GenericManagerFactory(CommentManager.class));
+      addSessionFactory(new GenericManagerFactory(CorrelationKeyManager.class));
       addSessionFactory(new GenericManagerFactory(DeploymentManager.class));
       addSessionFactory(new GenericManagerFactory(ExecutionManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricActivityInstanceManager.class));
@@ -2036,6 +2282,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(HistoricIdentityLinkLogManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricJobLogManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricExternalTaskLogManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoryEventOutboxManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityInfoManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityLinkManager.class));
       addSessionFactory(new GenericManagerFactory(JobManager.class));
@@ -2089,6 +2336,26 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initSecondLevelEntityCache() {
+    if (secondLevelEntityCache == null && secondLevelEntityCacheEnabled) {
+      secondLevelEntityCache = new SecondLevelEntityCache(secondLevelEntityCacheTypes, dbEntityCacheKeyMapping,
+          secondLevelEntityCacheCapacity, secondLevelEntityCacheTimeToLive);
+    }
+  }
+
+  protected void initAuthorizationDecisionCache() {
+    if (authorizationDecisionCache == null && authorizationDecisionCacheEnabled) {
+      authorizationDecisionCache = new AuthorizationDecisionCache(authorizationDecisionCacheCapacity,
+          authorizationDecisionCacheMaxDecisionsPerUser, authorizationDecisionCacheTimeToLive);
+    }
+  }
+
+  protected void initConditionalStartEventCache() {
+    if (conditionalStartEventCache == null && conditionalStartEventCacheEnabled) {
+      conditionalStartEventCache = new ConditionalStartEventCache(conditionalStartEventCacheTimeToLive);
+    }
+  }
+
   protected void initPersistenceProviders() {
     ensurePrefixAndSchemaFitToegether(databaseTablePrefix, databaseSchema);
     dbSqlSessionFactory = new DbSqlSessionFactory(jdbcBatchProcessing);
@@ -2101,6 +2368,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     dbSqlSessionFactory.setDmnEnabled(dmnEnabled);
     dbSqlSessionFactory.setModelerEnabled(modelerEnabled);
     dbSqlSessionFactory.setDatabaseTablePrefix(databaseTablePrefix);
+    dbSqlSessionFactory.setJdbcMultiRowHistoryInserts(jdbcMultiRowHistoryInserts);
 
     //hack for the case when schema is defined via databaseTablePrefix parameter and not via databaseSchema parameter
     if (databaseTablePrefix != null && databaseSchema == null && databaseTablePrefix.contains(".")) {
@@ -2368,6 +2636,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   // job executor /////////////////////////////////////////////////////////////
 
+  protected void initClusterNotificationService() {
+    if (clusterNotificationService != null) {
+      clusterNotificationService.addListener(new DefaultClusterNotificationListener(jobExecutor, externalTaskLongPollingRegistry));
+    }
+  }
+
   protected void initJobExecutor() {
     if (jobExecutor == null) {
       jobExecutor = new DefaultJobExecutor();
@@ -2465,6 +2739,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initExternalTaskLongPollingRegistry() {
+    if (externalTaskLongPollingRegistry == null) {
+      externalTaskLongPollingRegistry = new ExternalTaskLongPollingRegistry(this);
+    }
+  }
+
   // history //////////////////////////////////////////////////////////////////
 
   public void initHistoryLevel() {
@@ -2622,6 +2902,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       variableSerializers.addSerializer(new DoubleValueSerializer());
       variableSerializers.addSerializer(new ByteArrayValueSerializer());
       variableSerializers.addSerializer(new JavaObjectSerializer());
+      variableSerializers.addSerializer(new CompactJavaObjectSerializer(compactSerializationCompressionThreshold, compactSerializationMaxInflatedSize));
       variableSerializers.addSerializer(new FileValueSerializer());
 
       if (customPostVariableSerializers != null) {
@@ -2829,6 +3110,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     if (correlationHandler == null) {
       correlationHandler = new DefaultCorrelationHandler();
     }
+    if (correlationKeyIndexer == null) {
+      correlationKeyIndexer = new CorrelationKeyIndexer(this);
+    }
 
   }
 
@@ -2868,7 +3152,11 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initHistoryEventHandler() {
     if (historyEventHandler == null) {
-      if (enableDefaultDbHistoryEventHandler) {
+      if (enableDefaultDbHistoryEventHandler && asyncDbHistoryEnabled) {
+        CompositeHistoryEventHandler compositeHistoryEventHandler = new CompositeHistoryEventHandler(customHistoryEventHandlers);
+        compositeHistoryEventHandler.add(new AsyncDbHistoryEventHandler());
+        historyEventHandler = compositeHistoryEventHandler;
+      } else if (enableDefaultDbHistoryEventHandler) {
         historyEventHandler = new CompositeDbHistoryEventHandler(customHistoryEventHandlers);
       } else {
         historyEventHandler = new CompositeHistoryEventHandler(customHistoryEventHandlers);
@@ -3285,6 +3573,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public ExternalTaskLongPollingRegistry getExternalTaskLongPollingRegistry() {
+    return externalTaskLongPollingRegistry;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskLongPollingRegistry(ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry) {
+    this.externalTaskLongPollingRegistry = externalTaskLongPollingRegistry;
+    return this;
+  }
+
+  public long getExternalTaskLongPollingRecheckInterval() {
+    return externalTaskLongPollingRecheckInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskLongPollingRecheckInterval(long externalTaskLongPollingRecheckInterval) {
+    this.externalTaskLongPollingRecheckInterval = externalTaskLongPollingRecheckInterval;
+    return this;
+  }
+
   public PriorityProvider<ExternalTaskActivityBehavior> getExternalTaskPriorityProvider() {
     return externalTaskPriorityProvider;
   }
@@ -3358,6 +3664,78 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.implicitVariableUpdateDetectionEnabled = newValue;
   }
 
+  public boolean isEnableFetchVariablesByName() {
+    return enableFetchVariablesByName;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableFetchVariablesByName(boolean enableFetchVariablesByName) {
+    this.enableFetchVariablesByName = enableFetchVariablesByName;
+    return this;
+  }
+
+  public boolean isEnableLazyFileValueLoading() {
+    return enableLazyFileValueLoading;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableLazyFileValueLoading(boolean enableLazyFileValueLoading) {
+    this.enableLazyFileValueLoading = enableLazyFileValueLoading;
+    return this;
+  }
+
+  public boolean isEnableByteArrayDeduplication() {
+    return enableByteArrayDeduplication;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableByteArrayDeduplication(boolean enableByteArrayDeduplication) {
+    this.enableByteArrayDeduplication = enableByteArrayDeduplication;
+    return this;
+  }
+
+  public boolean isEnableAtomicOperationInvocationReuse() {
+    return enableAtomicOperationInvocationReuse;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableAtomicOperationInvocationReuse(boolean enableAtomicOperationInvocationReuse) {
+    this.enableAtomicOperationInvocationReuse = enableAtomicOperationInvocationReuse;
+    return this;
+  }
+
+  public List<String> getCorrelationKeyVariableNames() {
+    return correlationKeyVariableNames;
+  }
+
+  public ProcessEngineConfigurationImpl setCorrelationKeyVariableNames(List<String> correlationKeyVariableNames) {
+    this.correlationKeyVariableNames = correlationKeyVariableNames;
+    return this;
+  }
+
+  public CorrelationKeyIndexer getCorrelationKeyIndexer() {
+    return correlationKeyIndexer;
+  }
+
+  public ProcessEngineConfigurationImpl setCorrelationKeyIndexer(CorrelationKeyIndexer correlationKeyIndexer) {
+    this.correlationKeyIndexer = correlationKeyIndexer;
+    return this;
+  }
+
+  public int getCorrelationKeyIndexerBatchSize() {
+    return correlationKeyIndexerBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setCorrelationKeyIndexerBatchSize(int correlationKeyIndexerBatchSize) {
+    this.correlationKeyIndexerBatchSize = correlationKeyIndexerBatchSize;
+    return this;
+  }
+
+  public long getCorrelationKeyIndexerRetryInterval() {
+    return correlationKeyIndexerRetryInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setCorrelationKeyIndexerRetryInterval(long correlationKeyIndexerRetryInterval) {
+    this.correlationKeyIndexerRetryInterval = correlationKeyIndexerRetryInterval;
+    return this;
+  }
+
   public ProcessEngineConfigurationImpl setVariableTypes(VariableSerializers variableSerializers) {
     this.variableSerializers = variableSerializers;
     return this;
@@ -4446,6 +4824,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.javaSerializationFormatEnabled = javaSerializationFormatEnabled;
   }
 
+  public int getCompactSerializationCompressionThreshold() {
+    return compactSerializationCompressionThreshold;
+  }
+
+  public ProcessEngineConfigurationImpl setCompactSerializationCompressionThreshold(int compactSerializationCompressionThreshold) {
+    this.compactSerializationCompressionThreshold = compactSerializationCompressionThreshold;
+    return this;
+  }
+
+  public int getCompactSerializationMaxInflatedSize() {
+    return compactSerializationMaxInflatedSize;
+  }
+
+  public ProcessEngineConfigurationImpl setCompactSerializationMaxInflatedSize(int compactSerializationMaxInflatedSize) {
+    this.compactSerializationMaxInflatedSize = compactSerializationMaxInflatedSize;
+    return this;
+  }
+
   public ProcessEngineConfigurationImpl setDefaultCharsetName(String defaultCharsetName) {
     this.defaultCharsetName = defaultCharsetName;
     return this;
@@ -4478,6 +4874,123 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isSecondLevelEntityCacheEnabled() {
+    return secondLevelEntityCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setSecondLevelEntityCacheEnabled(boolean secondLevelEntityCacheEnabled) {
+    this.secondLevelEntityCacheEnabled = secondLevelEntityCacheEnabled;
+    return this;
+  }
+
+  public Set<Class<? extends DbEntity>> getSecondLevelEntityCacheTypes() {
+    return secondLevelEntityCacheTypes;
+  }
+
+  public ProcessEngineConfigurationImpl setSecondLevelEntityCacheTypes(Set<Class<? extends DbEntity>> secondLevelEntityCacheTypes) {
+    this.secondLevelEntityCacheTypes = secondLevelEntityCacheTypes;
+    return this;
+  }
+
+  public int getSecondLevelEntityCacheCapacity() {
+    return secondLevelEntityCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setSecondLevelEntityCacheCapacity(int secondLevelEntityCacheCapacity) {
+    this.secondLevelEntityCacheCapacity = secondLevelEntityCacheCapacity;
+    return this;
+  }
+
+  public long getSecondLevelEntityCacheTimeToLive() {
+    return secondLevelEntityCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setSecondLevelEntityCacheTimeToLive(long secondLevelEntityCacheTimeToLive) {
+    this.secondLevelEntityCacheTimeToLive = secondLevelEntityCacheTimeToLive;
+    return this;
+  }
+
+  public SecondLevelEntityCache getSecondLevelEntityCache() {
+    return secondLevelEntityCache;
+  }
+
+  public ProcessEngineConfigurationImpl setSecondLevelEntityCache(SecondLevelEntityCache secondLevelEntityCache) {
+    this.secondLevelEntityCache = secondLevelEntityCache;
+    return this;
+  }
+
+  public boolean isAuthorizationDecisionCacheEnabled() {
+    return authorizationDecisionCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheEnabled(boolean authorizationDecisionCacheEnabled) {
+    this.authorizationDecisionCacheEnabled = authorizationDecisionCacheEnabled;
+    return this;
+  }
+
+  public int getAuthorizationDecisionCacheCapacity() {
+    return authorizationDecisionCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheCapacity(int authorizationDecisionCacheCapacity) {
+    this.authorizationDecisionCacheCapacity = authorizationDecisionCacheCapacity;
+    return this;
+  }
+
+  public int getAuthorizationDecisionCacheMaxDecisionsPerUser() {
+    return authorizationDecisionCacheMaxDecisionsPerUser;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheMaxDecisionsPerUser(int authorizationDecisionCacheMaxDecisionsPerUser) {
+    this.authorizationDecisionCacheMaxDecisionsPerUser = authorizationDecisionCacheMaxDecisionsPerUser;
+    return this;
+  }
+
+  public long getAuthorizationDecisionCacheTimeToLive() {
+    return authorizationDecisionCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheTimeToLive(long authorizationDecisionCacheTimeToLive) {
+    this.authorizationDecisionCacheTimeToLive = authorizationDecisionCacheTimeToLive;
+    return this;
+  }
+
+  public AuthorizationDecisionCache getAuthorizationDecisionCache() {
+    return authorizationDecisionCache;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCache(AuthorizationDecisionCache authorizationDecisionCache) {
+    this.authorizationDecisionCache = authorizationDecisionCache;
+    return this;
+  }
+
+  public boolean isConditionalStartEventCacheEnabled() {
+    return conditionalStartEventCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setConditionalStartEventCacheEnabled(boolean conditionalStartEventCacheEnabled) {
+    this.conditionalStartEventCacheEnabled = conditionalStartEventCacheEnabled;
+    return this;
+  }
+
+  public long getConditionalStartEventCacheTimeToLive() {
+    return conditionalStartEventCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setConditionalStartEventCacheTimeToLive(long conditionalStartEventCacheTimeToLive) {
+    this.conditionalStartEventCacheTimeToLive = conditionalStartEventCacheTimeToLive;
+    return this;
+  }
+
+  public ConditionalStartEventCache getConditionalStartEventCache() {
+    return conditionalStartEventCache;
+  }
+
+  public ProcessEngineConfigurationImpl setConditionalStartEventCache(ConditionalStartEventCache conditionalStartEventCache) {
+    this.conditionalStartEventCache = conditionalStartEventCache;
+    return this;
+  }
+
   public ProcessEngineConfigurationImpl setCustomHistoryLevels(List<HistoryLevel> customHistoryLevels) {
     this.customHistoryLevels = customHistoryLevels;
     return this;
@@ -5109,6 +5622,96 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this.jobExecutorAcquireExclusiveOverProcessHierarchies;
   }
 
+  public boolean isJobExecutorAcquireWithSkipLocked() {
+    return jobExecutorAcquireWithSkipLocked;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorAcquireWithSkipLocked(boolean jobExecutorAcquireWithSkipLocked) {
+    this.jobExecutorAcquireWithSkipLocked = jobExecutorAcquireWithSkipLocked;
+    return this;
+  }
+
+  public boolean isJdbcMultiRowHistoryInserts() {
+    return jdbcMultiRowHistoryInserts;
+  }
+
+  public ProcessEngineConfigurationImpl setJdbcMultiRowHistoryInserts(boolean jdbcMultiRowHistoryInserts) {
+    this.jdbcMultiRowHistoryInserts = jdbcMultiRowHistoryInserts;
+    return this;
+  }
+
+  public boolean isAsyncDbHistoryEnabled() {
+    return asyncDbHistoryEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncDbHistoryEnabled(boolean asyncDbHistoryEnabled) {
+    this.asyncDbHistoryEnabled = asyncDbHistoryEnabled;
+    return this;
+  }
+
+  public boolean isAsyncDbHistoryWriterActivate() {
+    return asyncDbHistoryWriterActivate;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncDbHistoryWriterActivate(boolean asyncDbHistoryWriterActivate) {
+    this.asyncDbHistoryWriterActivate = asyncDbHistoryWriterActivate;
+    return this;
+  }
+
+  public int getAsyncDbHistoryWriterBatchSize() {
+    return asyncDbHistoryWriterBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncDbHistoryWriterBatchSize(int asyncDbHistoryWriterBatchSize) {
+    this.asyncDbHistoryWriterBatchSize = asyncDbHistoryWriterBatchSize;
+    return this;
+  }
+
+  public long getAsyncDbHistoryWriterInterval() {
+    return asyncDbHistoryWriterInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncDbHistoryWriterInterval(long asyncDbHistoryWriterInterval) {
+    this.asyncDbHistoryWriterInterval = asyncDbHistoryWriterInterval;
+    return this;
+  }
+
+  public int getAsyncDbHistoryWriterRetries() {
+    return asyncDbHistoryWriterRetries;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncDbHistoryWriterRetries(int asyncDbHistoryWriterRetries) {
+    this.asyncDbHistoryWriterRetries = asyncDbHistoryWriterRetries;
+    return this;
+  }
+
+  public boolean isAsyncDbHistoryQueryConsistency() {
+    return asyncDbHistoryQueryConsistency;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncDbHistoryQueryConsistency(boolean asyncDbHistoryQueryConsistency) {
+    this.asyncDbHistoryQueryConsistency = asyncDbHistoryQueryConsistency;
+    return this;
+  }
+
+  public HistoryEventOutboxWriter getHistoryEventOutboxWriter() {
+    return historyEventOutboxWriter;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventOutboxWriter(HistoryEventOutboxWriter historyEventOutboxWriter) {
+    this.historyEventOutboxWriter = historyEventOutboxWriter;
+    return this;
+  }
+
+  public ClusterNotificationService getClusterNotificationService() {
+    return clusterNotificationService;
+  }
+
+  public ProcessEngineConfigurationImpl setClusterNotificationService(ClusterNotificationService clusterNotificationService) {
+    this.clusterNotificationService = clusterNotificationService;
+    return this;
+  }
+
   public String getBatchOperationHistoryTimeToLive() {
     return batchOperationHistoryTimeToLive;
   }
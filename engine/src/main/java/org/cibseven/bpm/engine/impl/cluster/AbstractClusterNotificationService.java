@@ -0,0 +1,236 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cluster;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutorLogger;
+
+/**
+ * <p>Base class for {@link ClusterNotificationService} implementations that exchange
+ * notifications through a dedicated background thread.</p>
+ *
+ * <p>{@link #publish(ClusterNotificationType)} only marks a notification as pending, so
+ * committing transactions are never blocked by the cluster communication. The
+ * notification thread sends the pending notifications, coalescing all notifications
+ * of the same type into a single message, and then waits up to
+ * {@link #getPollIntervalInMillis()} for notifications of the other nodes.</p>
+ */
+public abstract class AbstractClusterNotificationService implements ClusterNotificationService, Runnable {
+
+  protected final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected String nodeId = UUID.randomUUID().toString();
+  protected long pollIntervalInMillis;
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected List<ClusterNotificationListener> listeners = new CopyOnWriteArrayList<>();
+  protected Set<ClusterNotificationType> pendingNotifications = ConcurrentHashMap.newKeySet();
+
+  protected Thread notificationThread;
+  protected volatile boolean isRunning = false;
+  protected volatile boolean isConnected = false;
+
+  protected AbstractClusterNotificationService(long pollIntervalInMillis) {
+    this.pollIntervalInMillis = pollIntervalInMillis;
+  }
+
+  @Override
+  public synchronized void start(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    if (isRunning) {
+      return;
+    }
+    this.processEngineConfiguration = processEngineConfiguration;
+
+    isRunning = true;
+    notificationThread = new Thread(this, getClass().getSimpleName() + "[" + processEngineConfiguration.getProcessEngineName() + "]");
+    notificationThread.setDaemon(true);
+    notificationThread.start();
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (!isRunning) {
+      return;
+    }
+    isRunning = false;
+    notificationThread.interrupt();
+    try {
+      notificationThread.join();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    notificationThread = null;
+  }
+
+  @Override
+  public void publish(ClusterNotificationType type) {
+    pendingNotifications.add(type);
+  }
+
+  @Override
+  public void addListener(ClusterNotificationListener listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(ClusterNotificationListener listener) {
+    listeners.remove(listener);
+  }
+
+  @Override
+  public void run() {
+    while (isRunning) {
+      try {
+        if (!isConnected) {
+          connect();
+          isConnected = true;
+        }
+
+        sendPendingNotifications();
+        receiveNotifications(pollIntervalInMillis);
+      }
+      catch (InterruptedException e) {
+        // stop() interrupts the thread to end a pending wait
+      }
+      catch (Exception e) {
+        if (isRunning) {
+          LOG.exceptionDuringClusterNotification(e);
+          disconnectQuietly();
+          waitBeforeReconnect();
+        }
+      }
+    }
+
+    disconnectQuietly();
+  }
+
+  protected void sendPendingNotifications() throws Exception {
+    for (ClusterNotificationType type : ClusterNotificationType.values()) {
+      if (isSendDue(type) && pendingNotifications.remove(type)) {
+        try {
+          send(type);
+        }
+        catch (Exception e) {
+          // keep the notification for the next attempt
+          pendingNotifications.add(type);
+          throw e;
+        }
+      }
+    }
+  }
+
+  protected void notifyListeners(ClusterNotificationType type) {
+    LOG.debugClusterNotificationReceived(type.getName());
+    for (ClusterNotificationListener listener : listeners) {
+      try {
+        listener.notificationReceived(type);
+      }
+      catch (RuntimeException e) {
+        LOG.exceptionDuringClusterNotification(e);
+      }
+    }
+  }
+
+  protected void disconnectQuietly() {
+    if (isConnected) {
+      isConnected = false;
+      try {
+        disconnect();
+      }
+      catch (Exception e) {
+        LOG.exceptionDuringClusterNotification(e);
+      }
+    }
+  }
+
+  protected void waitBeforeReconnect() {
+    try {
+      Thread.sleep(Math.max(pollIntervalInMillis, 1000));
+    }
+    catch (InterruptedException e) {
+      // stop() interrupts the thread to end the wait
+    }
+  }
+
+  /**
+   * @return whether a pending notification of the given type may be sent now;
+   *   notifications that are not due stay pending
+   */
+  protected boolean isSendDue(ClusterNotificationType type) {
+    return true;
+  }
+
+  /**
+   * Opens the resources required to exchange notifications.
+   */
+  protected abstract void connect() throws Exception;
+
+  /**
+   * Releases the resources opened by {@link #connect()}.
+   */
+  protected abstract void disconnect() throws Exception;
+
+  /**
+   * Sends a notification to the other nodes.
+   */
+  protected abstract void send(ClusterNotificationType type) throws Exception;
+
+  /**
+   * Waits up to the given time for notifications of the other nodes and passes
+   * them to {@link #notifyListeners(ClusterNotificationType)}.
+   */
+  protected abstract void receiveNotifications(long timeoutInMillis) throws Exception;
+
+  // getters and setters //////////////////////////////////////////////////////
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  public void setNodeId(String nodeId) {
+    this.nodeId = nodeId;
+  }
+
+  public long getPollIntervalInMillis() {
+    return pollIntervalInMillis;
+  }
+
+  public void setPollIntervalInMillis(long pollIntervalInMillis) {
+    this.pollIntervalInMillis = pollIntervalInMillis;
+  }
+
+  public List<ClusterNotificationListener> getListeners() {
+    return listeners;
+  }
+
+  public boolean isRunning() {
+    return isRunning;
+  }
+
+  public boolean isConnected() {
+    return isConnected;
+  }
+
+}
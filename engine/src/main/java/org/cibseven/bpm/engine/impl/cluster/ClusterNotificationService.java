@@ -0,0 +1,57 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cluster;
+
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * <p>SPI to propagate job executor and external task hints between the nodes of a
+ * cluster.</p>
+ *
+ * <p>Without it, a node only learns about jobs and external tasks that were created
+ * on another node when its own job acquisition or fetch and lock polling runs next.
+ * An implementation publishes a notification when such work is created and
+ * dispatches the notifications of the other nodes to the registered
+ * {@link ClusterNotificationListener listeners}.</p>
+ *
+ * <p>Notifications are hints only: losing one delays the work until the next regular
+ * polling cycle but never loses the work itself.</p>
+ */
+public interface ClusterNotificationService {
+
+  /**
+   * Starts receiving notifications. Invoked once the process engine is built.
+   */
+  void start(ProcessEngineConfigurationImpl processEngineConfiguration);
+
+  /**
+   * Stops receiving notifications. Invoked when the process engine is closed.
+   */
+  void stop();
+
+  /**
+   * Publishes a notification to the other cluster nodes. Invoked after the
+   * transaction creating the work has committed, so implementations must not
+   * block the calling thread.
+   */
+  void publish(ClusterNotificationType type);
+
+  void addListener(ClusterNotificationListener listener);
+
+  void removeListener(ClusterNotificationListener listener);
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cluster;
+
+import org.cibseven.bpm.engine.impl.cfg.TransactionListener;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Publishes a cluster notification once the current transaction has committed.
+ */
+public class ClusterNotificationTransactionListener implements TransactionListener {
+
+  protected ClusterNotificationService clusterNotificationService;
+  protected ClusterNotificationType type;
+
+  public ClusterNotificationTransactionListener(ClusterNotificationService clusterNotificationService, ClusterNotificationType type) {
+    this.clusterNotificationService = clusterNotificationService;
+    this.type = type;
+  }
+
+  @Override
+  public void execute(CommandContext commandContext) {
+    clusterNotificationService.publish(type);
+  }
+
+}
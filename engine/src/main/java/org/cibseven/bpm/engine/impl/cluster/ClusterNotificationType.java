@@ -0,0 +1,50 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cluster;
+
+/**
+ * Kinds of events a {@link ClusterNotificationService} distributes to the other
+ * nodes of a cluster.
+ */
+public enum ClusterNotificationType {
+
+  /** A job became available for acquisition. */
+  JOB_ADDED("job_added"),
+
+  /** An external task became available for fetch and lock. */
+  EXTERNAL_TASK_AVAILABLE("external_task_available");
+
+  protected final String name;
+
+  ClusterNotificationType(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public static ClusterNotificationType forName(String name) {
+    for (ClusterNotificationType type : values()) {
+      if (type.name.equals(name)) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cluster;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineImpl;
+import org.cibseven.bpm.engine.impl.externaltask.ExternalTaskLongPollingRegistry;
+import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutor;
+
+/**
+ * Wakes up the local {@link JobExecutor} and the external task long polling
+ * (see {@link ProcessEngineImpl#EXT_TASK_CONDITIONS} and
+ * {@link ExternalTaskLongPollingRegistry}) when another node created new work.
+ */
+public class DefaultClusterNotificationListener implements ClusterNotificationListener {
+
+  protected JobExecutor jobExecutor;
+  protected ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry;
+
+  public DefaultClusterNotificationListener(JobExecutor jobExecutor) {
+    this(jobExecutor, null);
+  }
+
+  public DefaultClusterNotificationListener(JobExecutor jobExecutor, ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry) {
+    this.jobExecutor = jobExecutor;
+    this.externalTaskLongPollingRegistry = externalTaskLongPollingRegistry;
+  }
+
+  @Override
+  public void notificationReceived(ClusterNotificationType type) {
+    switch (type) {
+    case JOB_ADDED:
+      if (jobExecutor != null) {
+        jobExecutor.jobWasAdded();
+      }
+      break;
+    case EXTERNAL_TASK_AVAILABLE:
+      ProcessEngineImpl.EXT_TASK_CONDITIONS.signalAll();
+      if (externalTaskLongPollingRegistry != null) {
+        // notifications carry no topic
+        externalTaskLongPollingRegistry.tasksAvailable(null);
+      }
+      break;
+    default:
+      break;
+    }
+  }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cluster;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.cibseven.bpm.engine.OptimisticLockingException;
+import org.cibseven.bpm.engine.ProcessEngineException;
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.PropertyManager;
+
+/**
+ * <p>Database independent {@link ClusterNotificationService} which exchanges
+ * notifications through one row of the property table
+ * (<code>ACT_GE_PROPERTY</code>) per {@link ClusterNotificationType}.</p>
+ *
+ * <p>Publishing a notification updates the row and thereby increments its revision;
+ * every node polls the revisions with a single primary key lookup per type and
+ * interval. Each node updates the row of a type at most once per poll interval;
+ * notifications published in between are coalesced into the next update, so the
+ * write load does not depend on the number of created jobs.</p>
+ */
+public class JdbcPollingClusterNotificationService extends AbstractClusterNotificationService {
+
+  public static final String PROPERTY_NAME_PREFIX = "cluster.notification.";
+
+  public static final long DEFAULT_POLL_INTERVAL_IN_MILLIS = 1000;
+
+  protected final Object monitor = new Object();
+  protected boolean isNotificationPending = false;
+  protected long sequence = 0;
+
+  protected Map<ClusterNotificationType, Integer> knownRevisions = new EnumMap<>(ClusterNotificationType.class);
+  protected Map<ClusterNotificationType, Long> lastSendTimes = new ConcurrentHashMap<>();
+
+  public JdbcPollingClusterNotificationService() {
+    super(DEFAULT_POLL_INTERVAL_IN_MILLIS);
+  }
+
+  @Override
+  public void publish(ClusterNotificationType type) {
+    super.publish(type);
+    // a notification that is not due yet is sent by the next poll
+    if (isSendDue(type)) {
+      synchronized (monitor) {
+        isNotificationPending = true;
+        monitor.notifyAll();
+      }
+    }
+  }
+
+  @Override
+  protected boolean isSendDue(ClusterNotificationType type) {
+    Long lastSendTime = lastSendTimes.get(type);
+    return lastSendTime == null || System.currentTimeMillis() - lastSendTime >= pollIntervalInMillis;
+  }
+
+  @Override
+  protected void connect() throws Exception {
+    for (ClusterNotificationType type : ClusterNotificationType.values()) {
+      try {
+        getCommandExecutor().execute(new EnsurePropertyExistsCmd(getPropertyName(type)));
+      }
+      catch (ProcessEngineException e) {
+        // another node created the property concurrently; the next attempt finds it
+        getCommandExecutor().execute(new EnsurePropertyExistsCmd(getPropertyName(type)));
+      }
+    }
+    knownRevisions = getCommandExecutor().execute(new GetRevisionsCmd());
+  }
+
+  @Override
+  protected void disconnect() {
+    knownRevisions.clear();
+  }
+
+  @Override
+  protected void send(ClusterNotificationType type) {
+    lastSendTimes.put(type, System.currentTimeMillis());
+    try {
+      getCommandExecutor().execute(new UpdatePropertyCmd(type));
+    }
+    catch (OptimisticLockingException e) {
+      // another node published concurrently and has already incremented the revision
+      knownRevisions.remove(type);
+      notifyListeners(type);
+    }
+  }
+
+  @Override
+  protected void receiveNotifications(long timeoutInMillis) throws InterruptedException {
+    synchronized (monitor) {
+      if (!isNotificationPending) {
+        monitor.wait(Math.max(1, timeoutInMillis));
+      }
+      isNotificationPending = false;
+    }
+
+    if (pendingNotifications.isEmpty()) {
+      Map<ClusterNotificationType, Integer> revisions = getCommandExecutor().execute(new GetRevisionsCmd());
+      for (Map.Entry<ClusterNotificationType, Integer> revision : revisions.entrySet()) {
+        Integer knownRevision = knownRevisions.put(revision.getKey(), revision.getValue());
+        if (knownRevision != null && !knownRevision.equals(revision.getValue())) {
+          notifyListeners(revision.getKey());
+        }
+      }
+    }
+  }
+
+  protected CommandExecutor getCommandExecutor() {
+    return processEngineConfiguration.getCommandExecutorTxRequired();
+  }
+
+  protected String getPropertyName(ClusterNotificationType type) {
+    return PROPERTY_NAME_PREFIX + type.getName();
+  }
+
+  protected class EnsurePropertyExistsCmd implements Command<Void> {
+
+    protected String name;
+
+    public EnsurePropertyExistsCmd(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Void execute(CommandContext commandContext) {
+      PropertyManager propertyManager = commandContext.getPropertyManager();
+      if (propertyManager.findPropertyById(name) == null) {
+        propertyManager.insert(new PropertyEntity(name, nodeId));
+      }
+      return null;
+    }
+  }
+
+  protected class UpdatePropertyCmd implements Command<Void> {
+
+    protected ClusterNotificationType type;
+
+    public UpdatePropertyCmd(ClusterNotificationType type) {
+      this.type = type;
+    }
+
+    @Override
+    public Void execute(CommandContext commandContext) {
+      PropertyEntity property = commandContext.getPropertyManager().findPropertyById(getPropertyName(type));
+      if (property != null) {
+        Integer knownRevision = knownRevisions.get(type);
+        if (knownRevision != null && knownRevision != property.getRevision()) {
+          // another node published since the last poll
+          notifyListeners(type);
+        }
+
+        // the value has to change for the entity to be flushed
+        property.setValue(nodeId + ":" + (++sequence));
+        knownRevisions.put(type, property.getRevisionNext());
+      }
+      return null;
+    }
+  }
+
+  protected class GetRevisionsCmd implements Command<Map<ClusterNotificationType, Integer>> {
+
+    @Override
+    public Map<ClusterNotificationType, Integer> execute(CommandContext commandContext) {
+      Map<ClusterNotificationType, Integer> revisions = new EnumMap<>(ClusterNotificationType.class);
+      for (ClusterNotificationType type : ClusterNotificationType.values()) {
+        PropertyEntity property = commandContext.getPropertyManager().findPropertyById(getPropertyName(type));
+        if (property != null) {
+          revisions.put(type, property.getRevision());
+        }
+      }
+      return revisions;
+    }
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cluster;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * <p>{@link ClusterNotificationService} based on PostgreSQL's <code>LISTEN</code> /
+ * <code>NOTIFY</code>.</p>
+ *
+ * <p>The notification thread holds a dedicated connection of the engine's data source
+ * which listens on one channel per {@link ClusterNotificationType}. Notifications
+ * are delivered by the database server within milliseconds and waiting for them
+ * does not issue any queries, so the poll interval only bounds the delay of
+ * outgoing notifications.</p>
+ *
+ * <p>The PostgreSQL JDBC driver is accessed reflectively; the data source must
+ * hand out connections that can be unwrapped to <code>org.postgresql.PGConnection</code>.</p>
+ */
+public class PostgresClusterNotificationService extends AbstractClusterNotificationService {
+
+  public static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+  public static final String PG_NOTIFICATION_CLASS = "org.postgresql.PGNotification";
+
+  public static final long DEFAULT_POLL_INTERVAL_IN_MILLIS = 50;
+
+  protected String channelPrefix = "cibseven_";
+
+  protected Connection connection;
+  protected Object pgConnection;
+  protected Method getNotificationsMethod;
+  protected Method getNameMethod;
+  protected Method getParameterMethod;
+
+  public PostgresClusterNotificationService() {
+    super(DEFAULT_POLL_INTERVAL_IN_MILLIS);
+  }
+
+  @Override
+  protected void connect() throws Exception {
+    connection = processEngineConfiguration.getDataSource().getConnection();
+    connection.setAutoCommit(true);
+
+    ClassLoader driverClassLoader = connection.getClass().getClassLoader();
+    Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS, true, driverClassLoader);
+    Class<?> pgNotificationClass = Class.forName(PG_NOTIFICATION_CLASS, true, driverClassLoader);
+
+    pgConnection = connection.unwrap(pgConnectionClass);
+    getNotificationsMethod = pgConnectionClass.getMethod("getNotifications", int.class);
+    getNameMethod = pgNotificationClass.getMethod("getName");
+    getParameterMethod = pgNotificationClass.getMethod("getParameter");
+
+    try (Statement statement = connection.createStatement()) {
+      for (ClusterNotificationType type : ClusterNotificationType.values()) {
+        statement.execute("LISTEN " + getChannelName(type));
+      }
+    }
+  }
+
+  @Override
+  protected void disconnect() throws Exception {
+    try {
+      connection.close();
+    }
+    finally {
+      connection = null;
+      pgConnection = null;
+    }
+  }
+
+  @Override
+  protected void send(ClusterNotificationType type) throws Exception {
+    try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+      statement.setString(1, getChannelName(type));
+      statement.setString(2, nodeId);
+      statement.execute();
+    }
+  }
+
+  @Override
+  protected void receiveNotifications(long timeoutInMillis) throws Exception {
+    Object[] notifications = (Object[]) getNotificationsMethod.invoke(pgConnection, (int) Math.max(1, timeoutInMillis));
+    if (notifications == null) {
+      return;
+    }
+
+    for (Object notification : notifications) {
+      String sender = (String) getParameterMethod.invoke(notification);
+      if (nodeId.equals(sender)) {
+        // the local node has already been hinted
+        continue;
+      }
+
+      String channel = (String) getNameMethod.invoke(notification);
+      ClusterNotificationType type = getNotificationType(channel);
+      if (type != null) {
+        notifyListeners(type);
+      }
+    }
+  }
+
+  protected String getChannelName(ClusterNotificationType type) {
+    return channelPrefix + type.getName();
+  }
+
+  protected ClusterNotificationType getNotificationType(String channelName) {
+    if (channelName != null && channelName.startsWith(channelPrefix)) {
+      return ClusterNotificationType.forName(channelName.substring(channelPrefix.length()));
+    }
+    return null;
+  }
+
+  public String getChannelPrefix() {
+    return channelPrefix;
+  }
+
+  /**
+   * Allows engines that share a database but not their jobs (e.g. separate table
+   * prefixes) to use separate channels. Must be a lower case SQL identifier.
+   */
+  public void setChannelPrefix(String channelPrefix) {
+    this.channelPrefix = channelPrefix;
+  }
+
+}
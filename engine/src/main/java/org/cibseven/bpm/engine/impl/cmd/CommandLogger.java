@@ -361,4 +361,9 @@ public class CommandLogger extends ProcessEngineLogger {
         exceptionMessage("055", "Error while retrieving diagnostics data. Diagnostics registry was not initialized."));
   }
 
+  public BadUserRequestException exceptionDeliverSignalAsyncToSingleExecution() {
+    return new BadUserRequestException(exceptionMessage(
+        "056", "Cannot deliver a signal asynchronously to a single execution."));
+  }
+
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cmd;
+
+import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureAtLeastOneNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cibseven.bpm.engine.impl.ExecutionQueryImpl;
+import org.cibseven.bpm.engine.impl.MessageCorrelationBuilderImpl;
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.cibseven.bpm.engine.impl.runtime.BulkMessageCorrelationResultImpl;
+import org.cibseven.bpm.engine.impl.runtime.CorrelationHandler;
+import org.cibseven.bpm.engine.impl.runtime.CorrelationHandlerResult;
+import org.cibseven.bpm.engine.impl.runtime.CorrelationSet;
+import org.cibseven.bpm.engine.impl.runtime.DefaultCorrelationHandler;
+import org.cibseven.bpm.engine.impl.runtime.MessageCorrelationResultImpl;
+import org.cibseven.bpm.engine.runtime.BulkMessageCorrelationResult;
+import org.cibseven.bpm.engine.runtime.MessageCorrelationResultType;
+
+/**
+ * Correlates the first messages of the given list within one transaction.
+ *
+ * <p>The subscriptions of the messages that are correlated by process
+ * instance id or business key only are looked up by one query. All other
+ * messages are correlated by the {@link CorrelationHandler}.</p>
+ *
+ * <p>Stops before a message that targets a process instance or business key
+ * to which a message of this transaction was correlated already, and before
+ * a message correlated by the {@link CorrelationHandler} once a message of
+ * this transaction was correlated, so that the message is correlated in a
+ * new transaction.</p>
+ */
+public class CorrelateMessagesCmd implements Command<List<BulkMessageCorrelationResult>> {
+
+  private final static CommandLogger LOG = ProcessEngineLogger.CMD_LOGGER;
+
+  protected final List<MessageCorrelationBuilderImpl> messageCorrelations;
+  protected final int transactionSize;
+
+  protected Set<String> correlatedProcessInstanceIds = new HashSet<>();
+  protected Set<String> correlatedBusinessKeys = new HashSet<>();
+
+  public CorrelateMessagesCmd(List<MessageCorrelationBuilderImpl> messageCorrelations, int transactionSize) {
+    this.messageCorrelations = messageCorrelations;
+    this.transactionSize = transactionSize;
+  }
+
+  @Override
+  public List<BulkMessageCorrelationResult> execute(CommandContext commandContext) {
+    List<MessageCorrelationBuilderImpl> transactionMessages = messageCorrelations
+        .subList(0, Math.min(transactionSize, messageCorrelations.size()));
+
+    for (MessageCorrelationBuilderImpl builder : transactionMessages) {
+      ensureAtLeastOneNotNull(
+          "At least one of the following correlation criteria has to be present: " + "messageName, businessKey, correlationKeys, processInstanceId",
+          builder.getMessageName(), builder.getBusinessKey(), builder.getCorrelationProcessInstanceVariables(), builder.getProcessInstanceId());
+    }
+
+    Map<String, List<EventSubscriptionEntity>> subscriptionsByMessageName = commandContext.runWithoutAuthorization(
+        () -> findSubscriptionsOfTargetedMessages(commandContext, transactionMessages));
+
+    List<BulkMessageCorrelationResult> results = new ArrayList<>();
+
+    for (MessageCorrelationBuilderImpl builder : transactionMessages) {
+      CorrelationSet correlationSet = new CorrelationSet(builder);
+      if (isCorrelatedInTransaction(correlationSet.getProcessInstanceId(), correlationSet.getBusinessKey())) {
+        break;
+      }
+      if (!correlatedProcessInstanceIds.isEmpty() && !isTargetedMessage(commandContext, builder)) {
+        // the correlation handler queries the database, which does not see the unflushed
+        // changes of the messages correlated so far
+        break;
+      }
+
+      CorrelationHandlerResult correlationResult = commandContext.runWithoutAuthorization(
+          () -> correlate(commandContext, builder, correlationSet, subscriptionsByMessageName));
+
+      if (correlationResult == null) {
+        results.add(new BulkMessageCorrelationResultImpl(builder.getMessageName(), null));
+        continue;
+      }
+
+      if (MessageCorrelationResultType.Execution.equals(correlationResult.getResultType())
+          && correlatedProcessInstanceIds.contains(correlationResult.getExecutionEntity().getProcessInstanceId())) {
+        break;
+      }
+
+      CorrelateMessageCmd correlateMessageCmd = new CorrelateMessageCmd(builder, false, false, builder.isStartMessagesOnly());
+      correlateMessageCmd.checkAuthorization(correlationResult);
+      MessageCorrelationResultImpl messageCorrelationResult = correlateMessageCmd.createMessageCorrelationResult(commandContext, correlationResult);
+
+      correlatedProcessInstanceIds.add(messageCorrelationResult.getProcessInstance().getId());
+      String businessKey = messageCorrelationResult.getProcessInstance().getBusinessKey();
+      if (businessKey != null) {
+        correlatedBusinessKeys.add(businessKey);
+      }
+
+      results.add(new BulkMessageCorrelationResultImpl(builder.getMessageName(), messageCorrelationResult));
+    }
+
+    return results;
+  }
+
+  protected boolean isCorrelatedInTransaction(String processInstanceId, String businessKey) {
+    return (processInstanceId != null && correlatedProcessInstanceIds.contains(processInstanceId))
+        || (businessKey != null && correlatedBusinessKeys.contains(businessKey));
+  }
+
+  protected CorrelationHandlerResult correlate(CommandContext commandContext, MessageCorrelationBuilderImpl builder,
+      CorrelationSet correlationSet, Map<String, List<EventSubscriptionEntity>> subscriptionsByMessageName) {
+
+    CorrelationHandler correlationHandler = commandContext.getProcessEngineConfiguration().getCorrelationHandler();
+    String messageName = builder.getMessageName();
+
+    if (builder.isStartMessagesOnly()) {
+      List<CorrelationHandlerResult> correlationResults = correlationHandler.correlateStartMessages(commandContext, messageName, correlationSet);
+      if (correlationResults.size() > 1) {
+        throw LOG.exceptionCorrelateMessageToSingleProcessDefinition(messageName, correlationResults.size(), correlationSet);
+      }
+      return correlationResults.isEmpty() ? null : correlationResults.get(0);
+    }
+
+    if (!isTargetedMessage(commandContext, builder)) {
+      return correlationHandler.correlateMessage(commandContext, messageName, correlationSet);
+    }
+
+    Set<ExecutionEntity> matchingExecutions = new LinkedHashSet<>();
+    for (EventSubscriptionEntity subscription : subscriptionsByMessageName.getOrDefault(messageName, Collections.emptyList())) {
+      ExecutionEntity execution = subscription.getExecution();
+      if (matchesExecution(commandContext, subscription, execution, correlationSet)) {
+        matchingExecutions.add(execution);
+      }
+    }
+
+    if (matchingExecutions.size() > 1) {
+      throw LOG.exceptionCorrelateMessageToSingleExecution(messageName, matchingExecutions.size(), correlationSet);
+    }
+    else if (matchingExecutions.size() == 1) {
+      return CorrelationHandlerResult.matchedExecution(matchingExecutions.iterator().next());
+    }
+    else if (correlationSet.isExecutionsOnly()) {
+      return null;
+    }
+
+    List<CorrelationHandlerResult> correlationResults = correlationHandler.correlateStartMessages(commandContext, messageName, correlationSet);
+    if (correlationResults.size() > 1) {
+      throw LOG.exceptionCorrelateMessageToSingleProcessDefinition(messageName, correlationResults.size(), correlationSet);
+    }
+    return correlationResults.isEmpty() ? null : correlationResults.get(0);
+  }
+
+  /**
+   * A targeted message is correlated by its name and process instance id or
+   * business key only, so that the subscriptions it matches are known from
+   * {@link #findSubscriptionsOfTargetedMessages(CommandContext, List)}.
+   */
+  protected boolean isTargetedMessage(CommandContext commandContext, MessageCorrelationBuilderImpl builder) {
+    return builder.getMessageName() != null
+        && (builder.getProcessInstanceId() != null || builder.getBusinessKey() != null)
+        && isEmpty(builder.getCorrelationProcessInstanceVariables())
+        && isEmpty(builder.getCorrelationLocalVariables())
+        && !builder.isStartMessagesOnly()
+        // a custom correlation handler may correlate differently
+        && commandContext.getProcessEngineConfiguration().getCorrelationHandler().getClass() == DefaultCorrelationHandler.class;
+  }
+
+  protected boolean isEmpty(Map<String, Object> variables) {
+    return variables == null || variables.isEmpty();
+  }
+
+  protected Map<String, List<EventSubscriptionEntity>> findSubscriptionsOfTargetedMessages(CommandContext commandContext,
+      List<MessageCorrelationBuilderImpl> transactionMessages) {
+
+    Set<String> messageNames = new HashSet<>();
+    Set<String> processInstanceIds = new HashSet<>();
+    Set<String> businessKeys = new HashSet<>();
+
+    for (MessageCorrelationBuilderImpl builder : transactionMessages) {
+      if (isTargetedMessage(commandContext, builder)) {
+        messageNames.add(builder.getMessageName());
+        if (builder.getProcessInstanceId() != null) {
+          processInstanceIds.add(builder.getProcessInstanceId());
+        }
+        if (builder.getBusinessKey() != null) {
+          businessKeys.add(builder.getBusinessKey());
+        }
+      }
+    }
+
+    Map<String, List<EventSubscriptionEntity>> subscriptionsByMessageName = new HashMap<>();
+    if (messageNames.isEmpty()) {
+      return subscriptionsByMessageName;
+    }
+
+    List<EventSubscriptionEntity> subscriptions = commandContext.getEventSubscriptionManager()
+        .findMessageEventSubscriptionsByNamesAndProcessInstances(messageNames, processInstanceIds, businessKeys);
+
+    Set<String> subscribedProcessInstanceIds = new HashSet<>();
+    for (EventSubscriptionEntity subscription : subscriptions) {
+      subscriptionsByMessageName.computeIfAbsent(subscription.getEventName(), name -> new ArrayList<>()).add(subscription);
+      subscribedProcessInstanceIds.add(subscription.getProcessInstanceId());
+    }
+
+    if (!subscribedProcessInstanceIds.isEmpty()) {
+      // loads the executions of the subscriptions into the entity cache
+      ExecutionQueryImpl executionQuery = new ExecutionQueryImpl();
+      executionQuery.processInstanceIds(subscribedProcessInstanceIds);
+      commandContext.getExecutionManager().findExecutionsByQueryCriteria(executionQuery, null);
+    }
+
+    return subscriptionsByMessageName;
+  }
+
+  protected boolean matchesExecution(CommandContext commandContext, EventSubscriptionEntity subscription,
+      ExecutionEntity execution, CorrelationSet correlationSet) {
+
+    DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+    if (dbEntityManager.isDeleted(subscription) || execution == null || dbEntityManager.isDeleted(execution)
+        || execution.isSuspended()) {
+      return false;
+    }
+
+    String processInstanceId = correlationSet.getProcessInstanceId();
+    if (processInstanceId != null && !processInstanceId.equals(execution.getProcessInstanceId())) {
+      return false;
+    }
+
+    String businessKey = correlationSet.getBusinessKey();
+    if (businessKey != null && !businessKey.equals(execution.getProcessBusinessKey())) {
+      return false;
+    }
+
+    if (correlationSet.isTenantIdSet()) {
+      String tenantId = correlationSet.getTenantId();
+      return tenantId == null ? execution.getTenantId() == null : tenantId.equals(execution.getTenantId());
+    }
+
+    return true;
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cmd;
+
+import java.io.Serializable;
+
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+
+/**
+ * Returns the bytes of a byte array or <code>null</code> if the byte array does not exist.
+ */
+public class GetByteArrayValueCmd implements Command<byte[]>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String byteArrayId;
+
+  public GetByteArrayValueCmd(String byteArrayId) {
+    this.byteArrayId = byteArrayId;
+  }
+
+  public byte[] execute(CommandContext commandContext) {
+    ByteArrayEntity byteArray = commandContext
+        .getDbEntityManager()
+        .selectById(ByteArrayEntity.class, byteArrayId);
+
+    if (byteArray == null) {
+      return null;
+    }
+    return byteArray.getBytes();
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.persistence.entity.CorrelationKeyManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.PropertyManager;
+
+/**
+ * Brings the correlation key index in line with the configured correlation key
+ * variable names: indexes the process variables that were written before a name
+ * was configured and removes the index of names that are no longer configured.
+ * Each execution indexes at most one batch of variables and returns
+ * <code>true</code> once the index of every configured name is complete.
+ */
+public class IndexCorrelationKeysCmd implements Command<Boolean> {
+
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
+  protected int batchSize;
+
+  public IndexCorrelationKeysCmd() {
+    this(DEFAULT_BATCH_SIZE);
+  }
+
+  public IndexCorrelationKeysCmd(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public Boolean execute(CommandContext commandContext) {
+    // serializes the indexing of process engines that start at the same time
+    PropertyManager propertyManager = commandContext.getPropertyManager();
+    propertyManager.acquireExclusiveLockForStartup();
+
+    CorrelationKeyManager correlationKeyManager = commandContext.getCorrelationKeyManager();
+    List<String> configuredNames = getConfiguredNames(commandContext);
+    Map<String, PropertyEntity> indexStates = findIndexStates(commandContext);
+
+    for (Map.Entry<String, PropertyEntity> indexState : indexStates.entrySet()) {
+      if (!configuredNames.contains(indexState.getKey())) {
+        correlationKeyManager.deleteCorrelationKeysByName(indexState.getKey());
+        propertyManager.delete(indexState.getValue());
+      }
+    }
+
+    for (String name : configuredNames) {
+      PropertyEntity indexState = indexStates.get(name);
+
+      if (indexState == null) {
+        // removes the keys that were indexed before the name was configured the last time
+        correlationKeyManager.deleteCorrelationKeysByName(name);
+        propertyManager.insert(new PropertyEntity(correlationKeyManager.getIndexStatePropertyName(name),
+            CorrelationKeyManager.INDEX_STATE_INDEXING));
+
+        // the removal is flushed at the end of the command, so the indexing starts with the next one
+        return false;
+      }
+      else if (!CorrelationKeyManager.INDEX_STATE_COMPLETE.equals(indexState.getValue())) {
+        int indexedVariables = correlationKeyManager.indexCorrelationKeys(name, batchSize);
+
+        if (indexedVariables < batchSize) {
+          indexState.setValue(CorrelationKeyManager.INDEX_STATE_COMPLETE);
+        }
+        else {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the configured names whose index state can be kept in a property.
+   * A correlation never uses the index of the other names.
+   */
+  protected List<String> getConfiguredNames(CommandContext commandContext) {
+    List<String> configuredNames = new ArrayList<>();
+
+    List<String> correlationKeyVariableNames = commandContext.getProcessEngineConfiguration().getCorrelationKeyVariableNames();
+    if (correlationKeyVariableNames != null) {
+      for (String name : correlationKeyVariableNames) {
+        if (CorrelationKeyManager.INDEX_STATE_PROPERTY_PREFIX.length() + name.length() <= CorrelationKeyManager.MAX_PROPERTY_NAME_LENGTH
+            && !configuredNames.contains(name)) {
+          configuredNames.add(name);
+        }
+      }
+    }
+
+    return configuredNames;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected Map<String, PropertyEntity> findIndexStates(CommandContext commandContext) {
+    List<PropertyEntity> properties = commandContext.getDbEntityManager().selectList("selectProperties");
+
+    Map<String, PropertyEntity> indexStates = new HashMap<>();
+    for (PropertyEntity property : properties) {
+      if (property.getName().startsWith(CorrelationKeyManager.INDEX_STATE_PROPERTY_PREFIX)) {
+        indexStates.put(property.getName().substring(CorrelationKeyManager.INDEX_STATE_PROPERTY_PREFIX.length()), property);
+      }
+    }
+
+    return indexStates;
+  }
+
+}
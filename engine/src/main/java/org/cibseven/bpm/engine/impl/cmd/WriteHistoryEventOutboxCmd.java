@@ -0,0 +1,79 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cmd;
+
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.cibseven.bpm.engine.impl.history.event.HistoryEvent;
+import org.cibseven.bpm.engine.impl.history.handler.HistoryEventOutboxDbHistoryEventHandler;
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.persistence.entity.HistoryEventOutboxEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.HistoryEventOutboxManager;
+
+/**
+ * Writes the oldest entries of the history event outbox to the history tables
+ * and removes them from the outbox. Returns the number of written entries.
+ */
+public class WriteHistoryEventOutboxCmd implements Command<Integer> {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected int maxEntries;
+  protected HistoryEventOutboxEntity currentEntry;
+
+  public WriteHistoryEventOutboxCmd(int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public Integer execute(CommandContext commandContext) {
+    // serializes the writers, since the events have to be written in the order they were produced
+    commandContext.getPropertyManager().acquireExclusiveLockForHistoryEventOutbox();
+
+    HistoryEventOutboxManager outboxManager = commandContext.getHistoryEventOutboxManager();
+    List<HistoryEventOutboxEntity> entries = outboxManager.findHistoryEventOutboxEntries(maxEntries);
+
+    HistoryEventOutboxDbHistoryEventHandler historyEventHandler = new HistoryEventOutboxDbHistoryEventHandler();
+    int numEvents = 0;
+
+    for (HistoryEventOutboxEntity entry : entries) {
+      currentEntry = entry;
+      List<HistoryEvent> historyEvents = entry.getHistoryEvents();
+      historyEventHandler.handleEvents(historyEvents);
+      numEvents += historyEvents.size();
+
+      outboxManager.deleteHistoryEventOutboxEntry(entry);
+    }
+
+    if (!entries.isEmpty()) {
+      LOG.historyEventOutboxEntriesWritten(entries.size(), numEvents);
+    }
+
+    return entries.size();
+  }
+
+  /**
+   * Returns the entry that was written last. If the command fails and wrote a
+   * single entry, this is the entry that caused the failure.
+   */
+  public HistoryEventOutboxEntity getCurrentEntry() {
+    return currentEntry;
+  }
+
+}
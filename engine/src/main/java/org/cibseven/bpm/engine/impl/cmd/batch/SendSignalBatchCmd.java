@@ -0,0 +1,115 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.cmd.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.cibseven.bpm.engine.authorization.BatchPermissions;
+import org.cibseven.bpm.engine.batch.Batch;
+import org.cibseven.bpm.engine.history.UserOperationLogEntry;
+import org.cibseven.bpm.engine.impl.SignalEventReceivedBuilderImpl;
+import org.cibseven.bpm.engine.impl.batch.BatchConfiguration;
+import org.cibseven.bpm.engine.impl.batch.BatchElementConfiguration;
+import org.cibseven.bpm.engine.impl.batch.builder.BatchBuilder;
+import org.cibseven.bpm.engine.impl.batch.signal.SignalEventBatchConfiguration;
+import org.cibseven.bpm.engine.impl.core.variable.VariableUtil;
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.PropertyChange;
+import org.cibseven.bpm.engine.impl.util.ImmutablePair;
+
+/**
+ * Creates a batch that delivers a signal to all signal event subscriptions
+ * that exist when the batch is created. The subscriptions are collected page
+ * by page so that the command never holds more than one page of entities.
+ */
+public class SendSignalBatchCmd implements Command<Batch> {
+
+  protected static final int SUBSCRIPTION_PAGE_SIZE = 1000;
+
+  protected String signalName;
+  protected Map<String, Object> variables;
+  protected String tenantId;
+  protected boolean isTenantIdSet;
+
+  public SendSignalBatchCmd(SignalEventReceivedBuilderImpl builder) {
+    this.signalName = builder.getSignalName();
+    this.variables = builder.getVariables();
+    this.tenantId = builder.getTenantId();
+    this.isTenantIdSet = builder.isTenantIdSet();
+  }
+
+  @Override
+  public Batch execute(CommandContext commandContext) {
+    BatchElementConfiguration elementConfiguration = collectEventSubscriptionIds(commandContext);
+
+    Batch batch = new BatchBuilder(commandContext)
+        .type(Batch.TYPE_SIGNAL_EVENT)
+        .config(getConfiguration(elementConfiguration))
+        .permission(BatchPermissions.CREATE_BATCH_SIGNAL_EVENT)
+        .operationLogHandler(this::writeUserOperationLog)
+        .build();
+
+    if (variables != null) {
+      VariableUtil.setVariablesByBatchId(variables, batch.getId());
+    }
+
+    return batch;
+  }
+
+  protected BatchElementConfiguration collectEventSubscriptionIds(CommandContext commandContext) {
+    EventSubscriptionManager eventSubscriptionManager = commandContext.getEventSubscriptionManager();
+    BatchElementConfiguration elementConfiguration = new BatchElementConfiguration();
+
+    String lastId = null;
+    List<ImmutablePair<String, String>> page;
+    do {
+      page = eventSubscriptionManager.findSignalEventSubscriptionDeploymentIdMappings(
+          signalName, isTenantIdSet, tenantId, lastId, SUBSCRIPTION_PAGE_SIZE);
+
+      if (!page.isEmpty()) {
+        elementConfiguration.addDeploymentMappings(page);
+        lastId = page.get(page.size() - 1).getRight();
+      }
+    } while (page.size() == SUBSCRIPTION_PAGE_SIZE);
+
+    return elementConfiguration;
+  }
+
+  protected BatchConfiguration getConfiguration(BatchElementConfiguration elementConfiguration) {
+    return new SignalEventBatchConfiguration(
+        elementConfiguration.getIds(),
+        elementConfiguration.getMappings(),
+        signalName);
+  }
+
+  protected void writeUserOperationLog(CommandContext commandContext, int instancesCount) {
+    List<PropertyChange> propChanges = new ArrayList<>();
+
+    propChanges.add(new PropertyChange("signalName", null, signalName));
+    propChanges.add(new PropertyChange("nrOfInstances", null, instancesCount));
+    propChanges.add(new PropertyChange("nrOfVariables", null, variables == null ? 0 : variables.size()));
+    propChanges.add(new PropertyChange("async", null, true));
+
+    commandContext.getOperationLogManager()
+        .logProcessInstanceOperation(UserOperationLogEntry.OPERATION_TYPE_SEND_SIGNAL, propChanges);
+  }
+
+}
@@ -24,6 +24,7 @@ import org.cibseven.bpm.engine.impl.core.CoreLogger;
 import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
 import org.cibseven.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
 import org.cibseven.bpm.engine.impl.persistence.entity.util.TypedValueField;
+import org.cibseven.bpm.engine.impl.variable.serializer.CompactJavaObjectSerializer;
 import org.cibseven.bpm.engine.impl.variable.serializer.TypedValueSerializer;
 import org.cibseven.bpm.engine.impl.variable.serializer.VariableSerializerFactory;
 import org.cibseven.bpm.engine.variable.VariableMap;
@@ -72,7 +73,8 @@ public class VariableUtil {
           }
         }
 
-        return Variables.SerializationDataFormats.JAVA.getName().equals(requestedDataFormat);
+        return Variables.SerializationDataFormats.JAVA.getName().equals(requestedDataFormat)
+            || CompactJavaObjectSerializer.SERIALIZATION_DATA_FORMAT.equals(requestedDataFormat);
       }
     }
     return false;
@@ -19,6 +19,7 @@ package org.cibseven.bpm.engine.impl.core.variable.scope;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -38,6 +39,9 @@ public class VariableStore<T extends CoreVariableInstance> {
   protected VariablesProvider<T> variablesProvider;
   protected Map<String, T> variables;
 
+  /** variables fetched by name while the store is not initialized */
+  protected Map<String, T> fetchedVariables;
+
   protected Map<String, T> removedVariables = new HashMap<>();
 
   protected List<VariableStoreObserver<T>> observers;
@@ -62,6 +66,7 @@ public class VariableStore<T extends CoreVariableInstance> {
     }
     else {
       this.variablesProvider = variablesProvider;
+      this.fetchedVariables = null;
     }
 
   }
@@ -107,6 +112,34 @@ public class VariableStore<T extends CoreVariableInstance> {
     return getVariablesMap().get(name);
   }
 
+  /**
+   * Returns the variable with the given name. If the store is not initialized,
+   * only this variable is fetched from the provider and the store stays
+   * uninitialized. Modifying the store initializes it with all variables.
+   */
+  public T fetchVariable(String name) {
+    if (isInitialized()) {
+      return variables.get(name);
+    }
+
+    if (fetchedVariables == null) {
+      fetchedVariables = new HashMap<>();
+    }
+    else if (fetchedVariables.containsKey(name)) {
+      return fetchedVariables.get(name);
+    }
+
+    T fetchedVariable = null;
+    for (T variable : variablesProvider.provideVariables(Collections.singletonList(name))) {
+      if (name.equals(variable.getName())) {
+        fetchedVariable = variable;
+      }
+    }
+
+    fetchedVariables.put(name, fetchedVariable);
+    return fetchedVariable;
+  }
+
   public List<T> getVariables() {
     return new ArrayList<>(getVariablesMap().values());
   }
@@ -163,6 +196,7 @@ public class VariableStore<T extends CoreVariableInstance> {
   public void forceInitialization() {
     if (!isInitialized()) {
       variables = new HashMap<>();
+      fetchedVariables = null;
 
       for (T variable : variablesProvider.provideVariables()) {
         variables.put(variable.getName(), variable);
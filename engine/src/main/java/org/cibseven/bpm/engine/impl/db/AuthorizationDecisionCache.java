@@ -0,0 +1,196 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.cibseven.commons.utils.cache.Cache;
+import org.cibseven.commons.utils.cache.ConcurrentLruCache;
+
+/**
+ * <p>Process engine wide cache of authorization decisions. For every user and
+ * set of groups, it keeps a snapshot of the results of the authorization
+ * checks that were executed for them, so that repeated checks are answered
+ * without querying <code>ACT_RU_AUTHORIZATION</code>.</p>
+ *
+ * <p>All snapshots are discarded when a command of this process engine
+ * flushes a modification of an authorization. Modifications by other process
+ * engine nodes become visible after the time to live of a snapshot expired.</p>
+ */
+public class AuthorizationDecisionCache {
+
+  protected static final String REVOKE_CHECK_KEY = "revoke";
+
+  protected Cache<String, Snapshot> snapshots;
+  protected long timeToLiveInMillis;
+  protected int maxDecisionsPerSnapshot;
+
+  /** incremented on every modification of an authorization */
+  protected final AtomicLong revision = new AtomicLong();
+
+  public AuthorizationDecisionCache(int capacity, int maxDecisionsPerSnapshot, long timeToLiveInMillis) {
+    this.snapshots = new ConcurrentLruCache<>(capacity);
+    this.maxDecisionsPerSnapshot = maxDecisionsPerSnapshot;
+    this.timeToLiveInMillis = timeToLiveInMillis;
+  }
+
+  /**
+   * @return the revision that has to be passed to the put methods and that must
+   * be obtained before the decision is selected from the database.
+   */
+  public long getRevision() {
+    return revision.get();
+  }
+
+  public Boolean getDecision(String userId, List<String> groupIds, CompositePermissionCheck permissionCheck, boolean revokeCheckEnabled) {
+    String checkKey = getCheckKey(permissionCheck, revokeCheckEnabled);
+    if (checkKey == null) {
+      return null;
+    }
+    Snapshot snapshot = getSnapshot(userId, groupIds);
+    return snapshot != null ? snapshot.decisions.get(checkKey) : null;
+  }
+
+  public void putDecision(String userId, List<String> groupIds, CompositePermissionCheck permissionCheck,
+                          boolean revokeCheckEnabled, boolean decision, long revision) {
+    String checkKey = getCheckKey(permissionCheck, revokeCheckEnabled);
+    if (checkKey != null) {
+      put(userId, groupIds, checkKey, decision, revision);
+    }
+  }
+
+  public Boolean getRevokeCheckEnabled(String userId, List<String> groupIds) {
+    Snapshot snapshot = getSnapshot(userId, groupIds);
+    return snapshot != null ? snapshot.decisions.get(REVOKE_CHECK_KEY) : null;
+  }
+
+  public void putRevokeCheckEnabled(String userId, List<String> groupIds, boolean revokeCheckEnabled, long revision) {
+    put(userId, groupIds, REVOKE_CHECK_KEY, revokeCheckEnabled, revision);
+  }
+
+  /**
+   * Discards all snapshots.
+   */
+  public void invalidate() {
+    revision.incrementAndGet();
+    snapshots.clear();
+  }
+
+  protected Snapshot getSnapshot(String userId, List<String> groupIds) {
+    String snapshotKey = getSnapshotKey(userId, groupIds);
+    Snapshot snapshot = snapshots.get(snapshotKey);
+    if (snapshot == null) {
+      return null;
+    }
+    if (snapshot.revision != revision.get() || snapshot.expirationTime < System.currentTimeMillis()) {
+      snapshots.remove(snapshotKey);
+      return null;
+    }
+    return snapshot;
+  }
+
+  protected void put(String userId, List<String> groupIds, String checkKey, boolean decision, long revision) {
+    if (this.revision.get() != revision) {
+      // an authorization was modified since the decision was selected
+      return;
+    }
+
+    Snapshot snapshot = getSnapshot(userId, groupIds);
+    if (snapshot == null) {
+      snapshot = new Snapshot(revision, System.currentTimeMillis() + timeToLiveInMillis);
+      snapshots.put(getSnapshotKey(userId, groupIds), snapshot);
+    }
+    if (snapshot.revision == revision && snapshot.decisions.size() < maxDecisionsPerSnapshot) {
+      snapshot.decisions.put(checkKey, decision);
+    }
+  }
+
+  protected String getSnapshotKey(String userId, List<String> groupIds) {
+    StringBuilder key = new StringBuilder();
+    appendId(key, userId);
+    if (groupIds != null && !groupIds.isEmpty()) {
+      List<String> sortedGroupIds = new ArrayList<>(groupIds);
+      Collections.sort(sortedGroupIds);
+      for (String groupId : sortedGroupIds) {
+        appendId(key, groupId);
+      }
+    }
+    return key.toString();
+  }
+
+  /**
+   * @return a key that identifies the given check or null if the check cannot be cached
+   */
+  protected String getCheckKey(CompositePermissionCheck permissionCheck, boolean revokeCheckEnabled) {
+    StringBuilder key = new StringBuilder();
+    key.append(revokeCheckEnabled ? 'r' : 'g');
+    return appendCheckKey(key, permissionCheck) ? key.toString() : null;
+  }
+
+  protected boolean appendCheckKey(StringBuilder key, CompositePermissionCheck permissionCheck) {
+    key.append(permissionCheck.isDisjunctive() ? "or(" : "and(");
+    for (PermissionCheck atomicCheck : permissionCheck.getAtomicChecks()) {
+      if (atomicCheck.getResourceIdQueryParam() != null) {
+        // part of a query, the decision depends on the selected rows
+        return false;
+      }
+      key.append(atomicCheck.getResourceType())
+        .append(':').append(atomicCheck.getPerms())
+        .append(':').append(atomicCheck.getAuthorizationNotFoundReturnValue())
+        .append(':');
+      appendId(key, atomicCheck.getResourceId());
+    }
+    for (CompositePermissionCheck compositeCheck : permissionCheck.getCompositeChecks()) {
+      if (!appendCheckKey(key, compositeCheck)) {
+        return false;
+      }
+    }
+    key.append(')');
+    return true;
+  }
+
+  /**
+   * Appends the id with its length, so that ids containing separators cannot
+   * produce the key of a different check.
+   */
+  protected void appendId(StringBuilder key, String id) {
+    if (id == null) {
+      key.append("-;");
+    } else {
+      key.append(id.length()).append('#').append(id).append(';');
+    }
+  }
+
+  protected static class Snapshot {
+
+    protected final long revision;
+    protected final long expirationTime;
+    protected final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+
+    public Snapshot(long revision, long expirationTime) {
+      this.revision = revision;
+      this.expirationTime = expirationTime;
+    }
+
+  }
+
+}
@@ -807,6 +807,62 @@ public class EnginePersistenceLogger extends ProcessEngineLogger {
     );
   }
 
+  public void databaseFlushPlan(int numOperations, int numParts, int numStatementBatches) {
+    logDebug("111", "Flushing {} operations in {} parts and {} statement batches", numOperations, numParts,
+        numStatementBatches);
+  }
+
+  public ProcessEngineException historyEventOutboxSerializationException(Throwable cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "112", "Cannot serialize history events into the history event outbox: {}", cause.getMessage()), cause);
+  }
+
+  public ProcessEngineException historyEventOutboxDeserializationException(String entryId, Throwable cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "113", "Cannot deserialize the history events of history event outbox entry '{}': {}", entryId,
+        cause.getMessage()), cause);
+  }
+
+  public void exceptionWhileWritingHistoryEventOutbox(Throwable cause) {
+    logError(
+        "114", "Exception while writing history events from the history event outbox. "
+            + "The entries remain in the outbox and are written with the next attempt: {}", cause.getMessage(), cause);
+  }
+
+  public void historyEventOutboxEntriesWritten(int numEntries, int numEvents) {
+    logDebug("115", "Wrote {} history events of {} history event outbox entries", numEvents, numEntries);
+  }
+
+  public ProcessEngineException entityTypeNotCacheableException(Class<?> entityType) {
+    return new ProcessEngineException(exceptionMessage(
+        "116", "Entity type '{}' cannot be cached in the second level entity cache. "
+            + "Cacheable entity types have to implement DbEntity and Serializable.", entityType.getName()));
+  }
+
+  public void exceptionWhileCopyingEntityOfSecondLevelCache(Class<?> entityType, String id, Throwable cause) {
+    logWarn(
+        "117", "Exception while copying entity '{}' with id '{}' of the second level entity cache, "
+            + "the entity is loaded from the database: {}", entityType.getName(), id, cause.getMessage(), cause);
+  }
+
+  public void exceptionWhileWritingHistoryEventOutboxEntry(String entryId, int failureCount, Throwable cause) {
+    logError(
+        "118", "Exception while writing history event outbox entry '{}' (attempt {}). "
+            + "The entry is retried with the next attempt: {}", entryId, failureCount, cause.getMessage(), cause);
+  }
+
+  public void historyEventOutboxEntrySkipped(String entryId, int failureCount, Throwable cause) {
+    logError(
+        "119", "Writing history event outbox entry '{}' failed {} times. The entry is skipped and remains in "
+            + "the outbox until it is removed manually: {}", entryId, failureCount, cause.getMessage(), cause);
+  }
+
+  public void exceptionWhileIndexingCorrelationKeys(long retryInterval, Throwable cause) {
+    logError(
+        "120", "Exception while indexing correlation keys. Correlations do not use the incomplete index. "
+            + "The indexing is retried in {} ms: {}", retryInterval, cause.getMessage(), cause);
+  }
+
   // exception code 110 is already taken. See requiredCamundaAdminOrPermissionException() for details.
 
   public static List<SQLException> findRelatedSqlExceptions(Throwable exception) {
@@ -58,6 +58,12 @@ public interface PersistenceSession extends Session {
 
   List<?> selectList(String statement, Object parameter);
 
+  /**
+   * Selects like {@link #selectList(String, Object)} but stops reading the
+   * result set after the given number of rows.
+   */
+  List<?> selectList(String statement, Object parameter, int maxRows);
+
   <T extends DbEntity> T selectById(Class<T> type, String id);
 
   Object selectOne(String statement, Object parameter);
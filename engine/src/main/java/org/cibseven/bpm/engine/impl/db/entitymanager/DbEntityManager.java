@@ -51,8 +51,12 @@ import org.cibseven.bpm.engine.impl.TaskQueryImpl;
 import org.cibseven.bpm.engine.impl.UserQueryImpl;
 import org.cibseven.bpm.engine.impl.cfg.IdGenerator;
 import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cfg.TransactionContext;
+import org.cibseven.bpm.engine.impl.cfg.TransactionListener;
+import org.cibseven.bpm.engine.impl.cfg.TransactionState;
 import org.cibseven.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
 import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.db.AuthorizationDecisionCache;
 import org.cibseven.bpm.engine.impl.db.DbEntity;
 import org.cibseven.bpm.engine.impl.db.DbEntityLifecycleAware;
 import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
@@ -64,18 +68,21 @@ import org.cibseven.bpm.engine.impl.db.PersistenceSession;
 import org.cibseven.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
 import org.cibseven.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
 import org.cibseven.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
+import org.cibseven.bpm.engine.impl.db.entitymanager.cache.SecondLevelEntityCache;
 import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbFlushPlanner;
 import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbOperation.State;
 import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
 import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 import org.cibseven.bpm.engine.impl.identity.db.DbGroupQueryImpl;
 import org.cibseven.bpm.engine.impl.identity.db.DbUserQueryImpl;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
 import org.cibseven.bpm.engine.impl.interceptor.Session;
 import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutorContext;
+import org.cibseven.bpm.engine.impl.persistence.entity.AuthorizationEntity;
 import org.cibseven.bpm.engine.impl.persistence.entity.ByteArrayEntity;
-import org.cibseven.bpm.engine.impl.util.CollectionUtil;
 import org.cibseven.bpm.engine.impl.util.EnsureUtil;
 import org.cibseven.bpm.engine.repository.ResourceTypes;
 
@@ -90,6 +97,7 @@ public class DbEntityManager implements Session, EntityLoadListener {
   protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
   protected static final String TOGGLE_FOREIGN_KEY_STMT = "toggleForeignKey";
   public static final int BATCH_SIZE = 50;
+  protected static final DbFlushPlanner FLUSH_PLANNER = new DbFlushPlanner(BATCH_SIZE);
 
   protected List<OptimisticLockingListener> optimisticLockingListeners;
 
@@ -102,6 +110,11 @@ public class DbEntityManager implements Session, EntityLoadListener {
   protected PersistenceSession persistenceSession;
   protected boolean isIgnoreForeignKeysForNextFlush;
 
+  protected SecondLevelEntityCache secondLevelEntityCache;
+  protected AuthorizationDecisionCache authorizationDecisionCache;
+  protected List<DbOperation> pendingCacheInvalidations;
+  protected boolean isAuthorizationCacheInvalidationPending;
+
   public DbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession) {
     this.idGenerator = idGenerator;
     this.persistenceSession = persistenceSession;
@@ -172,6 +185,20 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return selectListWithRawParameter(statement, parameter, parameter.getFirstResult(), parameter.getMaxResults());
   }
 
+  /**
+   * Selects like {@link #selectList(String, ListQueryParameterObject)} but stops
+   * reading the result set after the maximum number of results. For statements
+   * that cannot limit their rows in SQL, e.g. because the database does not
+   * support it in combination with row locks.
+   */
+  public List selectListWithRowLimit(String statement, ListQueryParameterObject parameter) {
+    if (parameter.getFirstResult() == -1 || parameter.getMaxResults() == -1) {
+      return Collections.EMPTY_LIST;
+    }
+    List loadedObjects = persistenceSession.selectList(statement, parameter, parameter.getMaxResults());
+    return filterLoadedObjects(loadedObjects);
+  }
+
   @SuppressWarnings("unchecked")
   public List selectListWithRawParameter(String statement, Object parameter, int firstResult, int maxResults) {
     if(firstResult == -1 ||  maxResults==-1) {
@@ -206,6 +233,10 @@ public class DbEntityManager implements Session, EntityLoadListener {
       return persistentObject;
     }
 
+    if (secondLevelEntityCache != null && secondLevelEntityCache.isCacheable(entityClass)) {
+      return selectByIdFromSecondLevelCache(entityClass, id);
+    }
+
     persistentObject = persistenceSession.selectById(entityClass, id);
 
     if (persistentObject==null) {
@@ -215,6 +246,23 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return persistentObject;
   }
 
+  protected <T extends DbEntity> T selectByIdFromSecondLevelCache(Class<T> entityClass, String id) {
+    T persistentObject = secondLevelEntityCache.get(entityClass, id);
+    if (persistentObject != null) {
+      // the copy is treated like an entity that was loaded from the database
+      onEntityLoaded(persistentObject);
+      return persistentObject;
+    }
+
+    long modificationCount = secondLevelEntityCache.getModificationCount(entityClass);
+    persistentObject = persistenceSession.selectById(entityClass, id);
+
+    if (persistentObject != null) {
+      secondLevelEntityCache.put(entityClass, persistentObject, modificationCount);
+    }
+    return persistentObject;
+  }
+
   public <T extends DbEntity> T getCachedEntity(Class<T> type, String id) {
     return dbEntityCache.get(type, id);
   }
@@ -309,6 +357,10 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
     LOG.databaseFlushSummary(operationsToFlush);
 
+    if (secondLevelEntityCache != null || authorizationDecisionCache != null) {
+      invalidateCaches(operationsToFlush);
+    }
+
     // If we want to delete all table data as bulk operation, on tables which have self references,
     // We need to turn the foreign key check off on MySQL and MariaDB.
     // On other databases we have to do nothing, the mapped statement will be empty.
@@ -318,7 +370,10 @@ public class DbEntityManager implements Session, EntityLoadListener {
     }
 
     try {
-      final List<List<DbOperation>> batches = CollectionUtil.partition(operationsToFlush, BATCH_SIZE);
+      final List<List<DbOperation>> batches = FLUSH_PLANNER.partition(operationsToFlush);
+      if (LOG.isDebugEnabled()) {
+        LOG.databaseFlushPlan(operationsToFlush.size(), batches.size(), FLUSH_PLANNER.countStatementBatches(batches));
+      }
       for (List<DbOperation> batch : batches) {
         flushDbOperations(batch, operationsToFlush);
       }
@@ -331,6 +386,65 @@ public class DbEntityManager implements Session, EntityLoadListener {
     }
   }
 
+  /**
+   * Invalidates the caches before the flush and once more after the
+   * transaction completed, since other commands may cache the previous state
+   * until then.
+   */
+  protected void invalidateCaches(List<DbOperation> operationsToFlush) {
+    List<DbOperation> entityInvalidations = new ArrayList<>();
+    boolean authorizationsModified = false;
+
+    for (DbOperation operation : operationsToFlush) {
+      Class<? extends DbEntity> entityType = operation.getEntityType();
+      if (secondLevelEntityCache != null && operation.getOperationType() != INSERT
+          && secondLevelEntityCache.isCacheable(entityType)) {
+        entityInvalidations.add(operation);
+      }
+      if (authorizationDecisionCache != null && AuthorizationEntity.class.isAssignableFrom(entityType)) {
+        authorizationsModified = true;
+      }
+    }
+    if (entityInvalidations.isEmpty() && !authorizationsModified) {
+      return;
+    }
+
+    invalidateCaches(secondLevelEntityCache, entityInvalidations, authorizationsModified ? authorizationDecisionCache : null);
+
+    CommandContext commandContext = Context.getCommandContext();
+    if (pendingCacheInvalidations == null && commandContext != null) {
+      pendingCacheInvalidations = new ArrayList<>();
+      final List<DbOperation> entityOperations = pendingCacheInvalidations;
+      final SecondLevelEntityCache entityCache = secondLevelEntityCache;
+
+      TransactionListener invalidationListener = context -> invalidateCaches(entityCache, entityOperations,
+          isAuthorizationCacheInvalidationPending ? authorizationDecisionCache : null);
+
+      TransactionContext transactionContext = commandContext.getTransactionContext();
+      transactionContext.addTransactionListener(TransactionState.COMMITTED, invalidationListener);
+      transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, invalidationListener);
+    }
+    if (pendingCacheInvalidations != null) {
+      pendingCacheInvalidations.addAll(entityInvalidations);
+      isAuthorizationCacheInvalidationPending |= authorizationsModified;
+    }
+  }
+
+  protected static void invalidateCaches(SecondLevelEntityCache entityCache,
+                                         List<DbOperation> entityInvalidations,
+                                         AuthorizationDecisionCache authorizationDecisionCache) {
+    for (DbOperation operation : entityInvalidations) {
+      if (operation instanceof DbEntityOperation) {
+        entityCache.invalidate(operation.getEntityType(), ((DbEntityOperation) operation).getEntity().getId());
+      } else {
+        entityCache.invalidateAll(operation.getEntityType());
+      }
+    }
+    if (authorizationDecisionCache != null) {
+      authorizationDecisionCache.invalidate();
+    }
+  }
+
   protected void flushDbOperations(List<DbOperation> operationsToFlush,
                                    List<DbOperation> allOperations) {
 
@@ -679,6 +793,22 @@ public class DbEntityManager implements Session, EntityLoadListener {
     this.dbEntityCache = dbEntityCache;
   }
 
+  public SecondLevelEntityCache getSecondLevelEntityCache() {
+    return secondLevelEntityCache;
+  }
+
+  public void setSecondLevelEntityCache(SecondLevelEntityCache secondLevelEntityCache) {
+    this.secondLevelEntityCache = secondLevelEntityCache;
+  }
+
+  public AuthorizationDecisionCache getAuthorizationDecisionCache() {
+    return authorizationDecisionCache;
+  }
+
+  public void setAuthorizationDecisionCache(AuthorizationDecisionCache authorizationDecisionCache) {
+    this.authorizationDecisionCache = authorizationDecisionCache;
+  }
+
   // query factory methods ////////////////////////////////////////////////////
 
   public DeploymentQueryImpl createDeploymentQuery() {
@@ -18,7 +18,9 @@ package org.cibseven.bpm.engine.impl.db.entitymanager;
 
 import org.cibseven.bpm.engine.impl.cfg.IdGenerator;
 import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.db.AuthorizationDecisionCache;
 import org.cibseven.bpm.engine.impl.db.PersistenceSession;
+import org.cibseven.bpm.engine.impl.db.entitymanager.cache.SecondLevelEntityCache;
 import org.cibseven.bpm.engine.impl.interceptor.SessionFactory;
 
 /**
@@ -27,9 +29,19 @@ import org.cibseven.bpm.engine.impl.interceptor.SessionFactory;
 public class DbEntityManagerFactory implements SessionFactory {
 
   protected IdGenerator idGenerator;
+  protected SecondLevelEntityCache secondLevelEntityCache;
+  protected AuthorizationDecisionCache authorizationDecisionCache;
 
   public DbEntityManagerFactory(IdGenerator idGenerator) {
+    this(idGenerator, null, null);
+  }
+
+  public DbEntityManagerFactory(IdGenerator idGenerator,
+                                SecondLevelEntityCache secondLevelEntityCache,
+                                AuthorizationDecisionCache authorizationDecisionCache) {
     this.idGenerator = idGenerator;
+    this.secondLevelEntityCache = secondLevelEntityCache;
+    this.authorizationDecisionCache = authorizationDecisionCache;
   }
 
   public Class<?> getSessionType() {
@@ -38,7 +50,10 @@ public class DbEntityManagerFactory implements SessionFactory {
 
   public DbEntityManager openSession() {
     PersistenceSession persistenceSession = Context.getCommandContext().getSession(PersistenceSession.class);
-    return new DbEntityManager(idGenerator, persistenceSession);
+    DbEntityManager dbEntityManager = new DbEntityManager(idGenerator, persistenceSession);
+    dbEntityManager.setSecondLevelEntityCache(secondLevelEntityCache);
+    dbEntityManager.setAuthorizationDecisionCache(authorizationDecisionCache);
+    return dbEntityManager;
   }
 
 }
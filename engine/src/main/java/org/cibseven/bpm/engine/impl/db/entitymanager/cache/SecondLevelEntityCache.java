@@ -0,0 +1,213 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.db.entitymanager.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.db.DbEntity;
+import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.cibseven.commons.utils.cache.Cache;
+import org.cibseven.commons.utils.cache.ConcurrentLruCache;
+
+/**
+ * <p>Process engine wide cache of read-mostly entities which is consulted by
+ * {@link org.cibseven.bpm.engine.impl.db.entitymanager.DbEntityManager#selectById(Class, String)}
+ * before the entity is selected from the database.</p>
+ *
+ * <p>The cache holds a serialized copy of each entity, so that every command
+ * works on its own instance. An entity is invalidated when a command of this
+ * process engine flushes an update or delete of it; bulk updates and deletes
+ * invalidate all entities of their type. Modifications by other process
+ * engine nodes are not observed, they become visible after the time to live
+ * of an entry expired. An update of a stale entry fails with an
+ * {@link org.cibseven.bpm.engine.OptimisticLockingException} since the
+ * revision of the entity does not match.</p>
+ */
+public class SecondLevelEntityCache {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected DbEntityCacheKeyMapping cacheKeyMapping;
+  protected Map<Class<?>, CacheableType> cacheableTypes = new HashMap<>();
+  protected Cache<String, CacheEntry> cache;
+  protected long timeToLiveInMillis;
+
+  public SecondLevelEntityCache(Collection<Class<? extends DbEntity>> entityTypes,
+                                DbEntityCacheKeyMapping cacheKeyMapping,
+                                int capacity,
+                                long timeToLiveInMillis) {
+    this.cacheKeyMapping = cacheKeyMapping;
+    this.cache = new ConcurrentLruCache<>(capacity);
+    this.timeToLiveInMillis = timeToLiveInMillis;
+
+    for (Class<? extends DbEntity> entityType : entityTypes) {
+      if (!Serializable.class.isAssignableFrom(entityType)) {
+        throw LOG.entityTypeNotCacheableException(entityType);
+      }
+      cacheableTypes.put(cacheKeyMapping.getEntityCacheKey(entityType), new CacheableType());
+    }
+  }
+
+  public boolean isCacheable(Class<?> entityType) {
+    return getCacheableType(entityType) != null;
+  }
+
+  /**
+   * @return a counter that has to be passed to {@link #put(Class, DbEntity, long)}
+   * and that must be obtained before the entity is selected from the database.
+   */
+  public long getModificationCount(Class<?> entityType) {
+    return getCacheableType(entityType).modificationCount.get();
+  }
+
+  /**
+   * @return a copy of the cached entity or null if the entity is not cached
+   */
+  public <T extends DbEntity> T get(Class<T> entityType, String id) {
+    CacheableType cacheableType = getCacheableType(entityType);
+    String key = getKey(entityType, id);
+
+    CacheEntry entry = cache.get(key);
+    if (entry == null) {
+      return null;
+    }
+
+    if (entry.generation != cacheableType.generation.get() || entry.expirationTime < System.currentTimeMillis()) {
+      cache.remove(key);
+      return null;
+    }
+
+    try {
+      return entityType.cast(deserialize(entry.bytes));
+    }
+    catch (IOException | ClassNotFoundException | ClassCastException e) {
+      LOG.exceptionWhileCopyingEntityOfSecondLevelCache(entityType, id, e);
+      cache.remove(key);
+      return null;
+    }
+  }
+
+  /**
+   * Caches a copy of the given entity that was just selected from the database,
+   * unless an entity of its type was modified since the selection started.
+   */
+  public void put(Class<?> entityType, DbEntity entity, long modificationCount) {
+    CacheableType cacheableType = getCacheableType(entityType);
+    long generation = cacheableType.generation.get();
+
+    if (cacheableType.modificationCount.get() != modificationCount) {
+      return;
+    }
+
+    byte[] bytes;
+    try {
+      bytes = serialize(entity);
+    }
+    catch (IOException e) {
+      LOG.exceptionWhileCopyingEntityOfSecondLevelCache(entityType, entity.getId(), e);
+      return;
+    }
+
+    String key = getKey(entityType, entity.getId());
+    cache.put(key, new CacheEntry(bytes, generation, System.currentTimeMillis() + timeToLiveInMillis));
+
+    if (cacheableType.modificationCount.get() != modificationCount) {
+      // modified while the entry was put
+      cache.remove(key);
+    }
+  }
+
+  public void invalidate(Class<?> entityType, String id) {
+    CacheableType cacheableType = getCacheableType(entityType);
+    if (cacheableType != null) {
+      cacheableType.modificationCount.incrementAndGet();
+      cache.remove(getKey(entityType, id));
+    }
+  }
+
+  public void invalidateAll(Class<?> entityType) {
+    CacheableType cacheableType = getCacheableType(entityType);
+    if (cacheableType != null) {
+      cacheableType.modificationCount.incrementAndGet();
+      cacheableType.generation.incrementAndGet();
+    }
+  }
+
+  public void clear() {
+    for (CacheableType cacheableType : cacheableTypes.values()) {
+      cacheableType.modificationCount.incrementAndGet();
+    }
+    cache.clear();
+  }
+
+  protected CacheableType getCacheableType(Class<?> entityType) {
+    return cacheableTypes.get(cacheKeyMapping.getEntityCacheKey(entityType));
+  }
+
+  protected String getKey(Class<?> entityType, String id) {
+    return cacheKeyMapping.getEntityCacheKey(entityType).getName() + ":" + id;
+  }
+
+  protected byte[] serialize(DbEntity entity) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+      outputStream.writeObject(entity);
+    }
+    return bytes.toByteArray();
+  }
+
+  protected Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return inputStream.readObject();
+    }
+  }
+
+  protected static class CacheableType {
+
+    /** incremented on every modification, guards the cache against entities that were selected before */
+    protected final AtomicLong modificationCount = new AtomicLong();
+
+    /** incremented on bulk modifications, invalidates all cached entities of the type */
+    protected final AtomicLong generation = new AtomicLong();
+
+  }
+
+  protected static class CacheEntry {
+
+    protected final byte[] bytes;
+    protected final long generation;
+    protected final long expirationTime;
+
+    public CacheEntry(byte[] bytes, long generation, long expirationTime) {
+      this.bytes = bytes;
+      this.generation = generation;
+      this.expirationTime = expirationTime;
+    }
+
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.db.entitymanager.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Splits the totally ordered operations of a flush into the parts that are
+ * passed to the persistence session one after another.</p>
+ *
+ * <p>With JDBC batch processing, consecutive operations that execute the same
+ * statement end up in the same JDBC batch, i.e. one database round trip. A part
+ * boundary always ends the current JDBC batch, so splitting the operations at
+ * fixed positions breaks statement runs into additional small batches. This
+ * planner keeps the order of the operations and only moves the part boundaries:
+ * a run of operations is split only if it does not fit into a single part.</p>
+ *
+ * @see org.cibseven.bpm.engine.impl.db.sql.BatchDbSqlSession
+ */
+public class DbFlushPlanner {
+
+  protected final int maxOperationsPerPart;
+
+  public DbFlushPlanner(int maxOperationsPerPart) {
+    this.maxOperationsPerPart = maxOperationsPerPart;
+  }
+
+  /**
+   * @return parts of at most {@link #getMaxOperationsPerPart()} operations that
+   *   contain the given operations in unchanged order
+   */
+  public List<List<DbOperation>> partition(List<DbOperation> operations) {
+    List<List<DbOperation>> parts = new ArrayList<>();
+
+    if (operations.size() <= maxOperationsPerPart) {
+      parts.add(operations);
+      return parts;
+    }
+
+    List<DbOperation> currentPart = new ArrayList<>();
+    int runStart = 0;
+    while (runStart < operations.size()) {
+      int runEnd = findEndOfStatementRun(operations, runStart);
+      int runLength = runEnd - runStart;
+
+      if (runLength <= maxOperationsPerPart - currentPart.size()) {
+        currentPart.addAll(operations.subList(runStart, runEnd));
+        runStart = runEnd;
+      }
+      else {
+        if (!currentPart.isEmpty()) {
+          parts.add(currentPart);
+          currentPart = new ArrayList<>();
+        }
+
+        if (runLength > maxOperationsPerPart) {
+          // the run does not fit into any part, fill a part of its own
+          int partEnd = runStart + maxOperationsPerPart;
+          parts.add(new ArrayList<>(operations.subList(runStart, partEnd)));
+          runStart = partEnd;
+        }
+      }
+    }
+
+    if (!currentPart.isEmpty()) {
+      parts.add(currentPart);
+    }
+
+    return parts;
+  }
+
+  /**
+   * @return the number of statement batches the parts are executed in when JDBC
+   *   batch processing is enabled
+   */
+  public int countStatementBatches(List<List<DbOperation>> parts) {
+    int statementBatches = 0;
+    for (List<DbOperation> part : parts) {
+      int runStart = 0;
+      while (runStart < part.size()) {
+        runStart = findEndOfStatementRun(part, runStart);
+        statementBatches++;
+      }
+    }
+    return statementBatches;
+  }
+
+  protected int findEndOfStatementRun(List<DbOperation> operations, int runStart) {
+    DbOperation first = operations.get(runStart);
+    int runEnd = runStart + 1;
+    while (runEnd < operations.size() && isSameStatement(first, operations.get(runEnd))) {
+      runEnd++;
+    }
+    return runEnd;
+  }
+
+  /**
+   * Entity operations derive their statement from the operation and entity type,
+   * bulk operations name it explicitly.
+   */
+  protected boolean isSameStatement(DbOperation first, DbOperation second) {
+    if (first.getOperationType() != second.getOperationType()) {
+      return false;
+    }
+
+    if (first instanceof DbBulkOperation && second instanceof DbBulkOperation) {
+      String statement = ((DbBulkOperation) first).getStatement();
+      return statement != null && statement.equals(((DbBulkOperation) second).getStatement());
+    }
+    else if (first instanceof DbEntityOperation && second instanceof DbEntityOperation) {
+      return first.getEntityType() == second.getEntityType();
+    }
+    else {
+      return false;
+    }
+  }
+
+  public int getMaxOperationsPerPart() {
+    return maxOperationsPerPart;
+  }
+
+}
@@ -22,8 +22,10 @@ import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.executor.BatchExecutorException;
@@ -52,30 +54,76 @@ public class BatchDbSqlSession extends DbSqlSession {
     super(dbSqlSessionFactory, connection, catalog, schema);
   }
 
+  /**
+   * Operations that are staged as a single multi-row insert, by their first operation.
+   * The JDBC batch result of the insert applies to all of them.
+   */
+  protected Map<DbOperation, List<DbOperation>> multiRowInserts = new IdentityHashMap<>();
+
   @Override
   public FlushResult executeDbOperations(List<DbOperation> operations) {
-    for (DbOperation operation : operations) {
+    try {
+      int i = 0;
+      while (i < operations.size()) {
+        int multiRowInsertEnd = findEndOfMultiRowInsert(operations, i);
 
-      try {
         // stage operation
-        executeDbOperation(operation);
-
-      } catch (Exception ex) {
-        // exception is wrapped later
-        throw ex;
+        if (multiRowInsertEnd - i > 1) {
+          insertEntities(operations.subList(i, multiRowInsertEnd));
+          i = multiRowInsertEnd;
+        } else {
+          executeDbOperation(operations.get(i));
+          i++;
+        }
+      }
 
+      List<BatchResult> batchResults;
+      try {
+        // applies all operations
+        batchResults = flushBatchOperations();
+      } catch (PersistenceException e) {
+        return postProcessBatchFailure(operations, e);
       }
+
+      return postProcessBatchSuccess(operations, batchResults);
+
+    } finally {
+      multiRowInserts.clear();
     }
+  }
 
-    List<BatchResult> batchResults;
-    try {
-      // applies all operations
-      batchResults = flushBatchOperations();
-    } catch (PersistenceException e) {
-      return postProcessBatchFailure(operations, e);
+  /**
+   * @return the end (exclusive) of the consecutive inserts starting at the given index
+   *   that can be staged as one multi-row insert
+   */
+  protected int findEndOfMultiRowInsert(List<DbOperation> operations, int start) {
+    DbOperation first = operations.get(start);
+    if (first.getOperationType() != DbOperationType.INSERT
+        || dbSqlSessionFactory.getMultiRowInsertStatement(first.getEntityType()) == null) {
+      return start + 1;
     }
 
-    return postProcessBatchSuccess(operations, batchResults);
+    int maxEnd = Math.min(operations.size(), start + dbSqlSessionFactory.getMaximumRowsPerMultiRowInsert(first.getEntityType()));
+    int end = start + 1;
+    while (end < maxEnd
+        && operations.get(end).getOperationType() == DbOperationType.INSERT
+        && operations.get(end).getEntityType() == first.getEntityType()) {
+      end++;
+    }
+    return end;
+  }
+
+  protected void insertEntities(List<DbOperation> operations) {
+    DbOperation first = operations.get(0);
+    String insertStatement = dbSqlSessionFactory.getMultiRowInsertStatement(first.getEntityType());
+
+    List<DbEntity> entities = new ArrayList<>(operations.size());
+    for (DbOperation operation : operations) {
+      entities.add(((DbEntityOperation) operation).getEntity());
+    }
+
+    executeInsertEntity(insertStatement, entities);
+    multiRowInserts.put(first, new ArrayList<>(operations));
   }
 
   protected FlushResult postProcessBatchSuccess(List<DbOperation> operations, List<BatchResult> batchResults) {
@@ -153,6 +201,13 @@ public class BatchDbSqlSession extends DbSqlSession {
 
       DbOperation operation = operationsIt.next();
 
+      List<DbOperation> multiRowInsert = multiRowInserts.get(operation);
+      if (multiRowInsert != null) {
+        postProcessMultiRowInsertResult(multiRowInsert, operationsIt, statementResult, failure, failedOperations);
+        failureHandled |= statementResult == Statement.EXECUTE_FAILED;
+        continue;
+      }
+
       if (statementResult == Statement.SUCCESS_NO_INFO) {
 
         if (requiresAffectedRows(operation.getOperationType())) {
@@ -194,6 +249,13 @@ public class BatchDbSqlSession extends DbSqlSession {
           operationsIt.hasNext());
 
       DbOperation failedOperation = operationsIt.next();
+
+      List<DbOperation> multiRowInsert = multiRowInserts.get(failedOperation);
+      if (multiRowInsert != null) {
+        postProcessMultiRowInsertResult(multiRowInsert, operationsIt, Statement.EXECUTE_FAILED, failure, failedOperations);
+        return;
+      }
+
       postProcessOperationPerformed(failedOperation, 0, failure);
       if (failedOperation.isFailed()) {
         failedOperations.add(failedOperation); // the operation is added to the list only if it's marked as failed
@@ -201,6 +263,30 @@ public class BatchDbSqlSession extends DbSqlSession {
     }
   }
 
+  /**
+   * A multi-row insert reports a single result for all of its rows. The first
+   * operation has already been taken from the iterator, the others follow it.
+   */
+  protected void postProcessMultiRowInsertResult(List<DbOperation> multiRowInsert,
+                                                 Iterator<DbOperation> operationsIt,
+                                                 int statementResult,
+                                                 PersistenceException failure,
+                                                 List<DbOperation> failedOperations) {
+    for (int i = 0; i < multiRowInsert.size(); i++) {
+      DbOperation operation = i == 0 ? multiRowInsert.get(0) : operationsIt.next();
+
+      if (statementResult == Statement.EXECUTE_FAILED) {
+        postProcessOperationPerformed(operation, 0, failure);
+      } else {
+        postProcessOperationPerformed(operation, 1, null);
+      }
+
+      if (operation.isFailed()) {
+        failedOperations.add(operation);
+      }
+    }
+  }
+
   protected boolean requiresAffectedRows(DbOperationType operationType) {
     /*
      * Affected rows required:
@@ -25,8 +25,11 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.cibseven.bpm.engine.impl.cfg.IdGenerator;
 import org.cibseven.bpm.engine.impl.db.DbEntity;
+import org.cibseven.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.cibseven.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
 import org.cibseven.bpm.engine.impl.interceptor.Session;
 import org.cibseven.bpm.engine.impl.interceptor.SessionFactory;
+import org.cibseven.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
 import org.cibseven.bpm.engine.impl.util.ClassNameUtil;
 
 
@@ -115,8 +118,30 @@ public class DbSqlSessionFactory implements SessionFactory {
    */
   public static final int MAXIMUM_NUMBER_PARAMS = 2000;
 
+  /*
+   * Upper bound for the rows of a multi-row insert, chosen such that the widest
+   * multi-row insert (ACT_HI_DETAIL) stays below MAXIMUM_NUMBER_PARAMS.
+   */
+  public static final int MAXIMUM_ROWS_PER_MULTI_ROW_INSERT = 50;
+
+  /*
+   * On Oracle, an INSERT ALL statement must not have more than 999 columns
+   * in all of its INTO clauses together (ORA-24335).
+   */
+  public static final int MAXIMUM_COLUMNS_PER_ORACLE_INSERT_ALL = 999;
+
+  /** statements inserting several entities of one type with a single multi-row insert */
+  public static final Map<Class<?>, String> multiRowInsertStatements = new HashMap<>();
+
+  /** number of columns each row of a multi-row insert statement adds */
+  public static final Map<Class<?>, Integer> multiRowInsertColumns = new HashMap<>();
+
   static {
 
+    addMultiRowInsertStatement(HistoricActivityInstanceEventEntity.class, "insertHistoricActivityInstanceEvents", 21);
+    addMultiRowInsertStatement(HistoricVariableInstanceEntity.class, "insertHistoricVariableInstances", 24);
+    addMultiRowInsertStatement(HistoricVariableUpdateEventEntity.class, "insertHistoricVariableUpdateEvents", 28);
+
     String defaultOrderBy = "order by ${internalOrderBy}";
 
     String defaultEscapeChar = "'\\'";
@@ -185,6 +210,9 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "NEW_VALUE_ || '_|_' || PROPERTY_");
     constants.put("constant_for_update", "for update");
+    constants.put("constant_for_update_skip_locked", "for update skip locked");
+    // H2 has no shared row locks
+    constants.put("constant_for_share", "for update");
     constants.put("constant.datepart.quarter", "QUARTER");
     constants.put("constant.datepart.month", "MONTH");
     constants.put("constant.datepart.minute", "MINUTE");
@@ -333,6 +361,8 @@ public class DbSqlSessionFactory implements SessionFactory {
       constants.put("constant.event", "'event'");
       constants.put("constant.op_message", "CONCAT(NEW_VALUE_, '_|_', PROPERTY_)");
       constants.put("constant_for_update", "for update");
+      constants.put("constant_for_update_skip_locked", "for update skip locked");
+      constants.put("constant_for_share", "lock in share mode");
       constants.put("constant.datepart.quarter", "QUARTER");
       constants.put("constant.datepart.month", "MONTH");
       constants.put("constant.datepart.minute", "MINUTE");
@@ -395,6 +425,9 @@ public class DbSqlSessionFactory implements SessionFactory {
       addDatabaseSpecificStatement(postgresLikeDatabase, "updateByteArray", "updateByteArray_postgres");
       addDatabaseSpecificStatement(postgresLikeDatabase, "selectByteArray", "selectByteArray_postgres");
       addDatabaseSpecificStatement(postgresLikeDatabase, "selectByteArrays", "selectByteArrays_postgres");
+      addDatabaseSpecificStatement(postgresLikeDatabase, "insertHistoryEventOutbox", "insertHistoryEventOutbox_postgres");
+      addDatabaseSpecificStatement(postgresLikeDatabase, "selectHistoryEventOutbox", "selectHistoryEventOutbox_postgres");
+      addDatabaseSpecificStatement(postgresLikeDatabase, "selectHistoryEventOutboxEntries", "selectHistoryEventOutboxEntries_postgres");
       addDatabaseSpecificStatement(postgresLikeDatabase, "selectResourceByDeploymentIdAndResourceName", "selectResourceByDeploymentIdAndResourceName_postgres");
       addDatabaseSpecificStatement(postgresLikeDatabase, "selectResourceByDeploymentIdAndResourceNames", "selectResourceByDeploymentIdAndResourceNames_postgres");
       addDatabaseSpecificStatement(postgresLikeDatabase, "selectResourceByDeploymentIdAndResourceId", "selectResourceByDeploymentIdAndResourceId_postgres");
@@ -483,6 +516,8 @@ public class DbSqlSessionFactory implements SessionFactory {
       constants.put("constant.event", "'event'");
       constants.put("constant.op_message", "NEW_VALUE_ || '_|_' || PROPERTY_");
       constants.put("constant_for_update", "for update");
+      constants.put("constant_for_update_skip_locked", "for update skip locked");
+      constants.put("constant_for_share", "for share");
       constants.put("constant.datepart.quarter", "QUARTER");
       constants.put("constant.datepart.month", "MONTH");
       constants.put("constant.datepart.minute", "MINUTE");
@@ -574,11 +609,18 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(ORACLE, "deleteHistoricBatchesByRemovalTime", "deleteHistoricBatchesByRemovalTime_oracle");
     addDatabaseSpecificStatement(ORACLE, "deleteAuthorizationsByRemovalTime", "deleteAuthorizationsByRemovalTime_oracle");
     addDatabaseSpecificStatement(ORACLE, "deleteTaskMetricsByRemovalTime", "deleteTaskMetricsByRemovalTime_oracle");
+    addDatabaseSpecificStatement(ORACLE, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_oracle");
+    addDatabaseSpecificStatement(ORACLE, "insertHistoricActivityInstanceEvents", "insertHistoricActivityInstanceEvents_oracle");
+    addDatabaseSpecificStatement(ORACLE, "insertHistoricVariableInstances", "insertHistoricVariableInstances_oracle");
+    addDatabaseSpecificStatement(ORACLE, "insertHistoricVariableUpdateEvents", "insertHistoricVariableUpdateEvents_oracle");
 
     constants = new HashMap<>();
     constants.put("constant.event", "cast('event' as nvarchar2(255))");
     constants.put("constant.op_message", "NEW_VALUE_ || '_|_' || PROPERTY_");
     constants.put("constant_for_update", "for update");
+    constants.put("constant_for_update_skip_locked", "for update skip locked");
+    // Oracle has no shared row locks
+    constants.put("constant_for_share", "for update");
     constants.put("constant.datepart.quarter", "'Q'");
     constants.put("constant.datepart.month", "'MM'");
     constants.put("constant.datepart.minute", "'MI'");
@@ -676,6 +718,8 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "CAST(CONCAT(CONCAT(COALESCE(NEW_VALUE_,''), '_|_'), COALESCE(PROPERTY_,'')) as varchar(255))");
     constants.put("constant_for_update", "for read only with rs use and keep update locks");
+    constants.put("constant_for_update_skip_locked", "for read only with rs use and keep update locks skip locked data");
+    constants.put("constant_for_share", "for read only with rs use and keep share locks");
     constants.put("constant.datepart.quarter", "QUARTER");
     constants.put("constant.datepart.month", "MONTH");
     constants.put("constant.datepart.minute", "MINUTE");
@@ -752,8 +796,13 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(MSSQL, "lockHistoryCleanupJobLockProperty", "lockHistoryCleanupJobLockProperty_mssql");
     addDatabaseSpecificStatement(MSSQL, "lockStartupLockProperty", "lockStartupLockProperty_mssql");
     addDatabaseSpecificStatement(MSSQL, "lockInstallationIdLockProperty", "lockInstallationIdLockProperty_mssql");
+    addDatabaseSpecificStatement(MSSQL, "lockHistoryEventOutboxLockProperty", "lockHistoryEventOutboxLockProperty_mssql");
+    addDatabaseSpecificStatement(MSSQL, "lockByteArray", "lockByteArray_mssql");
+    addDatabaseSpecificStatement(MSSQL, "lockByteArrayShared", "lockByteArrayShared_mssql");
+    addDatabaseSpecificStatement(MSSQL, "lockVariableInstanceForCorrelationKey", "lockVariableInstanceForCorrelationKey_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectEventSubscriptionsByNameAndExecution", "selectEventSubscriptionsByNameAndExecution_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectEventSubscriptionsByExecutionAndType", "selectEventSubscriptionsByExecutionAndType_mssql");
+    addDatabaseSpecificStatement(MSSQL, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectHistoricDecisionInstancesByNativeQuery", "selectHistoricDecisionInstancesByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(MSSQL, "deleteByteArraysByRemovalTime", "deleteByteArraysByRemovalTime_mssql");
 
@@ -849,6 +898,7 @@ public class DbSqlSessionFactory implements SessionFactory {
   protected boolean modelerEnabled = true;
 
   protected boolean jdbcBatchProcessing;
+  protected boolean jdbcMultiRowHistoryInserts = false;
 
   public DbSqlSessionFactory(boolean jdbcBatchProcessing) {
     this.jdbcBatchProcessing = jdbcBatchProcessing;
@@ -884,6 +934,31 @@ public class DbSqlSessionFactory implements SessionFactory {
     return getStatement(persistentObjectClass, deleteStatements, "delete");
   }
 
+  /**
+   * @return the (database specific) statement inserting a list of entities of the given
+   *   type with a single multi-row insert or <code>null</code> if multi-row inserts are
+   *   disabled or not supported for the type
+   */
+  public String getMultiRowInsertStatement(Class<?> persistentObjectClass) {
+    if (!jdbcMultiRowHistoryInserts) {
+      return null;
+    }
+    String statement = multiRowInsertStatements.get(persistentObjectClass);
+    return statement != null ? mapStatement(statement) : null;
+  }
+
+  /**
+   * @return the maximum number of entities of the given type that one multi-row insert
+   *   statement may carry on the current database
+   */
+  public int getMaximumRowsPerMultiRowInsert(Class<?> persistentObjectClass) {
+    Integer columns = multiRowInsertColumns.get(persistentObjectClass);
+    if (columns == null || !ORACLE.equals(databaseType)) {
+      return MAXIMUM_ROWS_PER_MULTI_ROW_INSERT;
+    }
+    return Math.max(1, Math.min(MAXIMUM_ROWS_PER_MULTI_ROW_INSERT, MAXIMUM_COLUMNS_PER_ORACLE_INSERT_ALL / columns));
+  }
+
   public String getSelectStatement(Class<?> persistentObjectClass) {
     return getStatement(persistentObjectClass, selectStatements, "select");
   }
@@ -901,6 +976,11 @@ public class DbSqlSessionFactory implements SessionFactory {
 
   // db specific mappings /////////////////////////////////////////////////////
 
+  protected static void addMultiRowInsertStatement(Class<?> persistentObjectClass, String statement, int columns) {
+    multiRowInsertStatements.put(persistentObjectClass, statement);
+    multiRowInsertColumns.put(persistentObjectClass, columns);
+  }
+
   protected static void addDatabaseSpecificStatement(String databaseType, String activitiStatement, String ibatisStatement) {
     Map<String, String> specificStatements = databaseSpecificStatements.get(databaseType);
     if (specificStatements == null) {
@@ -927,6 +1007,14 @@ public class DbSqlSessionFactory implements SessionFactory {
 
   // getters and setters //////////////////////////////////////////////////////
 
+  public boolean isJdbcMultiRowHistoryInserts() {
+    return jdbcMultiRowHistoryInserts;
+  }
+
+  public void setJdbcMultiRowHistoryInserts(boolean jdbcMultiRowHistoryInserts) {
+    this.jdbcMultiRowHistoryInserts = jdbcMultiRowHistoryInserts;
+  }
+
   public SqlSessionFactory getSqlSessionFactory() {
     return sqlSessionFactory;
   }
@@ -16,8 +16,10 @@
  */
 package org.cibseven.bpm.engine.impl.dmn;
 
+import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureOnlyOneNotNull;
 
+import java.util.List;
 import java.util.Map;
 
 import org.cibseven.bpm.dmn.engine.DmnDecisionResult;
@@ -27,6 +29,7 @@ import org.cibseven.bpm.engine.exception.NotValidException;
 import org.cibseven.bpm.engine.exception.NullValueException;
 import org.cibseven.bpm.engine.exception.dmn.DecisionDefinitionNotFoundException;
 import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.dmn.cmd.EvaluateDecisionBatchCmd;
 import org.cibseven.bpm.engine.impl.dmn.cmd.EvaluateDecisionCmd;
 import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
 
@@ -90,6 +93,25 @@ public class DecisionEvaluationBuilderImpl implements DecisionsEvaluationBuilder
     }
   }
 
+  public List<DmnDecisionResult> evaluateAll(List<? extends Map<String, Object>> variablesList) {
+    ensureOnlyOneNotNull(NotValidException.class, "either decision definition id or key must be set", decisionDefinitionId, decisionDefinitionKey);
+    ensureNotNull(NotValidException.class, "variablesList", variablesList);
+
+    if (isTenantIdSet && decisionDefinitionId != null) {
+      throw LOG.exceptionEvaluateDecisionDefinitionByIdAndTenantId();
+    }
+
+    try {
+      return commandExecutor.execute(new EvaluateDecisionBatchCmd(this, variablesList));
+    }
+    catch (NullValueException e) {
+      throw new NotValidException(e.getMessage(), e);
+    }
+    catch (DecisionDefinitionNotFoundException e) {
+      throw new NotFoundException(e.getMessage(), e);
+    }
+  }
+
   public static DecisionsEvaluationBuilder evaluateDecisionByKey(CommandExecutor commandExecutor, String decisionDefinitionKey) {
     DecisionEvaluationBuilderImpl builder = new DecisionEvaluationBuilderImpl(commandExecutor);
     builder.decisionDefinitionKey = decisionDefinitionKey;
@@ -16,8 +16,10 @@
  */
 package org.cibseven.bpm.engine.impl.dmn;
 
+import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureOnlyOneNotNull;
 
+import java.util.List;
 import java.util.Map;
 
 import org.cibseven.bpm.dmn.engine.DmnDecisionTableResult;
@@ -27,6 +29,7 @@ import org.cibseven.bpm.engine.exception.NotValidException;
 import org.cibseven.bpm.engine.exception.NullValueException;
 import org.cibseven.bpm.engine.exception.dmn.DecisionDefinitionNotFoundException;
 import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.dmn.cmd.EvaluateDecisionTableBatchCmd;
 import org.cibseven.bpm.engine.impl.dmn.cmd.EvaluateDecisionTableCmd;
 import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
 
@@ -93,6 +96,25 @@ public class DecisionTableEvaluationBuilderImpl implements DecisionEvaluationBui
     }
   }
 
+  public List<DmnDecisionTableResult> evaluateAll(List<? extends Map<String, Object>> variablesList) {
+    ensureOnlyOneNotNull(NotValidException.class, "either decision definition id or key must be set", decisionDefinitionId, decisionDefinitionKey);
+    ensureNotNull(NotValidException.class, "variablesList", variablesList);
+
+    if (isTenantIdSet && decisionDefinitionId != null) {
+      throw LOG.exceptionEvaluateDecisionDefinitionByIdAndTenantId();
+    }
+
+    try {
+      return commandExecutor.execute(new EvaluateDecisionTableBatchCmd(this, variablesList));
+    }
+    catch (NullValueException e) {
+      throw new NotValidException(e.getMessage(), e);
+    }
+    catch (DecisionDefinitionNotFoundException e) {
+      throw new NotFoundException(e.getMessage(), e);
+    }
+  }
+
   public static DecisionEvaluationBuilder evaluateDecisionTableByKey(CommandExecutor commandExecutor, String decisionDefinitionKey) {
     DecisionTableEvaluationBuilderImpl builder = new DecisionTableEvaluationBuilderImpl(commandExecutor);
     builder.decisionDefinitionKey = decisionDefinitionKey;
@@ -0,0 +1,70 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.dmn.cmd;
+
+import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureOnlyOneNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.cibseven.bpm.dmn.engine.DmnDecisionResult;
+import org.cibseven.bpm.engine.impl.cfg.CommandChecker;
+import org.cibseven.bpm.engine.impl.dmn.DecisionEvaluationBuilderImpl;
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.repository.DecisionDefinition;
+import org.cibseven.bpm.engine.variable.Variables;
+
+/**
+ * Evaluates the decision with the given key or id once for each of the given
+ * input values.
+ *
+ * The decision definition is resolved, authorized and logged only once and all
+ * evaluations share the command context, so that their history is flushed in
+ * one transaction.
+ */
+public class EvaluateDecisionBatchCmd implements Command<List<DmnDecisionResult>> {
+
+  protected EvaluateDecisionCmd evaluateDecisionCmd;
+  protected List<? extends Map<String, Object>> variablesList;
+
+  public EvaluateDecisionBatchCmd(DecisionEvaluationBuilderImpl builder, List<? extends Map<String, Object>> variablesList) {
+    this.evaluateDecisionCmd = new EvaluateDecisionCmd(builder);
+    this.variablesList = variablesList;
+  }
+
+  @Override
+  public List<DmnDecisionResult> execute(CommandContext commandContext) {
+    ensureOnlyOneNotNull("either decision definition id or key must be set", evaluateDecisionCmd.decisionDefinitionId, evaluateDecisionCmd.decisionDefinitionKey);
+
+    DecisionDefinition decisionDefinition = evaluateDecisionCmd.getDecisionDefinition(commandContext);
+
+    for(CommandChecker checker : commandContext.getProcessEngineConfiguration().getCommandCheckers()) {
+      checker.checkEvaluateDecision(decisionDefinition);
+    }
+
+    evaluateDecisionCmd.writeUserOperationLog(commandContext, decisionDefinition);
+
+    List<DmnDecisionResult> results = new ArrayList<>(variablesList.size());
+    for (Map<String, Object> variables : variablesList) {
+      results.add(evaluateDecisionCmd.doEvaluateDecision(decisionDefinition, Variables.fromMap(variables)));
+    }
+    return results;
+  }
+
+}
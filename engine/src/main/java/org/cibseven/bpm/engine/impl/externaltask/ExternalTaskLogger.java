@@ -53,4 +53,13 @@ public class ExternalTaskLogger extends ProcessEngineLogger {
     logDebug("002", "Evaluation of error event definition's expression {} on external task {} failed and will be considered as 'false'. "
         + "Received exception: {}", errorEventDefinition.getExpression(), taskId, exception.getMessage());
   }
+
+  public void exceptionWhileDispatchingLongPollingRequests(Exception e) {
+    logWarn("003", "Exception while dispatching long polling fetch and lock requests", e);
+  }
+
+  public ProcessEngineException longPollingRequestRejectedOnShutdown() {
+    return new ProcessEngineException(exceptionMessage("004",
+        "Long polling fetch and lock request rejected because the process engine is closed"));
+  }
 }
@@ -0,0 +1,393 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.externaltask;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.cibseven.bpm.engine.IdentityService;
+import org.cibseven.bpm.engine.externaltask.LockedExternalTask;
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cmd.FetchExternalTasksCmd;
+import org.cibseven.bpm.engine.impl.identity.Authentication;
+
+/**
+ * <p>Parks long polling fetch and lock requests of the engine API until
+ * external tasks of one of their topics become available or their timeout
+ * expires.</p>
+ *
+ * <p>Parked requests are indexed by topic name. When a committed transaction
+ * created or unlocked an external task, only the requests subscribed to its
+ * topic are fetched again. Hints without a topic (e.g. notifications of other
+ * cluster nodes) and the recheck every
+ * {@link ProcessEngineConfigurationImpl#getExternalTaskLongPollingRecheckInterval()}
+ * milliseconds fetch all parked requests, so that tasks whose lock expired are
+ * found as well.</p>
+ *
+ * <p>Parked requests are fetched by a background thread that is started with
+ * the first parked request. The futures of the requests are completed by that
+ * thread, too.</p>
+ */
+public class ExternalTaskLongPollingRegistry implements Runnable {
+
+  protected static final ExternalTaskLogger LOG = ProcessEngineLogger.EXTERNAL_TASK_LOGGER;
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  /** incremented whenever external tasks become available */
+  protected final AtomicLong revision = new AtomicLong();
+  protected final AtomicLong requestSequence = new AtomicLong();
+
+  protected final Object monitor = new Object();
+  protected final TreeSet<LongPollingRequest> requestsByTimeout = new TreeSet<>(new LongPollingRequestTimeoutComparator());
+  protected final Map<String, Set<LongPollingRequest>> requestsByTopic = new HashMap<>();
+  protected final Set<LongPollingRequest> pendingRequests = new LinkedHashSet<>();
+  protected long nextRecheckTime;
+
+  protected Thread dispatcherThread;
+  protected volatile boolean isRunning = false;
+  protected boolean isClosed = false;
+
+  public ExternalTaskLongPollingRegistry(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    this.processEngineConfiguration = processEngineConfiguration;
+  }
+
+  /**
+   * Executes the given command in the calling thread. If it does not lock any
+   * task, the request is parked until tasks of one of the topics become
+   * available or the timeout expires.
+   *
+   * @param command the fetch and lock command
+   * @param topicNames the topics the command fetches
+   * @param timeout the maximum time in milliseconds the request is parked
+   * @return a future that completes with the locked tasks, or with an empty
+   *   list when the timeout expired
+   */
+  public CompletableFuture<List<LockedExternalTask>> fetchAndLock(FetchExternalTasksCmd command, Set<String> topicNames, long timeout) {
+    long revisionBeforeFetch = revision.get();
+
+    List<LockedExternalTask> lockedTasks = processEngineConfiguration.getCommandExecutorTxRequired().execute(command);
+    if (!lockedTasks.isEmpty() || timeout <= 0) {
+      return CompletableFuture.completedFuture(lockedTasks);
+    }
+
+    Authentication authentication = processEngineConfiguration.getIdentityService().getCurrentAuthentication();
+    LongPollingRequest request = new LongPollingRequest(requestSequence.incrementAndGet(), command, topicNames,
+        authentication, System.currentTimeMillis() + timeout);
+    park(request, revisionBeforeFetch);
+
+    return request.getResult();
+  }
+
+  protected void park(LongPollingRequest request, long revisionBeforeFetch) {
+    synchronized (monitor) {
+      if (isClosed) {
+        request.getResult().completeExceptionally(LOG.longPollingRequestRejectedOnShutdown());
+        return;
+      }
+
+      if (!isRunning) {
+        startDispatcher();
+      }
+
+      requestsByTimeout.add(request);
+      for (String topicName : request.getTopicNames()) {
+        requestsByTopic.computeIfAbsent(topicName, key -> new HashSet<>()).add(request);
+      }
+
+      if (revision.get() != revisionBeforeFetch) {
+        // tasks became available after the request was fetched in the calling thread
+        pendingRequests.add(request);
+      }
+
+      // the request may time out before the dispatcher would wake up
+      monitor.notifyAll();
+    }
+  }
+
+  /**
+   * Hint that a committed transaction made tasks of the given topic available.
+   * A <code>null</code> topic name wakes up all parked requests.
+   */
+  public void tasksAvailable(String topicName) {
+    revision.incrementAndGet();
+
+    synchronized (monitor) {
+      if (requestsByTimeout.isEmpty()) {
+        return;
+      }
+
+      if (topicName == null) {
+        pendingRequests.addAll(requestsByTimeout);
+        monitor.notifyAll();
+      }
+      else {
+        Set<LongPollingRequest> subscribedRequests = requestsByTopic.get(topicName);
+        if (subscribedRequests != null) {
+          pendingRequests.addAll(subscribedRequests);
+          monitor.notifyAll();
+        }
+      }
+    }
+  }
+
+  public int getNumberOfParkedRequests() {
+    synchronized (monitor) {
+      return requestsByTimeout.size();
+    }
+  }
+
+  // dispatcher ///////////////////////////////////////////////////////////////
+
+  protected void startDispatcher() {
+    isRunning = true;
+    nextRecheckTime = System.currentTimeMillis() + processEngineConfiguration.getExternalTaskLongPollingRecheckInterval();
+    dispatcherThread = new Thread(this, getClass().getSimpleName() + "[" + processEngineConfiguration.getProcessEngineName() + "]");
+    dispatcherThread.setDaemon(true);
+    dispatcherThread.start();
+  }
+
+  /**
+   * Stops the background thread and rejects all parked requests.
+   */
+  public void close() {
+    Thread thread;
+    synchronized (monitor) {
+      isClosed = true;
+      isRunning = false;
+      thread = dispatcherThread;
+      dispatcherThread = null;
+      monitor.notifyAll();
+    }
+
+    if (thread != null) {
+      thread.interrupt();
+      try {
+        thread.join();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    List<LongPollingRequest> rejectedRequests;
+    synchronized (monitor) {
+      rejectedRequests = new ArrayList<>(requestsByTimeout);
+      requestsByTimeout.clear();
+      requestsByTopic.clear();
+      pendingRequests.clear();
+    }
+
+    for (LongPollingRequest request : rejectedRequests) {
+      request.getResult().completeExceptionally(LOG.longPollingRequestRejectedOnShutdown());
+    }
+  }
+
+  @Override
+  public void run() {
+    while (isRunning) {
+      try {
+        List<LongPollingRequest> dueRequests = awaitDueRequests();
+
+        for (LongPollingRequest request : dueRequests) {
+          if (!isRunning) {
+            break;
+          }
+          dispatch(request);
+        }
+
+        expireRequests();
+      }
+      catch (InterruptedException e) {
+        // close() interrupts the thread to end a pending wait
+      }
+      catch (Exception e) {
+        if (isRunning) {
+          LOG.exceptionWhileDispatchingLongPollingRequests(e);
+        }
+      }
+    }
+  }
+
+  protected List<LongPollingRequest> awaitDueRequests() throws InterruptedException {
+    synchronized (monitor) {
+      while (isRunning && pendingRequests.isEmpty()) {
+        long now = System.currentTimeMillis();
+
+        if (requestsByTimeout.isEmpty()) {
+          monitor.wait();
+          continue;
+        }
+
+        if (now >= nextRecheckTime) {
+          nextRecheckTime = now + processEngineConfiguration.getExternalTaskLongPollingRecheckInterval();
+          pendingRequests.addAll(requestsByTimeout);
+          break;
+        }
+
+        long waitTime = Math.min(nextRecheckTime, requestsByTimeout.first().getTimeoutTimestamp()) - now;
+        if (waitTime <= 0) {
+          break;
+        }
+        monitor.wait(waitTime);
+      }
+
+      List<LongPollingRequest> dueRequests = new ArrayList<>(pendingRequests);
+      pendingRequests.clear();
+      return dueRequests;
+    }
+  }
+
+  protected void dispatch(LongPollingRequest request) {
+    if (request.getResult().isDone()) {
+      // cancelled by the caller
+      remove(request);
+      return;
+    }
+
+    List<LockedExternalTask> lockedTasks;
+    try {
+      lockedTasks = fetch(request);
+    }
+    catch (Exception e) {
+      remove(request);
+      request.getResult().completeExceptionally(e);
+      return;
+    }
+
+    if (!lockedTasks.isEmpty()) {
+      remove(request);
+      request.getResult().complete(lockedTasks);
+    }
+  }
+
+  protected List<LockedExternalTask> fetch(LongPollingRequest request) {
+    IdentityService identityService = processEngineConfiguration.getIdentityService();
+    Authentication authentication = request.getAuthentication();
+
+    if (authentication != null) {
+      identityService.setAuthentication(authentication);
+    }
+    try {
+      return processEngineConfiguration.getCommandExecutorTxRequired().execute(request.getCommand());
+    }
+    finally {
+      if (authentication != null) {
+        identityService.clearAuthentication();
+      }
+    }
+  }
+
+  protected void expireRequests() {
+    List<LongPollingRequest> expiredRequests = new ArrayList<>();
+
+    synchronized (monitor) {
+      long now = System.currentTimeMillis();
+      while (!requestsByTimeout.isEmpty() && requestsByTimeout.first().getTimeoutTimestamp() <= now) {
+        LongPollingRequest request = requestsByTimeout.first();
+        remove(request);
+        expiredRequests.add(request);
+      }
+    }
+
+    for (LongPollingRequest request : expiredRequests) {
+      request.getResult().complete(new ArrayList<>());
+    }
+  }
+
+  protected void remove(LongPollingRequest request) {
+    synchronized (monitor) {
+      requestsByTimeout.remove(request);
+      pendingRequests.remove(request);
+      for (String topicName : request.getTopicNames()) {
+        Set<LongPollingRequest> subscribedRequests = requestsByTopic.get(topicName);
+        if (subscribedRequests != null) {
+          subscribedRequests.remove(request);
+          if (subscribedRequests.isEmpty()) {
+            requestsByTopic.remove(topicName);
+          }
+        }
+      }
+    }
+  }
+
+  public static class LongPollingRequest {
+
+    protected final long sequence;
+    protected final FetchExternalTasksCmd command;
+    protected final Set<String> topicNames;
+    protected final Authentication authentication;
+    protected final long timeoutTimestamp;
+    protected final CompletableFuture<List<LockedExternalTask>> result = new CompletableFuture<>();
+
+    public LongPollingRequest(long sequence, FetchExternalTasksCmd command, Set<String> topicNames,
+        Authentication authentication, long timeoutTimestamp) {
+      this.sequence = sequence;
+      this.command = command;
+      this.topicNames = topicNames;
+      this.authentication = authentication;
+      this.timeoutTimestamp = timeoutTimestamp;
+    }
+
+    public long getSequence() {
+      return sequence;
+    }
+
+    public FetchExternalTasksCmd getCommand() {
+      return command;
+    }
+
+    public Set<String> getTopicNames() {
+      return topicNames;
+    }
+
+    public Authentication getAuthentication() {
+      return authentication;
+    }
+
+    public long getTimeoutTimestamp() {
+      return timeoutTimestamp;
+    }
+
+    public CompletableFuture<List<LockedExternalTask>> getResult() {
+      return result;
+    }
+  }
+
+  protected static class LongPollingRequestTimeoutComparator implements Comparator<LongPollingRequest> {
+
+    @Override
+    public int compare(LongPollingRequest request, LongPollingRequest other) {
+      int result = Long.compare(request.getTimeoutTimestamp(), other.getTimeoutTimestamp());
+      if (result == 0) {
+        result = Long.compare(request.getSequence(), other.getSequence());
+      }
+      return result;
+    }
+  }
+
+}
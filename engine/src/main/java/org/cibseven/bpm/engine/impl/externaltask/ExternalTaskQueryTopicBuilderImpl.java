@@ -19,13 +19,16 @@ package org.cibseven.bpm.engine.impl.externaltask;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.cibseven.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
 import org.cibseven.bpm.engine.externaltask.LockedExternalTask;
 import org.cibseven.bpm.engine.impl.QueryOrderingProperty;
 import org.cibseven.bpm.engine.impl.cmd.FetchExternalTasksCmd;
 import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.util.EnsureUtil;
 
 /**
  * @author Thorben Lindhauer
@@ -36,6 +39,8 @@ public class ExternalTaskQueryTopicBuilderImpl implements ExternalTaskQueryTopic
 
   protected CommandExecutor commandExecutor;
 
+  protected ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry;
+
   protected String workerId;
   protected int maxTasks;
   /**
@@ -102,6 +107,7 @@ public class ExternalTaskQueryTopicBuilderImpl implements ExternalTaskQueryTopic
         builder.instructions,
         builder.currentInstruction
     );
+    this.externalTaskLongPollingRegistry = builder.externalTaskLongPollingRegistry;
   }
 
   public List<LockedExternalTask> execute() {
@@ -110,6 +116,23 @@ public class ExternalTaskQueryTopicBuilderImpl implements ExternalTaskQueryTopic
         new FetchExternalTasksCmd(workerId, maxTasks, instructions, usePriority, orderingProperties));
   }
 
+  public CompletableFuture<List<LockedExternalTask>> asyncResponse(long timeout) {
+    EnsureUtil.ensureGreaterThanOrEqual("timeout", timeout, 0);
+    submitCurrentInstruction();
+
+    Map<String, TopicFetchInstruction> fetchInstructions = new HashMap<>(instructions);
+    FetchExternalTasksCmd command = new FetchExternalTasksCmd(workerId, maxTasks, fetchInstructions, usePriority, orderingProperties);
+
+    ExternalTaskLongPollingRegistry registry = externalTaskLongPollingRegistry;
+    if (registry == null) {
+      // the builder was not created by the external task service
+      registry = commandExecutor.execute(commandContext ->
+          commandContext.getProcessEngineConfiguration().getExternalTaskLongPollingRegistry());
+    }
+
+    return registry.fetchAndLock(command, new HashSet<>(fetchInstructions.keySet()), timeout);
+  }
+
   public ExternalTaskQueryTopicBuilder topic(String topicName, long lockDuration) {
     submitCurrentInstruction();
     currentInstruction = new TopicFetchInstruction(topicName, lockDuration);
@@ -180,6 +203,11 @@ public class ExternalTaskQueryTopicBuilderImpl implements ExternalTaskQueryTopic
     return this;
   }
 
+  public ExternalTaskQueryTopicBuilderImpl setExternalTaskLongPollingRegistry(ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry) {
+    this.externalTaskLongPollingRegistry = externalTaskLongPollingRegistry;
+    return this;
+  }
+
   protected void submitCurrentInstruction() {
     if (currentInstruction != null) {
       this.instructions.put(currentInstruction.getTopicName(), currentInstruction);
@@ -40,6 +40,8 @@ public class FetchAndLockBuilderImpl implements FetchAndLockBuilder {
 
   protected final CommandExecutor commandExecutor;
 
+  protected ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry;
+
   protected String workerId;
   protected int maxTasks;
 
@@ -84,7 +86,13 @@ public class FetchAndLockBuilderImpl implements FetchAndLockBuilder {
   @Override
   public ExternalTaskQueryTopicBuilder subscribe() {
     checkQueryOk();
-    return new ExternalTaskQueryTopicBuilderImpl(commandExecutor, workerId, maxTasks, usePriority, orderingProperties);
+    return new ExternalTaskQueryTopicBuilderImpl(commandExecutor, workerId, maxTasks, usePriority, orderingProperties)
+        .setExternalTaskLongPollingRegistry(externalTaskLongPollingRegistry);
+  }
+
+  public FetchAndLockBuilderImpl setExternalTaskLongPollingRegistry(ExternalTaskLongPollingRegistry externalTaskLongPollingRegistry) {
+    this.externalTaskLongPollingRegistry = externalTaskLongPollingRegistry;
+    return this;
   }
 
   protected void configureLastOrderingPropertyDirection(Direction direction) {
@@ -0,0 +1,58 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.history;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * Command executor of the history service if the history is written
+ * asynchronously. Writes the history event outbox before a command is
+ * executed, so that a history query sees the history of all transactions
+ * that committed before.
+ */
+public class HistoryEventOutboxConsistencyCommandExecutor implements CommandExecutor {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected CommandExecutor delegate;
+  protected HistoryEventOutboxWriter historyEventOutboxWriter;
+
+  public HistoryEventOutboxConsistencyCommandExecutor(CommandExecutor delegate, HistoryEventOutboxWriter historyEventOutboxWriter) {
+    this.delegate = delegate;
+    this.historyEventOutboxWriter = historyEventOutboxWriter;
+  }
+
+  @Override
+  public <T> T execute(Command<T> command) {
+    // a nested command cannot see entries of its own transaction anyway
+    if (Context.getCommandContext() == null) {
+      try {
+        historyEventOutboxWriter.writeAll();
+      }
+      catch (RuntimeException e) {
+        // the query is still executed and sees the history that was written so far
+        LOG.exceptionWhileWritingHistoryEventOutbox(e);
+      }
+    }
+    return delegate.execute(command);
+  }
+
+}
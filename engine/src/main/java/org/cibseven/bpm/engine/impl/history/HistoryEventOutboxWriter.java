@@ -0,0 +1,183 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.history;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cmd.IncrementHistoryEventOutboxFailureCountCmd;
+import org.cibseven.bpm.engine.impl.cmd.WriteHistoryEventOutboxCmd;
+import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.persistence.entity.HistoryEventOutboxEntity;
+
+/**
+ * <p>Writes the entries of the history event outbox to the history tables.</p>
+ *
+ * <p>When started, a background thread writes the outbox whenever a
+ * transaction of this node added an entry and at least every
+ * {@link ProcessEngineConfigurationImpl#getAsyncDbHistoryWriterInterval()}
+ * milliseconds, so that entries of other nodes are written as well.</p>
+ */
+public class HistoryEventOutboxWriter implements Runnable {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  protected final ReentrantLock writeLock = new ReentrantLock();
+  protected final Object monitor = new Object();
+  protected boolean entryAdded = false;
+
+  protected Thread writerThread;
+  protected volatile boolean isRunning = false;
+
+  public HistoryEventOutboxWriter(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    this.processEngineConfiguration = processEngineConfiguration;
+  }
+
+  public synchronized void start() {
+    if (isRunning) {
+      return;
+    }
+    isRunning = true;
+    writerThread = new Thread(this, getClass().getSimpleName() + "[" + processEngineConfiguration.getProcessEngineName() + "]");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  public synchronized void stop() {
+    if (!isRunning) {
+      return;
+    }
+    isRunning = false;
+    writerThread.interrupt();
+    try {
+      writerThread.join();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    writerThread = null;
+  }
+
+  /**
+   * Hint that a committed transaction added an entry to the outbox.
+   */
+  public void outboxEntryAdded() {
+    synchronized (monitor) {
+      entryAdded = true;
+      monitor.notifyAll();
+    }
+  }
+
+  /**
+   * Writes all entries of the outbox to the history tables. Blocks while
+   * another thread of this node writes the outbox.
+   *
+   * <p>If an entry cannot be written, the entries before it are written and
+   * the failure of the entry is recorded. The entry and all entries after it
+   * are written with the next attempt, until the entry failed
+   * {@link ProcessEngineConfigurationImpl#getAsyncDbHistoryWriterRetries()}
+   * times and is skipped.</p>
+   */
+  public void writeAll() {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    int batchSize = processEngineConfiguration.getAsyncDbHistoryWriterBatchSize();
+
+    writeLock.lock();
+    try {
+      int writtenEntries;
+      do {
+        try {
+          writtenEntries = commandExecutor.execute(new WriteHistoryEventOutboxCmd(batchSize));
+        }
+        catch (RuntimeException e) {
+          // the whole batch is rolled back, write it entry by entry to find the failing entry
+          writeEntriesUntilFailure(commandExecutor, batchSize);
+          return;
+        }
+      } while (writtenEntries >= batchSize);
+    }
+    finally {
+      writeLock.unlock();
+    }
+  }
+
+  protected void writeEntriesUntilFailure(CommandExecutor commandExecutor, int maxEntries) {
+    for (int i = 0; i < maxEntries; i++) {
+      WriteHistoryEventOutboxCmd writeCmd = new WriteHistoryEventOutboxCmd(1);
+      try {
+        if (commandExecutor.execute(writeCmd) == 0) {
+          return;
+        }
+      }
+      catch (RuntimeException e) {
+        HistoryEventOutboxEntity entry = writeCmd.getCurrentEntry();
+        if (entry == null) {
+          // the failure is not caused by an entry, e.g. the database is not available
+          throw e;
+        }
+
+        commandExecutor.execute(new IncrementHistoryEventOutboxFailureCountCmd(entry.getId()));
+
+        int failureCount = entry.getFailureCount() + 1;
+        if (failureCount < processEngineConfiguration.getAsyncDbHistoryWriterRetries()) {
+          // the entries after the failing entry have to wait for it
+          LOG.exceptionWhileWritingHistoryEventOutboxEntry(entry.getId(), failureCount, e);
+          return;
+        }
+        LOG.historyEventOutboxEntrySkipped(entry.getId(), failureCount, e);
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    while (isRunning) {
+      try {
+        waitForEntries();
+        if (isRunning) {
+          writeAll();
+        }
+      }
+      catch (InterruptedException e) {
+        // stop() interrupts the thread to end a pending wait
+      }
+      catch (Exception e) {
+        if (isRunning) {
+          LOG.exceptionWhileWritingHistoryEventOutbox(e);
+        }
+      }
+    }
+  }
+
+  protected void waitForEntries() throws InterruptedException {
+    synchronized (monitor) {
+      if (!entryAdded) {
+        monitor.wait(processEngineConfiguration.getAsyncDbHistoryWriterInterval());
+      }
+      entryAdded = false;
+    }
+  }
+
+  public boolean isRunning() {
+    return isRunning;
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.history.handler;
+
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.history.event.HistoricDecisionEvaluationEvent;
+import org.cibseven.bpm.engine.impl.history.event.HistoryEvent;
+
+/**
+ * <p>History event handler that does not write history events to the history
+ * tables directly, but collects them in the history event outbox of the
+ * current command. The outbox entries are written to the history tables by the
+ * {@link org.cibseven.bpm.engine.impl.history.HistoryEventOutboxWriter}
+ * after the command's transaction has committed.</p>
+ *
+ * <p>Decision evaluation events hold typed values that cannot be serialized
+ * into the outbox, they are written by the {@link DbHistoryEventHandler}.</p>
+ */
+public class AsyncDbHistoryEventHandler implements HistoryEventHandler {
+
+  protected DbHistoryEventHandler dbHistoryEventHandler = new DbHistoryEventHandler();
+
+  public void handleEvent(HistoryEvent historyEvent) {
+    if (historyEvent instanceof HistoricDecisionEvaluationEvent) {
+      dbHistoryEventHandler.handleEvent(historyEvent);
+    } else {
+      Context.getCommandContext()
+        .getHistoryEventOutboxManager()
+        .addHistoryEvent(historyEvent);
+    }
+  }
+
+  public void handleEvents(List<HistoryEvent> historyEvents) {
+    for (HistoryEvent historyEvent : historyEvents) {
+      handleEvent(historyEvent);
+    }
+  }
+
+}
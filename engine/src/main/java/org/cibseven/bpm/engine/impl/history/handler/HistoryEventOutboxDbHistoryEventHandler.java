@@ -0,0 +1,138 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.history.handler;
+
+import java.util.Date;
+
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.cibseven.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.cibseven.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.cibseven.bpm.engine.impl.history.event.HistoryEvent;
+import org.cibseven.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.repository.ProcessDefinition;
+
+/**
+ * <p>History event handler that writes the history events of the history
+ * event outbox to the history tables.</p>
+ *
+ * <p>In contrast to the {@link DbHistoryEventHandler}, the events of many
+ * transactions are written by one command. A later event of a history entity
+ * therefore replaces an earlier event of the same entity that is still cached.
+ * In addition, the removal time is provided once more, since the historic root
+ * process instance might not have been written at the time the event was
+ * produced.</p>
+ */
+public class HistoryEventOutboxDbHistoryEventHandler extends DbHistoryEventHandler {
+
+  @Override
+  public void handleEvent(HistoryEvent historyEvent) {
+    provideRemovalTime(historyEvent);
+    super.handleEvent(historyEvent);
+  }
+
+  @Override
+  protected void insertOrUpdate(HistoryEvent historyEvent) {
+    if (isRootProcessInstanceEnd(historyEvent)) {
+      provideRemovalTimeOnRootProcessInstanceEnd((HistoricProcessInstanceEventEntity) historyEvent);
+    }
+
+    CachedDbEntity cachedEntity = null;
+    if (!isInitialEvent(historyEvent) && historyEvent.getId() != null) {
+      cachedEntity = getDbEntityManager().getDbEntityCache()
+          .getCachedEntity(historyEvent.getClass(), historyEvent.getId());
+    }
+
+    if (cachedEntity != null && cachedEntity.getEntity() != historyEvent) {
+      HistoryEvent cachedEvent = (HistoryEvent) cachedEntity.getEntity();
+      if (historyEvent.getRemovalTime() == null) {
+        historyEvent.setRemovalTime(cachedEvent.getRemovalTime());
+      }
+      if (historyEvent instanceof HistoricScopeInstanceEvent) {
+        HistoricScopeInstanceEvent scopeInstanceEvent = (HistoricScopeInstanceEvent) historyEvent;
+        if (scopeInstanceEvent.getStartTime() == null) {
+          scopeInstanceEvent.setStartTime(((HistoricScopeInstanceEvent) cachedEvent).getStartTime());
+        }
+      }
+      // the cached entity is flushed with the state of the latest event
+      cachedEntity.setEntity(historyEvent);
+    } else {
+      super.insertOrUpdate(historyEvent);
+    }
+  }
+
+  protected void provideRemovalTime(HistoryEvent historyEvent) {
+    String rootProcessInstanceId = historyEvent.getRootProcessInstanceId();
+    if (historyEvent.getRemovalTime() == null && rootProcessInstanceId != null
+        && !rootProcessInstanceId.equals(historyEvent.getId())) {
+
+      HistoricProcessInstanceEventEntity historicRootProcessInstance = getDbEntityManager()
+          .selectById(HistoricProcessInstanceEventEntity.class, rootProcessInstanceId);
+
+      if (historicRootProcessInstance != null) {
+        historyEvent.setRemovalTime(historicRootProcessInstance.getRemovalTime());
+      }
+    }
+  }
+
+  protected boolean isRootProcessInstanceEnd(HistoryEvent historyEvent) {
+    return historyEvent instanceof HistoricProcessInstanceEventEntity
+        && historyEvent.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_END)
+        && historyEvent.getProcessInstanceId() != null
+        && historyEvent.getProcessInstanceId().equals(historyEvent.getRootProcessInstanceId());
+  }
+
+  /**
+   * With the removal time strategy 'end', the removal time is propagated to
+   * the history of the root process instance when it ends. At that point in
+   * time, the history was not written yet, so propagate it again.
+   */
+  protected void provideRemovalTimeOnRootProcessInstanceEnd(HistoricProcessInstanceEventEntity historyEvent) {
+    CommandContext commandContext = Context.getCommandContext();
+    ProcessEngineConfigurationImpl configuration = commandContext.getProcessEngineConfiguration();
+
+    if (!ProcessEngineConfigurationImpl.HISTORY_REMOVAL_TIME_STRATEGY_END
+        .equals(configuration.getHistoryRemovalTimeStrategy())) {
+      return;
+    }
+
+    ProcessDefinition processDefinition = commandContext.getProcessDefinitionManager()
+        .findLatestProcessDefinitionById(historyEvent.getProcessDefinitionId());
+    if (processDefinition == null) {
+      // the process definition was deleted in the meantime
+      return;
+    }
+
+    Date removalTime = configuration.getHistoryRemovalTimeProvider()
+        .calculateRemovalTime(historyEvent, processDefinition);
+
+    if (removalTime != null) {
+      historyEvent.setRemovalTime(removalTime);
+
+      commandContext.getHistoricProcessInstanceManager()
+        .addRemovalTimeToProcessInstancesByRootProcessInstanceId(historyEvent.getRootProcessInstanceId(), removalTime);
+
+      if (configuration.isDmnEnabled()) {
+        commandContext.getHistoricDecisionInstanceManager()
+          .addRemovalTimeToDecisionsByRootProcessInstanceId(historyEvent.getRootProcessInstanceId(), removalTime);
+      }
+    }
+  }
+
+}
@@ -52,6 +52,9 @@ public class AtomicOperationInvocation {
     this.operation = operation;
     this.execution = execution;
     this.performAsync = performAsync;
+    this.applicationContextName = null;
+    this.activityId = null;
+    this.activityName = null;
   }
 
   public void execute(BpmnStackTrace stackTrace, ProcessDataContext processDataContext) {
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.cibseven.bpm.engine.impl.pvm.runtime.AtomicOperation;
 
 /**
  *
@@ -37,7 +39,7 @@ public class BpmnStackTrace {
   protected List<AtomicOperationInvocation> perfromedInvocations = new ArrayList<AtomicOperationInvocation>();
 
   public void printStackTrace(boolean verbose) {
-    if(perfromedInvocations.isEmpty()) {
+    if(isEmpty()) {
       return;
     }
 
@@ -53,6 +55,14 @@ public class BpmnStackTrace {
 
     LOG.bpmnStackTrace(writer.toString());
 
+    clear();
+  }
+
+  protected boolean isEmpty() {
+    return perfromedInvocations.isEmpty();
+  }
+
+  protected void clear() {
     perfromedInvocations.clear();
   }
 
@@ -125,20 +135,26 @@ public class BpmnStackTrace {
   }
 
   protected void writeInvocation(AtomicOperationInvocation invocation, StringWriter writer) {
+    writeInvocation(invocation.getActivityId(), invocation.getOperation(), invocation.getExecution(),
+        invocation.isPerformAsync(), invocation.getApplicationContextName(), writer);
+  }
+
+  protected void writeInvocation(String activityId, AtomicOperation operation, ExecutionEntity execution,
+      boolean performAsync, String applicationContextName, StringWriter writer) {
     writer.write("\t");
-    writer.write(invocation.getActivityId());
+    writer.write(activityId);
     writer.write(" (");
-    writer.write(invocation.getOperation().getCanonicalName());
+    writer.write(operation.getCanonicalName());
     writer.write(", ");
-    writer.write(invocation.getExecution().toString());
+    writer.write(execution.toString());
 
-    if(invocation.isPerformAsync()) {
+    if(performAsync) {
       writer.write(", ASYNC");
     }
 
-    if(invocation.getApplicationContextName() != null) {
+    if(applicationContextName != null) {
       writer.write(", pa=");
-      writer.write(invocation.getApplicationContextName());
+      writer.write(applicationContextName);
     }
 
     writer.write(")\n");
@@ -60,6 +60,7 @@ import org.cibseven.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.BatchManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.ByteArrayManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.CommentManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.CorrelationKeyManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.DeploymentManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionManager;
@@ -78,6 +79,7 @@ import org.cibseven.bpm.engine.impl.persistence.entity.HistoricProcessInstanceMa
 import org.cibseven.bpm.engine.impl.persistence.entity.HistoricStatisticsManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.HistoricTaskInstanceManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.HistoricVariableInstanceManager;
+import org.cibseven.bpm.engine.impl.persistence.entity.HistoryEventOutboxManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.IdentityInfoManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.IdentityLinkManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.IncidentManager;
@@ -352,6 +354,10 @@ public class CommandContext {
     return getSession(HistoricDetailManager.class);
   }
 
+  public HistoryEventOutboxManager getHistoryEventOutboxManager() {
+    return getSession(HistoryEventOutboxManager.class);
+  }
+
   public UserOperationLogManager getOperationLogManager() {
     return getSession(UserOperationLogManager.class);
   }
@@ -416,6 +422,10 @@ public class CommandContext {
     return getSession(CommentManager.class);
   }
 
+  public CorrelationKeyManager getCorrelationKeyManager() {
+    return getSession(CorrelationKeyManager.class);
+  }
+
   public EventSubscriptionManager getEventSubscriptionManager() {
     return getSession(EventSubscriptionManager.class);
   }
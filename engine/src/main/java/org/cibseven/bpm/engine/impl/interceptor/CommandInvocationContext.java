@@ -16,8 +16,8 @@
  */
 package org.cibseven.bpm.engine.impl.interceptor;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.Callable;
 
 import org.cibseven.bpm.application.InvocationContext;
@@ -45,10 +45,14 @@ public class CommandInvocationContext {
   protected Throwable throwable;
   protected Command< ? > command;
   protected boolean isExecuting = false;
-  protected List<AtomicOperationInvocation> queuedInvocations = new ArrayList<>();
-  protected BpmnStackTrace bpmnStackTrace = new BpmnStackTrace();
+  protected Deque<AtomicOperationInvocation> queuedInvocations = new ArrayDeque<>();
+  protected BpmnStackTrace bpmnStackTrace;
   protected ProcessDataContext processDataContext;
 
+  /** performed synchronous invocations that can be reused, only used if invocation reuse is enabled */
+  protected Deque<AtomicOperationInvocation> invocationPool;
+  protected static final int MAX_POOLED_INVOCATIONS = 16;
+
   /**
    * All-args constructor.
    *
@@ -63,6 +67,15 @@ public class CommandInvocationContext {
     this.command = command;
     // only outer commands park external properties
     this.processDataContext = new ProcessDataContext(configuration, false, isOuterCommand);
+
+    if (configuration.isEnableAtomicOperationInvocationReuse() && !configuration.isBpmnStacktraceVerbose()) {
+      // the verbose stack trace needs all performed invocations
+      this.invocationPool = new ArrayDeque<>();
+      this.bpmnStackTrace = new CompactBpmnStackTrace();
+    }
+    else {
+      this.bpmnStackTrace = new BpmnStackTrace();
+    }
   }
 
   public Throwable getThrowable() {
@@ -91,13 +104,30 @@ public class CommandInvocationContext {
   }
 
   public void performOperation(final AtomicOperation executionOperation, final ExecutionEntity execution, final boolean performAsync) {
-    AtomicOperationInvocation invocation = new AtomicOperationInvocation(executionOperation, execution, performAsync);
-    queuedInvocations.add(0, invocation);
+    AtomicOperationInvocation invocation = createInvocation(executionOperation, execution, performAsync);
+    queuedInvocations.addFirst(invocation);
     performNext();
   }
 
+  protected AtomicOperationInvocation createInvocation(AtomicOperation executionOperation, ExecutionEntity execution, boolean performAsync) {
+    // asynchronous invocations are referenced by the created job
+    if (invocationPool != null && !performAsync && !invocationPool.isEmpty()) {
+      AtomicOperationInvocation invocation = invocationPool.pop();
+      invocation.init(executionOperation, execution, performAsync);
+      return invocation;
+    }
+    return new AtomicOperationInvocation(executionOperation, execution, performAsync);
+  }
+
+  protected void releaseInvocation(AtomicOperationInvocation invocation) {
+    if (invocationPool != null && !invocation.isPerformAsync() && invocationPool.size() < MAX_POOLED_INVOCATIONS) {
+      invocation.init(null, null, false);
+      invocationPool.push(invocation);
+    }
+  }
+
   protected void performNext() {
-    AtomicOperationInvocation nextInvocation = queuedInvocations.get(0);
+    AtomicOperationInvocation nextInvocation = queuedInvocations.peekFirst();
 
     if(nextInvocation.operation.isAsyncCapable() && isExecuting) {
       // will be picked up by while loop below
@@ -136,7 +166,7 @@ public class CommandInvocationContext {
   }
 
   protected void invokeNext() {
-    AtomicOperationInvocation invocation = queuedInvocations.remove(0);
+    AtomicOperationInvocation invocation = queuedInvocations.removeFirst();
     try {
       invocation.execute(bpmnStackTrace, processDataContext);
     } catch(RuntimeException e) {
@@ -145,6 +175,7 @@ public class CommandInvocationContext {
       // rethrow
       throw e;
     }
+    releaseInvocation(invocation);
   }
 
   protected boolean requiresContextSwitch(ProcessApplicationReference processApplicationReference) {
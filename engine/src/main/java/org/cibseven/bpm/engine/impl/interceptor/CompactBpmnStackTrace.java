@@ -0,0 +1,109 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.interceptor;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.cibseven.bpm.engine.impl.pvm.runtime.AtomicOperation;
+
+/**
+ * A {@link BpmnStackTrace} that does not keep the performed invocations but
+ * only the data of the non-verbose output, i.e. the last performed invocation
+ * and the trace of activities. The invocations can therefore be reused after
+ * they were performed.
+ */
+public class CompactBpmnStackTrace extends BpmnStackTrace {
+
+  // the last performed invocation
+  protected boolean hasInvocation = false;
+  protected String lastActivityId;
+  protected AtomicOperation lastOperation;
+  protected ExecutionEntity lastExecution;
+  protected boolean lastPerformAsync;
+  protected String lastApplicationContextName;
+
+  // activity trace in the order of execution
+  protected List<String> activityIds = new ArrayList<>();
+  protected List<String> activityNames = new ArrayList<>();
+
+  @Override
+  public void add(AtomicOperationInvocation atomicOperationInvocation) {
+    hasInvocation = true;
+    lastActivityId = atomicOperationInvocation.getActivityId();
+    lastOperation = atomicOperationInvocation.getOperation();
+    lastExecution = atomicOperationInvocation.getExecution();
+    lastPerformAsync = atomicOperationInvocation.isPerformAsync();
+    lastApplicationContextName = atomicOperationInvocation.getApplicationContextName();
+
+    if (lastActivityId != null
+        && (activityIds.isEmpty() || !lastActivityId.equals(activityIds.get(activityIds.size() - 1)))) {
+      activityIds.add(lastActivityId);
+      activityNames.add(atomicOperationInvocation.getActivityName());
+    }
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return !hasInvocation;
+  }
+
+  @Override
+  protected void clear() {
+    hasInvocation = false;
+    lastActivityId = null;
+    lastOperation = null;
+    lastExecution = null;
+    lastApplicationContextName = null;
+    activityIds.clear();
+    activityNames.clear();
+  }
+
+  @Override
+  protected void logNonVerbose(StringWriter writer) {
+    writeInvocation(lastActivityId, lastOperation, lastExecution, lastPerformAsync, lastApplicationContextName, writer);
+    logActivityTrace(writer, collectActivityTrace());
+  }
+
+  @Override
+  protected void logVerbose(StringWriter writer) {
+    // the performed invocations are not available
+    logNonVerbose(writer);
+  }
+
+  @Override
+  protected List<Map<String, String>> collectActivityTrace() {
+    List<Map<String, String>> activityTrace = new ArrayList<>();
+    for (int i = activityIds.size() - 1; i >= 0; i--) {
+      Map<String, String> activity = new HashMap<>();
+      activity.put("activityId", activityIds.get(i));
+
+      String activityName = activityNames.get(i);
+      if (activityName != null) {
+        activity.put("activityName", activityName);
+      }
+
+      activityTrace.add(activity);
+    }
+    return activityTrace;
+  }
+
+}
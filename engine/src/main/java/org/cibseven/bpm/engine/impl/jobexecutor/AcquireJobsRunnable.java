@@ -33,6 +33,8 @@ public abstract class AcquireJobsRunnable implements Runnable {
   protected volatile boolean isJobAdded = false;
   protected final Object MONITOR = new Object();
   protected final AtomicBoolean isWaiting = new AtomicBoolean(false);
+  /** the time at which the waiting acquisition wakes up, used by the timer wheel */
+  protected volatile long wakeUpTime = Long.MAX_VALUE;
 
   public AcquireJobsRunnable(JobExecutor jobExecutor) {
     this.jobExecutor = jobExecutor;
@@ -81,6 +83,14 @@ public abstract class AcquireJobsRunnable implements Runnable {
     }
   }
 
+  public void timerScheduled(long dueTime) {
+    if (dueTime < wakeUpTime && isWaiting.compareAndSet(true, false)) {
+      synchronized (MONITOR) {
+        MONITOR.notifyAll();
+      }
+    }
+  }
+
   protected void clearJobAddedNotification() {
     isJobAdded = false;
   }
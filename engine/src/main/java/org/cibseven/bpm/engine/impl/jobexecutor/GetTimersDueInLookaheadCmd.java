@@ -0,0 +1,45 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.jobexecutor;
+
+import java.util.Date;
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.Page;
+import org.cibseven.bpm.engine.impl.interceptor.Command;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.persistence.entity.AcquirableJobEntity;
+
+/**
+ * Selects the timers that become due within the lookahead window of the {@link TimerWheel}.
+ */
+public class GetTimersDueInLookaheadCmd implements Command<List<AcquirableJobEntity>> {
+
+  protected Date lookaheadEnd;
+  protected int maxResults;
+
+  public GetTimersDueInLookaheadCmd(Date lookaheadEnd, int maxResults) {
+    this.lookaheadEnd = lookaheadEnd;
+    this.maxResults = maxResults;
+  }
+
+  public List<AcquirableJobEntity> execute(CommandContext commandContext) {
+    return commandContext
+      .getJobManager()
+      .findTimersDueInLookahead(lookaheadEnd, new Page(0, maxResults));
+  }
+}
@@ -24,6 +24,7 @@ import org.cibseven.bpm.engine.impl.ProcessEngineImpl;
 import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
 import org.cibseven.bpm.engine.impl.interceptor.Command;
 import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.util.ClockUtil;
 import org.cibseven.bpm.engine.management.Metrics;
 import org.cibseven.bpm.engine.runtime.Job;
 
@@ -74,6 +75,28 @@ public abstract class JobExecutor {
   protected String lockOwner = UUID.randomUUID().toString();
   protected int lockTimeInMillis = 5 * 60 * 1000;
 
+  /**
+   * If enabled, the due dates of timers that become due within the lookahead
+   * window are kept in a node-local {@link TimerWheel}, and job acquisition
+   * wakes up when the next timer becomes due.
+   */
+  protected boolean timerWheelEnabled = false;
+
+  /** The resolution of the timer wheel. */
+  protected long timerWheelTickInMillis = 100;
+
+  /** How far ahead the due dates of timers are fetched into the timer wheel. */
+  protected long timerWheelLookaheadInMillis = 60 * 1000;
+
+  /**
+   * The maximum number of timers fetched into the timer wheel at once. If more
+   * timers are due within the lookahead window, the window ends at the last
+   * fetched timer.
+   */
+  protected int timerWheelMaxTimersPerLookahead = 1000;
+
+  protected TimerWheel timerWheel;
+
   public void start() {
     if (isActive) {
       return;
@@ -100,11 +123,17 @@ public abstract class JobExecutor {
     acquireJobsCmdFactory =  new DefaultAcquireJobsCommandFactory(this);
   }
     acquireJobsRunnable = new SequentialJobAcquisitionRunnable(this);
+    if (timerWheelEnabled) {
+      // one revolution of the wheel covers the lookahead window
+      int ticksPerWheel = (int) Math.min(timerWheelLookaheadInMillis / timerWheelTickInMillis + 1, 1 << 16);
+      timerWheel = new TimerWheel(timerWheelTickInMillis, ticksPerWheel, ClockUtil.getCurrentTime().getTime());
+    }
   }
 
   protected void ensureCleanup() {
     acquireJobsCmdFactory = null;
     acquireJobsRunnable = null;
+    timerWheel = null;
   }
 
   public void jobWasAdded() {
@@ -113,6 +142,18 @@ public abstract class JobExecutor {
     }
   }
 
+  /**
+   * Adds the due date of a timer to the timer wheel and wakes up the job
+   * acquisition if the timer becomes due before the acquisition would wake up.
+   */
+  public void timerScheduled(String jobId, long dueTime) {
+    TimerWheel currentTimerWheel = timerWheel;
+    if (isActive && currentTimerWheel != null) {
+      currentTimerWheel.schedule(jobId, dueTime);
+      acquireJobsRunnable.timerScheduled(dueTime);
+    }
+  }
+
   public synchronized void registerProcessEngine(ProcessEngineImpl processEngine) {
     processEngines.add(processEngine);
 
@@ -340,6 +381,46 @@ public abstract class JobExecutor {
     return name;
   }
 
+  public boolean isTimerWheelEnabled() {
+    return timerWheelEnabled;
+  }
+
+  public void setTimerWheelEnabled(boolean timerWheelEnabled) {
+    this.timerWheelEnabled = timerWheelEnabled;
+  }
+
+  public long getTimerWheelTickInMillis() {
+    return timerWheelTickInMillis;
+  }
+
+  public void setTimerWheelTickInMillis(long timerWheelTickInMillis) {
+    this.timerWheelTickInMillis = timerWheelTickInMillis;
+  }
+
+  public long getTimerWheelLookaheadInMillis() {
+    return timerWheelLookaheadInMillis;
+  }
+
+  public void setTimerWheelLookaheadInMillis(long timerWheelLookaheadInMillis) {
+    this.timerWheelLookaheadInMillis = timerWheelLookaheadInMillis;
+  }
+
+  public int getTimerWheelMaxTimersPerLookahead() {
+    return timerWheelMaxTimersPerLookahead;
+  }
+
+  public void setTimerWheelMaxTimersPerLookahead(int timerWheelMaxTimersPerLookahead) {
+    this.timerWheelMaxTimersPerLookahead = timerWheelMaxTimersPerLookahead;
+  }
+
+  /**
+   * @return the timer wheel of this job executor, or <code>null</code> if the
+   *   timer wheel is disabled or the job executor is not started
+   */
+  public TimerWheel getTimerWheel() {
+    return timerWheel;
+  }
+
   public Command<AcquiredJobs> getAcquireJobsCmd(int numJobs) {
     return acquireJobsCmdFactory.getCommand(numJobs);
   }
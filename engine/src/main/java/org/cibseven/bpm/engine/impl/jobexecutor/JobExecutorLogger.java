@@ -253,4 +253,23 @@ public class JobExecutorLogger extends ProcessEngineLogger {
     logDebug("040", "Arithmetic exception occurred while computing total queue capacity for logging.");
   }
 
+  public ProcessEngineException virtualThreadsNotSupported(Exception cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "041", "Virtual threads are not supported by the Java runtime, Java 21 or later is required to use {}",
+        VirtualThreadJobExecutor.class.getSimpleName()), cause);
+  }
+
+  public void exceptionDuringClusterNotification(Exception e) {
+    logWarn("042", "Exception while exchanging cluster notifications. Notifications are retried on the next attempt.", e);
+  }
+
+  public void debugClusterNotificationReceived(String notificationType) {
+    logDebug("043", "Received cluster notification '{}'", notificationType);
+  }
+
+  public void debugTimerWheelFilled(String processEngineName, int numTimers, long lookaheadEnd) {
+    logDebug("044", "Added {} timers of process engine '{}' that are due until {} to the timer wheel",
+        numTimers, processEngineName, lookaheadEnd);
+  }
+
 }
@@ -16,14 +16,20 @@
  */
 package org.cibseven.bpm.engine.impl.jobexecutor;
 
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.cibseven.bpm.engine.ProcessEngine;
 import org.cibseven.bpm.engine.impl.ProcessEngineImpl;
 import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
 import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.persistence.entity.AcquirableJobEntity;
 import org.cibseven.bpm.engine.impl.util.ClassLoaderUtil;
+import org.cibseven.bpm.engine.impl.util.ClockUtil;
 
 
 /**
@@ -50,6 +56,9 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
 
   protected JobAcquisitionContext acquisitionContext;
 
+  /** the end of the lookahead window that was fetched into the timer wheel, by process engine name */
+  protected Map<String, Long> timerWheelLookaheadEnds = new HashMap<>();
+
   public SequentialJobAcquisitionRunnable(JobExecutor jobExecutor) {
     super(jobExecutor);
     acquisitionContext = initializeAcquisitionContext();
@@ -63,7 +72,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     while (!isInterrupted) {
       acquisitionContext.reset();
       acquisitionContext.setAcquisitionTime(System.currentTimeMillis());
-
+      expireTimerWheel();
 
       Iterator<ProcessEngineImpl> engineIterator = jobExecutor.engineIterator();
 
@@ -79,6 +88,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
 
           AcquiredJobs acquiredJobs = acquireJobs(acquisitionContext, acquisitionStrategy, currentProcessEngine);
           executeJobs(acquisitionContext, currentProcessEngine, acquiredJobs);
+          fillTimerWheel(currentProcessEngine);
         }
       } catch (Exception e) {
         LOG.exceptionDuringJobAcquisition(e);
@@ -100,6 +110,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
       // wait the requested wait time minus the time that acquisition itself took
       // this makes the intervals of job acquisition more constant and therefore predictable
       waitTime = Math.max(0, (acquisitionContext.getAcquisitionTime() + waitTime) - System.currentTimeMillis());
+      waitTime = applyTimerWheel(waitTime);
 
       suspendAcquisition(waitTime);
     }
@@ -148,6 +159,85 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     }
   }
 
+  /**
+   * Removes the timers from the timer wheel that are due when the acquisition
+   * cycle starts, since the cycle acquires them, and forgets the lookahead
+   * windows of unregistered process engines.
+   */
+  protected void expireTimerWheel() {
+    TimerWheel timerWheel = jobExecutor.getTimerWheel();
+    if (timerWheel != null) {
+      timerWheel.expire(ClockUtil.getCurrentTime().getTime());
+      timerWheelLookaheadEnds.keySet().removeIf(engineName -> jobExecutor.getProcessEngines().stream()
+          .noneMatch(engine -> Objects.equals(engineName, engine.getName())));
+    }
+  }
+
+  /**
+   * Fetches the due dates of the timers of the process engine that become due
+   * within the lookahead window, once the previously fetched window has passed.
+   */
+  protected void fillTimerWheel(ProcessEngineImpl currentProcessEngine) {
+    TimerWheel timerWheel = jobExecutor.getTimerWheel();
+    if (timerWheel == null) {
+      return;
+    }
+
+    String engineName = currentProcessEngine.getName();
+    long now = ClockUtil.getCurrentTime().getTime();
+    Long lookaheadEnd = timerWheelLookaheadEnds.get(engineName);
+    if (lookaheadEnd != null && now < lookaheadEnd) {
+      return;
+    }
+
+    long newLookaheadEnd = now + jobExecutor.getTimerWheelLookaheadInMillis();
+    int maxTimers = jobExecutor.getTimerWheelMaxTimersPerLookahead();
+
+    List<AcquirableJobEntity> timers = currentProcessEngine.getProcessEngineConfiguration()
+        .getCommandExecutorTxRequired()
+        .execute(new GetTimersDueInLookaheadCmd(new Date(newLookaheadEnd), maxTimers));
+
+    for (AcquirableJobEntity timer : timers) {
+      timerWheel.schedule(timer.getId(), timer.getDuedate().getTime());
+    }
+
+    if (timers.size() >= maxTimers) {
+      // the remaining timers of the window are fetched when the last fetched timer is due
+      newLookaheadEnd = timers.get(timers.size() - 1).getDuedate().getTime();
+    }
+    timerWheelLookaheadEnds.put(engineName, newLookaheadEnd);
+
+    LOG.debugTimerWheelFilled(engineName, timers.size(), newLookaheadEnd);
+  }
+
+  /**
+   * Shortens the wait time so that the acquisition wakes up when the next timer
+   * of the timer wheel becomes due or a lookahead window has to be fetched.
+   */
+  protected long applyTimerWheel(long waitTime) {
+    TimerWheel timerWheel = jobExecutor.getTimerWheel();
+    if (timerWheel == null) {
+      return waitTime;
+    }
+
+    long now = ClockUtil.getCurrentTime().getTime();
+    long wakeUpTime = now + waitTime;
+
+    long nextDueTime = timerWheel.getNextDueTime();
+    if (nextDueTime >= 0) {
+      wakeUpTime = Math.min(wakeUpTime, nextDueTime);
+    }
+    for (Long lookaheadEnd : timerWheelLookaheadEnds.values()) {
+      // a window that has passed could not be fetched, it is retried in the next cycle
+      if (lookaheadEnd > now) {
+        wakeUpTime = Math.min(wakeUpTime, lookaheadEnd);
+      }
+    }
+
+    this.wakeUpTime = Math.max(now, wakeUpTime);
+    return Math.max(0, wakeUpTime - now);
+  }
+
   protected AcquiredJobs acquireJobs(
       JobAcquisitionContext context,
       JobAcquisitionStrategy acquisitionStrategy,
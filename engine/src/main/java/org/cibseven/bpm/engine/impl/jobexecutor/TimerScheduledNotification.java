@@ -0,0 +1,44 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.jobexecutor;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.cfg.TransactionListener;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Adds the due date of a committed timer job to the {@link TimerWheel} of the job executor.
+ */
+public class TimerScheduledNotification implements TransactionListener {
+
+  private final JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected JobExecutor jobExecutor;
+  protected String jobId;
+  protected long dueTime;
+
+  public TimerScheduledNotification(JobExecutor jobExecutor, String jobId, long dueTime) {
+    this.jobExecutor = jobExecutor;
+    this.jobId = jobId;
+    this.dueTime = dueTime;
+  }
+
+  public void execute(CommandContext commandContext) {
+    LOG.debugNotifyingJobExecutor("notifying job executor of scheduled timer");
+    jobExecutor.timerScheduled(jobId, dueTime);
+  }
+}
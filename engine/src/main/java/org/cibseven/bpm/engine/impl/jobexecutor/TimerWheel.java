@@ -0,0 +1,175 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Node-local hashed timer wheel that holds the due dates of upcoming timer
+ * jobs, so that the job acquisition can wake up when the next timer becomes due
+ * instead of waiting for the next acquisition cycle.</p>
+ *
+ * <p>The wheel only tells the job acquisition <i>when</i> to acquire. The timer
+ * jobs are still acquired and locked by the regular acquisition, so an entry
+ * of a timer that was deleted or executed by another node only causes an
+ * additional acquisition cycle.</p>
+ *
+ * <p>Due dates are rounded up to the tick duration, so a timer is signaled at
+ * most one tick after it became due.</p>
+ */
+public class TimerWheel {
+
+  protected final long tickDuration;
+  protected final int mask;
+  protected final List<List<Entry>> buckets;
+  protected final Map<String, Entry> entriesByJobId = new HashMap<>();
+
+  /** the tick of the next bucket that is expired */
+  protected long currentTick;
+
+  public TimerWheel(long tickDuration, int ticksPerWheel, long now) {
+    if (tickDuration <= 0) {
+      throw new IllegalArgumentException("tickDuration must be greater than 0");
+    }
+    if (ticksPerWheel <= 0) {
+      throw new IllegalArgumentException("ticksPerWheel must be greater than 0");
+    }
+
+    int wheelSize = Integer.highestOneBit(ticksPerWheel);
+    if (wheelSize < ticksPerWheel) {
+      wheelSize <<= 1;
+    }
+
+    this.tickDuration = tickDuration;
+    this.mask = wheelSize - 1;
+    this.buckets = new ArrayList<>(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      buckets.add(new ArrayList<>());
+    }
+    this.currentTick = now / tickDuration;
+  }
+
+  /**
+   * Adds the due date of a timer job. A due date that was added before for
+   * the same job is replaced.
+   */
+  public synchronized void schedule(String jobId, long dueTime) {
+    Entry existing = entriesByJobId.remove(jobId);
+    if (existing != null) {
+      bucketOf(existing.tick).remove(existing);
+    }
+
+    long tick = Math.max(ceilDiv(dueTime, tickDuration), currentTick);
+    Entry entry = new Entry(jobId, tick);
+    bucketOf(tick).add(entry);
+    entriesByJobId.put(jobId, entry);
+  }
+
+  /**
+   * Removes all entries that are due at the given time.
+   *
+   * @return the ids of the jobs that became due
+   */
+  public synchronized List<String> expire(long now) {
+    long nowTick = now / tickDuration;
+    List<String> dueJobIds = new ArrayList<>();
+    if (nowTick < currentTick) {
+      return dueJobIds;
+    }
+
+    // every bucket needs to be visited at most once, even if many ticks passed
+    long lastTick = Math.min(nowTick, currentTick + mask);
+    for (long tick = currentTick; tick <= lastTick; tick++) {
+      Iterator<Entry> iterator = bucketOf(tick).iterator();
+      while (iterator.hasNext()) {
+        Entry entry = iterator.next();
+        if (entry.tick <= nowTick) {
+          iterator.remove();
+          entriesByJobId.remove(entry.jobId);
+          dueJobIds.add(entry.jobId);
+        }
+      }
+    }
+    currentTick = nowTick + 1;
+
+    return dueJobIds;
+  }
+
+  /**
+   * @return the time at which the next entry becomes due, or <code>-1</code>
+   *   if the wheel is empty
+   */
+  public synchronized long getNextDueTime() {
+    if (entriesByJobId.isEmpty()) {
+      return -1;
+    }
+
+    for (long tick = currentTick; tick <= currentTick + mask; tick++) {
+      for (Entry entry : bucketOf(tick)) {
+        if (entry.tick == tick) {
+          return tick * tickDuration;
+        }
+      }
+    }
+
+    // all entries are more than one revolution ahead
+    long nextTick = Long.MAX_VALUE;
+    for (Entry entry : entriesByJobId.values()) {
+      nextTick = Math.min(nextTick, entry.tick);
+    }
+    return nextTick * tickDuration;
+  }
+
+  public synchronized int size() {
+    return entriesByJobId.size();
+  }
+
+  public synchronized void clear() {
+    for (List<Entry> bucket : buckets) {
+      bucket.clear();
+    }
+    entriesByJobId.clear();
+  }
+
+  public long getTickDuration() {
+    return tickDuration;
+  }
+
+  protected List<Entry> bucketOf(long tick) {
+    return buckets.get((int) (tick & mask));
+  }
+
+  protected static long ceilDiv(long dividend, long divisor) {
+    return -Math.floorDiv(-dividend, divisor);
+  }
+
+  protected static class Entry {
+
+    protected final String jobId;
+    protected final long tick;
+
+    public Entry(String jobId, long tick) {
+      this.jobId = jobId;
+      this.tick = tick;
+    }
+  }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.jobexecutor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineImpl;
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+
+/**
+ * <p>A {@link JobExecutor} that executes each acquired batch of jobs on its own
+ * virtual thread instead of a bounded pool of platform threads.</p>
+ *
+ * <p>Jobs that block on I/O (e.g. HTTP connectors or slow JDBC calls) do not
+ * occupy an operating system thread while they wait. The number of batches
+ * executed concurrently is limited by {@link #setMaxConcurrentJobs(int)}; batches
+ * that exceed the limit are handed to the {@link RejectedJobsHandler}, just like
+ * batches rejected by a full queue of the {@link DefaultJobExecutor}.</p>
+ *
+ * <p><em>NOTE: virtual threads require Java 21 or later. Starting this job executor
+ * on an older Java runtime fails.</em></p>
+ */
+public class VirtualThreadJobExecutor extends JobExecutor {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected int maxConcurrentJobs = 100;
+  protected String threadNamePrefix = "cibseven-job-executor-";
+
+  protected ExecutorService executorService;
+  protected Semaphore concurrencyLimit;
+
+  protected void startExecutingJobs() {
+
+    if (executorService == null || executorService.isShutdown()) {
+      executorService = createVirtualThreadExecutor();
+      concurrencyLimit = new Semaphore(maxConcurrentJobs);
+    }
+
+    startJobAcquisitionThread();
+  }
+
+  protected void stopExecutingJobs() {
+
+    if (jobAcquisitionThread != null) {
+      stopJobAcquisitionThread();
+    }
+
+    if (executorService == null) {
+      // never started or already stopped
+      return;
+    }
+
+    executorService.shutdown();
+
+    // Waits for 1 minute to finish all currently executing jobs
+    try {
+      if (!executorService.awaitTermination(60L, TimeUnit.SECONDS)) {
+        LOG.timeoutDuringShutdown();
+      }
+    } catch (InterruptedException e) {
+      LOG.interruptedWhileShuttingDownjobExecutor(e);
+    }
+  }
+
+  public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    if (concurrencyLimit == null || executorService == null) {
+      // not started yet, the rejected jobs handler decides what happens with the jobs
+      rejectJobs(jobIds, processEngine);
+      return;
+    }
+
+    if (!concurrencyLimit.tryAcquire()) {
+      rejectJobs(jobIds, processEngine);
+      return;
+    }
+
+    try {
+      Runnable executeJobsRunnable = getExecuteJobsRunnable(jobIds, processEngine);
+      executorService.execute(() -> {
+        try {
+          executeJobsRunnable.run();
+        } finally {
+          concurrencyLimit.release();
+        }
+      });
+
+    } catch (RejectedExecutionException e) {
+      concurrencyLimit.release();
+      rejectJobs(jobIds, processEngine);
+
+    } finally {
+      logJobExecutionInfo(processEngine, 0, 0, maxConcurrentJobs, getActiveJobExecutions());
+    }
+  }
+
+  protected void rejectJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    logRejectedExecution(processEngine, jobIds.size());
+    rejectedJobsHandler.jobsRejected(jobIds, processEngine, this);
+  }
+
+  /**
+   * Creates an executor that starts a new virtual thread for each task. The
+   * virtual thread API is looked up reflectively since the engine is compiled
+   * against an older Java release.
+   */
+  protected ExecutorService createVirtualThreadExecutor() {
+    try {
+      Object threadBuilder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+      Class<?> threadBuilderClass = Class.forName("java.lang.Thread$Builder");
+      Method nameMethod = threadBuilderClass.getMethod("name", String.class, long.class);
+      threadBuilder = nameMethod.invoke(threadBuilder, threadNamePrefix, 0L);
+
+      ThreadFactory threadFactory = (ThreadFactory) threadBuilderClass.getMethod("factory").invoke(threadBuilder);
+
+      return (ExecutorService) Executors.class
+          .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, threadFactory);
+
+    } catch (ReflectiveOperationException e) {
+      throw LOG.virtualThreadsNotSupported(e);
+    }
+  }
+
+  public int getActiveJobExecutions() {
+    return concurrencyLimit != null ? maxConcurrentJobs - concurrencyLimit.availablePermits() : 0;
+  }
+
+  // getters and setters //////////////////////////////////////////////////////
+
+  public int getMaxConcurrentJobs() {
+    return maxConcurrentJobs;
+  }
+
+  /**
+   * @param maxConcurrentJobs the maximum number of job batches that are executed
+   * concurrently. Takes effect the next time the job executor is started.
+   */
+  public void setMaxConcurrentJobs(int maxConcurrentJobs) {
+    this.maxConcurrentJobs = maxConcurrentJobs;
+  }
+
+  public String getThreadNamePrefix() {
+    return threadNamePrefix;
+  }
+
+  public void setThreadNamePrefix(String threadNamePrefix) {
+    this.threadNamePrefix = threadNamePrefix;
+  }
+
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+}
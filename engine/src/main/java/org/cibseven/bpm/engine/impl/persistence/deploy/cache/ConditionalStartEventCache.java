@@ -0,0 +1,203 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Process engine wide cache of the conditional start event subscriptions.
+ * It keeps an index of the subscriptions of all tenants, grouped by the
+ * variable name that is declared by their conditions, so that the evaluation
+ * of conditional start events neither queries <code>ACT_RU_EVENT_SUBSCR</code>
+ * nor evaluates conditions that cannot be affected by the given variables.
+ * The process definitions of the subscriptions are resolved by the
+ * {@link DeploymentCache}.</p>
+ *
+ * <p>The index is discarded when a command of this process engine flushes a
+ * modification of a conditional start event subscription, e.g. on
+ * deployment, undeployment or migration of process definitions.
+ * Modifications by other process engine nodes become visible after the time
+ * to live of the index expired.</p>
+ */
+public class ConditionalStartEventCache {
+
+  protected long timeToLiveInMillis;
+
+  /** incremented on every modification of a conditional start event subscription */
+  protected final AtomicLong revision = new AtomicLong();
+
+  protected volatile Snapshot snapshot;
+
+  public ConditionalStartEventCache(long timeToLiveInMillis) {
+    this.timeToLiveInMillis = timeToLiveInMillis;
+  }
+
+  /**
+   * @return the revision that has to be passed to {@link #put(List, long)} and
+   * that must be obtained before the subscriptions are selected from the database.
+   */
+  public long getRevision() {
+    return revision.get();
+  }
+
+  /**
+   * @return the cached subscriptions or null if they have to be selected from the database
+   */
+  public Snapshot get() {
+    Snapshot currentSnapshot = snapshot;
+    if (currentSnapshot == null) {
+      return null;
+    }
+    if (currentSnapshot.revision != revision.get() || currentSnapshot.expirationTime < System.currentTimeMillis()) {
+      snapshot = null;
+      return null;
+    }
+    return currentSnapshot;
+  }
+
+  /**
+   * @return the snapshot of the given subscriptions, which is kept in the cache
+   * unless a subscription was modified since the given revision was obtained
+   */
+  public Snapshot put(List<Subscription> subscriptions, long revision) {
+    Snapshot newSnapshot = new Snapshot(subscriptions, revision, System.currentTimeMillis() + timeToLiveInMillis);
+    if (this.revision.get() == revision) {
+      snapshot = newSnapshot;
+    }
+    return newSnapshot;
+  }
+
+  /**
+   * Discards the cached subscriptions.
+   */
+  public void invalidate() {
+    revision.incrementAndGet();
+    snapshot = null;
+  }
+
+  /**
+   * The conditional start event subscriptions of all tenants, indexed by tenant id.
+   */
+  public static class Snapshot {
+
+    protected final long revision;
+    protected final long expirationTime;
+    protected final Map<String, TenantSubscriptions> subscriptionsByTenantId = new HashMap<>();
+
+    public Snapshot(List<Subscription> subscriptions, long revision, long expirationTime) {
+      this.revision = revision;
+      this.expirationTime = expirationTime;
+      for (Subscription subscription : subscriptions) {
+        subscriptionsByTenantId
+          .computeIfAbsent(subscription.getTenantId(), tenantId -> new TenantSubscriptions())
+          .add(subscription);
+      }
+    }
+
+    /**
+     * @return the subscriptions of the given tenant or null if the tenant has no subscription
+     */
+    public TenantSubscriptions getSubscriptions(String tenantId) {
+      return subscriptionsByTenantId.get(tenantId);
+    }
+
+    public Map<String, TenantSubscriptions> getSubscriptionsByTenantId() {
+      return Collections.unmodifiableMap(subscriptionsByTenantId);
+    }
+
+  }
+
+  /**
+   * The conditional start event subscriptions of one tenant, grouped by the
+   * variable name that is declared by their conditions.
+   */
+  public static class TenantSubscriptions {
+
+    protected final Map<String, List<Subscription>> subscriptionsByVariableName = new HashMap<>();
+    protected final List<Subscription> subscriptionsWithoutVariableName = new ArrayList<>();
+
+    protected void add(Subscription subscription) {
+      String variableName = subscription.getVariableName();
+      if (variableName == null) {
+        subscriptionsWithoutVariableName.add(subscription);
+      } else {
+        subscriptionsByVariableName
+          .computeIfAbsent(variableName, name -> new ArrayList<>())
+          .add(subscription);
+      }
+    }
+
+    /**
+     * @return the subscriptions whose condition declares one of the given
+     * variable names or no variable name at all
+     */
+    public List<Subscription> getSubscriptions(Iterable<String> variableNames) {
+      List<Subscription> subscriptions = new ArrayList<>(subscriptionsWithoutVariableName);
+      if (variableNames != null) {
+        for (String variableName : variableNames) {
+          List<Subscription> subscriptionsOfVariable = subscriptionsByVariableName.get(variableName);
+          if (subscriptionsOfVariable != null) {
+            subscriptions.addAll(subscriptionsOfVariable);
+          }
+        }
+      }
+      return subscriptions;
+    }
+
+  }
+
+  /**
+   * Immutable view of a conditional start event subscription.
+   */
+  public static class Subscription {
+
+    protected final String processDefinitionId;
+    protected final String activityId;
+    protected final String tenantId;
+    protected final String variableName;
+
+    public Subscription(String processDefinitionId, String activityId, String tenantId, String variableName) {
+      this.processDefinitionId = processDefinitionId;
+      this.activityId = activityId;
+      this.tenantId = tenantId;
+      this.variableName = variableName;
+    }
+
+    public String getProcessDefinitionId() {
+      return processDefinitionId;
+    }
+
+    public String getActivityId() {
+      return activityId;
+    }
+
+    public String getTenantId() {
+      return tenantId;
+    }
+
+    public String getVariableName() {
+      return variableName;
+    }
+
+  }
+
+}
@@ -88,8 +88,10 @@ import org.cibseven.bpm.engine.impl.batch.BatchQueryImpl;
 import org.cibseven.bpm.engine.impl.batch.BatchStatisticsQueryImpl;
 import org.cibseven.bpm.engine.impl.batch.history.HistoricBatchQueryImpl;
 import org.cibseven.bpm.engine.impl.cfg.CommandChecker;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.cibseven.bpm.engine.impl.context.Context;
 import org.cibseven.bpm.engine.impl.db.AuthorizationCheck;
+import org.cibseven.bpm.engine.impl.db.AuthorizationDecisionCache;
 import org.cibseven.bpm.engine.impl.db.CompositePermissionCheck;
 import org.cibseven.bpm.engine.impl.db.DbEntity;
 import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
@@ -276,8 +278,7 @@ public class AuthorizationManager extends AbstractManager {
 
     boolean isRevokeAuthorizationCheckEnabled = isRevokeAuthCheckEnabled(userId, groupIds);
     CompositePermissionCheck compositePermissionCheck = createCompositePermissionCheck(permissionCheck);
-    AuthorizationCheck authCheck = new AuthorizationCheck(userId, filteredGroupIds, compositePermissionCheck, isRevokeAuthorizationCheckEnabled);
-    return getDbEntityManager().selectBoolean("isUserAuthorizedForResource", authCheck);
+    return selectAuthorizationDecision(userId, groupIds, filteredGroupIds, compositePermissionCheck, isRevokeAuthorizationCheckEnabled);
   }
 
   protected boolean isRevokeAuthCheckEnabled(String userId, List<String> groupIds) {
@@ -295,10 +296,7 @@ public class AuthorizationManager extends AbstractManager {
         isRevokeAuthCheckEnabled = false;
       }
       else {
-        final Map<String, Object> params = new HashMap<>();
-        params.put("userId", userId);
-        params.put("authGroupIds", filterAuthenticatedGroupIds(groupIds));
-        isRevokeAuthCheckEnabled = getDbEntityManager().selectBoolean("selectRevokeAuthorization", params);
+        isRevokeAuthCheckEnabled = selectRevokeAuthorization(userId, groupIds);
       }
       this.isRevokeAuthCheckUsed = isRevokeAuthCheckEnabled;
     }
@@ -306,6 +304,34 @@ public class AuthorizationManager extends AbstractManager {
     return isRevokeAuthCheckEnabled;
   }
 
+  protected boolean selectRevokeAuthorization(String userId, List<String> groupIds) {
+    AuthorizationDecisionCache decisionCache = getAuthorizationDecisionCache();
+    long revision = 0;
+
+    if (decisionCache != null) {
+      Boolean isRevokeAuthCheckEnabled = decisionCache.getRevokeCheckEnabled(userId, groupIds);
+      if (isRevokeAuthCheckEnabled != null) {
+        return isRevokeAuthCheckEnabled;
+      }
+      revision = decisionCache.getRevision();
+    }
+
+    final Map<String, Object> params = new HashMap<>();
+    params.put("userId", userId);
+    params.put("authGroupIds", filterAuthenticatedGroupIds(groupIds));
+    boolean isRevokeAuthCheckEnabled = getDbEntityManager().selectBoolean("selectRevokeAuthorization", params);
+
+    if (decisionCache != null) {
+      decisionCache.putRevokeCheckEnabled(userId, groupIds, isRevokeAuthCheckEnabled, revision);
+    }
+    return isRevokeAuthCheckEnabled;
+  }
+
+  protected AuthorizationDecisionCache getAuthorizationDecisionCache() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return processEngineConfiguration != null ? processEngineConfiguration.getAuthorizationDecisionCache() : null;
+  }
+
   protected CompositePermissionCheck createCompositePermissionCheck(PermissionCheck permissionCheck) {
     CompositePermissionCheck compositePermissionCheck = new CompositePermissionCheck();
     compositePermissionCheck.setAtomicChecks(Arrays.asList(permissionCheck));
@@ -321,8 +347,32 @@ public class AuthorizationManager extends AbstractManager {
     List<String> filteredGroupIds = filterAuthenticatedGroupIds(groupIds);
 
     boolean isRevokeAuthorizationCheckEnabled = isRevokeAuthCheckEnabled(userId, groupIds);
+    return selectAuthorizationDecision(userId, groupIds, filteredGroupIds, compositePermissionCheck, isRevokeAuthorizationCheckEnabled);
+  }
+
+  protected boolean selectAuthorizationDecision(String userId,
+                                                List<String> groupIds,
+                                                List<String> filteredGroupIds,
+                                                CompositePermissionCheck compositePermissionCheck,
+                                                boolean isRevokeAuthorizationCheckEnabled) {
+    AuthorizationDecisionCache decisionCache = getAuthorizationDecisionCache();
+    long revision = 0;
+
+    if (decisionCache != null) {
+      Boolean decision = decisionCache.getDecision(userId, groupIds, compositePermissionCheck, isRevokeAuthorizationCheckEnabled);
+      if (decision != null) {
+        return decision;
+      }
+      revision = decisionCache.getRevision();
+    }
+
     AuthorizationCheck authCheck = new AuthorizationCheck(userId, filteredGroupIds, compositePermissionCheck, isRevokeAuthorizationCheckEnabled);
-    return getDbEntityManager().selectBoolean("isUserAuthorizedForResource", authCheck);
+    boolean decision = getDbEntityManager().selectBoolean("isUserAuthorizedForResource", authCheck);
+
+    if (decisionCache != null) {
+      decisionCache.putDecision(userId, groupIds, compositePermissionCheck, isRevokeAuthorizationCheckEnabled, decision, revision);
+    }
+    return decision;
   }
 
   public boolean isAuthorized(CompositePermissionCheck compositePermissionCheck) {
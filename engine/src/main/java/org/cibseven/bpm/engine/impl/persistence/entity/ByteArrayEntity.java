@@ -42,6 +42,7 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
   protected Date createTime;
   protected String rootProcessInstanceId;
   protected Date removalTime;
+  protected String hash;
 
   public ByteArrayEntity() {
   }
@@ -157,6 +158,14 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
     this.removalTime = removalTime;
   }
 
+  public String getHash() {
+    return hash;
+  }
+
+  public void setHash(String hash) {
+    this.hash = hash;
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
@@ -169,6 +178,7 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
            + ", createTime=" + createTime
            + ", rootProcessInstanceId=" + rootProcessInstanceId
            + ", removalTime=" + removalTime
+           + ", hash=" + hash
            + "]";
   }
 
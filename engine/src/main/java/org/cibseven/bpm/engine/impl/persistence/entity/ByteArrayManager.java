@@ -22,9 +22,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.cibseven.bpm.engine.impl.db.ListQueryParameterObject;
+import org.cibseven.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.cibseven.bpm.engine.impl.persistence.AbstractManager;
 import org.cibseven.bpm.engine.impl.util.ClockUtil;
+import org.cibseven.bpm.engine.repository.ResourceType;
 
 /**
  * @author Joram Barrez
@@ -46,6 +48,63 @@ public class ByteArrayManager extends AbstractManager {
     getDbEntityManager().insert(arr);
   }
 
+  /**
+   * Returns the id of a byte array with the given content hash, name and type,
+   * or <code>null</code> if there is none. Byte arrays which are inserted by the
+   * current command are considered as well. The returned byte array is locked
+   * until the end of the transaction, see {@link #lockSharedByteArray(String)}.
+   */
+  @SuppressWarnings("unchecked")
+  public String findByteArrayIdByHash(String hash, String name, ResourceType type) {
+    DbEntityManager dbEntityManager = getDbEntityManager();
+    for (ByteArrayEntity byteArray : dbEntityManager.getCachedEntitiesByType(ByteArrayEntity.class)) {
+      if (hash.equals(byteArray.getHash())
+          && name.equals(byteArray.getName())
+          && type.getValue().equals(byteArray.getType())
+          && !dbEntityManager.isDeleted(byteArray)) {
+        if (dbEntityManager.getDbEntityCache().isTransient(byteArray) || lockSharedByteArray(byteArray.getId())) {
+          return byteArray.getId();
+        }
+      }
+    }
+
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("hash", hash);
+    parameters.put("name", name);
+    parameters.put("type", type.getValue());
+
+    List<String> byteArrayIds = dbEntityManager.selectList("selectByteArrayIdsByHash", parameters);
+    for (String byteArrayId : byteArrayIds) {
+      if (lockSharedByteArray(byteArrayId)) {
+        return byteArrayId;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Takes a shared lock on a shared byte array until the end of the transaction.
+   * Transactions that reference the same byte array do not block each other,
+   * but a transaction that releases it waits for them, so that it sees the new
+   * references and keeps the byte array. Returns <code>false</code> if the byte
+   * array was deleted by a transaction that committed while waiting for the lock.
+   */
+  public boolean lockSharedByteArray(String byteArrayId) {
+    DbEntityManager dbEntityManager = getDbEntityManager();
+    dbEntityManager.lock("lockByteArrayShared", byteArrayId);
+    return dbEntityManager.selectOne("selectByteArrayId", byteArrayId) != null;
+  }
+
+  /**
+   * Deletes the byte array with the given id at the end of the flush if no
+   * variable instance references it anymore. The byte array is locked exclusively
+   * right away, so that no concurrent transaction starts to reference it before.
+   */
+  public void deleteUnreferencedVariableByteArray(String byteArrayId) {
+    getDbEntityManager().lock("lockByteArray", byteArrayId);
+    getDbEntityManager().deletePreserveOrder(ByteArrayEntity.class, "deleteUnreferencedVariableByteArray", byteArrayId);
+  }
+
   public DbOperation addRemovalTimeToByteArraysByRootProcessInstanceId(String rootProcessInstanceId, Date removalTime, Integer batchSize) {
     Map<String, Object> parameters = new HashMap<>();
     parameters.put("rootProcessInstanceId", rootProcessInstanceId);
@@ -0,0 +1,85 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+
+import org.cibseven.bpm.engine.impl.db.DbEntity;
+
+/**
+ * An entry of the correlation key index. Holds the value of a process
+ * variable that is used as a correlation key, so that message correlation
+ * can look up the process instances by the value of the variable. The id is
+ * the id of the indexed variable instance.
+ */
+public class CorrelationKeyEntity implements DbEntity, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String id;
+  protected String processInstanceId;
+  protected String name;
+  protected String value;
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getProcessInstanceId() {
+    return processInstanceId;
+  }
+
+  public void setProcessInstanceId(String processInstanceId) {
+    this.processInstanceId = processInstanceId;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public void setValue(String value) {
+    this.value = value;
+  }
+
+  public Object getPersistentState() {
+    // changes of the value are written as bulk updates
+    return CorrelationKeyEntity.class;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName()
+        + "[id=" + id
+        + ", processInstanceId=" + processInstanceId
+        + ", name=" + name
+        + ", value=" + value
+        + "]";
+  }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.persistence.entity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cibseven.bpm.engine.impl.Direction;
+import org.cibseven.bpm.engine.impl.QueryOrderingProperty;
+import org.cibseven.bpm.engine.impl.QueryPropertyImpl;
+import org.cibseven.bpm.engine.impl.db.ListQueryParameterObject;
+import org.cibseven.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.cibseven.bpm.engine.impl.persistence.AbstractManager;
+import org.cibseven.bpm.engine.variable.type.ValueType;
+
+/**
+ * Maintains the correlation key index, see
+ * {@link org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#getCorrelationKeyVariableNames()}.
+ */
+public class CorrelationKeyManager extends AbstractManager {
+
+  /** The length of the VALUE_ column; longer values are not indexed. */
+  public static final int MAX_VALUE_LENGTH = 255;
+
+  /**
+   * Prefix of the properties that hold the state of the index of a correlation
+   * key, i.e. {@link #INDEX_STATE_INDEXING} or {@link #INDEX_STATE_COMPLETE}.
+   */
+  public static final String INDEX_STATE_PROPERTY_PREFIX = "corr.key.index.";
+
+  public static final String INDEX_STATE_INDEXING = "indexing";
+  public static final String INDEX_STATE_COMPLETE = "complete";
+
+  /** The length of the property name column limits the names whose index can be completed. */
+  public static final int MAX_PROPERTY_NAME_LENGTH = 64;
+
+  /** Doubles up to this magnitude represent each integral value exactly. */
+  protected static final double MAX_EXACT_DOUBLE = 9007199254740992d;
+
+  protected static final List<String> INDEXED_TYPE_NAMES = Arrays.asList(
+      ValueType.STRING.getName(),
+      ValueType.LONG.getName(),
+      ValueType.INTEGER.getName(),
+      ValueType.SHORT.getName(),
+      ValueType.DOUBLE.getName());
+
+  public void insertCorrelationKey(VariableInstanceEntity variable) {
+    CorrelationKeyEntity correlationKey = new CorrelationKeyEntity();
+    correlationKey.setId(variable.getId());
+    correlationKey.setProcessInstanceId(variable.getProcessInstanceId());
+    correlationKey.setName(variable.getName());
+    correlationKey.setValue(getIndexValue(variable));
+
+    insert(correlationKey);
+  }
+
+  public void updateCorrelationKey(VariableInstanceEntity variable) {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("id", variable.getId());
+    parameters.put("value", getIndexValue(variable));
+
+    getDbEntityManager().update(CorrelationKeyEntity.class, "updateCorrelationKeyValue", parameters);
+  }
+
+  public void deleteCorrelationKey(VariableInstanceEntity variable) {
+    getDbEntityManager().delete(CorrelationKeyEntity.class, "deleteCorrelationKeyById", variable.getId());
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<String> findProcessInstanceIdsByCorrelationKey(String name, String value) {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("name", name);
+    parameters.put("value", value);
+
+    return getDbEntityManager().selectList("selectProcessInstanceIdsByCorrelationKey", parameters);
+  }
+
+  public void deleteCorrelationKeysByName(String name) {
+    getDbEntityManager().delete(CorrelationKeyEntity.class, "deleteCorrelationKeysByName", name);
+  }
+
+  /**
+   * Indexes the next process variables with the given name that have no
+   * correlation key yet. Returns the number of indexed variables.
+   */
+  @SuppressWarnings("unchecked")
+  public int indexCorrelationKeys(String name, int maxResults) {
+    ListQueryParameterObject parameter = new ListQueryParameterObject(name, 0, maxResults);
+    parameter.getOrderingProperties().add(new QueryOrderingProperty(new QueryPropertyImpl("ID_"), Direction.ASCENDING));
+
+    DbEntityManager dbEntityManager = getDbEntityManager();
+    List<String> variableIds = dbEntityManager.selectList("selectVariableInstanceIdsWithoutCorrelationKey", parameter);
+
+    for (String variableId : variableIds) {
+      // a concurrent update of the variable cannot miss the inserted correlation key
+      dbEntityManager.lock("lockVariableInstanceForCorrelationKey", variableId);
+
+      VariableInstanceEntity variable = dbEntityManager.selectById(VariableInstanceEntity.class, variableId);
+      if (variable != null) {
+        insertCorrelationKey(variable);
+      }
+    }
+
+    return variableIds.size();
+  }
+
+  public String getIndexStatePropertyName(String name) {
+    return INDEX_STATE_PROPERTY_PREFIX + name;
+  }
+
+  /**
+   * Returns true if the correlation keys of all process variables with the
+   * given name are indexed. Until then, a correlation must not rely on the index.
+   */
+  public boolean isCorrelationKeyIndexComplete(String name) {
+    String propertyName = getIndexStatePropertyName(name);
+    if (propertyName.length() > MAX_PROPERTY_NAME_LENGTH) {
+      return false;
+    }
+
+    PropertyEntity indexState = getDbEntityManager().selectById(PropertyEntity.class, propertyName);
+    return indexState != null && INDEX_STATE_COMPLETE.equals(indexState.getValue());
+  }
+
+  protected String getIndexValue(VariableInstanceEntity variable) {
+    // avoids to deserialize the values of other types
+    if (INDEXED_TYPE_NAMES.contains(variable.getTypeName())) {
+      return toIndexValue(variable.getValue());
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the value that represents the given value in the index or
+   * <code>null</code> if the value cannot be indexed. Strings and integral
+   * numbers are indexed. A number is represented by its decimal value
+   * regardless of its type; the variable conditions of the correlation
+   * still compare the types.
+   */
+  public static String toIndexValue(Object value) {
+    String indexValue = null;
+
+    if (value instanceof String) {
+      indexValue = (String) value;
+    }
+    else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+      indexValue = value.toString();
+    }
+    else if (value instanceof Double) {
+      double doubleValue = (Double) value;
+      if (doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) <= MAX_EXACT_DOUBLE) {
+        indexValue = Long.toString((long) doubleValue);
+      }
+    }
+
+    if (indexValue != null && indexValue.length() <= MAX_VALUE_LENGTH) {
+      return indexValue;
+    }
+    else {
+      return null;
+    }
+  }
+
+}
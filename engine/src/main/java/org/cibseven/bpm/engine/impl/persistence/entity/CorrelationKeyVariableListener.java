@@ -0,0 +1,71 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.persistence.entity;
+
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.core.variable.scope.AbstractVariableScope;
+import org.cibseven.bpm.engine.impl.core.variable.scope.VariableInstanceLifecycleListener;
+
+/**
+ * Keeps the correlation key index in sync with the process variables whose
+ * names are configured as correlation keys. Must be notified after the
+ * {@link VariableInstanceEntityPersistenceListener}, which assigns the id
+ * of a new variable instance.
+ */
+public class CorrelationKeyVariableListener implements VariableInstanceLifecycleListener<VariableInstanceEntity> {
+
+  public static final CorrelationKeyVariableListener INSTANCE = new CorrelationKeyVariableListener();
+
+  @Override
+  public void onCreate(VariableInstanceEntity variableInstance, AbstractVariableScope sourceScope) {
+    if (isCorrelationKey(variableInstance)) {
+      getCorrelationKeyManager().insertCorrelationKey(variableInstance);
+    }
+  }
+
+  @Override
+  public void onDelete(VariableInstanceEntity variableInstance, AbstractVariableScope sourceScope) {
+    if (isCorrelationKey(variableInstance)) {
+      getCorrelationKeyManager().deleteCorrelationKey(variableInstance);
+    }
+  }
+
+  @Override
+  public void onUpdate(VariableInstanceEntity variableInstance, AbstractVariableScope sourceScope) {
+    if (isCorrelationKey(variableInstance)) {
+      getCorrelationKeyManager().updateCorrelationKey(variableInstance);
+    }
+  }
+
+  protected boolean isCorrelationKey(VariableInstanceEntity variableInstance) {
+    if (variableInstance.isTransient()
+        || variableInstance.getTaskId() != null
+        || variableInstance.getProcessInstanceId() == null) {
+      return false;
+    }
+
+    List<String> correlationKeyVariableNames = Context.getProcessEngineConfiguration().getCorrelationKeyVariableNames();
+    return correlationKeyVariableNames != null && correlationKeyVariableNames.contains(variableInstance.getName());
+  }
+
+  protected CorrelationKeyManager getCorrelationKeyManager() {
+    return Context.getCommandContext().getCorrelationKeyManager();
+  }
+
+}
@@ -23,14 +23,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.cibseven.bpm.engine.impl.Direction;
 import org.cibseven.bpm.engine.impl.EventSubscriptionQueryImpl;
 import org.cibseven.bpm.engine.impl.Page;
 import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.QueryOrderingProperty;
+import org.cibseven.bpm.engine.impl.QueryPropertyImpl;
+import org.cibseven.bpm.engine.impl.bpmn.helper.BpmnProperties;
+import org.cibseven.bpm.engine.impl.bpmn.parser.ConditionalEventDefinition;
+import org.cibseven.bpm.engine.impl.cfg.TransactionContext;
+import org.cibseven.bpm.engine.impl.cfg.TransactionListener;
+import org.cibseven.bpm.engine.impl.cfg.TransactionState;
+import org.cibseven.bpm.engine.impl.context.Context;
 import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.cibseven.bpm.engine.impl.db.ListQueryParameterObject;
 import org.cibseven.bpm.engine.impl.event.EventType;
 import org.cibseven.bpm.engine.impl.jobexecutor.ProcessEventJobHandler;
 import org.cibseven.bpm.engine.impl.persistence.AbstractManager;
+import org.cibseven.bpm.engine.impl.persistence.deploy.cache.ConditionalStartEventCache;
+import org.cibseven.bpm.engine.impl.util.ImmutablePair;
 import org.cibseven.bpm.engine.runtime.EventSubscription;
 import org.cibseven.commons.utils.EnsureUtil;
 
@@ -45,11 +56,14 @@ public class EventSubscriptionManager extends AbstractManager {
   /** keep track of subscriptions created in the current command */
   protected List<EventSubscriptionEntity> createdSignalSubscriptions = new ArrayList<EventSubscriptionEntity>();
 
+  protected boolean isConditionalStartEventCacheInvalidationPending = false;
+
   public void insert(EventSubscriptionEntity persistentObject) {
     super.insert(persistentObject);
     if (persistentObject.isSubscriptionForEventType(EventType.SIGNAL)) {
       createdSignalSubscriptions.add(persistentObject);
     }
+    invalidateConditionalStartEventCache(persistentObject);
   }
 
   public void deleteEventSubscription(EventSubscriptionEntity persistentObject) {
@@ -57,6 +71,7 @@ public class EventSubscriptionManager extends AbstractManager {
     if (persistentObject.isSubscriptionForEventType(EventType.SIGNAL)) {
       createdSignalSubscriptions.remove(persistentObject);
     }
+    invalidateConditionalStartEventCache(persistentObject);
 
     // if the event subscription has been triggered asynchronously but not yet executed
     List<JobEntity> asyncJobs = getJobManager().findJobsByConfiguration(ProcessEventJobHandler.TYPE, persistentObject.getId(), persistentObject.getTenantId());
@@ -186,6 +201,32 @@ public class EventSubscriptionManager extends AbstractManager {
     return new ArrayList<EventSubscriptionEntity>(selectList);
   }
 
+  /**
+   * Returns the next page of active signal event subscriptions with the given name,
+   * ordered by id, as pairs of deployment id and subscription id.
+   *
+   * @param lastId the id of the last subscription of the previous page, or null for the first page
+   */
+  @SuppressWarnings("unchecked")
+  public List<ImmutablePair<String, String>> findSignalEventSubscriptionDeploymentIdMappings(String eventName,
+      boolean isTenantIdSet, String tenantId, String lastId, int maxResults) {
+    Map<String, Object> params = new HashMap<>();
+    params.put("eventName", eventName);
+    params.put("isTenantIdSet", isTenantIdSet);
+    params.put("tenantId", tenantId);
+    params.put("lastId", lastId);
+
+    ListQueryParameterObject parameter = new ListQueryParameterObject(params, 0, maxResults);
+    parameter.getOrderingProperties().add(new QueryOrderingProperty(new QueryPropertyImpl("ID_"), Direction.ASCENDING));
+    if (isTenantIdSet) {
+      parameter.getTenantCheck().setTenantCheckEnabled(false);
+    } else {
+      getTenantManager().configureQuery(parameter);
+    }
+
+    return getDbEntityManager().selectList("selectSignalEventSubscriptionDeploymentIdMappingsByEventName", parameter);
+  }
+
   @SuppressWarnings("unchecked")
   public List<EventSubscriptionEntity> findEventSubscriptionsByExecutionAndType(String executionId, String type, boolean lockResult) {
     final String query = "selectEventSubscriptionsByExecutionAndType";
@@ -278,6 +319,21 @@ public class EventSubscriptionManager extends AbstractManager {
     return getDbEntityManager().selectList("selectMessageStartEventSubscriptionByName", configureParameterizedQuery(messageName));
   }
 
+  /**
+   * @return the message event subscriptions of executions with one of the given message names
+   * whose process instance has one of the given ids or business keys
+   */
+  @SuppressWarnings("unchecked")
+  public List<EventSubscriptionEntity> findMessageEventSubscriptionsByNamesAndProcessInstances(Set<String> messageNames,
+      Set<String> processInstanceIds, Set<String> businessKeys) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("messageNames", messageNames);
+    parameters.put("processInstanceIds", processInstanceIds);
+    parameters.put("businessKeys", businessKeys);
+
+    return getDbEntityManager().selectList("selectMessageEventSubscriptionsByNamesAndProcessInstances", configureParameterizedQuery(parameters));
+  }
+
   /**
    * @return the message start event subscription with the given message name and tenant id
    *
@@ -317,6 +373,59 @@ public class EventSubscriptionManager extends AbstractManager {
     return getDbEntityManager().selectList("selectConditionalStartEventSubscription", parameter);
   }
 
+  /**
+   * @return the conditional start event subscriptions of all tenants from the
+   * {@link ConditionalStartEventCache} or null if the cache is disabled or the
+   * subscriptions have to be selected with an authorization check
+   */
+  @SuppressWarnings("unchecked")
+  public ConditionalStartEventCache.Snapshot findCachedConditionalStartEventSubscriptions() {
+    ConditionalStartEventCache cache = Context.getProcessEngineConfiguration().getConditionalStartEventCache();
+    if (cache == null || getAuthorizationManager().isAuthCheckExecuted()) {
+      return null;
+    }
+
+    ConditionalStartEventCache.Snapshot snapshot = cache.get();
+    if (snapshot == null) {
+      long revision = cache.getRevision();
+
+      ListQueryParameterObject parameter = new ListQueryParameterObject();
+      parameter.getTenantCheck().setTenantCheckEnabled(false);
+      List<EventSubscriptionEntity> subscriptions = getDbEntityManager().selectList("selectConditionalStartEventSubscription", parameter);
+
+      List<ConditionalStartEventCache.Subscription> cachedSubscriptions = new ArrayList<>();
+      for (EventSubscriptionEntity subscription : subscriptions) {
+        ConditionalEventDefinition conditionalEventDefinition = subscription.getActivity()
+            .getProperties().get(BpmnProperties.CONDITIONAL_EVENT_DEFINITION);
+        cachedSubscriptions.add(new ConditionalStartEventCache.Subscription(subscription.getConfiguration(),
+            subscription.getActivityId(), subscription.getTenantId(), conditionalEventDefinition.getVariableName()));
+      }
+      snapshot = cache.put(cachedSubscriptions, revision);
+    }
+    return snapshot;
+  }
+
+  /**
+   * Discards the cached conditional start event subscriptions immediately and
+   * once more after the transaction completed, since other commands may cache
+   * the previous subscriptions until then.
+   */
+  protected void invalidateConditionalStartEventCache(EventSubscriptionEntity subscription) {
+    final ConditionalStartEventCache cache = Context.getProcessEngineConfiguration().getConditionalStartEventCache();
+    if (cache == null || subscription.getExecutionId() != null || !subscription.isSubscriptionForEventType(EventType.CONDITONAL)) {
+      return;
+    }
+
+    cache.invalidate();
+    if (!isConditionalStartEventCacheInvalidationPending) {
+      isConditionalStartEventCacheInvalidationPending = true;
+      TransactionListener invalidationListener = context -> cache.invalidate();
+      TransactionContext transactionContext = Context.getCommandContext().getTransactionContext();
+      transactionContext.addTransactionListener(TransactionState.COMMITTED, invalidationListener);
+      transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, invalidationListener);
+    }
+  }
+
   protected void configurParameterObject(ListQueryParameterObject parameter) {
     getAuthorizationManager().configureConditionalEventSubscriptionQuery(parameter);
     getTenantManager().configureQuery(parameter);
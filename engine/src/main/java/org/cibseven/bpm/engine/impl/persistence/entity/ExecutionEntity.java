@@ -566,7 +566,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       invokeVariableLifecycleListenersDelete(
           variableInstance,
           this,
-          Collections.singletonList(getVariablePersistenceListener()));
+          getVariableRemovalListeners());
       removeVariableInternal(variableInstance);
     }
   }
@@ -1247,7 +1247,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       invokeVariableLifecycleListenersDelete(
           variable,
           this,
-          Collections.singletonList(getVariablePersistenceListener()));
+          getVariableRemovalListeners());
     }
     else {
       other.variableStore.addVariable(variable);
@@ -1284,6 +1284,27 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     return Context.getCommandContext().getVariableInstanceManager().findVariableInstancesByExecutionIdAndVariableNames(id, variableNames);
   }
 
+  @Override
+  public CoreVariableInstance getVariableInstanceLocal(String name) {
+    if (isFetchVariablesByName()) {
+      return variableStore.fetchVariable(name);
+    }
+    return super.getVariableInstanceLocal(name);
+  }
+
+  @Override
+  public boolean hasVariableLocal(String variableName) {
+    if (isFetchVariablesByName()) {
+      return variableStore.fetchVariable(variableName) != null;
+    }
+    return super.hasVariableLocal(variableName);
+  }
+
+  protected boolean isFetchVariablesByName() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return processEngineConfiguration != null && processEngineConfiguration.isEnableFetchVariablesByName();
+  }
+
   /**
    * Fetch all the executions inside the same process instance as list and then
    * reconstruct the complete execution tree.
@@ -1697,11 +1718,41 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
 
     listeners.add((VariableInstanceLifecycleListener) new VariableListenerInvocationListener(this));
 
+    if (hasCorrelationKeyVariableNames()) {
+      listeners.add((VariableInstanceLifecycleListener) CorrelationKeyVariableListener.INSTANCE);
+    }
+
     listeners.addAll((List) registeredVariableListeners);
 
     return listeners;
   }
 
+  /**
+   * The listeners that are notified when the variables are removed together
+   * with this execution or moved to another execution.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  protected List<VariableInstanceLifecycleListener<CoreVariableInstance>> getVariableRemovalListeners() {
+    if (hasCorrelationKeyVariableNames()) {
+      List<VariableInstanceLifecycleListener<CoreVariableInstance>> listeners = new ArrayList<>();
+      listeners.add(getVariablePersistenceListener());
+      listeners.add((VariableInstanceLifecycleListener) CorrelationKeyVariableListener.INSTANCE);
+      return listeners;
+    }
+    else {
+      return Collections.singletonList(getVariablePersistenceListener());
+    }
+  }
+
+  protected boolean hasCorrelationKeyVariableNames() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration == null) {
+      return false;
+    }
+    List<String> correlationKeyVariableNames = processEngineConfiguration.getCorrelationKeyVariableNames();
+    return correlationKeyVariableNames != null && !correlationKeyVariableNames.isEmpty();
+  }
+
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public VariableInstanceLifecycleListener<CoreVariableInstance> getVariablePersistenceListener() {
     return (VariableInstanceLifecycleListener) VariableInstanceEntityPersistenceListener.INSTANCE;
@@ -31,9 +31,13 @@ import org.cibseven.bpm.engine.impl.ProcessEngineImpl;
 import org.cibseven.bpm.engine.impl.QueryOrderingProperty;
 import org.cibseven.bpm.engine.impl.cfg.TransactionListener;
 import org.cibseven.bpm.engine.impl.cfg.TransactionState;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationService;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationTransactionListener;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationType;
 import org.cibseven.bpm.engine.impl.context.Context;
 import org.cibseven.bpm.engine.impl.db.ListQueryParameterObject;
 import org.cibseven.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.cibseven.bpm.engine.impl.externaltask.ExternalTaskLongPollingRegistry;
 import org.cibseven.bpm.engine.impl.externaltask.TopicFetchInstruction;
 import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
 import org.cibseven.bpm.engine.impl.persistence.AbstractManager;
@@ -52,7 +56,7 @@ public class ExternalTaskManager extends AbstractManager {
 
   public void insert(ExternalTaskEntity externalTask) {
     getDbEntityManager().insert(externalTask);
-    fireExternalTaskAvailableEvent();
+    fireExternalTaskAvailableEvent(externalTask.getTopicName());
   }
 
   public void delete(ExternalTaskEntity externalTask) {
@@ -181,14 +185,34 @@ public class ExternalTaskManager extends AbstractManager {
   }
 
   public void fireExternalTaskAvailableEvent() {
+    fireExternalTaskAvailableEvent(null);
+  }
+
+  /**
+   * @param topicName the topic of the available tasks or <code>null</code> if unknown
+   */
+  public void fireExternalTaskAvailableEvent(final String topicName) {
+    final ExternalTaskLongPollingRegistry longPollingRegistry = Context.getProcessEngineConfiguration().getExternalTaskLongPollingRegistry();
+
     Context.getCommandContext()
         .getTransactionContext()
         .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
           @Override
           public void execute(CommandContext commandContext) {
             ProcessEngineImpl.EXT_TASK_CONDITIONS.signalAll();
+            if (longPollingRegistry != null) {
+              longPollingRegistry.tasksAvailable(topicName);
+            }
           }
         });
+
+    ClusterNotificationService clusterNotificationService = Context.getProcessEngineConfiguration().getClusterNotificationService();
+    if (clusterNotificationService != null) {
+      Context.getCommandContext()
+          .getTransactionContext()
+          .addTransactionListener(TransactionState.COMMITTED,
+              new ClusterNotificationTransactionListener(clusterNotificationService, ClusterNotificationType.EXTERNAL_TASK_AVAILABLE));
+    }
   }
 }
 
@@ -0,0 +1,190 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.persistence.entity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.db.DbEntity;
+import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.cibseven.bpm.engine.impl.history.event.HistoryEvent;
+import org.cibseven.bpm.engine.impl.util.IoUtil;
+import org.cibseven.bpm.engine.impl.util.ReflectUtil;
+
+/**
+ * An entry of the history event outbox. Holds the serialized history events
+ * that one transaction produced, in the order in which they were fired.
+ */
+public class HistoryEventOutboxEntity implements DbEntity, Serializable {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+  private static final long serialVersionUID = 1L;
+
+  protected String id;
+  protected Date createTime;
+  protected long sequenceCounter;
+  protected int failureCount;
+  protected byte[] bytes;
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public Date getCreateTime() {
+    return createTime;
+  }
+
+  public void setCreateTime(Date createTime) {
+    this.createTime = createTime;
+  }
+
+  /**
+   * The position of this entry in the outbox, assigned by the database on insert.
+   */
+  public long getSequenceCounter() {
+    return sequenceCounter;
+  }
+
+  public void setSequenceCounter(long sequenceCounter) {
+    this.sequenceCounter = sequenceCounter;
+  }
+
+  /**
+   * The number of failed attempts to write this entry to the history tables.
+   */
+  public int getFailureCount() {
+    return failureCount;
+  }
+
+  public void setFailureCount(int failureCount) {
+    this.failureCount = failureCount;
+  }
+
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  public void setBytes(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  public void setHistoryEvents(List<HistoryEvent> historyEvents) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    ObjectOutputStream oos = null;
+    try {
+      oos = new ObjectOutputStream(baos);
+      // a single stream keeps the identity of events that were fired more than once
+      oos.writeObject(new ArrayList<>(historyEvents));
+      oos.flush();
+      bytes = baos.toByteArray();
+    }
+    catch (IOException e) {
+      throw LOG.historyEventOutboxSerializationException(e);
+    }
+    finally {
+      IoUtil.closeSilently(oos);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<HistoryEvent> getHistoryEvents() {
+    ObjectInputStream ois = null;
+    try {
+      ois = new ClassloaderAwareObjectInputStream(new ByteArrayInputStream(bytes));
+      return (List<HistoryEvent>) ois.readObject();
+    }
+    catch (IOException | ClassNotFoundException e) {
+      throw LOG.historyEventOutboxDeserializationException(id, e);
+    }
+    finally {
+      IoUtil.closeSilently(ois);
+    }
+  }
+
+  public Object getPersistentState() {
+    // immutable
+    return HistoryEventOutboxEntity.class;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName()
+        + "[id=" + id
+        + ", createTime=" + createTime
+        + ", sequenceCounter=" + sequenceCounter
+        + ", failureCount=" + failureCount
+        + "]";
+  }
+
+  /**
+   * Only resolves the classes that a list of history events consists of, so
+   * that a manipulated outbox entry cannot instantiate arbitrary classes.
+   */
+  protected static class ClassloaderAwareObjectInputStream extends ObjectInputStream {
+
+    protected static final Set<String> ALLOWED_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "java.util.ArrayList", "java.util.Date", "java.sql.Timestamp", "java.lang.String", "java.lang.Number",
+        "java.lang.Boolean", "java.lang.Integer", "java.lang.Long", "java.lang.Double", "[B")));
+
+    protected static final String HISTORY_EVENT_PACKAGE_PREFIX = "org.cibseven.bpm.engine.impl.";
+
+    public ClassloaderAwareObjectInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      String className = desc.getName();
+      if (ALLOWED_CLASSES.contains(className)) {
+        return super.resolveClass(desc);
+      }
+
+      if (className.startsWith(HISTORY_EVENT_PACKAGE_PREFIX)) {
+        Class<?> clazz = ReflectUtil.loadClass(className);
+        if (HistoryEvent.class.isAssignableFrom(clazz)) {
+          return clazz;
+        }
+      }
+
+      throw new InvalidClassException(className, "not a history event");
+    }
+
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+      throw new InvalidClassException("proxy classes are not allowed in history events");
+    }
+
+  }
+
+}
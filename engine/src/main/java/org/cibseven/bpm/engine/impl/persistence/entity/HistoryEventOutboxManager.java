@@ -0,0 +1,103 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.persistence.entity;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.Direction;
+import org.cibseven.bpm.engine.impl.QueryOrderingProperty;
+import org.cibseven.bpm.engine.impl.QueryPropertyImpl;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cfg.TransactionState;
+import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.db.ListQueryParameterObject;
+import org.cibseven.bpm.engine.impl.history.HistoryEventOutboxWriter;
+import org.cibseven.bpm.engine.impl.history.event.HistoryEvent;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContextListener;
+import org.cibseven.bpm.engine.impl.persistence.AbstractManager;
+
+/**
+ * Collects the history events of a command and writes them as a single
+ * {@link HistoryEventOutboxEntity} before the command is flushed.
+ */
+public class HistoryEventOutboxManager extends AbstractManager implements CommandContextListener {
+
+  protected List<HistoryEvent> pendingHistoryEvents = new ArrayList<>();
+
+  public void addHistoryEvent(HistoryEvent historyEvent) {
+    if (pendingHistoryEvents.isEmpty()) {
+      getCommandContext().registerCommandContextListener(this);
+    }
+    pendingHistoryEvents.add(historyEvent);
+  }
+
+  /**
+   * Returns the oldest entries of the outbox, skipping the entries that failed
+   * {@link ProcessEngineConfigurationImpl#getAsyncDbHistoryWriterRetries()} times.
+   */
+  @SuppressWarnings("unchecked")
+  public List<HistoryEventOutboxEntity> findHistoryEventOutboxEntries(int maxResults) {
+    int retries = Context.getProcessEngineConfiguration().getAsyncDbHistoryWriterRetries();
+    ListQueryParameterObject parameter = new ListQueryParameterObject(retries, 0, maxResults);
+    parameter.getOrderingProperties().add(new QueryOrderingProperty(new QueryPropertyImpl("SEQUENCE_COUNTER_"), Direction.ASCENDING));
+
+    return getDbEntityManager().selectList("selectHistoryEventOutboxEntries", parameter);
+  }
+
+  public long findHistoryEventOutboxEntryCount() {
+    return (Long) getDbEntityManager().selectOne("selectHistoryEventOutboxCount", null);
+  }
+
+  public void incrementHistoryEventOutboxFailureCount(String entryId) {
+    getDbEntityManager().update(HistoryEventOutboxEntity.class, "updateHistoryEventOutboxFailureCount", entryId);
+  }
+
+  public void deleteHistoryEventOutboxEntry(HistoryEventOutboxEntity entry) {
+    getDbEntityManager().delete(entry);
+  }
+
+  @Override
+  public void onCommandContextClose(CommandContext commandContext) {
+    if (pendingHistoryEvents.isEmpty()) {
+      return;
+    }
+
+    HistoryEventOutboxEntity entry = new HistoryEventOutboxEntity();
+    // the entries are ordered by the sequence counter that the database assigns on insert,
+    // the create time is only informational and independent of a clock that is set by ClockUtil
+    entry.setCreateTime(new Date());
+    entry.setHistoryEvents(pendingHistoryEvents);
+    pendingHistoryEvents.clear();
+
+    insert(entry);
+
+    final HistoryEventOutboxWriter writer = commandContext.getProcessEngineConfiguration().getHistoryEventOutboxWriter();
+    if (writer != null) {
+      commandContext.getTransactionContext()
+          .addTransactionListener(TransactionState.COMMITTED, context -> writer.outboxEntryAdded());
+    }
+  }
+
+  @Override
+  public void onCommandFailed(CommandContext commandContext, Throwable t) {
+    pendingHistoryEvents.clear();
+  }
+
+}
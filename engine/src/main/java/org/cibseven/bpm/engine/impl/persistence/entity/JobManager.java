@@ -21,6 +21,7 @@ import static org.cibseven.bpm.engine.impl.jobexecutor.TimerEventJobHandler.JOB_
 import static org.cibseven.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,6 +36,9 @@ import org.cibseven.bpm.engine.impl.QueryOrderingProperty;
 import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.cibseven.bpm.engine.impl.cfg.TransactionListener;
 import org.cibseven.bpm.engine.impl.cfg.TransactionState;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationService;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationTransactionListener;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationType;
 import org.cibseven.bpm.engine.impl.context.Context;
 import org.cibseven.bpm.engine.impl.db.ListQueryParameterObject;
 import org.cibseven.bpm.engine.impl.db.sql.DbSqlSessionFactory;
@@ -42,6 +46,7 @@ import org.cibseven.bpm.engine.impl.jobexecutor.ExclusiveJobAddedNotification;
 import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutorContext;
 import org.cibseven.bpm.engine.impl.jobexecutor.MessageAddedNotification;
+import org.cibseven.bpm.engine.impl.jobexecutor.TimerScheduledNotification;
 import org.cibseven.bpm.engine.impl.jobexecutor.TimerCatchIntermediateEventJobHandler;
 import org.cibseven.bpm.engine.impl.jobexecutor.TimerExecuteNestedActivityJobHandler;
 import org.cibseven.bpm.engine.impl.jobexecutor.TimerStartEventJobHandler;
@@ -132,11 +137,28 @@ public class JobManager extends AbstractManager {
     if (duedate.getTime() < (ClockUtil.getCurrentTime().getTime() + waitTimeInMillis)) {
       hintJobExecutor(jobEntity);
     }
+    addToTimerWheelIfNeeded(jobEntity, duedate);
+  }
+
+  protected void addToTimerWheelIfNeeded(JobEntity jobEntity, Date duedate) {
+    // timers that are created after the job acquisition filled the timer wheel
+    // are added to it, so that they are acquired as soon as they become due
+    JobExecutor jobExecutor = Context.getProcessEngineConfiguration().getJobExecutor();
+    if (jobExecutor.isActive()
+        && jobExecutor.getTimerWheel() != null
+        && !jobEntity.isSuspended()
+        && duedate.getTime() <= ClockUtil.getCurrentTime().getTime() + jobExecutor.getTimerWheelLookaheadInMillis()) {
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED,
+            new TimerScheduledNotification(jobExecutor, jobEntity.getId(), duedate.getTime()));
+    }
   }
 
   protected void hintJobExecutor(JobEntity job) {
     JobExecutor jobExecutor = Context.getProcessEngineConfiguration().getJobExecutor();
     if (!jobExecutor.isActive()) {
+      hintClusterNodes();
       return;
     }
 
@@ -164,6 +186,20 @@ public class JobManager extends AbstractManager {
       .getTransactionContext()
       .addTransactionListener(TransactionState.COMMITTED, transactionListener);
     }
+
+    if (!(transactionListener instanceof ExclusiveJobAddedNotification)) {
+      hintClusterNodes();
+    }
+  }
+
+  protected void hintClusterNodes() {
+    ClusterNotificationService clusterNotificationService = Context.getProcessEngineConfiguration().getClusterNotificationService();
+    if (clusterNotificationService != null) {
+      Context.getCommandContext()
+      .getTransactionContext()
+      .addTransactionListener(TransactionState.COMMITTED,
+          new ClusterNotificationTransactionListener(clusterNotificationService, ClusterNotificationType.JOB_ADDED));
+    }
   }
 
   protected boolean areInSameProcessInstance(JobEntity job1, JobEntity job2) {
@@ -242,7 +278,16 @@ public class JobManager extends AbstractManager {
     params.put("applyOrdering", !orderingProperties.isEmpty());
     params.put("applyExclusiveOverProcessHierarchies", engineConfiguration.isJobExecutorAcquireExclusiveOverProcessHierarchies());
 
-    return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
+    if (engineConfiguration.isJobExecutorAcquireWithSkipLocked()) {
+      // the rows are locked while they are read, so no more rows are read than acquired
+      ListQueryParameterObject parameter = page != null
+          ? new ListQueryParameterObject(params, page.getFirstResult(), page.getMaxResults())
+          : new ListQueryParameterObject(params, 0, Integer.MAX_VALUE);
+      return getDbEntityManager().selectListWithRowLimit("selectNextJobsToExecuteSkipLocked", parameter);
+    }
+    else {
+      return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -271,6 +316,18 @@ public class JobManager extends AbstractManager {
     return getDbEntityManager().selectList(query, duedate, page);
   }
 
+  /**
+   * @return the active timers that become due after now and until the end of the lookahead window, ordered by due date
+   */
+  @SuppressWarnings("unchecked")
+  public List<AcquirableJobEntity> findTimersDueInLookahead(Date lookaheadEnd, Page page) {
+    Map<String, Object> params = new HashMap<>();
+    params.put("now", ClockUtil.getCurrentTime());
+    params.put("lookaheadEnd", lookaheadEnd);
+    params.put("orderingProperties", Collections.singletonList(JOB_DUEDATE_ORDERING_PROPERTY));
+    return getDbEntityManager().selectList("selectTimersDueInLookahead", params, page);
+  }
+
   @SuppressWarnings("unchecked")
   public List<TimerEntity> findTimersByExecutionId(String executionId) {
     return getDbEntityManager().selectList("selectTimersByExecutionId", executionId);
@@ -33,6 +33,7 @@ import org.cibseven.bpm.engine.repository.ProcessDefinition;
 import org.cibseven.bpm.engine.runtime.Job;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -185,6 +186,11 @@ public class ProcessDefinitionManager extends AbstractManager implements Abstrac
     return getDbEntityManager().selectList("selectProcessDefinitionByDeploymentId", deploymentId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<ProcessDefinitionEntity> findProcessDefinitionsByIds(Collection<String> processDefinitionIds) {
+    return getDbEntityManager().selectList("selectProcessDefinitionsByIds", processDefinitionIds);
+  }
+
   @SuppressWarnings("unchecked")
   public List<ProcessDefinition> findProcessDefinitionsByKeyIn(String... keys) {
     return getDbEntityManager().selectList("selectProcessDefinitionByKeyIn", keys);
@@ -52,4 +52,9 @@ public class PropertyManager extends AbstractManager {
     getDbEntityManager().lock("lockInstallationIdLockProperty");
   }
 
+  public void acquireExclusiveLockForHistoryEventOutbox() {
+    // We lock a special history event outbox lock property
+    getDbEntityManager().lock("lockHistoryEventOutboxLockProperty");
+  }
+
 }
@@ -96,6 +96,7 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(IncidentEntity.class, "ACT_RU_INCIDENT");
 
     persistentObjectToTableNameMap.put(EventSubscriptionEntity.class, "ACT_RU_EVENT_SUBSCR");
+    persistentObjectToTableNameMap.put(CorrelationKeyEntity.class, "ACT_RU_CORR_KEY");
 
 
     persistentObjectToTableNameMap.put(MeterLogEntity.class, "ACT_RU_METER_LOG");
@@ -128,6 +129,7 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(HistoricIncidentEventEntity.class, "ACT_HI_INCIDENT");
     persistentObjectToTableNameMap.put(HistoricBatchEntity.class, "ACT_HI_BATCH");
     persistentObjectToTableNameMap.put(HistoricExternalTaskLogEntity.class, "ACT_HI_EXT_TASK_LOG");
+    persistentObjectToTableNameMap.put(HistoryEventOutboxEntity.class, "ACT_HI_EVT_OUTBOX");
 
     persistentObjectToTableNameMap.put(HistoricCaseInstanceEntity.class, "ACT_HI_CASEINST");
     persistentObjectToTableNameMap.put(HistoricCaseActivityInstanceEntity.class, "ACT_HI_CASEACTINST");
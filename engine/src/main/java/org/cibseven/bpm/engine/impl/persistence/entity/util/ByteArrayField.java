@@ -16,12 +16,17 @@
  */
 package org.cibseven.bpm.engine.impl.persistence.entity.util;
 
+import org.cibseven.bpm.engine.ProcessEngineException;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.cibseven.bpm.engine.impl.context.Context;
 import org.cibseven.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.ByteArrayManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.Nameable;
 import org.cibseven.bpm.engine.impl.variable.serializer.ValueFields;
 import org.cibseven.bpm.engine.repository.ResourceType;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 
 /**
@@ -41,6 +46,12 @@ public class ByteArrayField {
   protected String rootProcessInstanceId;
   protected Date removalTime;
 
+  /**
+   * Whether byte arrays of this field may be shared with other variable instances,
+   * see {@link ProcessEngineConfigurationImpl#isEnableByteArrayDeduplication()}.
+   */
+  protected boolean deduplicationSupported;
+
   public ByteArrayField(Nameable nameProvider, ResourceType type, String rootProcessInstanceId, Date removalTime) {
     this(nameProvider, type);
     this.removalTime = removalTime;
@@ -52,6 +63,11 @@ public class ByteArrayField {
     this.type = type;
   }
 
+  public ByteArrayField(Nameable nameProvider, ResourceType type, boolean deduplicationSupported) {
+    this(nameProvider, type);
+    this.deduplicationSupported = deduplicationSupported;
+  }
+
   public String getByteArrayId() {
     return byteArrayId;
   }
@@ -94,11 +110,14 @@ public class ByteArrayField {
   }
 
   public void setByteArrayValue(byte[] bytes, boolean isTransient) {
-    if (bytes != null) {
+    if (bytes != null && !isTransient && isDeduplicationEnabled()) {
+      setDeduplicatedByteArrayValue(bytes);
+    }
+    else if (bytes != null) {
       // note: there can be cases where byteArrayId is not null
       //   but the corresponding byte array entity has been removed in parallel;
       //   thus we also need to check if the actual byte array entity still exists
-      if (this.byteArrayId != null && getByteArrayEntity() != null) {
+      if (this.byteArrayId != null && getByteArrayEntity() != null && !isShareable(byteArrayValue)) {
         byteArrayValue.setBytes(bytes);
       }
       else {
@@ -123,13 +142,83 @@ public class ByteArrayField {
 
   }
 
+  /**
+   * Shared byte arrays are never updated in place: the field releases its
+   * current byte array and references an existing byte array with the same
+   * content or inserts a new one.
+   */
+  protected void setDeduplicatedByteArrayValue(byte[] bytes) {
+    String hash = createHash(bytes);
+    if (byteArrayValue != null && byteArrayId != null && hash.equals(byteArrayValue.getHash())) {
+      // content is unchanged
+      return;
+    }
+
+    deleteByteArrayValue();
+
+    ByteArrayManager byteArrayManager = Context.getCommandContext().getByteArrayManager();
+    String existingByteArrayId = byteArrayManager.findByteArrayIdByHash(hash, nameProvider.getName(), type);
+
+    byteArrayValue = new ByteArrayEntity(nameProvider.getName(), bytes, type, rootProcessInstanceId, removalTime);
+    byteArrayValue.setHash(hash);
+
+    if (existingByteArrayId != null) {
+      // keep the content at hand instead of fetching the identical content of the existing byte array
+      byteArrayValue.setId(existingByteArrayId);
+      byteArrayId = existingByteArrayId;
+    }
+    else {
+      byteArrayManager.insertByteArray(byteArrayValue);
+      byteArrayId = byteArrayValue.getId();
+    }
+  }
+
+  protected boolean isDeduplicationEnabled() {
+    if (!deduplicationSupported) {
+      return false;
+    }
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return processEngineConfiguration != null && processEngineConfiguration.isEnableByteArrayDeduplication();
+  }
+
+  protected String createHash(byte[] bytes) {
+    String algorithm = "SHA-256";
+    try {
+      byte[] digest = MessageDigest.getInstance(algorithm).digest(bytes);
+      StringBuilder hash = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hash.append(Character.forDigit((b >> 4) & 0xF, 16));
+        hash.append(Character.forDigit(b & 0xF, 16));
+      }
+      return hash.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot lookup hash algorithm '" + algorithm + "'");
+    }
+  }
+
+  /**
+   * A byte array with a content hash may be referenced by other variable
+   * instances, independent of whether deduplication is still enabled.
+   */
+  protected boolean isShareable(ByteArrayEntity byteArray) {
+    return byteArray.getHash() != null;
+  }
+
   public void deleteByteArrayValue() {
     if (byteArrayId != null) {
       // the next apparently useless line is probably to ensure consistency in the DbSqlSession cache,
       // but should be checked and docked here (or removed if it turns out to be unnecessary)
       getByteArrayEntity();
 
-      if (byteArrayValue != null) {
+      if (byteArrayValue != null && isShareable(byteArrayValue)) {
+        // only delete the byte array if it is not referenced anymore
+        Context.getCommandContext()
+               .getByteArrayManager()
+               .deleteUnreferencedVariableByteArray(byteArrayId);
+
+        byteArrayValue = null;
+      }
+      else if (byteArrayValue != null) {
         Context.getCommandContext()
                .getDbEntityManager()
                .delete(byteArrayValue);
@@ -0,0 +1,67 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.runtime;
+
+import org.cibseven.bpm.engine.runtime.BulkMessageCorrelationResult;
+import org.cibseven.bpm.engine.runtime.MessageCorrelationResult;
+
+public class BulkMessageCorrelationResultImpl implements BulkMessageCorrelationResult {
+
+  protected final String messageName;
+  protected final MessageCorrelationResult correlationResult;
+  protected final RuntimeException failure;
+
+  public BulkMessageCorrelationResultImpl(String messageName, MessageCorrelationResult correlationResult) {
+    this(messageName, correlationResult, null);
+  }
+
+  public BulkMessageCorrelationResultImpl(String messageName, MessageCorrelationResult correlationResult, RuntimeException failure) {
+    this.messageName = messageName;
+    this.correlationResult = correlationResult;
+    this.failure = failure;
+  }
+
+  public static BulkMessageCorrelationResultImpl failed(String messageName, RuntimeException failure) {
+    return new BulkMessageCorrelationResultImpl(messageName, null, failure);
+  }
+
+  @Override
+  public String getMessageName() {
+    return messageName;
+  }
+
+  @Override
+  public boolean isCorrelated() {
+    return correlationResult != null;
+  }
+
+  @Override
+  public boolean isFailed() {
+    return failure != null;
+  }
+
+  @Override
+  public RuntimeException getFailure() {
+    return failure;
+  }
+
+  @Override
+  public MessageCorrelationResult getCorrelationResult() {
+    return correlationResult;
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.runtime;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cmd.IndexCorrelationKeysCmd;
+import org.cibseven.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * <p>Brings the correlation key index in line with the configured correlation
+ * key variable names, see {@link IndexCorrelationKeysCmd}.</p>
+ *
+ * <p>When started, a background thread indexes one batch of variables after the
+ * other until the index is complete, so that the process engine does not wait
+ * for it on startup. Until then, correlations do not use the incomplete index.
+ * If a batch fails, it is retried after
+ * {@link ProcessEngineConfigurationImpl#getCorrelationKeyIndexerRetryInterval()}
+ * milliseconds.</p>
+ */
+public class CorrelationKeyIndexer implements Runnable {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  protected final ReentrantLock indexLock = new ReentrantLock();
+  protected final Object monitor = new Object();
+
+  protected Thread indexerThread;
+  protected volatile boolean isRunning = false;
+
+  public CorrelationKeyIndexer(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    this.processEngineConfiguration = processEngineConfiguration;
+  }
+
+  public synchronized void start() {
+    if (isRunning) {
+      return;
+    }
+    isRunning = true;
+    indexerThread = new Thread(this, getClass().getSimpleName() + "[" + processEngineConfiguration.getProcessEngineName() + "]");
+    indexerThread.setDaemon(true);
+    indexerThread.start();
+  }
+
+  /**
+   * Stops the background thread after the batch it currently indexes.
+   */
+  public synchronized void stop() {
+    if (!isRunning) {
+      return;
+    }
+    synchronized (monitor) {
+      isRunning = false;
+      monitor.notifyAll();
+    }
+    try {
+      indexerThread.join();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    indexerThread = null;
+  }
+
+  /**
+   * Indexes batches of the given size until the index is complete. Blocks
+   * while another thread of this node indexes.
+   */
+  public void indexAll(int batchSize) {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+
+    indexLock.lock();
+    try {
+      while (!commandExecutor.execute(new IndexCorrelationKeysCmd(batchSize))) {
+        // continue with the next batch
+      }
+    }
+    finally {
+      indexLock.unlock();
+    }
+  }
+
+  @Override
+  public void run() {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    int batchSize = processEngineConfiguration.getCorrelationKeyIndexerBatchSize();
+
+    while (isRunning) {
+      try {
+        indexLock.lock();
+        try {
+          while (isRunning) {
+            if (commandExecutor.execute(new IndexCorrelationKeysCmd(batchSize))) {
+              // the index is complete, the thread is not needed anymore
+              isRunning = false;
+            }
+          }
+        }
+        finally {
+          indexLock.unlock();
+        }
+      }
+      catch (Exception e) {
+        if (isRunning) {
+          LOG.exceptionWhileIndexingCorrelationKeys(processEngineConfiguration.getCorrelationKeyIndexerRetryInterval(), e);
+          waitForRetry();
+        }
+      }
+    }
+  }
+
+  protected void waitForRetry() {
+    synchronized (monitor) {
+      if (isRunning) {
+        try {
+          monitor.wait(processEngineConfiguration.getCorrelationKeyIndexerRetryInterval());
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          isRunning = false;
+        }
+      }
+    }
+  }
+
+  public boolean isRunning() {
+    return isRunning;
+  }
+
+}
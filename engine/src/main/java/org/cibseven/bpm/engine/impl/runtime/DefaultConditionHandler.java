@@ -17,7 +17,11 @@
 package org.cibseven.bpm.engine.impl.runtime;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
 import org.cibseven.bpm.engine.impl.bpmn.helper.BpmnProperties;
@@ -26,11 +30,13 @@ import org.cibseven.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
 import org.cibseven.bpm.engine.impl.cmd.CommandLogger;
 import org.cibseven.bpm.engine.impl.event.EventType;
 import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.persistence.deploy.cache.ConditionalStartEventCache;
 import org.cibseven.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
 import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
 import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.cibseven.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.TenantManager;
 import org.cibseven.bpm.engine.impl.pvm.process.ActivityImpl;
 
 /**
@@ -51,6 +57,12 @@ public class DefaultConditionHandler implements ConditionHandler {
   }
 
   protected List<ConditionHandlerResult> evaluateConditionStartByEventSubscription(CommandContext commandContext, ConditionSet conditionSet) {
+    ConditionalStartEventCache.Snapshot cachedSubscriptions = commandContext.getEventSubscriptionManager()
+        .findCachedConditionalStartEventSubscriptions();
+    if (cachedSubscriptions != null) {
+      return evaluateConditionStartByCachedSubscriptions(commandContext, conditionSet, cachedSubscriptions);
+    }
+
     List<EventSubscriptionEntity> subscriptions = findConditionalStartEventSubscriptions(commandContext, conditionSet);
     if (subscriptions.isEmpty()) {
       throw LOG.exceptionWhenEvaluatingConditionalStartEvent();
@@ -73,6 +85,93 @@ public class DefaultConditionHandler implements ConditionHandler {
     return results;
   }
 
+  /**
+   * Evaluates only the conditions that declare one of the given variable names
+   * or no variable name at all, since the others cannot be fulfilled.
+   */
+  protected List<ConditionHandlerResult> evaluateConditionStartByCachedSubscriptions(CommandContext commandContext, ConditionSet conditionSet,
+      ConditionalStartEventCache.Snapshot cachedSubscriptions) {
+    List<ConditionalStartEventCache.TenantSubscriptions> tenantSubscriptions = findTenantSubscriptions(commandContext, conditionSet, cachedSubscriptions);
+    if (tenantSubscriptions.isEmpty()) {
+      throw LOG.exceptionWhenEvaluatingConditionalStartEvent();
+    }
+
+    Set<String> variableNames = conditionSet.getVariables() != null ? conditionSet.getVariables().keySet() : null;
+    List<ConditionalStartEventCache.Subscription> candidates = new ArrayList<ConditionalStartEventCache.Subscription>();
+    for (ConditionalStartEventCache.TenantSubscriptions subscriptions : tenantSubscriptions) {
+      candidates.addAll(subscriptions.getSubscriptions(variableNames));
+    }
+
+    List<ConditionHandlerResult> results = new ArrayList<ConditionHandlerResult>();
+    if (candidates.isEmpty()) {
+      return results;
+    }
+
+    Map<String, ProcessDefinitionEntity> processDefinitions = findProcessDefinitions(commandContext, candidates);
+    DeploymentCache deploymentCache = commandContext.getProcessEngineConfiguration().getDeploymentCache();
+
+    for (ConditionalStartEventCache.Subscription subscription : candidates) {
+
+      ProcessDefinitionEntity processDefinition = processDefinitions.get(subscription.getProcessDefinitionId());
+      if (processDefinition == null) {
+        // undeployed by another process engine node
+        continue;
+      }
+
+      processDefinition = deploymentCache.resolveProcessDefinition(processDefinition);
+      if (!processDefinition.isSuspended()) {
+
+        ActivityImpl activity = processDefinition.findActivity(subscription.getActivityId());
+
+        if (evaluateCondition(conditionSet, activity)) {
+          results.add(new ConditionHandlerResult(processDefinition, activity));
+        }
+
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Loads the current state of the process definitions of the given subscriptions
+   * with one query, since another process engine node may have suspended or
+   * undeployed them.
+   */
+  protected Map<String, ProcessDefinitionEntity> findProcessDefinitions(CommandContext commandContext,
+      List<ConditionalStartEventCache.Subscription> subscriptions) {
+    Set<String> processDefinitionIds = new HashSet<String>();
+    for (ConditionalStartEventCache.Subscription subscription : subscriptions) {
+      processDefinitionIds.add(subscription.getProcessDefinitionId());
+    }
+
+    Map<String, ProcessDefinitionEntity> processDefinitions = new HashMap<String, ProcessDefinitionEntity>();
+    for (ProcessDefinitionEntity processDefinition : commandContext.getProcessDefinitionManager().findProcessDefinitionsByIds(processDefinitionIds)) {
+      processDefinitions.put(processDefinition.getId(), processDefinition);
+    }
+    return processDefinitions;
+  }
+
+  protected List<ConditionalStartEventCache.TenantSubscriptions> findTenantSubscriptions(CommandContext commandContext, ConditionSet conditionSet,
+      ConditionalStartEventCache.Snapshot cachedSubscriptions) {
+    List<ConditionalStartEventCache.TenantSubscriptions> tenantSubscriptions = new ArrayList<ConditionalStartEventCache.TenantSubscriptions>();
+
+    if (conditionSet.isTenantIdSet) {
+      ConditionalStartEventCache.TenantSubscriptions subscriptions = cachedSubscriptions.getSubscriptions(conditionSet.getTenantId());
+      if (subscriptions != null) {
+        tenantSubscriptions.add(subscriptions);
+      }
+    } else {
+      TenantManager tenantManager = commandContext.getTenantManager();
+      for (Map.Entry<String, ConditionalStartEventCache.TenantSubscriptions> entry : cachedSubscriptions.getSubscriptionsByTenantId().entrySet()) {
+        if (tenantManager.isAuthenticatedTenant(entry.getKey())) {
+          tenantSubscriptions.add(entry.getValue());
+        }
+      }
+    }
+    return tenantSubscriptions;
+  }
+
   protected List<EventSubscriptionEntity> findConditionalStartEventSubscriptions(CommandContext commandContext, ConditionSet conditionSet) {
     EventSubscriptionManager eventSubscriptionManager = commandContext.getEventSubscriptionManager();
 
@@ -18,8 +18,10 @@ package org.cibseven.bpm.engine.impl.runtime;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.cibseven.bpm.engine.impl.ExecutionQueryImpl;
 import org.cibseven.bpm.engine.impl.ProcessEngineLogger;
@@ -28,6 +30,7 @@ import org.cibseven.bpm.engine.impl.cmd.CommandLogger;
 import org.cibseven.bpm.engine.impl.event.EventType;
 import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
 import org.cibseven.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.cibseven.bpm.engine.impl.persistence.entity.CorrelationKeyManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
 import org.cibseven.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
 import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
@@ -93,6 +96,14 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
       for (Map.Entry<String, Object> correlationKey : correlationKeys.entrySet()) {
         query.processVariableValueEquals(correlationKey.getKey(), correlationKey.getValue());
       }
+
+      Set<String> candidateProcessInstanceIds = findProcessInstanceIdsByCorrelationKeys(commandContext, correlationKeys);
+      if (candidateProcessInstanceIds != null) {
+        if (candidateProcessInstanceIds.isEmpty()) {
+          return Collections.emptyList();
+        }
+        query.processInstanceIds(candidateProcessInstanceIds);
+      }
     }
 
     Map<String, Object> localCorrelationKeys = correlationSet.getLocalCorrelationKeys();
@@ -144,6 +155,44 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
     return result;
   }
 
+  /**
+   * Returns the ids of the process instances that hold all indexed
+   * correlation keys or <code>null</code> if none of the keys is indexed.
+   * The variable conditions of the query must still be evaluated, the index
+   * only narrows down the candidates.
+   */
+  protected Set<String> findProcessInstanceIdsByCorrelationKeys(CommandContext commandContext, Map<String, Object> correlationKeys) {
+    List<String> correlationKeyVariableNames = commandContext.getProcessEngineConfiguration().getCorrelationKeyVariableNames();
+    if (correlationKeyVariableNames == null || correlationKeyVariableNames.isEmpty()) {
+      return null;
+    }
+
+    CorrelationKeyManager correlationKeyManager = commandContext.getCorrelationKeyManager();
+    Set<String> processInstanceIds = null;
+
+    for (Map.Entry<String, Object> correlationKey : correlationKeys.entrySet()) {
+      String indexValue = CorrelationKeyManager.toIndexValue(correlationKey.getValue());
+
+      if (indexValue != null
+          && correlationKeyVariableNames.contains(correlationKey.getKey())
+          && correlationKeyManager.isCorrelationKeyIndexComplete(correlationKey.getKey())) {
+        List<String> matchingIds = correlationKeyManager.findProcessInstanceIdsByCorrelationKey(correlationKey.getKey(), indexValue);
+
+        if (processInstanceIds == null) {
+          processInstanceIds = new HashSet<>(matchingIds);
+        } else {
+          processInstanceIds.retainAll(matchingIds);
+        }
+
+        if (processInstanceIds.isEmpty()) {
+          break;
+        }
+      }
+    }
+
+    return processInstanceIds;
+  }
+
   @Override
   public List<CorrelationHandlerResult> correlateStartMessages(CommandContext commandContext, String messageName, CorrelationSet correlationSet) {
     if (messageName == null) {
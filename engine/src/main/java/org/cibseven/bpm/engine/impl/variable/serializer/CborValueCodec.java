@@ -0,0 +1,333 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.variable.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cibseven.bpm.engine.ProcessEngineException;
+
+/**
+ * <p>Encodes JSON-like values in CBOR (RFC 8949). Supported are <code>null</code>,
+ * {@link String}, {@link Boolean}, {@link Integer}, {@link Long}, {@link Double},
+ * <code>byte[]</code> and {@link ArrayList}, {@link HashMap} and {@link LinkedHashMap}
+ * with string keys that contain supported values.</p>
+ *
+ * <p>Longs are always written with an eight byte argument, so that they can be
+ * told apart from integers. Lists are read as {@link ArrayList} and maps as
+ * {@link LinkedHashMap}, which keeps the order of the entries.</p>
+ */
+public class CborValueCodec {
+
+  /** Limits the nesting of lists and maps, which also rejects cyclic values. */
+  public static final int MAX_DEPTH = 64;
+
+  protected static final int MAJOR_TYPE_UNSIGNED_INTEGER = 0;
+  protected static final int MAJOR_TYPE_NEGATIVE_INTEGER = 1;
+  protected static final int MAJOR_TYPE_BYTE_STRING = 2;
+  protected static final int MAJOR_TYPE_TEXT_STRING = 3;
+  protected static final int MAJOR_TYPE_ARRAY = 4;
+  protected static final int MAJOR_TYPE_MAP = 5;
+  protected static final int MAJOR_TYPE_SIMPLE = 7;
+
+  protected static final int ARGUMENT_ONE_BYTE = 24;
+  protected static final int ARGUMENT_TWO_BYTES = 25;
+  protected static final int ARGUMENT_FOUR_BYTES = 26;
+  protected static final int ARGUMENT_EIGHT_BYTES = 27;
+
+  protected static final int SIMPLE_FALSE = 0xF4;
+  protected static final int SIMPLE_TRUE = 0xF5;
+  protected static final int SIMPLE_NULL = 0xF6;
+  protected static final int DOUBLE = 0xFB;
+
+  /**
+   * @return true if the given value and all values it contains can be encoded
+   */
+  public static boolean canEncode(Object value) {
+    return canEncode(value, 0);
+  }
+
+  protected static boolean canEncode(Object value, int depth) {
+    if (value == null) {
+      return true;
+    }
+
+    Class<?> type = value.getClass();
+    if (type == String.class
+        || type == Boolean.class
+        || type == Integer.class
+        || type == Long.class
+        || type == Double.class
+        || type == byte[].class) {
+      return true;
+    }
+    else if (depth >= MAX_DEPTH) {
+      return false;
+    }
+    else if (type == ArrayList.class) {
+      for (Object element : (List<?>) value) {
+        if (!canEncode(element, depth + 1)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    else if (type == HashMap.class || type == LinkedHashMap.class) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        if (!(entry.getKey() instanceof String) || !canEncode(entry.getValue(), depth + 1)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    else {
+      return false;
+    }
+  }
+
+  public static byte[] encode(Object value) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(baos);
+    write(value, out);
+    out.flush();
+    return baos.toByteArray();
+  }
+
+  public static Object decode(byte[] bytes, int offset, int length) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset, length));
+    Object value = read(in, 0);
+    if (in.available() > 0) {
+      throw new ProcessEngineException("Encoded value has " + in.available() + " trailing bytes");
+    }
+    return value;
+  }
+
+  protected static void write(Object value, DataOutputStream out) throws IOException {
+    if (value == null) {
+      out.writeByte(SIMPLE_NULL);
+    }
+    else if (value instanceof String) {
+      byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+      writeHead(MAJOR_TYPE_TEXT_STRING, bytes.length, out);
+      out.write(bytes);
+    }
+    else if (value instanceof Boolean) {
+      out.writeByte((Boolean) value ? SIMPLE_TRUE : SIMPLE_FALSE);
+    }
+    else if (value instanceof Integer) {
+      int intValue = (Integer) value;
+      if (intValue >= 0) {
+        writeHead(MAJOR_TYPE_UNSIGNED_INTEGER, intValue, out);
+      }
+      else {
+        writeHead(MAJOR_TYPE_NEGATIVE_INTEGER, -1L - intValue, out);
+      }
+    }
+    else if (value instanceof Long) {
+      long longValue = (Long) value;
+      if (longValue >= 0) {
+        out.writeByte(MAJOR_TYPE_UNSIGNED_INTEGER << 5 | ARGUMENT_EIGHT_BYTES);
+        out.writeLong(longValue);
+      }
+      else {
+        out.writeByte(MAJOR_TYPE_NEGATIVE_INTEGER << 5 | ARGUMENT_EIGHT_BYTES);
+        out.writeLong(-1L - longValue);
+      }
+    }
+    else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    }
+    else if (value instanceof byte[]) {
+      byte[] bytes = (byte[]) value;
+      writeHead(MAJOR_TYPE_BYTE_STRING, bytes.length, out);
+      out.write(bytes);
+    }
+    else if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      writeHead(MAJOR_TYPE_ARRAY, list.size(), out);
+      for (Object element : list) {
+        write(element, out);
+      }
+    }
+    else if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      writeHead(MAJOR_TYPE_MAP, map.size(), out);
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        write(entry.getKey(), out);
+        write(entry.getValue(), out);
+      }
+    }
+    else {
+      throw new ProcessEngineException("Cannot encode value of type " + value.getClass().getName());
+    }
+  }
+
+  /**
+   * Writes the major type and the argument in its shortest form, but never
+   * in eight bytes, which is reserved for longs.
+   */
+  protected static void writeHead(int majorType, long argument, DataOutputStream out) throws IOException {
+    if (argument < ARGUMENT_ONE_BYTE) {
+      out.writeByte(majorType << 5 | (int) argument);
+    }
+    else if (argument <= 0xFF) {
+      out.writeByte(majorType << 5 | ARGUMENT_ONE_BYTE);
+      out.writeByte((int) argument);
+    }
+    else if (argument <= 0xFFFF) {
+      out.writeByte(majorType << 5 | ARGUMENT_TWO_BYTES);
+      out.writeShort((int) argument);
+    }
+    else {
+      out.writeByte(majorType << 5 | ARGUMENT_FOUR_BYTES);
+      out.writeInt((int) argument);
+    }
+  }
+
+  protected static Object read(DataInputStream in, int depth) throws IOException {
+    int initialByte = in.readUnsignedByte();
+    int majorType = initialByte >>> 5;
+    int additionalInformation = initialByte & 0x1F;
+
+    switch (majorType) {
+      case MAJOR_TYPE_UNSIGNED_INTEGER:
+        if (additionalInformation == ARGUMENT_EIGHT_BYTES) {
+          long longValue = in.readLong();
+          if (longValue < 0) {
+            throw new ProcessEngineException("Encoded long is out of range");
+          }
+          return longValue;
+        }
+        else {
+          long intValue = readArgument(additionalInformation, in);
+          if (intValue > Integer.MAX_VALUE) {
+            throw new ProcessEngineException("Encoded integer is out of range");
+          }
+          return (int) intValue;
+        }
+      case MAJOR_TYPE_NEGATIVE_INTEGER:
+        if (additionalInformation == ARGUMENT_EIGHT_BYTES) {
+          long argument = in.readLong();
+          if (argument < 0) {
+            throw new ProcessEngineException("Encoded long is out of range");
+          }
+          return -1L - argument;
+        }
+        else {
+          long argument = readArgument(additionalInformation, in);
+          if (argument > Integer.MAX_VALUE) {
+            throw new ProcessEngineException("Encoded integer is out of range");
+          }
+          return (int) (-1L - argument);
+        }
+      case MAJOR_TYPE_BYTE_STRING:
+        return readBytes(additionalInformation, in);
+      case MAJOR_TYPE_TEXT_STRING:
+        return new String(readBytes(additionalInformation, in), StandardCharsets.UTF_8);
+      case MAJOR_TYPE_ARRAY: {
+        int size = readSize(additionalInformation, in, depth);
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(read(in, depth + 1));
+        }
+        return list;
+      }
+      case MAJOR_TYPE_MAP: {
+        int size = readSize(additionalInformation, in, depth);
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+          Object key = read(in, depth + 1);
+          if (!(key instanceof String)) {
+            throw new ProcessEngineException("Encoded map has a key that is not a string");
+          }
+          map.put((String) key, read(in, depth + 1));
+        }
+        return map;
+      }
+      case MAJOR_TYPE_SIMPLE:
+        switch (initialByte) {
+          case SIMPLE_FALSE:
+            return Boolean.FALSE;
+          case SIMPLE_TRUE:
+            return Boolean.TRUE;
+          case SIMPLE_NULL:
+            return null;
+          case DOUBLE:
+            return in.readDouble();
+          default:
+            throw new ProcessEngineException("Unsupported encoded value '" + initialByte + "'");
+        }
+      default:
+        throw new ProcessEngineException("Unsupported encoded value '" + initialByte + "'");
+    }
+  }
+
+  protected static long readArgument(int additionalInformation, DataInputStream in) throws IOException {
+    if (additionalInformation < ARGUMENT_ONE_BYTE) {
+      return additionalInformation;
+    }
+
+    switch (additionalInformation) {
+      case ARGUMENT_ONE_BYTE:
+        return in.readUnsignedByte();
+      case ARGUMENT_TWO_BYTES:
+        return in.readUnsignedShort();
+      case ARGUMENT_FOUR_BYTES:
+        return in.readInt() & 0xFFFFFFFFL;
+      default:
+        throw new ProcessEngineException("Unsupported encoded argument '" + additionalInformation + "'");
+    }
+  }
+
+  /**
+   * Reads the number of elements of a list or map. Each element takes at least
+   * one byte, so a larger number than the remaining bytes means corrupt data.
+   */
+  protected static int readSize(int additionalInformation, DataInputStream in, int depth) throws IOException {
+    if (depth >= MAX_DEPTH) {
+      throw new ProcessEngineException("Encoded value is nested deeper than " + MAX_DEPTH + " levels");
+    }
+
+    long size = readArgument(additionalInformation, in);
+    if (size > in.available()) {
+      throw new ProcessEngineException("Encoded value is truncated");
+    }
+    return (int) size;
+  }
+
+  protected static byte[] readBytes(int additionalInformation, DataInputStream in) throws IOException {
+    long length = readArgument(additionalInformation, in);
+    if (length > in.available()) {
+      throw new ProcessEngineException("Encoded value is truncated");
+    }
+
+    byte[] bytes = new byte[(int) length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.variable.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.cibseven.bpm.engine.ProcessEngineException;
+
+/**
+ * <p>Serializes objects in a compact, tagged binary envelope:</p>
+ *
+ * <pre>
+ * [magic byte][flags byte][payload]
+ * </pre>
+ *
+ * <p>JSON-like values, i.e. lists and maps of strings, numbers, booleans and byte
+ * arrays, are encoded in CBOR by the {@link CborValueCodec}; reading them back
+ * neither needs java serialization nor its CPU cost. All other objects are
+ * serialized like by the {@link JavaObjectSerializer}.</p>
+ *
+ * <p>If the payload is at least {@link #getCompressionThreshold()} bytes large and
+ * deflating it saves space, the payload is deflated and prefixed with its
+ * uncompressed length. Values are never inflated to more than
+ * {@link #getMaxInflatedSize()} bytes.</p>
+ *
+ * <p>The serializer is selected for objects with the serialization data format
+ * {@link #SERIALIZATION_DATA_FORMAT}, either per variable or as the default
+ * serialization format of the process engine.</p>
+ */
+public class CompactJavaObjectSerializer extends JavaObjectSerializer {
+
+  public static final String NAME = "compact-serializable";
+
+  public static final String SERIALIZATION_DATA_FORMAT = "application/x-java-serialized-object+compact";
+
+  public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+  public static final int DEFAULT_MAX_INFLATED_SIZE = 64 * 1024 * 1024;
+
+  protected static final byte MAGIC = (byte) 0xCB;
+  protected static final byte FLAG_DEFLATED = 1;
+  protected static final byte FLAG_CBOR = 2;
+
+  protected static final int HEADER_LENGTH = 2;
+  protected static final int DEFLATED_HEADER_LENGTH = HEADER_LENGTH + 4;
+
+  protected int compressionThreshold;
+  protected int maxInflatedSize;
+
+  public CompactJavaObjectSerializer() {
+    this(DEFAULT_COMPRESSION_THRESHOLD, DEFAULT_MAX_INFLATED_SIZE);
+  }
+
+  /**
+   * @param compressionThreshold the size in bytes from which serialized objects
+   *   are compressed; a negative value disables compression
+   * @param maxInflatedSize the size in bytes up to which serialized objects are
+   *   compressed; larger sizes in a stored value are rejected as corrupt
+   */
+  public CompactJavaObjectSerializer(int compressionThreshold, int maxInflatedSize) {
+    super(SERIALIZATION_DATA_FORMAT);
+    this.compressionThreshold = compressionThreshold;
+    this.maxInflatedSize = maxInflatedSize;
+  }
+
+  public String getName() {
+    return NAME;
+  }
+
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  public int getMaxInflatedSize() {
+    return maxInflatedSize;
+  }
+
+  protected byte[] serializeToByteArray(Object deserializedObject) throws Exception {
+    byte flags;
+    byte[] payload;
+    if (CborValueCodec.canEncode(deserializedObject)) {
+      flags = FLAG_CBOR;
+      payload = CborValueCodec.encode(deserializedObject);
+    }
+    else {
+      flags = 0;
+      payload = super.serializeToByteArray(deserializedObject);
+    }
+
+    if (compressionThreshold >= 0 && payload.length >= compressionThreshold && payload.length <= maxInflatedSize) {
+      byte[] deflatedPayload = deflate(payload);
+
+      // incompressible values are not worth inflating on every read
+      if (deflatedPayload.length + DEFLATED_HEADER_LENGTH < payload.length + HEADER_LENGTH) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(deflatedPayload.length + DEFLATED_HEADER_LENGTH);
+        DataOutputStream out = new DataOutputStream(baos);
+        out.writeByte(MAGIC);
+        out.writeByte(flags | FLAG_DEFLATED);
+        out.writeInt(payload.length);
+        out.write(deflatedPayload);
+        out.flush();
+        return baos.toByteArray();
+      }
+    }
+
+    byte[] bytes = new byte[payload.length + HEADER_LENGTH];
+    bytes[0] = MAGIC;
+    bytes[1] = flags;
+    System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+    return bytes;
+  }
+
+  protected Object deserializeFromByteArray(byte[] bytes, String objectTypeName) throws Exception {
+    if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC) {
+      throw new ProcessEngineException("Serialized value is not in the compact serialization format");
+    }
+
+    byte flags = bytes[1];
+    if ((flags & ~(FLAG_DEFLATED | FLAG_CBOR)) != 0) {
+      throw new ProcessEngineException("Unknown flags '" + flags + "' of compact serialization format");
+    }
+
+    byte[] payload;
+    int offset;
+    if ((flags & FLAG_DEFLATED) != 0) {
+      payload = inflate(bytes);
+      offset = 0;
+    }
+    else {
+      payload = bytes;
+      offset = HEADER_LENGTH;
+    }
+
+    if ((flags & FLAG_CBOR) != 0) {
+      return CborValueCodec.decode(payload, offset, payload.length - offset);
+    }
+    else {
+      if (offset > 0) {
+        payload = Arrays.copyOfRange(payload, offset, payload.length);
+      }
+      return super.deserializeFromByteArray(payload, objectTypeName);
+    }
+  }
+
+  protected byte[] deflate(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      byte[] buffer = new byte[Math.min(bytes.length, 8192)];
+      while (!deflater.finished()) {
+        int length = deflater.deflate(buffer);
+        out.write(buffer, 0, length);
+      }
+      return out.toByteArray();
+    }
+    finally {
+      deflater.end();
+    }
+  }
+
+  protected byte[] inflate(byte[] bytes) throws IOException, DataFormatException {
+    if (bytes.length < DEFLATED_HEADER_LENGTH) {
+      throw new ProcessEngineException("Compressed value is truncated");
+    }
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, HEADER_LENGTH, 4));
+    int length = in.readInt();
+    if (length < 0 || length > maxInflatedSize) {
+      throw new ProcessEngineException("Compressed value has an invalid length of " + length
+          + " bytes, the maximum is " + maxInflatedSize + " bytes");
+    }
+
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(bytes, DEFLATED_HEADER_LENGTH, bytes.length - DEFLATED_HEADER_LENGTH);
+      byte[] result = new byte[length];
+      int offset = 0;
+      while (offset < length && !inflater.finished()) {
+        int inflated = inflater.inflate(result, offset, length - offset);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        offset += inflated;
+      }
+      if (offset != length) {
+        throw new ProcessEngineException("Compressed value is truncated: expected " + length + " bytes but got " + offset);
+      }
+      return result;
+    }
+    finally {
+      inflater.end();
+    }
+  }
+
+}
@@ -18,9 +18,13 @@ package org.cibseven.bpm.engine.impl.variable.serializer;
 
 import java.util.Arrays;
 
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.context.Context;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
 import org.cibseven.bpm.engine.variable.Variables;
 import org.cibseven.bpm.engine.variable.impl.value.FileValueImpl;
 import org.cibseven.bpm.engine.variable.impl.value.UntypedValueImpl;
+import org.cibseven.bpm.engine.variable.type.FileValueType;
 import org.cibseven.bpm.engine.variable.type.ValueType;
 import org.cibseven.bpm.engine.variable.value.FileValue;
 import org.cibseven.bpm.engine.variable.value.TypedValue;
@@ -74,26 +78,41 @@ public class FileValueSerializer extends AbstractTypedValueSerializer<FileValue>
       // ensure file name is not null
       fileName = "";
     }
-    FileValueBuilder builder = Variables.fileValue(fileName);
-    if (valueFields.getByteArrayValue() != null) {
-      builder.file(valueFields.getByteArrayValue());
-    }
+    String mimeType = null;
+    String encoding = null;
     // to ensure the same array size all the time
     if (valueFields.getTextValue2() != null) {
       String[] split = Arrays.copyOf(valueFields.getTextValue2().split(MIMETYPE_ENCODING_SEPARATOR, NR_OF_VALUES_IN_TEXTFIELD2), NR_OF_VALUES_IN_TEXTFIELD2);
 
-      String mimeType = returnNullIfEmptyString(split[0]);
-      String encoding = returnNullIfEmptyString(split[1]);
+      mimeType = returnNullIfEmptyString(split[0]);
+      encoding = returnNullIfEmptyString(split[1]);
+    }
+
+    if (isLazyLoading(valueFields, asTransientValue)) {
+      CommandExecutor commandExecutor = Context.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+      return new LazyFileValueImpl(valueFields.getByteArrayValueId(), commandExecutor, (FileValueType) valueType, fileName, mimeType, encoding);
+    }
 
-      builder.mimeType(mimeType);
-      builder.encoding(encoding);
+    FileValueBuilder builder = Variables.fileValue(fileName);
+    if (valueFields.getByteArrayValue() != null) {
+      builder.file(valueFields.getByteArrayValue());
     }
+    builder.mimeType(mimeType);
+    builder.encoding(encoding);
 
     builder.setTransient(asTransientValue);
 
     return builder.create();
   }
 
+  protected boolean isLazyLoading(ValueFields valueFields, boolean asTransientValue) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return !asTransientValue
+        && valueFields.getByteArrayValueId() != null
+        && processEngineConfiguration != null
+        && processEngineConfiguration.isEnableLazyFileValueLoading();
+  }
+
   protected String returnNullIfEmptyString(String s) {
     if (s.isEmpty()) {
       return null;
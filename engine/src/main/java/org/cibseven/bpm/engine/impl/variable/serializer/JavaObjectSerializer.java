@@ -43,6 +43,10 @@ public class JavaObjectSerializer extends AbstractObjectValueSerializer {
     super(SerializationDataFormats.JAVA.getName());
   }
 
+  protected JavaObjectSerializer(String serializationDataFormat) {
+    super(serializationDataFormat);
+  }
+
   public String getName() {
     return NAME;
   }
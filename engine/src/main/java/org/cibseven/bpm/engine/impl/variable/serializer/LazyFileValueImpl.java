@@ -0,0 +1,88 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.impl.variable.serializer;
+
+import java.io.InputStream;
+
+import org.cibseven.bpm.engine.impl.cmd.GetByteArrayValueCmd;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.variable.impl.value.FileValueImpl;
+import org.cibseven.bpm.engine.variable.type.FileValueType;
+
+/**
+ * <p>A file value whose content is only fetched from the byte array table
+ * when it is accessed for the first time. Reading the file name, mime type or
+ * encoding does not load the content.</p>
+ *
+ * <p>The content reflects the byte array at the time of the first access. If
+ * the byte array has been deleted in the meantime, the value has no content.</p>
+ */
+public class LazyFileValueImpl extends FileValueImpl {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String byteArrayId;
+  protected transient CommandExecutor commandExecutor;
+  protected transient boolean isLoaded = false;
+
+  public LazyFileValueImpl(String byteArrayId, CommandExecutor commandExecutor, FileValueType type,
+      String filename, String mimeType, String encoding) {
+    super(null, type, filename, mimeType, encoding);
+    this.byteArrayId = byteArrayId;
+    this.commandExecutor = commandExecutor;
+  }
+
+  @Override
+  public InputStream getValue() {
+    ensureLoaded();
+    return super.getValue();
+  }
+
+  @Override
+  public byte[] getByteArray() {
+    ensureLoaded();
+    return super.getByteArray();
+  }
+
+  @Override
+  public void setValue(byte[] bytes) {
+    super.setValue(bytes);
+    isLoaded = true;
+  }
+
+  public boolean isLoaded() {
+    return isLoaded;
+  }
+
+  protected synchronized void ensureLoaded() {
+    if (!isLoaded) {
+      value = commandExecutor.execute(new GetByteArrayValueCmd(byteArrayId));
+      isLoaded = true;
+    }
+  }
+
+  /**
+   * Serializes the value as a plain file value with its content, since the
+   * command executor cannot be serialized.
+   */
+  protected Object writeReplace() {
+    FileValueImpl fileValue = new FileValueImpl(getByteArray(), type, filename, mimeType, encoding);
+    fileValue.setTransient(isTransient);
+    return fileValue;
+  }
+
+}
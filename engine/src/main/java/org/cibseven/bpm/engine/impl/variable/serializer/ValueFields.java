@@ -39,4 +39,12 @@ public interface ValueFields extends Nameable {
   byte[] getByteArrayValue();
   void setByteArrayValue(byte[] bytes);
 
+  /**
+   * @return the id of the byte array which holds the byte array value or
+   *   <code>null</code> if the value is not stored in a byte array
+   */
+  default String getByteArrayValueId() {
+    return null;
+  }
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.runtime;
+
+import java.util.List;
+
+import org.cibseven.bpm.engine.AuthorizationException;
+import org.cibseven.bpm.engine.MismatchingMessageCorrelationException;
+import org.cibseven.bpm.engine.authorization.Permissions;
+import org.cibseven.bpm.engine.authorization.Resources;
+import org.cibseven.bpm.engine.exception.NotValidException;
+
+/**
+ * A fluent builder for correlating many messages with few transactions.
+ *
+ * <p>Each message is defined by a {@link MessageCorrelationBuilder} and is
+ * correlated as by {@link MessageCorrelationBuilder#correlateWithResult()},
+ * except that a message which matches neither an execution nor a process
+ * definition is reported as not correlated instead of failing.</p>
+ *
+ * <p>The messages of one transaction are looked up together. A message that
+ * targets a process instance or business key to which an earlier message of
+ * the same transaction was correlated starts a new transaction, so that it
+ * sees the changes of the earlier message. The same applies to a message that
+ * is correlated by variables, by tenant id or to start events only, once an
+ * earlier message of the same transaction was correlated.</p>
+ */
+public interface BulkMessageCorrelationBuilder {
+
+  int DEFAULT_TRANSACTION_SIZE = 100;
+
+  /**
+   * Adds a message to correlate. The builder must be created by
+   * {@link org.cibseven.bpm.engine.RuntimeService#createMessageCorrelation(String)}
+   * and must not be correlated by itself.
+   *
+   * @param messageCorrelation the definition of the message
+   * @return the builder
+   */
+  BulkMessageCorrelationBuilder message(MessageCorrelationBuilder messageCorrelation);
+
+  /**
+   * Adds messages to correlate, see {@link #message(MessageCorrelationBuilder)}.
+   *
+   * @param messageCorrelations the definitions of the messages
+   * @return the builder
+   */
+  BulkMessageCorrelationBuilder messages(List<MessageCorrelationBuilder> messageCorrelations);
+
+  /**
+   * Sets the maximum number of messages that are correlated within one
+   * transaction. Defaults to {@value #DEFAULT_TRANSACTION_SIZE}.
+   *
+   * @param transactionSize the maximum number of messages per transaction, must be positive
+   * @return the builder
+   */
+  BulkMessageCorrelationBuilder transactionSize(int transactionSize);
+
+  /**
+   * Correlates the messages in the order in which they were added. If a
+   * transaction fails, its messages are retried one by one, each in its own
+   * transaction. A message that still fails is reported as
+   * {@link BulkMessageCorrelationResult#isFailed() failed} together with the
+   * exception, and the correlation continues with the next message. Failures are
+   * for example a {@link MismatchingMessageCorrelationException} if a message
+   * matches more than one execution or process definition, an
+   * {@link AuthorizationException} if the user has no {@link Permissions#UPDATE}
+   * permission on {@link Resources#PROCESS_INSTANCE} or no
+   * {@link Permissions#UPDATE_INSTANCE} permission on {@link Resources#PROCESS_DEFINITION}
+   * for a correlated execution (or no {@link Permissions#CREATE} permission on
+   * {@link Resources#PROCESS_INSTANCE} and no {@link Permissions#CREATE_INSTANCE}
+   * permission on {@link Resources#PROCESS_DEFINITION} for a started process
+   * instance), or an exception of a delegate.
+   *
+   * @return one result per message, in the order in which the messages were added
+   *
+   * @throws NotValidException
+   *          if no message was added
+   */
+  List<BulkMessageCorrelationResult> correlate();
+
+}
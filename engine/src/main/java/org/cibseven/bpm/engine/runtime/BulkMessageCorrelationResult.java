@@ -0,0 +1,51 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.runtime;
+
+/**
+ * The result of one message of a {@link BulkMessageCorrelationBuilder bulk correlation}.
+ */
+public interface BulkMessageCorrelationResult {
+
+  /**
+   * @return the name of the message
+   */
+  String getMessageName();
+
+  /**
+   * @return <code>true</code> if the message was correlated to an execution or a process definition
+   */
+  boolean isCorrelated();
+
+  /**
+   * @return <code>true</code> if the transaction that correlated the message failed,
+   *   see {@link #getFailure()}
+   */
+  boolean isFailed();
+
+  /**
+   * @return the exception that made the correlation of the message fail or
+   *   <code>null</code> if the message was correlated or did not match
+   */
+  RuntimeException getFailure();
+
+  /**
+   * @return the result of the correlation or <code>null</code> if the message was not correlated
+   */
+  MessageCorrelationResult getCorrelationResult();
+
+}
@@ -19,9 +19,12 @@ package org.cibseven.bpm.engine.runtime;
 import java.util.Map;
 
 import org.cibseven.bpm.engine.AuthorizationException;
+import org.cibseven.bpm.engine.BadUserRequestException;
 import org.cibseven.bpm.engine.ProcessEngineException;
+import org.cibseven.bpm.engine.authorization.BatchPermissions;
 import org.cibseven.bpm.engine.authorization.Permissions;
 import org.cibseven.bpm.engine.authorization.Resources;
+import org.cibseven.bpm.engine.batch.Batch;
 
 /**
  * Fluent builder to notify the process engine that a signal event has been
@@ -96,4 +99,31 @@ public interface SignalEventReceivedBuilder {
    */
   void send();
 
+  /**
+   * <p>
+   * Delivers the signal asynchronously to waiting executions and process
+   * definitions. The subscriptions to the signal are selected page by page and
+   * the deliveries are executed by the jobs of the returned batch, so that a
+   * signal with many receivers does not have to be delivered within a single
+   * transaction. The progress of the delivery can be tracked with the
+   * statistics of the batch.
+   * </p>
+   *
+   * <p>
+   * Note that the signal delivers to all tenants if no tenant is specified
+   * using {@link #tenantId(String)} or {@link #withoutTenantId()}. An execution
+   * that subscribes to the signal after the batch was created does not receive it.
+   * </p>
+   *
+   * @return the batch which delivers the signal asynchronously
+   *
+   * @throws BadUserRequestException
+   *           if a single execution is specified using {@link #executionId(String)}
+   * @throws AuthorizationException
+   *           if the user has no {@link BatchPermissions#CREATE} or
+   *           {@link BatchPermissions#CREATE_BATCH_SIGNAL_EVENT} permission on
+   *           {@link Resources#BATCH}
+   */
+  Batch sendAsync();
+
 }
@@ -448,3 +448,14 @@ create index ACT_IDX_HI_ATTACHMENT_ROOT_PI on ACT_HI_ATTACHMENT(ROOT_PROC_INST_I
 create index ACT_IDX_HI_ATTACHMENT_PROCINST on ACT_HI_ATTACHMENT(PROC_INST_ID_);
 create index ACT_IDX_HI_ATTACHMENT_TASK on ACT_HI_ATTACHMENT(TASK_ID_);
 create index ACT_IDX_HI_ATTACHMENT_RM_TIME on ACT_HI_ATTACHMENT(REMOVAL_TIME_);
+
+-- history event outbox, written by the asynchronous db history --
+create table ACT_HI_EVT_OUTBOX (
+    ID_ varchar(64) not null,
+    CREATE_TIME_ datetime(3) not null,
+    SEQUENCE_COUNTER_ bigint not null auto_increment,
+    FAILURE_COUNT_ integer not null,
+    BYTES_ LONGBLOB,
+    primary key (ID_),
+    unique key ACT_IDX_HI_EVT_OUTBOX_SEQ (SEQUENCE_COUNTER_)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
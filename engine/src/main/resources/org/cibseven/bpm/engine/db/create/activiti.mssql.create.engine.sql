@@ -43,6 +43,9 @@ values ('startup.lock', '0', 1);
 insert into ACT_GE_PROPERTY
 values ('installationId.lock', '0', 1);
 
+insert into ACT_GE_PROPERTY
+values ('history.outbox.lock', '0', 1);
+
 create table ACT_GE_BYTEARRAY (
     ID_ nvarchar(64),
     REV_ int,
@@ -55,6 +58,7 @@ create table ACT_GE_BYTEARRAY (
     CREATE_TIME_ datetime2,
     ROOT_PROC_INST_ID_ nvarchar(64),
     REMOVAL_TIME_ datetime2,
+    HASH_ nvarchar(64),
     primary key (ID_)
 );
 
@@ -362,6 +366,14 @@ create table ACT_RU_BATCH (
   primary key (ID_)
 );
 
+create table ACT_RU_CORR_KEY (
+    ID_ nvarchar(64) not null,
+    PROC_INST_ID_ nvarchar(64) not null,
+    NAME_ nvarchar(255) not null,
+    VALUE_ nvarchar(255),
+    primary key (ID_)
+);
+
 create index ACT_IDX_EXEC_ROOT_PI on ACT_RU_EXECUTION(ROOT_PROC_INST_ID_);
 create index ACT_IDX_EXEC_BUSKEY on ACT_RU_EXECUTION(BUSINESS_KEY_);
 create index ACT_IDX_EXEC_TENANT_ID on ACT_RU_EXECUTION(TENANT_ID_);
@@ -581,6 +593,8 @@ create index ACT_IDX_EXT_TASK_EXEC on ACT_RU_EXT_TASK(EXECUTION_ID_);
 create index ACT_IDX_BYTEARRAY_ROOT_PI on ACT_GE_BYTEARRAY(ROOT_PROC_INST_ID_);
 create index ACT_IDX_BYTEARRAY_RM_TIME on ACT_GE_BYTEARRAY(REMOVAL_TIME_);
 create index ACT_IDX_BYTEARRAY_NAME on ACT_GE_BYTEARRAY(NAME_);
+create index ACT_IDX_BYTEARRAY_HASH on ACT_GE_BYTEARRAY(HASH_);
+create index ACT_IDX_CORR_KEY_NAME_VALUE on ACT_RU_CORR_KEY(NAME_, VALUE_, PROC_INST_ID_);
 create index ACT_IDX_DEPLOYMENT_NAME on ACT_RE_DEPLOYMENT(NAME_);
 create index ACT_IDX_DEPLOYMENT_TENANT_ID on ACT_RE_DEPLOYMENT(TENANT_ID_);
 create index ACT_IDX_JOBDEF_PROC_DEF_ID ON ACT_RU_JOBDEF(PROC_DEF_ID_);
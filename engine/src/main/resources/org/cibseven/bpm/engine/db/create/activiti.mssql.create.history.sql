@@ -447,3 +447,15 @@ create index ACT_IDX_HI_ATTACHMENT_ROOT_PI on ACT_HI_ATTACHMENT(ROOT_PROC_INST_I
 create index ACT_IDX_HI_ATTACHMENT_PROCINST on ACT_HI_ATTACHMENT(PROC_INST_ID_);
 create index ACT_IDX_HI_ATTACHMENT_TASK on ACT_HI_ATTACHMENT(TASK_ID_);
 create index ACT_IDX_HI_ATTACHMENT_RM_TIME on ACT_HI_ATTACHMENT(REMOVAL_TIME_);
+
+-- history event outbox, written by the asynchronous db history --
+create table ACT_HI_EVT_OUTBOX (
+    ID_ nvarchar(64) not null,
+    CREATE_TIME_ datetime2 not null,
+    SEQUENCE_COUNTER_ numeric(19,0) identity(1,1) not null,
+    FAILURE_COUNT_ int not null,
+    BYTES_ image,
+    primary key (ID_)
+);
+
+create unique index ACT_IDX_HI_EVT_OUTBOX_SEQ on ACT_HI_EVT_OUTBOX(SEQUENCE_COUNTER_);
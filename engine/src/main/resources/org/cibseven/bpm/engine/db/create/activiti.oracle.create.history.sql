@@ -448,3 +448,15 @@ create index ACT_IDX_HI_ATTACHMENT_ROOT_PI on ACT_HI_ATTACHMENT(ROOT_PROC_INST_I
 create index ACT_IDX_HI_ATTACHMENT_PROCINST on ACT_HI_ATTACHMENT(PROC_INST_ID_);
 create index ACT_IDX_HI_ATTACHMENT_TASK on ACT_HI_ATTACHMENT(TASK_ID_);
 create index ACT_IDX_HI_ATTACHMENT_RM_TIME on ACT_HI_ATTACHMENT(REMOVAL_TIME_);
+
+-- history event outbox, written by the asynchronous db history --
+create table ACT_HI_EVT_OUTBOX (
+    ID_ NVARCHAR2(64) not null,
+    CREATE_TIME_ TIMESTAMP(6) not null,
+    SEQUENCE_COUNTER_ NUMBER(19,0) generated always as identity (start with 1 increment by 1 order),
+    FAILURE_COUNT_ INTEGER not null,
+    BYTES_ BLOB,
+    primary key (ID_)
+);
+
+create unique index ACT_IDX_HI_EVT_OUTBOX_SEQ on ACT_HI_EVT_OUTBOX(SEQUENCE_COUNTER_);
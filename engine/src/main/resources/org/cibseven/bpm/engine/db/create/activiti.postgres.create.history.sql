@@ -448,3 +448,15 @@ create index ACT_IDX_HI_COMMENT_TASK on ACT_HI_COMMENT(TASK_ID_);
 create index ACT_IDX_HI_COMMENT_ROOT_PI on ACT_HI_COMMENT(ROOT_PROC_INST_ID_);
 create index ACT_IDX_HI_COMMENT_PROCINST on ACT_HI_COMMENT(PROC_INST_ID_);
 create index ACT_IDX_HI_COMMENT_RM_TIME on ACT_HI_COMMENT(REMOVAL_TIME_);
+
+-- history event outbox, written by the asynchronous db history --
+create table ACT_HI_EVT_OUTBOX (
+    ID_ varchar(64) not null,
+    CREATE_TIME_ timestamp not null,
+    SEQUENCE_COUNTER_ bigserial,
+    FAILURE_COUNT_ integer not null,
+    BYTES_ bytea,
+    primary key (ID_)
+);
+
+create unique index ACT_IDX_HI_EVT_OUTBOX_SEQ on ACT_HI_EVT_OUTBOX(SEQUENCE_COUNTER_);
@@ -130,6 +130,8 @@ drop index ACT_IDX_HI_COMMENT_ROOT_PI;
 drop index ACT_IDX_HI_COMMENT_PROCINST;
 drop index ACT_IDX_HI_COMMENT_RM_TIME;
 
+drop index ACT_IDX_HI_EVT_OUTBOX_SEQ;
+
 drop table ACT_HI_PROCINST;
 drop table ACT_HI_ACTINST;
 drop table ACT_HI_VARINST;
@@ -143,3 +145,4 @@ drop table ACT_HI_JOB_LOG;
 drop table ACT_HI_BATCH;
 drop table ACT_HI_IDENTITYLINK;
 drop table ACT_HI_EXT_TASK_LOG;
+drop table ACT_HI_EVT_OUTBOX;
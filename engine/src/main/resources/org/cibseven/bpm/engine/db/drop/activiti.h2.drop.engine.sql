@@ -150,6 +150,8 @@ drop index ACT_IDX_EXT_TASK_TOPIC;
 drop index ACT_IDX_EXT_TASK_EXEC;
 
 drop index ACT_IDX_BYTEARRAY_NAME;
+drop index ACT_IDX_BYTEARRAY_HASH;
+drop index ACT_IDX_CORR_KEY_NAME_VALUE;
 drop index ACT_IDX_DEPLOYMENT_NAME;
 drop index ACT_IDX_JOBDEF_PROC_DEF_ID;
 drop index ACT_IDX_JOB_HANDLER_TYPE;
@@ -203,4 +205,5 @@ drop table ACT_RU_METER_LOG if exists;
 drop table ACT_RU_TASK_METER_LOG if exists;
 drop table ACT_RU_EXT_TASK if exists;
 drop table ACT_RU_BATCH if exists;
+drop table ACT_RU_CORR_KEY if exists;
 drop table ACT_GE_SCHEMA_LOG if exists;
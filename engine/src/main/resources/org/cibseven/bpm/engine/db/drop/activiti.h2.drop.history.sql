@@ -130,6 +130,8 @@ drop index ACT_IDX_HI_COMMENT_ROOT_PI;
 drop index ACT_IDX_HI_COMMENT_PROCINST;
 drop index ACT_IDX_HI_COMMENT_RM_TIME;
 
+drop index ACT_IDX_HI_EVT_OUTBOX_SEQ;
+
 drop table ACT_HI_PROCINST if exists;
 drop table ACT_HI_ACTINST if exists;
 drop table ACT_HI_VARINST if exists;
@@ -143,3 +145,4 @@ drop table ACT_HI_JOB_LOG if exists;
 drop table ACT_HI_BATCH if exists;
 drop table ACT_HI_IDENTITYLINK if exists;
 drop table ACT_HI_EXT_TASK_LOG if exists;
+drop table ACT_HI_EVT_OUTBOX if exists;
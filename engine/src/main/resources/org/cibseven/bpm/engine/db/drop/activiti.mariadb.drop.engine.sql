@@ -142,6 +142,8 @@ drop index ACT_IDX_AUTH_RESOURCE_ID on ACT_RU_AUTHORIZATION;
 drop index ACT_IDX_EXT_TASK_EXEC on ACT_RU_EXT_TASK;
 
 drop index ACT_IDX_BYTEARRAY_NAME on ACT_GE_BYTEARRAY;
+drop index ACT_IDX_BYTEARRAY_HASH on ACT_GE_BYTEARRAY;
+drop index ACT_IDX_CORR_KEY_NAME_VALUE on ACT_RU_CORR_KEY;
 drop index ACT_IDX_DEPLOYMENT_NAME on ACT_RE_DEPLOYMENT;
 drop index ACT_IDX_JOBDEF_PROC_DEF_ID ON ACT_RU_JOBDEF;
 drop index ACT_IDX_JOB_HANDLER_TYPE ON ACT_RU_JOB;
@@ -195,4 +197,5 @@ drop table if exists ACT_RU_METER_LOG;
 drop table if exists ACT_RU_TASK_METER_LOG;
 drop table if exists ACT_RU_EXT_TASK;
 drop table if exists ACT_RU_BATCH;
+drop table if exists ACT_RU_CORR_KEY;
 drop table if exists ACT_GE_SCHEMA_LOG;
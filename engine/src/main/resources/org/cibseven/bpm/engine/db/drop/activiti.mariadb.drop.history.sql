@@ -143,3 +143,4 @@ drop table if exists ACT_HI_JOB_LOG;
 drop table if exists ACT_HI_BATCH;
 drop table if exists ACT_HI_IDENTITYLINK;
 drop table if exists ACT_HI_EXT_TASK_LOG;
+drop table if exists ACT_HI_EVT_OUTBOX;
@@ -77,6 +77,8 @@ drop index ACT_RU_EXT_TASK.ACT_IDX_EXT_TASK_EXEC;
 
 
 drop index ACT_GE_BYTEARRAY.ACT_IDX_BYTEARRAY_NAME;
+drop index ACT_GE_BYTEARRAY.ACT_IDX_BYTEARRAY_HASH;
+drop index ACT_RU_CORR_KEY.ACT_IDX_CORR_KEY_NAME_VALUE;
 drop index ACT_RE_DEPLOYMENT.ACT_IDX_DEPLOYMENT_NAME;
 drop index ACT_RU_JOBDEF.ACT_IDX_JOBDEF_PROC_DEF_ID;
 drop index ACT_RU_JOB.ACT_IDX_JOB_HANDLER_TYPE;
@@ -212,5 +214,6 @@ if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = '
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_TASK_METER_LOG') drop table ACT_RU_TASK_METER_LOG;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_EXT_TASK') drop table ACT_RU_EXT_TASK;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_BATCH') drop table ACT_RU_BATCH;
+if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_CORR_KEY') drop table ACT_RU_CORR_KEY;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_GE_SCHEMA_LOG') drop table ACT_GE_SCHEMA_LOG;
 
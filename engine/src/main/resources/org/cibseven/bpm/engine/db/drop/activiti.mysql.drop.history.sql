@@ -143,4 +143,5 @@ drop table if exists ACT_HI_INCIDENT;
 drop table if exists ACT_HI_JOB_LOG;
 drop table if exists ACT_HI_BATCH;
 drop table if exists ACT_HI_IDENTITYLINK;
-drop table if exists ACT_HI_EXT_TASK_LOG;
\ No newline at end of file
+drop table if exists ACT_HI_EXT_TASK_LOG;
+drop table if exists ACT_HI_EVT_OUTBOX;
\ No newline at end of file
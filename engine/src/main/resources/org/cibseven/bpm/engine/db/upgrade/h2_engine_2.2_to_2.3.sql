@@ -29,3 +29,34 @@ CREATE TABLE CHAT_PRESENCE (
     LAST_SEEN    TIMESTAMP    NOT NULL,
     CONSTRAINT CHAT_PK_PRESENCE PRIMARY KEY (ROOM_ID, USER_ID)
 );
+
+-- Asynchronous db history: history event outbox and its writer lock
+insert into ACT_GE_PROPERTY
+values ('history.outbox.lock', '0', 1);
+
+create table ACT_HI_EVT_OUTBOX (
+    ID_ varchar(64) not null,
+    CREATE_TIME_ timestamp not null,
+    SEQUENCE_COUNTER_ bigint generated always as identity,
+    FAILURE_COUNT_ integer not null,
+    BYTES_ blob,
+    primary key (ID_)
+);
+
+create unique index ACT_IDX_HI_EVT_OUTBOX_SEQ on ACT_HI_EVT_OUTBOX(SEQUENCE_COUNTER_);
+
+-- Deduplicated byte arrays: content hash of runtime variable byte arrays
+alter table ACT_GE_BYTEARRAY add column HASH_ varchar(64);
+
+create index ACT_IDX_BYTEARRAY_HASH on ACT_GE_BYTEARRAY(HASH_);
+
+-- Correlation key index for message correlation
+create table ACT_RU_CORR_KEY (
+    ID_ varchar(64) not null,
+    PROC_INST_ID_ varchar(64) not null,
+    NAME_ varchar(255) not null,
+    VALUE_ varchar(255),
+    primary key (ID_)
+);
+
+create index ACT_IDX_CORR_KEY_NAME_VALUE on ACT_RU_CORR_KEY(NAME_, VALUE_, PROC_INST_ID_);
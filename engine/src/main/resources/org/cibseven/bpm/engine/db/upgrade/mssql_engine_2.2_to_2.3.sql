@@ -29,3 +29,34 @@ CREATE TABLE CHAT_PRESENCE (
     LAST_SEEN    DATETIME2     NOT NULL,
     CONSTRAINT CHAT_PK_PRESENCE PRIMARY KEY (ROOM_ID, USER_ID)
 );
+
+-- Asynchronous db history: history event outbox and its writer lock
+insert into ACT_GE_PROPERTY
+values ('history.outbox.lock', '0', 1);
+
+create table ACT_HI_EVT_OUTBOX (
+    ID_ nvarchar(64) not null,
+    CREATE_TIME_ datetime2 not null,
+    SEQUENCE_COUNTER_ numeric(19,0) identity(1,1) not null,
+    FAILURE_COUNT_ int not null,
+    BYTES_ image,
+    primary key (ID_)
+);
+
+create unique index ACT_IDX_HI_EVT_OUTBOX_SEQ on ACT_HI_EVT_OUTBOX(SEQUENCE_COUNTER_);
+
+-- Deduplicated byte arrays: content hash of runtime variable byte arrays
+alter table ACT_GE_BYTEARRAY add HASH_ nvarchar(64);
+
+create index ACT_IDX_BYTEARRAY_HASH on ACT_GE_BYTEARRAY(HASH_);
+
+-- Correlation key index for message correlation
+create table ACT_RU_CORR_KEY (
+    ID_ nvarchar(64) not null,
+    PROC_INST_ID_ nvarchar(64) not null,
+    NAME_ nvarchar(255) not null,
+    VALUE_ nvarchar(255),
+    primary key (ID_)
+);
+
+create index ACT_IDX_CORR_KEY_NAME_VALUE on ACT_RU_CORR_KEY(NAME_, VALUE_, PROC_INST_ID_);
@@ -0,0 +1,175 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.cibseven.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.cibseven.bpm.engine.authorization.Permissions.READ;
+import static org.cibseven.bpm.engine.authorization.Resources.PROCESS_DEFINITION;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import org.cibseven.bpm.engine.AuthorizationService;
+import org.cibseven.bpm.engine.authorization.Authorization;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class AuthorizationDecisionCacheTest {
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(configuration -> configuration
+      .setAuthorizationDecisionCacheEnabled(true)
+      .setAuthorizationEnabled(true));
+
+  @Rule
+  public ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  protected ProcessEngineConfigurationImpl engineConfig;
+  protected AuthorizationService authorizationService;
+
+  @Before
+  public void setUp() {
+    engineConfig = engineRule.getProcessEngineConfiguration();
+    authorizationService = engineRule.getAuthorizationService();
+  }
+
+  @After
+  public void tearDown() {
+    for (Authorization authorization : authorizationService.createAuthorizationQuery().list()) {
+      authorizationService.deleteAuthorization(authorization.getId());
+    }
+  }
+
+  @Test
+  public void shouldAnswerRepeatedCheckFromCache() throws SQLException {
+    // given
+    Authorization authorization = createGrant("demo", "aProcess");
+    assertThat(isDemoAuthorized("aProcess")).isTrue();
+
+    // when the authorization is removed without the process engine
+    deleteFromDatabase(authorization.getId());
+
+    // then
+    assertThat(isDemoAuthorized("aProcess")).isTrue();
+  }
+
+  @Test
+  public void shouldInvalidateDecisionsWhenAuthorizationIsCreated() {
+    // given
+    assertThat(isDemoAuthorized("aProcess")).isFalse();
+
+    // when
+    createGrant("demo", "aProcess");
+
+    // then
+    assertThat(isDemoAuthorized("aProcess")).isTrue();
+  }
+
+  @Test
+  public void shouldInvalidateDecisionsWhenAuthorizationIsDeleted() {
+    // given
+    Authorization authorization = createGrant("demo", "aProcess");
+    assertThat(isDemoAuthorized("aProcess")).isTrue();
+
+    // when
+    authorizationService.deleteAuthorization(authorization.getId());
+
+    // then
+    assertThat(isDemoAuthorized("aProcess")).isFalse();
+  }
+
+  @Test
+  public void shouldInvalidateDecisionsWhenAuthorizationIsUpdated() {
+    // given
+    Authorization authorization = createGrant("demo", "aProcess");
+    assertThat(isDemoAuthorized("aProcess")).isTrue();
+
+    // when
+    authorization.setResourceId("anotherProcess");
+    authorizationService.saveAuthorization(authorization);
+
+    // then
+    assertThat(isDemoAuthorized("aProcess")).isFalse();
+    assertThat(isDemoAuthorized("anotherProcess")).isTrue();
+  }
+
+  @Test
+  public void shouldCacheDecisionsPerUserAndGroups() {
+    // given
+    createGrant("demo", "aProcess");
+
+    // when
+    boolean isDemoAuthorized = isDemoAuthorized("aProcess");
+    boolean isOtherUserAuthorized = authorizationService.isUserAuthorized("other", null, READ, PROCESS_DEFINITION, "aProcess");
+    boolean isDemoInGroupAuthorized = authorizationService.isUserAuthorized("demo", Collections.singletonList("aGroup"), READ, PROCESS_DEFINITION, "aProcess");
+
+    // then
+    assertThat(isDemoAuthorized).isTrue();
+    assertThat(isOtherUserAuthorized).isFalse();
+    assertThat(isDemoInGroupAuthorized).isTrue();
+  }
+
+  @Test
+  public void shouldDistinguishResourceIds() {
+    // given
+    createGrant("demo", "a;1#b");
+
+    // when
+    boolean isAuthorized = isDemoAuthorized("a;1#b");
+    boolean isSimilarResourceAuthorized = isDemoAuthorized("a");
+
+    // then
+    assertThat(isAuthorized).isTrue();
+    assertThat(isSimilarResourceAuthorized).isFalse();
+  }
+
+  protected boolean isDemoAuthorized(String processDefinitionKey) {
+    return authorizationService.isUserAuthorized("demo", null, READ, PROCESS_DEFINITION, processDefinitionKey);
+  }
+
+  protected Authorization createGrant(String userId, String resourceId) {
+    Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+    authorization.setUserId(userId);
+    authorization.setResource(PROCESS_DEFINITION);
+    authorization.setResourceId(resourceId);
+    authorization.addPermission(READ);
+    authorizationService.saveAuthorization(authorization);
+    return authorization;
+  }
+
+  protected void deleteFromDatabase(String authorizationId) throws SQLException {
+    try (Connection connection = engineConfig.getDataSource().getConnection();
+         PreparedStatement statement = connection.prepareStatement("delete from ACT_RU_AUTHORIZATION where ID_ = ?")) {
+      statement.setString(1, authorizationId);
+      statement.executeUpdate();
+      if (!connection.getAutoCommit()) {
+        connection.commit();
+      }
+    }
+  }
+
+}
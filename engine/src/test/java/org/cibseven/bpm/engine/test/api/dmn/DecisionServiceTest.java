@@ -19,16 +19,22 @@ package org.cibseven.bpm.engine.test.api.dmn;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.cibseven.bpm.dmn.engine.DmnDecisionResult;
 import org.cibseven.bpm.dmn.engine.DmnDecisionTableResult;
 import org.cibseven.bpm.dmn.engine.impl.DefaultDmnEngineConfiguration;
 import org.cibseven.bpm.engine.DecisionService;
+import org.cibseven.bpm.engine.ProcessEngineConfiguration;
 import org.cibseven.bpm.engine.RepositoryService;
 import org.cibseven.bpm.engine.exception.NotFoundException;
 import org.cibseven.bpm.engine.exception.NotValidException;
 import org.cibseven.bpm.engine.repository.DecisionDefinition;
 import org.cibseven.bpm.engine.test.Deployment;
 import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.RequiredHistoryLevel;
 import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
 import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
 import org.cibseven.bpm.engine.test.util.ResetDmnConfigUtil;
@@ -299,6 +305,62 @@ public class DecisionServiceTest {
     assertThatDecisionHasResult(decisionResult, "Light salad");
   }
 
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void evaluateAllDecisionTablesByKey() {
+    List<DmnDecisionTableResult> decisionResults = decisionService
+        .evaluateDecisionTableByKey(DECISION_DEFINITION_KEY)
+        .evaluateAll(Arrays.asList(createVariables(), createVariables().putValue("status", "bronze")));
+
+    assertThat(decisionResults).hasSize(2);
+    assertThatDecisionHasResult(decisionResults.get(0), RESULT_OF_FIRST_VERSION);
+    assertThatDecisionHasResult(decisionResults.get(1), RESULT_OF_SECOND_VERSION);
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void evaluateAllDecisionsById() {
+    DecisionDefinition decisionDefinition = repositoryService.createDecisionDefinitionQuery().singleResult();
+
+    List<DmnDecisionResult> decisionResults = decisionService
+        .evaluateDecisionById(decisionDefinition.getId())
+        .evaluateAll(Arrays.asList(createVariables().putValue("status", "bronze"), createVariables()));
+
+    assertThat(decisionResults).hasSize(2);
+    assertThatDecisionHasResult(decisionResults.get(0), RESULT_OF_SECOND_VERSION);
+    assertThatDecisionHasResult(decisionResults.get(1), RESULT_OF_FIRST_VERSION);
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void evaluateAllDecisionTablesWritesHistoryForEachEvaluation() {
+    decisionService
+        .evaluateDecisionTableByKey(DECISION_DEFINITION_KEY)
+        .evaluateAll(Arrays.asList(createVariables(), createVariables(), createVariables()));
+
+    assertThat(engineRule.getHistoryService().createHistoricDecisionInstanceQuery().count()).isEqualTo(3);
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void evaluateAllDecisionTablesWithEmptyList() {
+    List<DmnDecisionTableResult> decisionResults = decisionService
+        .evaluateDecisionTableByKey(DECISION_DEFINITION_KEY)
+        .evaluateAll(Collections.<VariableMap>emptyList());
+
+    assertThat(decisionResults).isEmpty();
+  }
+
+  @Test
+  public void evaluateAllDecisionTablesFailsWithNullList() {
+    assertThatThrownBy(() -> decisionService
+        .evaluateDecisionTableByKey(DECISION_DEFINITION_KEY)
+        .evaluateAll(null))
+      .isInstanceOf(NotValidException.class)
+      .hasMessageContaining("variablesList is null");
+  }
+
   protected VariableMap createVariables() {
     return Variables.createVariables().putValue("status", "silver").putValue("sum", 723);
   }
@@ -0,0 +1,233 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.externaltask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cibseven.bpm.engine.ExternalTaskService;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.externaltask.LockedExternalTask;
+import org.cibseven.bpm.engine.impl.ExternalTaskServiceImpl;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.externaltask.ExternalTaskLongPollingRegistry;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+/**
+ * Tests long polling fetch and lock requests of the engine API.
+ */
+public class ExternalTaskLongPollingTest {
+
+  protected static final String WORKER_ID = "aWorkerId";
+  protected static final long LOCK_DURATION = 10000L;
+  protected static final long TIMEOUT = 30000L;
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected ExternalTaskService externalTaskService;
+
+  protected ExternalTaskLongPollingRegistry defaultRegistry;
+  protected CountingLongPollingRegistry registry;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    externalTaskService = engineRule.getExternalTaskService();
+
+    defaultRegistry = processEngineConfiguration.getExternalTaskLongPollingRegistry();
+    registry = new CountingLongPollingRegistry(processEngineConfiguration);
+    processEngineConfiguration.setExternalTaskLongPollingRegistry(registry);
+    ((ExternalTaskServiceImpl) externalTaskService).setExternalTaskLongPollingRegistry(registry);
+
+    testRule.deploy(createProcess("topicProcess", "aTopic"), createProcess("otherTopicProcess", "anotherTopic"));
+  }
+
+  @After
+  public void tearDown() {
+    registry.close();
+    processEngineConfiguration.setExternalTaskLongPollingRegistry(defaultRegistry);
+    ((ExternalTaskServiceImpl) externalTaskService).setExternalTaskLongPollingRegistry(defaultRegistry);
+  }
+
+  @Test
+  public void shouldReturnImmediatelyIfTasksAreAvailable() throws Exception {
+    // given
+    runtimeService.startProcessInstanceByKey("topicProcess");
+
+    // when
+    CompletableFuture<List<LockedExternalTask>> result = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic("aTopic", LOCK_DURATION)
+      .asyncResponse(TIMEOUT);
+
+    // then
+    assertThat(result).isDone();
+    assertThat(result.get()).hasSize(1);
+    assertThat(registry.getNumberOfParkedRequests()).isZero();
+  }
+
+  @Test
+  public void shouldParkRequestOfFetchAndLockBuilder() throws Exception {
+    // given
+    CompletableFuture<List<LockedExternalTask>> result = externalTaskService.fetchAndLock()
+      .workerId(WORKER_ID)
+      .maxTasks(1)
+      .subscribe()
+      .topic("aTopic", LOCK_DURATION)
+      .asyncResponse(TIMEOUT);
+    assertThat(result).isNotDone();
+    assertThat(registry.getNumberOfParkedRequests()).isEqualTo(1);
+
+    // when
+    runtimeService.startProcessInstanceByKey("topicProcess");
+
+    // then
+    assertThat(result.get(10, TimeUnit.SECONDS)).hasSize(1);
+  }
+
+  @Test
+  public void shouldCompleteWhenTaskOfTopicIsCreated() throws Exception {
+    // given
+    CompletableFuture<List<LockedExternalTask>> result = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic("aTopic", LOCK_DURATION)
+      .asyncResponse(TIMEOUT);
+    assertThat(result).isNotDone();
+
+    // when
+    runtimeService.startProcessInstanceByKey("topicProcess");
+
+    // then
+    List<LockedExternalTask> tasks = result.get(10, TimeUnit.SECONDS);
+    assertThat(tasks).hasSize(1);
+    assertThat(tasks.get(0).getTopicName()).isEqualTo("aTopic");
+    assertThat(tasks.get(0).getWorkerId()).isEqualTo(WORKER_ID);
+    assertThat(registry.getNumberOfParkedRequests()).isZero();
+  }
+
+  @Test
+  public void shouldNotFetchRequestsOfOtherTopics() throws Exception {
+    // given
+    CompletableFuture<List<LockedExternalTask>> result = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic("aTopic", LOCK_DURATION)
+      .asyncResponse(TIMEOUT);
+    CompletableFuture<List<LockedExternalTask>> otherResult = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic("anotherTopic", LOCK_DURATION)
+      .asyncResponse(TIMEOUT);
+
+    // when
+    runtimeService.startProcessInstanceByKey("otherTopicProcess");
+
+    // then
+    assertThat(otherResult.get(10, TimeUnit.SECONDS)).hasSize(1);
+    assertThat(result).isNotDone();
+    assertThat(registry.fetchedRequests.get()).isEqualTo(1);
+    assertThat(registry.getNumberOfParkedRequests()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldCompleteWhenTaskIsUnlocked() throws Exception {
+    // given
+    runtimeService.startProcessInstanceByKey("topicProcess");
+    LockedExternalTask lockedTask = externalTaskService.fetchAndLock(1, "anotherWorkerId")
+      .topic("aTopic", LOCK_DURATION)
+      .execute()
+      .get(0);
+
+    CompletableFuture<List<LockedExternalTask>> result = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic("aTopic", LOCK_DURATION)
+      .asyncResponse(TIMEOUT);
+    assertThat(result).isNotDone();
+
+    // when
+    externalTaskService.unlock(lockedTask.getId());
+
+    // then
+    List<LockedExternalTask> tasks = result.get(10, TimeUnit.SECONDS);
+    assertThat(tasks).hasSize(1);
+    assertThat(tasks.get(0).getId()).isEqualTo(lockedTask.getId());
+  }
+
+  @Test
+  public void shouldCompleteWithEmptyListOnTimeout() throws Exception {
+    // when
+    CompletableFuture<List<LockedExternalTask>> result = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic("aTopic", LOCK_DURATION)
+      .asyncResponse(100);
+
+    // then
+    assertThat(result.get(10, TimeUnit.SECONDS)).isEmpty();
+    assertThat(registry.getNumberOfParkedRequests()).isZero();
+  }
+
+  @Test
+  public void shouldRejectParkedRequestsOnClose() throws Exception {
+    // given
+    CompletableFuture<List<LockedExternalTask>> result = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic("aTopic", LOCK_DURATION)
+      .asyncResponse(TIMEOUT);
+
+    // when
+    registry.close();
+
+    // then
+    assertThat(result).isCompletedExceptionally();
+  }
+
+  protected static BpmnModelInstance createProcess(String processKey, String topicName) {
+    return Bpmn.createExecutableProcess(processKey)
+      .startEvent()
+      .serviceTask()
+        .camundaExternalTask(topicName)
+      .endEvent()
+      .done();
+  }
+
+  public static class CountingLongPollingRegistry extends ExternalTaskLongPollingRegistry {
+
+    protected AtomicInteger fetchedRequests = new AtomicInteger();
+
+    public CountingLongPollingRegistry(ProcessEngineConfigurationImpl processEngineConfiguration) {
+      super(processEngineConfiguration);
+    }
+
+    @Override
+    protected List<LockedExternalTask> fetch(LongPollingRequest request) {
+      fetchedRequests.incrementAndGet();
+      return super.fetch(request);
+    }
+  }
+
+}
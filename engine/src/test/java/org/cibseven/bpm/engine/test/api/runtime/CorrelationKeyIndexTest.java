@@ -0,0 +1,327 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.cibseven.bpm.engine.MismatchingMessageCorrelationException;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.TaskService;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cmd.IndexCorrelationKeysCmd;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+
+public class CorrelationKeyIndexTest {
+
+  protected static final BpmnModelInstance MESSAGE_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .intermediateCatchEvent("catch")
+        .message("message")
+      .userTask("afterMessage")
+      .endEvent()
+      .done();
+
+  @ClassRule
+  public static final ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(
+      c -> c.setCorrelationKeyVariableNames(Arrays.asList("orderId", "customerId", "approved")));
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected CommandExecutor commandExecutor;
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected List<String> correlationKeyVariableNames;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    correlationKeyVariableNames = processEngineConfiguration.getCorrelationKeyVariableNames();
+
+    // the tests index the correlation keys themselves
+    processEngineConfiguration.getCorrelationKeyIndexer().stop();
+    indexCorrelationKeys(IndexCorrelationKeysCmd.DEFAULT_BATCH_SIZE);
+
+    testRule.deploy(MESSAGE_PROCESS);
+  }
+
+  @After
+  public void resetCorrelationKeyVariableNames() {
+    processEngineConfiguration.getCorrelationKeyIndexer().stop();
+    processEngineConfiguration.setCorrelationKeyVariableNames(correlationKeyVariableNames);
+    indexCorrelationKeys(IndexCorrelationKeysCmd.DEFAULT_BATCH_SIZE);
+  }
+
+  @Test
+  public void shouldCorrelateByIndexedKey() {
+    // given
+    ProcessInstance first = startProcessInstance("order-1", "customer-1");
+    ProcessInstance second = startProcessInstance("order-2", "customer-1");
+
+    // when
+    runtimeService.createMessageCorrelation("message")
+      .processInstanceVariableEquals("orderId", "order-2")
+      .correlate();
+
+    // then
+    assertThat(findIndexedProcessInstanceIds("orderId", "order-2")).containsExactly(second.getId());
+    assertThat(hasReceivedMessage(first)).isFalse();
+    assertThat(hasReceivedMessage(second)).isTrue();
+  }
+
+  @Test
+  public void shouldCorrelateByAllIndexedKeys() {
+    // given
+    startProcessInstance("order-1", "customer-1");
+    ProcessInstance second = startProcessInstance("order-1", "customer-2");
+
+    // when
+    runtimeService.createMessageCorrelation("message")
+      .processInstanceVariableEquals("orderId", "order-1")
+      .processInstanceVariableEquals("customerId", "customer-2")
+      .correlate();
+
+    // then
+    assertThat(hasReceivedMessage(second)).isTrue();
+    assertThat(taskService.createTaskQuery().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotCorrelateByOutdatedValue() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+    runtimeService.setVariable(processInstance.getId(), "orderId", "order-3");
+
+    // then
+    assertThat(findIndexedProcessInstanceIds("orderId", "order-1")).isEmpty();
+    assertThatThrownBy(() -> runtimeService.createMessageCorrelation("message")
+        .processInstanceVariableEquals("orderId", "order-1")
+        .correlate())
+      .isInstanceOf(MismatchingMessageCorrelationException.class);
+
+    // when
+    runtimeService.createMessageCorrelation("message")
+      .processInstanceVariableEquals("orderId", "order-3")
+      .correlate();
+
+    // then
+    assertThat(hasReceivedMessage(processInstance)).isTrue();
+  }
+
+  @Test
+  public void shouldCorrelateByNumericKey() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("orderId", 42));
+
+    // when
+    runtimeService.createMessageCorrelation("message")
+      .processInstanceVariableEquals("orderId", 42)
+      .correlate();
+
+    // then
+    assertThat(findIndexedProcessInstanceIds("orderId", "42")).containsExactly(processInstance.getId());
+    assertThat(hasReceivedMessage(processInstance)).isTrue();
+  }
+
+  @Test
+  public void shouldCorrelateByKeyThatCannotBeIndexed() {
+    // given
+    startProcessInstance("order-1", "customer-1");
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("approved", true));
+
+    // when
+    runtimeService.createMessageCorrelation("message")
+      .processInstanceVariableEquals("approved", true)
+      .correlate();
+
+    // then
+    assertThat(hasReceivedMessage(processInstance)).isTrue();
+  }
+
+  @Test
+  public void shouldCorrelateByKeyThatIsNotDeclared() {
+    // given
+    startProcessInstance("order-1", "customer-1");
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("reference", "ref-1"));
+
+    // when
+    runtimeService.createMessageCorrelation("message")
+      .processInstanceVariableEquals("reference", "ref-1")
+      .correlate();
+
+    // then
+    assertThat(hasReceivedMessage(processInstance)).isTrue();
+  }
+
+  @Test
+  public void shouldRemoveKeysWhenProcessInstanceEnds() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+    runtimeService.createMessageCorrelation("message")
+      .processInstanceVariableEquals("orderId", "order-1")
+      .correlate();
+
+    // when
+    taskService.complete(taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getId());
+
+    // then
+    assertThat(findIndexedProcessInstanceIds("orderId", "order-1")).isEmpty();
+    assertThat(findIndexedProcessInstanceIds("customerId", "customer-1")).isEmpty();
+  }
+
+  @Test
+  public void shouldRemoveKeysWhenProcessInstanceIsDeleted() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+
+    // when
+    runtimeService.deleteProcessInstance(processInstance.getId(), null);
+
+    // then
+    assertThat(findIndexedProcessInstanceIds("orderId", "order-1")).isEmpty();
+  }
+
+  @Test
+  public void shouldIndexVariablesThatWereWrittenBeforeTheNameWasConfigured() {
+    // given
+    ProcessInstance first = startProcessInstance("ref-1");
+    ProcessInstance second = startProcessInstance("ref-2");
+    ProcessInstance third = startProcessInstance("ref-2");
+    processEngineConfiguration.setCorrelationKeyVariableNames(Arrays.asList("orderId", "customerId", "approved", "reference"));
+
+    // when
+    indexCorrelationKeys(1);
+
+    // then
+    assertThat(isCorrelationKeyIndexComplete("reference")).isTrue();
+    assertThat(findIndexedProcessInstanceIds("reference", "ref-1")).containsExactly(first.getId());
+    assertThat(findIndexedProcessInstanceIds("reference", "ref-2")).containsExactlyInAnyOrder(second.getId(), third.getId());
+  }
+
+  @Test
+  public void shouldIndexVariablesInBackground() throws InterruptedException {
+    // given
+    ProcessInstance processInstance = startProcessInstance("ref-1");
+    processEngineConfiguration.setCorrelationKeyVariableNames(Arrays.asList("orderId", "customerId", "approved", "reference"));
+
+    // when
+    processEngineConfiguration.getCorrelationKeyIndexer().start();
+
+    // then
+    long end = System.currentTimeMillis() + 5000;
+    while (!isCorrelationKeyIndexComplete("reference") && System.currentTimeMillis() < end) {
+      Thread.sleep(50);
+    }
+    assertThat(isCorrelationKeyIndexComplete("reference")).isTrue();
+    assertThat(findIndexedProcessInstanceIds("reference", "ref-1")).containsExactly(processInstance.getId());
+  }
+
+  @Test
+  public void shouldNotUseIncompleteIndex() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("ref-1");
+    processEngineConfiguration.setCorrelationKeyVariableNames(Arrays.asList("orderId", "customerId", "approved", "reference"));
+
+    // when the indexing has started but did not index the variable yet
+    assertThat(commandExecutor.execute(new IndexCorrelationKeysCmd())).isFalse();
+
+    // then
+    assertThat(isCorrelationKeyIndexComplete("reference")).isFalse();
+    assertThat(findIndexedProcessInstanceIds("reference", "ref-1")).isEmpty();
+
+    runtimeService.createMessageCorrelation("message")
+      .processInstanceVariableEquals("reference", "ref-1")
+      .correlate();
+
+    assertThat(hasReceivedMessage(processInstance)).isTrue();
+  }
+
+  @Test
+  public void shouldRemoveIndexOfNameThatIsNoLongerConfigured() {
+    // given
+    startProcessInstance("ref-1");
+    processEngineConfiguration.setCorrelationKeyVariableNames(Arrays.asList("orderId", "customerId", "approved", "reference"));
+    indexCorrelationKeys(IndexCorrelationKeysCmd.DEFAULT_BATCH_SIZE);
+
+    // when
+    processEngineConfiguration.setCorrelationKeyVariableNames(correlationKeyVariableNames);
+    indexCorrelationKeys(IndexCorrelationKeysCmd.DEFAULT_BATCH_SIZE);
+
+    // then
+    assertThat(isCorrelationKeyIndexComplete("reference")).isFalse();
+    assertThat(findIndexedProcessInstanceIds("reference", "ref-1")).isEmpty();
+    assertThat(isCorrelationKeyIndexComplete("orderId")).isTrue();
+  }
+
+  protected ProcessInstance startProcessInstance(String reference) {
+    return runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("reference", reference));
+  }
+
+  protected ProcessInstance startProcessInstance(String orderId, String customerId) {
+    return runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("orderId", orderId)
+        .putValue("customerId", customerId));
+  }
+
+  protected boolean hasReceivedMessage(ProcessInstance processInstance) {
+    return taskService.createTaskQuery().processInstanceId(processInstance.getId()).count() == 1;
+  }
+
+  protected void indexCorrelationKeys(int batchSize) {
+    processEngineConfiguration.getCorrelationKeyIndexer().indexAll(batchSize);
+  }
+
+  protected boolean isCorrelationKeyIndexComplete(String name) {
+    return commandExecutor.execute(commandContext ->
+        commandContext.getCorrelationKeyManager().isCorrelationKeyIndexComplete(name));
+  }
+
+  protected List<String> findIndexedProcessInstanceIds(String name, String value) {
+    return commandExecutor.execute(commandContext ->
+        commandContext.getCorrelationKeyManager().findProcessInstanceIdsByCorrelationKey(name, value));
+  }
+
+}
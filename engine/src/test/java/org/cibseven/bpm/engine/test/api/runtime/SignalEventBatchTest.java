@@ -0,0 +1,250 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+
+import org.cibseven.bpm.engine.BadUserRequestException;
+import org.cibseven.bpm.engine.ManagementService;
+import org.cibseven.bpm.engine.ProcessEngineConfiguration;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.batch.Batch;
+import org.cibseven.bpm.engine.history.UserOperationLogEntry;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.RequiredHistoryLevel;
+import org.cibseven.bpm.engine.test.util.BatchRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class SignalEventBatchTest {
+
+  protected static final String SIGNAL_NAME = "alert";
+  protected static final String TENANT_ONE = "tenant1";
+  protected static final String TENANT_TWO = "tenant2";
+
+  protected static final BpmnModelInstance CATCH_PROCESS = Bpmn.createExecutableProcess("catchSignal")
+      .startEvent()
+      .intermediateCatchEvent("signalCatch")
+        .signal(SIGNAL_NAME)
+      .userTask("afterSignal")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance START_PROCESS = Bpmn.createExecutableProcess("startBySignal")
+      .startEvent()
+        .signal(SIGNAL_NAME)
+      .userTask("afterStart")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+  protected BatchRule batchRule = new BatchRule(engineRule, testRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule).around(batchRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+
+  @Before
+  public void initServices() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+  }
+
+  @After
+  public void clearAuthentication() {
+    engineRule.getIdentityService().clearAuthentication();
+  }
+
+  @Test
+  public void shouldDeliverSignalToCatchEvents() {
+    // given
+    testRule.deploy(CATCH_PROCESS);
+    runtimeService.startProcessInstanceByKey("catchSignal");
+    runtimeService.startProcessInstanceByKey("catchSignal");
+
+    // when
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME).sendAsync();
+
+    // then the signal is not delivered before the batch is executed
+    assertThat(batch.getType()).isEqualTo(Batch.TYPE_SIGNAL_EVENT);
+    assertThat(batch.getTotalJobs()).isEqualTo(2);
+    assertThat(runtimeService.createExecutionQuery().activityId("afterSignal").count()).isZero();
+
+    // when
+    batchRule.syncExec(batch);
+
+    // then
+    assertThat(runtimeService.createExecutionQuery().activityId("afterSignal").count()).isEqualTo(2);
+    assertThat(managementService.createBatchQuery().count()).isZero();
+  }
+
+  @Test
+  public void shouldStartProcessInstanceBySignal() {
+    // given
+    testRule.deploy(START_PROCESS);
+
+    // when
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME).sendAsync();
+    batchRule.syncExec(batch);
+
+    // then
+    assertThat(runtimeService.createProcessInstanceQuery().processDefinitionKey("startBySignal").count()).isEqualTo(1);
+    assertThat(runtimeService.createExecutionQuery().activityId("afterStart").count()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldSetVariables() {
+    // given
+    testRule.deploy(CATCH_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("catchSignal");
+
+    // when
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME)
+        .setVariables(Variables.createVariables().putValue("foo", "bar"))
+        .sendAsync();
+    batchRule.syncExec(batch);
+
+    // then
+    assertThat(runtimeService.getVariable(processInstance.getId(), "foo")).isEqualTo("bar");
+  }
+
+  @Test
+  public void shouldNotDeliverSignalToSubscriptionsRemovedAfterBatchCreation() {
+    // given
+    testRule.deploy(CATCH_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("catchSignal");
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME).sendAsync();
+
+    // when
+    runtimeService.deleteProcessInstance(processInstance.getId(), null);
+    batchRule.syncExec(batch);
+
+    // then
+    assertThat(runtimeService.createProcessInstanceQuery().count()).isZero();
+  }
+
+  @Test
+  public void shouldNotDeliverSignalToSuspendedProcessInstances() {
+    // given
+    testRule.deploy(CATCH_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("catchSignal");
+    runtimeService.suspendProcessInstanceById(processInstance.getId());
+
+    // when
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME).sendAsync();
+
+    // then
+    assertThat(batch.getTotalJobs()).isZero();
+    batchRule.syncExec(batch);
+  }
+
+  @Test
+  public void shouldDeliverSignalOnlyToTenant() {
+    // given
+    testRule.deployForTenant(TENANT_ONE, CATCH_PROCESS);
+    testRule.deployForTenant(TENANT_TWO, CATCH_PROCESS);
+    runtimeService.createProcessInstanceByKey("catchSignal").processDefinitionTenantId(TENANT_ONE).execute();
+    runtimeService.createProcessInstanceByKey("catchSignal").processDefinitionTenantId(TENANT_TWO).execute();
+
+    // when
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME).tenantId(TENANT_ONE).sendAsync();
+    batchRule.syncExec(batch);
+
+    // then
+    assertThat(runtimeService.createExecutionQuery().activityId("afterSignal").tenantIdIn(TENANT_ONE).count()).isEqualTo(1);
+    assertThat(runtimeService.createExecutionQuery().activityId("afterSignal").tenantIdIn(TENANT_TWO).count()).isZero();
+  }
+
+  @Test
+  public void shouldDeliverSignalOnlyToAuthenticatedTenants() {
+    // given
+    testRule.deployForTenant(TENANT_ONE, CATCH_PROCESS);
+    testRule.deployForTenant(TENANT_TWO, CATCH_PROCESS);
+    runtimeService.createProcessInstanceByKey("catchSignal").processDefinitionTenantId(TENANT_ONE).execute();
+    runtimeService.createProcessInstanceByKey("catchSignal").processDefinitionTenantId(TENANT_TWO).execute();
+
+    // when
+    engineRule.getIdentityService().setAuthentication("user", null, Collections.singletonList(TENANT_ONE));
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME).sendAsync();
+    engineRule.getIdentityService().clearAuthentication();
+
+    // then
+    assertThat(batch.getTotalJobs()).isEqualTo(1);
+    batchRule.syncExec(batch);
+  }
+
+  @Test
+  public void shouldCreateEmptyBatchWithoutSubscriptions() {
+    // when
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME).sendAsync();
+
+    // then
+    assertThat(batch.getTotalJobs()).isZero();
+    batchRule.syncExec(batch);
+    assertThat(managementService.createBatchQuery().count()).isZero();
+  }
+
+  @Test
+  public void shouldRejectExecutionId() {
+    // given
+    testRule.deploy(CATCH_PROCESS);
+    runtimeService.startProcessInstanceByKey("catchSignal");
+    String executionId = runtimeService.createExecutionQuery().activityId("signalCatch").singleResult().getId();
+
+    // when/then
+    assertThatThrownBy(() -> runtimeService.createSignalEvent(SIGNAL_NAME).executionId(executionId).sendAsync())
+        .isInstanceOf(BadUserRequestException.class)
+        .hasMessageContaining("Cannot deliver a signal asynchronously to a single execution");
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void shouldWriteUserOperationLog() {
+    // given
+    testRule.deploy(CATCH_PROCESS);
+    runtimeService.startProcessInstanceByKey("catchSignal");
+
+    // when
+    engineRule.getIdentityService().setAuthenticatedUserId("demo");
+    Batch batch = runtimeService.createSignalEvent(SIGNAL_NAME).sendAsync();
+    engineRule.getIdentityService().clearAuthentication();
+    batchRule.syncExec(batch);
+
+    // then
+    assertThat(engineRule.getHistoryService().createUserOperationLogQuery()
+        .operationType(UserOperationLogEntry.OPERATION_TYPE_SEND_SIGNAL)
+        .property("signalName")
+        .singleResult()
+        .getNewValue()).isEqualTo(SIGNAL_NAME);
+  }
+
+}
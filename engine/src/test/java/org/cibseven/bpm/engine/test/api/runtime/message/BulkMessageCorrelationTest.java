@@ -0,0 +1,278 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.runtime.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cibseven.bpm.engine.MismatchingMessageCorrelationException;
+import org.cibseven.bpm.engine.ProcessEngineException;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.TaskService;
+import org.cibseven.bpm.engine.exception.NotValidException;
+import org.cibseven.bpm.engine.runtime.BulkMessageCorrelationResult;
+import org.cibseven.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.cibseven.bpm.engine.runtime.MessageCorrelationResultType;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class BulkMessageCorrelationTest {
+
+  protected static final BpmnModelInstance TWO_MESSAGES_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .intermediateCatchEvent("first")
+        .message("first")
+      .intermediateCatchEvent("second")
+        .message("second")
+      .userTask("task")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance MESSAGE_START_PROCESS = Bpmn.createExecutableProcess("startProcess")
+      .startEvent()
+        .message("start")
+      .userTask("startedTask")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance FAILING_PROCESS = Bpmn.createExecutableProcess("failingProcess")
+      .startEvent()
+      .intermediateCatchEvent("fail")
+        .message("fail")
+      .serviceTask()
+        .camundaExpression("${unknownBean.call()}")
+      .userTask()
+      .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+
+    testRule.deploy(TWO_MESSAGES_PROCESS, MESSAGE_START_PROCESS);
+  }
+
+  @Test
+  public void shouldCorrelateMessagesByBusinessKey() {
+    // given
+    List<MessageCorrelationBuilder> messages = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      runtimeService.startProcessInstanceByKey("process", "key-" + i);
+      messages.add(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("key-" + i));
+    }
+
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .messages(messages)
+        .transactionSize(3)
+        .correlate();
+
+    // then
+    assertThat(results).hasSize(10).allMatch(BulkMessageCorrelationResult::isCorrelated);
+    for (int i = 0; i < 10; i++) {
+      ProcessInstance processInstance = results.get(i).getCorrelationResult().getProcessInstance();
+      assertThat(processInstance.getBusinessKey()).isEqualTo("key-" + i);
+      assertThat(runtimeService.getActiveActivityIds(processInstance.getId())).containsExactly("second");
+    }
+  }
+
+  @Test
+  public void shouldCorrelateMessageByProcessInstanceId() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    ProcessInstance otherProcessInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .message(runtimeService.createMessageCorrelation("first").processInstanceId(processInstance.getId()))
+        .correlate();
+
+    // then
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).getCorrelationResult().getResultType()).isEqualTo(MessageCorrelationResultType.Execution);
+    assertThat(runtimeService.getActiveActivityIds(processInstance.getId())).containsExactly("second");
+    assertThat(runtimeService.getActiveActivityIds(otherProcessInstance.getId())).containsExactly("first");
+  }
+
+  @Test
+  public void shouldReportMessagesThatDoNotMatch() {
+    // given
+    runtimeService.startProcessInstanceByKey("process", "key");
+
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .message(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("unknown"))
+        .message(runtimeService.createMessageCorrelation("second").processInstanceBusinessKey("key"))
+        .message(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("key"))
+        .correlate();
+
+    // then
+    assertThat(results).extracting(BulkMessageCorrelationResult::getMessageName).containsExactly("first", "second", "first");
+    assertThat(results).extracting(BulkMessageCorrelationResult::isCorrelated).containsExactly(false, false, true);
+    assertThat(results.get(0).getCorrelationResult()).isNull();
+  }
+
+  @Test
+  public void shouldCorrelateSuccessiveMessagesOfOneProcessInstance() {
+    // given
+    runtimeService.startProcessInstanceByKey("process", "key");
+
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .message(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("key"))
+        .message(runtimeService.createMessageCorrelation("second").processInstanceBusinessKey("key"))
+        .correlate();
+
+    // then
+    assertThat(results).allMatch(BulkMessageCorrelationResult::isCorrelated);
+    assertThat(taskService.createTaskQuery().taskDefinitionKey("task").count()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldStartProcessInstanceAndCorrelateToIt() {
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .message(runtimeService.createMessageCorrelation("start").processInstanceBusinessKey("key"))
+        .message(runtimeService.createMessageCorrelation("start").processInstanceBusinessKey("key").startMessageOnly())
+        .correlate();
+
+    // then
+    assertThat(results).allMatch(BulkMessageCorrelationResult::isCorrelated);
+    assertThat(results).extracting(result -> result.getCorrelationResult().getResultType())
+      .containsOnly(MessageCorrelationResultType.ProcessDefinition);
+    assertThat(taskService.createTaskQuery().taskDefinitionKey("startedTask").processInstanceBusinessKey("key").count()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldCorrelateMessageByVariables() {
+    // given
+    runtimeService.startProcessInstanceByKey("process", Variables.createVariables().putValue("orderId", "order-1"));
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("orderId", "order-2"));
+
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .message(runtimeService.createMessageCorrelation("first").processInstanceVariableEquals("orderId", "order-2"))
+        .message(runtimeService.createMessageCorrelation("first").processInstanceVariableEquals("orderId", "order-3"))
+        .correlate();
+
+    // then
+    assertThat(results).extracting(BulkMessageCorrelationResult::isCorrelated).containsExactly(true, false);
+    assertThat(runtimeService.getActiveActivityIds(processInstance.getId())).containsExactly("second");
+  }
+
+  @Test
+  public void shouldCorrelateMessageByVariableSetByEarlierMessage() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("orderId", "1"));
+
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .message(runtimeService.createMessageCorrelation("first")
+            .processInstanceVariableEquals("orderId", "1")
+            .setVariable("status", "paid"))
+        .message(runtimeService.createMessageCorrelation("second").processInstanceVariableEquals("status", "paid"))
+        .correlate();
+
+    // then
+    assertThat(results).extracting(BulkMessageCorrelationResult::isCorrelated).containsExactly(true, true);
+    assertThat(runtimeService.getActiveActivityIds(processInstance.getId())).containsExactly("task");
+  }
+
+  @Test
+  public void shouldReportAmbiguousMessageAsFailed() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", "key");
+    ProcessInstance otherProcessInstance = runtimeService.startProcessInstanceByKey("process", "other");
+    runtimeService.startProcessInstanceByKey("process", "duplicate");
+    runtimeService.startProcessInstanceByKey("process", "duplicate");
+
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .message(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("key"))
+        .message(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("duplicate"))
+        .message(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("other"))
+        .correlate();
+
+    // then
+    assertThat(results).extracting(BulkMessageCorrelationResult::isCorrelated).containsExactly(true, false, true);
+    assertThat(results).extracting(BulkMessageCorrelationResult::isFailed).containsExactly(false, true, false);
+    assertThat(results.get(1).getFailure()).isInstanceOf(MismatchingMessageCorrelationException.class);
+    assertThat(runtimeService.getActiveActivityIds(processInstance.getId())).containsExactly("second");
+    assertThat(runtimeService.getActiveActivityIds(otherProcessInstance.getId())).containsExactly("second");
+  }
+
+  @Test
+  public void shouldReportFailingDelegateAndKeepOtherMessagesOfTransaction() {
+    // given
+    testRule.deploy(FAILING_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", "key");
+    ProcessInstance failingProcessInstance = runtimeService.startProcessInstanceByKey("failingProcess", "failing");
+    ProcessInstance otherProcessInstance = runtimeService.startProcessInstanceByKey("process", "other");
+
+    // when
+    List<BulkMessageCorrelationResult> results = runtimeService.createBulkMessageCorrelation()
+        .message(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("key"))
+        .message(runtimeService.createMessageCorrelation("fail").processInstanceBusinessKey("failing"))
+        .message(runtimeService.createMessageCorrelation("first").processInstanceBusinessKey("other"))
+        .correlate();
+
+    // then
+    assertThat(results).extracting(BulkMessageCorrelationResult::getMessageName).containsExactly("first", "fail", "first");
+    assertThat(results).extracting(BulkMessageCorrelationResult::isFailed).containsExactly(false, true, false);
+    assertThat(results.get(1).getFailure()).isInstanceOf(ProcessEngineException.class);
+    assertThat(runtimeService.getActiveActivityIds(processInstance.getId())).containsExactly("second");
+    assertThat(runtimeService.getActiveActivityIds(failingProcessInstance.getId())).containsExactly("fail");
+    assertThat(runtimeService.getActiveActivityIds(otherProcessInstance.getId())).containsExactly("second");
+  }
+
+  @Test
+  public void shouldFailWithoutMessages() {
+    assertThatThrownBy(() -> runtimeService.createBulkMessageCorrelation().correlate())
+      .isInstanceOf(NotValidException.class);
+  }
+
+  @Test
+  public void shouldFailWithInvalidTransactionSize() {
+    assertThatThrownBy(() -> runtimeService.createBulkMessageCorrelation().transactionSize(0))
+      .isInstanceOf(NotValidException.class);
+  }
+
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.variables;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.session.Configuration;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.cibseven.bpm.engine.impl.util.ReflectUtil;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.runtime.VariableInstance;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ByteArrayDeduplicationTest {
+
+  protected static final BpmnModelInstance ONE_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done();
+
+  protected static final byte[] CONTENT = "{\"config\": \"shared\"}".getBytes();
+
+  @ClassRule
+  public static final ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(
+      c -> c.setEnableByteArrayDeduplication(true));
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected CommandExecutor commandExecutor;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    commandExecutor = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+
+    testRule.deploy(ONE_TASK_PROCESS);
+  }
+
+  @After
+  public void resetConfiguration() {
+    engineRule.getProcessEngineConfiguration().setEnableByteArrayDeduplication(true);
+  }
+
+  @Test
+  public void shouldShareByteArrayOfIdenticalValues() {
+    // when
+    startProcessInstance(CONTENT);
+    startProcessInstance(CONTENT);
+    startProcessInstance("other content".getBytes());
+
+    // then
+    List<VariableInstance> variables = runtimeService.createVariableInstanceQuery().variableName("config").list();
+    assertThat(variables).extracting(this::getByteArrayId).doesNotContainNull().hasSize(3);
+    assertThat(variables.stream().map(this::getByteArrayId).distinct()).hasSize(2);
+  }
+
+  @Test
+  public void shouldShareByteArrayOfValuesSetInOneCommand() {
+    // when
+    commandExecutor.execute(commandContext -> {
+      startProcessInstance(CONTENT);
+      startProcessInstance(CONTENT);
+      return null;
+    });
+
+    // then
+    List<VariableInstance> variables = runtimeService.createVariableInstanceQuery().variableName("config").list();
+    assertThat(variables).hasSize(2);
+    assertThat(getByteArrayId(variables.get(0))).isEqualTo(getByteArrayId(variables.get(1)));
+  }
+
+  @Test
+  public void shouldKeepSharedByteArrayWhenVariableIsRemoved() {
+    // given
+    ProcessInstance first = startProcessInstance(CONTENT);
+    ProcessInstance second = startProcessInstance(CONTENT);
+    String byteArrayId = getByteArrayId(runtimeService.createVariableInstanceQuery().processInstanceIdIn(first.getId()).singleResult());
+
+    // when
+    runtimeService.removeVariable(first.getId(), "config");
+
+    // then
+    assertThat(findByteArray(byteArrayId)).isNotNull();
+    assertThat((byte[]) runtimeService.getVariable(second.getId(), "config")).isEqualTo(CONTENT);
+  }
+
+  @Test
+  public void shouldDeleteByteArrayWhenLastReferenceIsRemoved() {
+    // given
+    ProcessInstance first = startProcessInstance(CONTENT);
+    ProcessInstance second = startProcessInstance(CONTENT);
+    String byteArrayId = getByteArrayId(runtimeService.createVariableInstanceQuery().processInstanceIdIn(first.getId()).singleResult());
+
+    // when
+    runtimeService.deleteProcessInstance(first.getId(), null);
+    runtimeService.deleteProcessInstance(second.getId(), null);
+
+    // then
+    assertThat(findByteArray(byteArrayId)).isNull();
+  }
+
+  @Test
+  public void shouldNotUpdateSharedByteArrayInPlace() {
+    // given
+    ProcessInstance first = startProcessInstance(CONTENT);
+    ProcessInstance second = startProcessInstance(CONTENT);
+
+    // when
+    runtimeService.setVariable(first.getId(), "config", "changed".getBytes());
+
+    // then
+    assertThat((byte[]) runtimeService.getVariable(first.getId(), "config")).isEqualTo("changed".getBytes());
+    assertThat((byte[]) runtimeService.getVariable(second.getId(), "config")).isEqualTo(CONTENT);
+  }
+
+  @Test
+  public void shouldNotUpdateSharedByteArrayInPlaceAfterDeduplicationIsDisabled() {
+    // given
+    ProcessInstance first = startProcessInstance(CONTENT);
+    ProcessInstance second = startProcessInstance(CONTENT);
+    engineRule.getProcessEngineConfiguration().setEnableByteArrayDeduplication(false);
+
+    // when
+    runtimeService.setVariable(first.getId(), "config", "changed".getBytes());
+
+    // then
+    assertThat((byte[]) runtimeService.getVariable(first.getId(), "config")).isEqualTo("changed".getBytes());
+    assertThat((byte[]) runtimeService.getVariable(second.getId(), "config")).isEqualTo(CONTENT);
+  }
+
+  @Test
+  public void shouldKeepSharedByteArrayWhenVariableIsRemovedAfterDeduplicationIsDisabled() {
+    // given
+    ProcessInstance first = startProcessInstance(CONTENT);
+    ProcessInstance second = startProcessInstance(CONTENT);
+    String byteArrayId = getByteArrayId(runtimeService.createVariableInstanceQuery().processInstanceIdIn(first.getId()).singleResult());
+    engineRule.getProcessEngineConfiguration().setEnableByteArrayDeduplication(false);
+
+    // when
+    runtimeService.removeVariable(first.getId(), "config");
+
+    // then
+    assertThat(findByteArray(byteArrayId)).isNotNull();
+    assertThat((byte[]) runtimeService.getVariable(second.getId(), "config")).isEqualTo(CONTENT);
+
+    // when
+    runtimeService.removeVariable(second.getId(), "config");
+
+    // then
+    assertThat(findByteArray(byteArrayId)).isNull();
+  }
+
+  @Test
+  public void shouldDeleteReplacedByteArrayThatIsNotShared() {
+    // given
+    ProcessInstance processInstance = startProcessInstance(CONTENT);
+    String byteArrayId = getByteArrayId(runtimeService.createVariableInstanceQuery().singleResult());
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "config", "changed".getBytes());
+
+    // then
+    assertThat(findByteArray(byteArrayId)).isNull();
+  }
+
+  @Test
+  public void shouldLockSharedByteArray() {
+    // given
+    startProcessInstance(CONTENT);
+    String byteArrayId = getByteArrayId(runtimeService.createVariableInstanceQuery().singleResult());
+
+    // when
+    boolean locked = commandExecutor.execute(commandContext -> commandContext
+        .getByteArrayManager()
+        .lockSharedByteArray(byteArrayId));
+
+    // then
+    assertThat(locked).isTrue();
+  }
+
+  @Test
+  public void shouldNotLockReleasedByteArray() {
+    // when
+    boolean locked = commandExecutor.execute(commandContext -> commandContext
+        .getByteArrayManager()
+        .lockSharedByteArray("released"));
+
+    // then
+    assertThat(locked).isFalse();
+  }
+
+  @Test
+  public void shouldTakeSharedLockToReuseByteArray() throws Exception {
+    assertThat(getLockStatement(DbSqlSessionFactory.POSTGRES, "lockByteArrayShared")).endsWith("for share");
+    assertThat(getLockStatement(DbSqlSessionFactory.MYSQL, "lockByteArrayShared")).endsWith("lock in share mode");
+    assertThat(getLockStatement(DbSqlSessionFactory.DB2, "lockByteArrayShared")).endsWith("keep share locks");
+    assertThat(getLockStatement(DbSqlSessionFactory.MSSQL, "lockByteArrayShared")).contains("with (holdlock, rowlock)");
+  }
+
+  @Test
+  public void shouldTakeExclusiveLockToReleaseByteArray() throws Exception {
+    assertThat(getLockStatement(DbSqlSessionFactory.POSTGRES, "lockByteArray")).endsWith("for update");
+    assertThat(getLockStatement(DbSqlSessionFactory.MYSQL, "lockByteArray")).endsWith("for update");
+    assertThat(getLockStatement(DbSqlSessionFactory.DB2, "lockByteArray")).endsWith("keep update locks");
+    assertThat(getLockStatement(DbSqlSessionFactory.MSSQL, "lockByteArray")).contains("with (xlock, rowlock)");
+  }
+
+  protected String getLockStatement(String databaseType, String statement) throws Exception {
+    Properties properties = new Properties();
+    properties.put("prefix", "");
+    ProcessEngineConfigurationImpl.initSqlSessionFactoryProperties(properties, "", databaseType);
+
+    Configuration mybatisConfiguration;
+    try (InputStreamReader reader = new InputStreamReader(
+        ReflectUtil.getResourceAsStream(ProcessEngineConfigurationImpl.DEFAULT_MYBATIS_MAPPING_FILE))) {
+      mybatisConfiguration = new XMLConfigBuilder(reader, "", properties).parse();
+    }
+
+    DbSqlSessionFactory dbSqlSessionFactory = new DbSqlSessionFactory(false);
+    dbSqlSessionFactory.setDatabaseType(databaseType);
+    return mybatisConfiguration.getMappedStatement(dbSqlSessionFactory.mapStatement(statement))
+        .getBoundSql("id")
+        .getSql()
+        .replaceAll("\\s+", " ")
+        .trim()
+        .toLowerCase();
+  }
+
+  protected ProcessInstance startProcessInstance(byte[] content) {
+    return runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("config", content));
+  }
+
+  protected String getByteArrayId(VariableInstance variable) {
+    return ((VariableInstanceEntity) variable).getByteArrayValueId();
+  }
+
+  protected ByteArrayEntity findByteArray(String byteArrayId) {
+    return commandExecutor.execute(commandContext -> commandContext
+        .getDbEntityManager()
+        .selectById(ByteArrayEntity.class, byteArrayId));
+  }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.variables;
+
+import static org.cibseven.bpm.engine.test.util.TypedValueAssert.assertObjectValueDeserialized;
+import static org.cibseven.bpm.engine.variable.Variables.objectValue;
+import static org.cibseven.bpm.engine.variable.Variables.serializedObjectValue;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cibseven.bpm.engine.ProcessEngineException;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
+import org.cibseven.bpm.engine.impl.variable.serializer.CompactJavaObjectSerializer;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.Deployment;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.engine.variable.value.ObjectValue;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class CompactJavaSerializationTest {
+
+  protected static final String ONE_TASK_PROCESS = "org/cibseven/bpm/engine/test/api/variables/oneTaskProcess.bpmn20.xml";
+
+  protected static final String COMPACT_DATA_FORMAT = CompactJavaObjectSerializer.SERIALIZATION_DATA_FORMAT;
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(configuration ->
+      configuration.setJavaSerializationFormatEnabled(true));
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  private RuntimeService runtimeService;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldStoreSmallObjectUncompressed() {
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    JavaSerializable javaSerializable = new JavaSerializable("foo");
+
+    // when
+    runtimeService.setVariable(instance.getId(), "simpleBean", objectValue(javaSerializable).serializationDataFormat(COMPACT_DATA_FORMAT).create());
+
+    // then
+    assertEquals(javaSerializable, runtimeService.getVariable(instance.getId(), "simpleBean"));
+
+    ObjectValue typedValue = runtimeService.getVariableTyped(instance.getId(), "simpleBean");
+    assertObjectValueDeserialized(typedValue, javaSerializable);
+    assertEquals(COMPACT_DATA_FORMAT, typedValue.getSerializationDataFormat());
+
+    byte[] serializedValue = Base64.decodeBase64(typedValue.getValueSerialized());
+    assertEquals((byte) 0xCB, serializedValue[0]);
+    assertEquals(0, serializedValue[1]);
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldCompressLargeObject() throws Exception {
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    JavaSerializable javaSerializable = new JavaSerializable(repeat("a large payload ", 1000));
+
+    // when
+    runtimeService.setVariable(instance.getId(), "largeBean", objectValue(javaSerializable).serializationDataFormat(COMPACT_DATA_FORMAT).create());
+
+    // then
+    assertEquals(javaSerializable, runtimeService.getVariable(instance.getId(), "largeBean"));
+
+    ObjectValue typedValue = runtimeService.getVariableTyped(instance.getId(), "largeBean", false);
+    byte[] serializedValue = Base64.decodeBase64(typedValue.getValueSerialized());
+    assertEquals((byte) 0xCB, serializedValue[0]);
+    assertEquals(1, serializedValue[1]);
+    assertTrue(serializedValue.length < javaSerialize(javaSerializable).length / 10);
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldSetSerializedCompactObject() {
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    JavaSerializable javaSerializable = new JavaSerializable(repeat("bar", 1000));
+    runtimeService.setVariable(instance.getId(), "bean", objectValue(javaSerializable).serializationDataFormat(COMPACT_DATA_FORMAT).create());
+    ObjectValue serializedValue = runtimeService.getVariableTyped(instance.getId(), "bean", false);
+
+    // when
+    runtimeService.setVariable(instance.getId(), "copy",
+        serializedObjectValue(serializedValue.getValueSerialized())
+        .serializationDataFormat(COMPACT_DATA_FORMAT)
+        .objectTypeName(JavaSerializable.class.getName())
+        .create());
+
+    // then
+    assertEquals(javaSerializable, runtimeService.getVariable(instance.getId(), "copy"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldUseJavaSerializationByDefault() {
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // when
+    runtimeService.setVariable(instance.getId(), "simpleBean", new JavaSerializable("foo"));
+
+    // then
+    ObjectValue typedValue = runtimeService.getVariableTyped(instance.getId(), "simpleBean");
+    assertEquals(JavaSerializationTest.JAVA_DATA_FORMAT, typedValue.getSerializationDataFormat());
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  @SuppressWarnings("unchecked")
+  public void shouldEncodeJsonLikeValue() {
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    Map<String, Object> nested = new HashMap<>();
+    nested.put("list", new ArrayList<>(Arrays.asList("a", 1, 2L, null)));
+    Map<String, Object> map = new HashMap<>();
+    map.put("string", "f\u00fc\u00fc");
+    map.put("integer", -42);
+    map.put("long", Long.MIN_VALUE);
+    map.put("double", 1.5d);
+    map.put("boolean", true);
+    map.put("null", null);
+    map.put("nested", nested);
+    map.put("bytes", new byte[] { 1, 2, 3 });
+
+    // when
+    runtimeService.setVariable(instance.getId(), "map", objectValue(map).serializationDataFormat(COMPACT_DATA_FORMAT).create());
+
+    // then
+    Map<String, Object> value = (Map<String, Object>) runtimeService.getVariable(instance.getId(), "map");
+    assertArrayEquals(new byte[] { 1, 2, 3 }, (byte[]) value.remove("bytes"));
+    map.remove("bytes");
+    assertEquals(map, value);
+    assertEquals(Integer.class, value.get("integer").getClass());
+    assertEquals(Long.class, ((List<Object>) ((Map<String, Object>) value.get("nested")).get("list")).get(2).getClass());
+
+    ObjectValue typedValue = runtimeService.getVariableTyped(instance.getId(), "map", false);
+    byte[] serializedValue = Base64.decodeBase64(typedValue.getValueSerialized());
+    assertEquals((byte) 0xCB, serializedValue[0]);
+    assertEquals(2, serializedValue[1]);
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldCompressLargeJsonLikeValue() {
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    List<Object> list = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      list.add("a large payload");
+    }
+
+    // when
+    runtimeService.setVariable(instance.getId(), "list", objectValue(list).serializationDataFormat(COMPACT_DATA_FORMAT).create());
+
+    // then
+    assertEquals(list, runtimeService.getVariable(instance.getId(), "list"));
+
+    ObjectValue typedValue = runtimeService.getVariableTyped(instance.getId(), "list", false);
+    byte[] serializedValue = Base64.decodeBase64(typedValue.getValueSerialized());
+    assertEquals(3, serializedValue[1]);
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldRejectCorruptCompressedLength() {
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] corruptValue = new byte[] { (byte) 0xCB, 1, (byte) 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x63, 0x00 };
+    runtimeService.setVariable(instance.getId(), "corrupt",
+        serializedObjectValue(new String(Base64.encodeBase64(corruptValue)))
+        .serializationDataFormat(COMPACT_DATA_FORMAT)
+        .objectTypeName(JavaSerializable.class.getName())
+        .create());
+
+    // when/then
+    assertThatThrownBy(() -> runtimeService.getVariable(instance.getId(), "corrupt"))
+      .isInstanceOf(ProcessEngineException.class)
+      .hasStackTraceContaining("Compressed value has an invalid length of 2147483647 bytes");
+  }
+
+  protected static String repeat(String value, int times) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      builder.append(value);
+    }
+    return builder.toString();
+  }
+
+  protected static byte[] javaSerialize(Object object) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    new ObjectOutputStream(baos).writeObject(object);
+    return baos.toByteArray();
+  }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.variables;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.cibseven.bpm.engine.runtime.Execution;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class FetchVariablesByNameTest {
+
+  protected static final BpmnModelInstance ONE_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance PARALLEL_TASKS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+        .userTask("task1")
+        .endEvent()
+      .moveToNode("fork")
+        .userTask("task2")
+        .endEvent()
+      .done();
+
+  @ClassRule
+  public static final ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(
+      c -> c.setEnableFetchVariablesByName(true));
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected CommandExecutor commandExecutor;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    commandExecutor = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+  }
+
+  @Test
+  public void shouldFetchOnlyAccessedVariable() {
+    // given
+    testRule.deploy(ONE_TASK_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("a", "valueA")
+        .putValue("b", "valueB")
+        .putValue("c", "valueC"));
+
+    commandExecutor.execute(commandContext -> {
+      ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstance.getId());
+
+      // when
+      Object value = execution.getVariable("a");
+
+      // then
+      assertThat(value).isEqualTo("valueA");
+      assertThat(execution.hasVariable("unknown")).isFalse();
+      List<VariableInstanceEntity> loadedVariables = commandContext.getDbEntityManager().getCachedEntitiesByType(VariableInstanceEntity.class);
+      assertThat(loadedVariables).extracting("name").containsExactly("a");
+
+      // when all variables are accessed
+      assertThat(execution.getVariables()).containsOnlyKeys("a", "b", "c");
+
+      // then the fetched variable is reused
+      assertThat(execution.getVariableInstanceLocal("a")).isSameAs(loadedVariables.get(0));
+      return null;
+    });
+  }
+
+  @Test
+  public void shouldFetchVariableOfParentScope() {
+    // given
+    testRule.deploy(PARALLEL_TASKS_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("a", "valueA")
+        .putValue("b", "valueB"));
+    Execution childExecution = runtimeService.createExecutionQuery()
+        .processInstanceId(processInstance.getId())
+        .activityId("task1")
+        .singleResult();
+
+    commandExecutor.execute(commandContext -> {
+      ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(childExecution.getId());
+
+      // when
+      Object value = execution.getVariable("b");
+
+      // then
+      assertThat(value).isEqualTo("valueB");
+      assertThat(execution.hasVariableLocal("b")).isFalse();
+      assertThat(execution.hasVariable("b")).isTrue();
+      assertThat(commandContext.getDbEntityManager().getCachedEntitiesByType(VariableInstanceEntity.class))
+        .extracting("name").containsExactly("b");
+      return null;
+    });
+  }
+
+  @Test
+  public void shouldUpdateFetchedVariable() {
+    // given
+    testRule.deploy(ONE_TASK_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("a", "valueA")
+        .putValue("b", "valueB"));
+
+    // when
+    commandExecutor.execute(commandContext -> {
+      ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstance.getId());
+      assertThat(execution.getVariable("a")).isEqualTo("valueA");
+
+      execution.setVariable("a", "newValueA");
+      execution.setVariable("c", "valueC");
+      return null;
+    });
+
+    // then
+    assertThat(runtimeService.getVariables(processInstance.getId()))
+      .containsEntry("a", "newValueA")
+      .containsEntry("b", "valueB")
+      .containsEntry("c", "valueC")
+      .hasSize(3);
+  }
+
+}
@@ -32,6 +32,7 @@ import org.cibseven.bpm.engine.TaskService;
 import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.cibseven.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
 import org.cibseven.bpm.engine.impl.util.StringUtil;
+import org.cibseven.bpm.engine.impl.variable.serializer.CompactJavaObjectSerializer;
 import org.cibseven.bpm.engine.impl.variable.serializer.JavaObjectSerializer;
 import org.cibseven.bpm.engine.runtime.ProcessInstance;
 import org.cibseven.bpm.engine.task.Task;
@@ -120,6 +121,22 @@ public class JavaSerializationProhibitedTest {
 
   }
 
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testSetCompactJavaObjectSerialized() throws Exception {
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // when/then
+    assertThatThrownBy(() -> runtimeService.setVariable(instance.getId(), "simpleBean",
+        serializedObjectValue("any value")
+        .serializationDataFormat(CompactJavaObjectSerializer.SERIALIZATION_DATA_FORMAT)
+        .objectTypeName(JavaSerializable.class.getName())
+        .create()))
+      .isInstanceOf(ProcessEngineException.class)
+      .hasMessageContaining("Cannot set variable with name simpleBean. Java serialization format is prohibited");
+
+  }
+
   @Test
   @Deployment(resources = ONE_TASK_PROCESS)
   public void testSetJavaObjectSerializedEmptySerializationDataFormat() throws Exception {
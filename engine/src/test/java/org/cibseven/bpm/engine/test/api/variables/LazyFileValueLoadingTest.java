@@ -0,0 +1,160 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.api.variables;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.cibseven.bpm.engine.HistoryService;
+import org.cibseven.bpm.engine.ProcessEngineConfiguration;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.history.HistoricVariableInstance;
+import org.cibseven.bpm.engine.impl.util.IoUtil;
+import org.cibseven.bpm.engine.impl.variable.serializer.LazyFileValueImpl;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.RequiredHistoryLevel;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.cibseven.bpm.engine.variable.value.FileValue;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class LazyFileValueLoadingTest {
+
+  protected static final BpmnModelInstance ONE_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done();
+
+  protected static final byte[] CONTENT = "some file content".getBytes();
+
+  @ClassRule
+  public static final ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(
+      c -> c.setEnableLazyFileValueLoading(true));
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected HistoryService historyService;
+
+  protected ProcessInstance processInstance;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    historyService = engineRule.getHistoryService();
+
+    testRule.deploy(ONE_TASK_PROCESS);
+    processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("file", Variables.fileValue("file.txt")
+            .file(CONTENT)
+            .mimeType("text/plain")
+            .encoding("UTF-8")
+            .create()));
+  }
+
+  @Test
+  public void shouldNotFetchContentWhenReadingVariable() {
+    // when
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    // then
+    assertThat(fileValue).isInstanceOf(LazyFileValueImpl.class);
+    assertThat(((LazyFileValueImpl) fileValue).isLoaded()).isFalse();
+    assertThat(fileValue.getFilename()).isEqualTo("file.txt");
+    assertThat(fileValue.getMimeType()).isEqualTo("text/plain");
+    assertThat(fileValue.getEncoding()).isEqualTo("UTF-8");
+    assertThat(((LazyFileValueImpl) fileValue).isLoaded()).isFalse();
+  }
+
+  @Test
+  public void shouldFetchContentOnAccess() {
+    // given
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    // when
+    byte[] content = IoUtil.readInputStream(fileValue.getValue(), "file");
+
+    // then
+    assertThat(content).isEqualTo(CONTENT);
+    assertThat(((LazyFileValueImpl) fileValue).isLoaded()).isTrue();
+  }
+
+  @Test
+  public void shouldCopyLazyFileValue() {
+    // given
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "copy", fileValue);
+
+    // then
+    FileValue copy = runtimeService.getVariableTyped(processInstance.getId(), "copy");
+    assertThat(copy.getFilename()).isEqualTo("file.txt");
+    assertThat(IoUtil.readInputStream(copy.getValue(), "copy")).isEqualTo(CONTENT);
+  }
+
+  @Test
+  public void shouldSerializeWithContent() throws Exception {
+    // given
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    // when
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    new ObjectOutputStream(baos).writeObject(fileValue);
+    Object deserialized = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+
+    // then
+    assertThat(deserialized).isNotInstanceOf(LazyFileValueImpl.class);
+    FileValue deserializedFileValue = (FileValue) deserialized;
+    assertThat(deserializedFileValue.getFilename()).isEqualTo("file.txt");
+    assertThat(IoUtil.readInputStream(deserializedFileValue.getValue(), "file")).isEqualTo(CONTENT);
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_AUDIT)
+  public void shouldFetchHistoricContentOnAccess() {
+    // given
+    HistoricVariableInstance historicVariable = historyService.createHistoricVariableInstanceQuery()
+        .variableName("file")
+        .singleResult();
+
+    // when
+    FileValue fileValue = (FileValue) historicVariable.getTypedValue();
+
+    // then
+    assertThat(((LazyFileValueImpl) fileValue).isLoaded()).isFalse();
+    assertThat(IoUtil.readInputStream(fileValue.getValue(), "file")).isEqualTo(CONTENT);
+  }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.bpmn.event.conditional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+import org.cibseven.bpm.engine.ProcessEngineException;
+import org.cibseven.bpm.engine.RepositoryService;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.impl.persistence.deploy.cache.ConditionalStartEventCache;
+import org.cibseven.bpm.engine.repository.Deployment;
+import org.cibseven.bpm.engine.repository.ProcessDefinition;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.cibseven.bpm.model.bpmn.builder.ConditionalEventDefinitionBuilder;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ConditionalStartEventCacheTest {
+
+  protected static final String TENANT_ONE = "tenant1";
+
+  @ClassRule
+  public static final ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(
+      c -> c.setConditionalStartEventCacheEnabled(true));
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+  protected ConditionalStartEventCache cache;
+
+  @Before
+  public void init() {
+    repositoryService = engineRule.getRepositoryService();
+    runtimeService = engineRule.getRuntimeService();
+    cache = engineRule.getProcessEngineConfiguration().getConditionalStartEventCache();
+    cache.invalidate();
+  }
+
+  @Test
+  public void shouldStartProcessInstanceByCachedSubscription() {
+    // given
+    testRule.deploy(createProcess("process", null, "${foo == 1}"));
+
+    // when
+    List<ProcessInstance> instances = runtimeService.createConditionEvaluation()
+      .setVariable("foo", 1)
+      .evaluateStartConditions();
+
+    // then
+    assertThat(instances).hasSize(1);
+    assertThat(cache.get()).isNotNull();
+
+    // and the cached subscription is used by the next evaluation
+    assertThat(runtimeService.createConditionEvaluation()
+      .setVariable("foo", 2)
+      .evaluateStartConditions()).isEmpty();
+    assertThat(runtimeService.createConditionEvaluation()
+      .setVariable("foo", 1)
+      .evaluateStartConditions()).hasSize(1);
+  }
+
+  @Test
+  public void shouldGroupSubscriptionsByVariableName() {
+    // given
+    testRule.deploy(
+        createProcess("fooProcess", "foo", "${true}"),
+        createProcess("barProcess", "bar", "${true}"),
+        createProcess("anyProcess", null, "${true}"));
+
+    // when
+    List<ProcessInstance> instances = runtimeService.createConditionEvaluation()
+      .setVariable("foo", 1)
+      .evaluateStartConditions();
+
+    // then
+    assertThat(instances).extracting(this::getProcessDefinitionKey)
+      .containsExactlyInAnyOrder("fooProcess", "anyProcess");
+
+    ConditionalStartEventCache.TenantSubscriptions subscriptions = cache.get().getSubscriptions(null);
+    assertThat(subscriptions.getSubscriptions(Collections.singleton("foo")))
+      .extracting(ConditionalStartEventCache.Subscription::getVariableName)
+      .containsExactlyInAnyOrder("foo", null);
+    assertThat(subscriptions.getSubscriptions(Collections.emptySet()))
+      .extracting(ConditionalStartEventCache.Subscription::getVariableName)
+      .containsExactly((String) null);
+  }
+
+  @Test
+  public void shouldInvalidateOnNewVersion() {
+    // given
+    testRule.deploy(createProcess("process", null, "${true}"));
+    runtimeService.createConditionEvaluation().evaluateStartConditions();
+
+    // when
+    Deployment deployment = testRule.deploy(createProcess("process", null, "${true}"));
+
+    // then
+    ProcessDefinition latestDefinition = repositoryService.createProcessDefinitionQuery()
+      .deploymentId(deployment.getId())
+      .singleResult();
+    List<ProcessInstance> instances = runtimeService.createConditionEvaluation().evaluateStartConditions();
+    assertThat(instances).extracting(ProcessInstance::getProcessDefinitionId)
+      .containsExactly(latestDefinition.getId());
+  }
+
+  @Test
+  public void shouldInvalidateOnDeploymentDeletion() {
+    // given
+    testRule.deploy(createProcess("process", null, "${true}"));
+    Deployment deployment = repositoryService.createDeployment()
+      .addModelInstance("otherProcess.bpmn", createProcess("otherProcess", null, "${true}"))
+      .deploy();
+    assertThat(runtimeService.createConditionEvaluation().evaluateStartConditions()).hasSize(2);
+
+    // when
+    repositoryService.deleteDeployment(deployment.getId(), true);
+
+    // then
+    assertThat(runtimeService.createConditionEvaluation().evaluateStartConditions())
+      .extracting(this::getProcessDefinitionKey)
+      .containsExactly("process");
+  }
+
+  @Test
+  public void shouldFailWithoutSubscriptions() {
+    // given
+    Deployment deployment = repositoryService.createDeployment()
+      .addModelInstance("process.bpmn", createProcess("process", null, "${true}"))
+      .deploy();
+    runtimeService.createConditionEvaluation().evaluateStartConditions();
+
+    // when
+    repositoryService.deleteDeployment(deployment.getId(), true);
+
+    // then
+    assertThatThrownBy(() -> runtimeService.createConditionEvaluation().evaluateStartConditions())
+      .isInstanceOf(ProcessEngineException.class)
+      .hasMessageContaining("No subscriptions were found during evaluation of the conditional start events.");
+  }
+
+  @Test
+  public void shouldSkipSuspendedProcessDefinition() {
+    // given
+    testRule.deploy(createProcess("process", null, "${true}"));
+    runtimeService.createConditionEvaluation().evaluateStartConditions();
+
+    // when
+    repositoryService.suspendProcessDefinitionByKey("process");
+
+    // then
+    assertThat(runtimeService.createConditionEvaluation().evaluateStartConditions()).isEmpty();
+  }
+
+  @Test
+  public void shouldSkipProcessDefinitionSuspendedByAnotherNode() {
+    // given
+    testRule.deploy(
+        createProcess("process", null, "${true}"),
+        createProcess("otherProcess", null, "${true}"));
+    assertThat(runtimeService.createConditionEvaluation().evaluateStartConditions()).hasSize(2);
+
+    // when the suspension is not seen by the caches of this node
+    engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(commandContext -> {
+      try (Statement statement = commandContext.getDbSqlSession().getSqlSession().getConnection().createStatement()) {
+        statement.executeUpdate("update ACT_RE_PROCDEF set SUSPENSION_STATE_ = 2, REV_ = REV_ + 1 where KEY_ = 'process'");
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+      return null;
+    });
+
+    // then
+    assertThat(runtimeService.createConditionEvaluation().evaluateStartConditions())
+      .extracting(this::getProcessDefinitionKey)
+      .containsExactly("otherProcess");
+  }
+
+  @Test
+  public void shouldFilterByTenantId() {
+    // given
+    testRule.deploy(createProcess("process", null, "${true}"));
+    testRule.deployForTenant(TENANT_ONE, createProcess("tenantProcess", null, "${true}"));
+
+    // when
+    List<ProcessInstance> tenantInstances = runtimeService.createConditionEvaluation()
+      .tenantId(TENANT_ONE)
+      .evaluateStartConditions();
+    List<ProcessInstance> instancesWithoutTenant = runtimeService.createConditionEvaluation()
+      .withoutTenantId()
+      .evaluateStartConditions();
+
+    // then
+    assertThat(tenantInstances).extracting(this::getProcessDefinitionKey)
+      .containsExactly("tenantProcess");
+    assertThat(instancesWithoutTenant).extracting(this::getProcessDefinitionKey)
+      .containsExactly("process");
+    assertThat(runtimeService.createConditionEvaluation().evaluateStartConditions()).hasSize(2);
+  }
+
+  protected BpmnModelInstance createProcess(String processKey, String variableName, String condition) {
+    ConditionalEventDefinitionBuilder conditionalEventDefinition = Bpmn.createExecutableProcess(processKey)
+      .startEvent()
+        .conditionalEventDefinition()
+          .condition(condition);
+    if (variableName != null) {
+      conditionalEventDefinition.camundaVariableName(variableName);
+    }
+    return conditionalEventDefinition
+        .conditionalEventDefinitionDone()
+      .userTask()
+      .endEvent()
+      .done();
+  }
+
+  protected String getProcessDefinitionKey(ProcessInstance processInstance) {
+    return repositoryService.getProcessDefinition(processInstance.getProcessDefinitionId()).getKey();
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.cibseven.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.cibseven.bpm.engine.impl.interceptor.CommandContext;
+import org.cibseven.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.cibseven.bpm.engine.test.Deployment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Two job acquisitions that run concurrently with
+ * {@link org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#isJobExecutorAcquireWithSkipLocked()}
+ * enabled claim disjoint sets of jobs instead of competing for the same ones.
+ */
+public class CompetingJobAcquisitionSkipLockedTest extends ConcurrencyTestCase {
+
+  @Before
+  public void enableSkipLocked() {
+    processEngineConfiguration.setJobExecutorAcquireWithSkipLocked(true);
+  }
+
+  @After
+  public void disableSkipLocked() {
+    processEngineConfiguration.setJobExecutorAcquireWithSkipLocked(false);
+  }
+
+  @Test
+  @Deployment(resources = "org/cibseven/bpm/engine/test/concurrency/CompetingJobAcquisitionTest.testCompetingJobAcquisitions.bpmn20.xml")
+  public void shouldAcquireDisjointJobs() {
+    // given
+    runtimeService.startProcessInstanceByKey("CompetingJobAcquisitionProcess");
+    runtimeService.startProcessInstanceByKey("CompetingJobAcquisitionProcess");
+
+    JobExecutor jobExecutor = processEngineConfiguration.getJobExecutor();
+
+    // when
+    // the first acquisition locks one of the jobs and does not commit yet
+    ControlledAcquireJobsCmd acquireJobsOne = new ControlledAcquireJobsCmd(jobExecutor);
+    ThreadControl acquisitionOne = executeControllableCommand(acquireJobsOne);
+    acquisitionOne.waitForSync();
+
+    // the second acquisition skips the locked job
+    ControlledAcquireJobsCmd acquireJobsTwo = new ControlledAcquireJobsCmd(jobExecutor);
+    ThreadControl acquisitionTwo = executeControllableCommand(acquireJobsTwo);
+    acquisitionTwo.waitForSync();
+
+    acquisitionOne.waitUntilDone();
+    acquisitionTwo.waitUntilDone();
+
+    // then
+    assertThat(acquisitionOne.getException()).isNull();
+    assertThat(acquisitionTwo.getException()).isNull();
+
+    AcquiredJobs jobsOne = acquireJobsOne.acquiredJobs;
+    AcquiredJobs jobsTwo = acquireJobsTwo.acquiredJobs;
+
+    assertThat(jobsOne.size()).isEqualTo(1);
+    assertThat(jobsTwo.size()).isEqualTo(1);
+    assertThat(jobsOne.getJobIdBatches()).doesNotContainAnyElementsOf(jobsTwo.getJobIdBatches());
+  }
+
+  protected static class ControlledAcquireJobsCmd extends ControllableCommand<Void> {
+
+    protected JobExecutor jobExecutor;
+    protected AcquiredJobs acquiredJobs;
+
+    public ControlledAcquireJobsCmd(JobExecutor jobExecutor) {
+      this.jobExecutor = jobExecutor;
+    }
+
+    @Override
+    public Void execute(CommandContext commandContext) {
+      acquiredJobs = new AcquireJobsCmd(jobExecutor, 1).execute(commandContext);
+
+      monitor.sync();
+
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+import org.cibseven.bpm.engine.HistoryService;
+import org.cibseven.bpm.engine.ProcessEngineConfiguration;
+import org.cibseven.bpm.engine.ProcessEngineException;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.TaskService;
+import org.cibseven.bpm.engine.history.HistoricActivityInstance;
+import org.cibseven.bpm.engine.history.HistoricProcessInstance;
+import org.cibseven.bpm.engine.history.HistoricTaskInstance;
+import org.cibseven.bpm.engine.history.HistoricVariableInstance;
+import org.cibseven.bpm.engine.impl.HistoricProcessInstanceQueryImpl;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.persistence.entity.HistoryEventOutboxEntity;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.task.Task;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.RequiredHistoryLevel;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class AsyncDbHistoryTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .camundaHistoryTimeToLive(5)
+      .startEvent("start")
+      .userTask("userTask")
+      .endEvent("end")
+      .done();
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(configuration -> {
+    configuration.setAsyncDbHistoryEnabled(true);
+    configuration.setAsyncDbHistoryQueryConsistency(true);
+    // the tests write the outbox themselves
+    configuration.setAsyncDbHistoryWriterActivate(false);
+  });
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl engineConfig;
+  protected CommandExecutor commandExecutor;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+  protected String historyRemovalTimeStrategy;
+
+  @Before
+  public void setUp() {
+    engineConfig = engineRule.getProcessEngineConfiguration();
+    commandExecutor = engineConfig.getCommandExecutorTxRequired();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    historyService = engineRule.getHistoryService();
+    historyRemovalTimeStrategy = engineConfig.getHistoryRemovalTimeStrategy();
+
+    testRule.deploy(PROCESS);
+  }
+
+  @After
+  public void tearDown() {
+    // the history has to be written before the deployment and its history are deleted
+    engineConfig.getHistoryEventOutboxWriter().writeAll();
+
+    engineConfig.setAsyncDbHistoryWriterBatchSize(100);
+    engineConfig.setAsyncDbHistoryWriterRetries(3);
+    engineConfig.setHistoryRemovalTimeStrategy(historyRemovalTimeStrategy);
+  }
+
+  @Test
+  public void shouldWriteHistoryToOutbox() {
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertThat(getOutboxEntryCount()).isEqualTo(1L);
+    // a query that bypasses the history service does not see the history
+    assertThat(new HistoricProcessInstanceQueryImpl(commandExecutor).processInstanceId(processInstance.getId()).count()).isZero();
+
+    completeTask(processInstance);
+  }
+
+  @Test
+  public void shouldWriteOutboxBeforeHistoryQuery() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+
+    // then
+    assertThat(historicProcessInstance).isNotNull();
+    assertThat(historicProcessInstance.getStartTime()).isNotNull();
+    assertThat(historicProcessInstance.getEndTime()).isNull();
+    assertThat(getOutboxEntryCount()).isZero();
+
+    completeTask(processInstance);
+  }
+
+  @Test
+  public void shouldWriteHistoryOfSeveralTransactions() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "aValue");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "anotherValue");
+
+    // when
+    completeTask(processInstance);
+
+    // then
+    assertThat(getOutboxEntryCount()).isEqualTo(4L);
+
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertThat(historicProcessInstance.getStartTime()).isNotNull();
+    assertThat(historicProcessInstance.getEndTime()).isNotNull();
+    assertThat(historicProcessInstance.getState()).isEqualTo(HistoricProcessInstance.STATE_COMPLETED);
+
+    List<HistoricActivityInstance> activityInstances = historyService.createHistoricActivityInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .list();
+    assertThat(activityInstances).hasSize(3);
+    for (HistoricActivityInstance activityInstance : activityInstances) {
+      assertThat(activityInstance.getStartTime()).isNotNull();
+      assertThat(activityInstance.getEndTime()).isNotNull();
+    }
+
+    HistoricTaskInstance historicTask = historyService.createHistoricTaskInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertThat(historicTask.getStartTime()).isNotNull();
+    assertThat(historicTask.getEndTime()).isNotNull();
+
+    HistoricVariableInstance historicVariable = historyService.createHistoricVariableInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertThat(historicVariable.getValue()).isEqualTo("anotherValue");
+    assertThat(historyService.createHistoricDetailQuery().processInstanceId(processInstance.getId()).count()).isEqualTo(2L);
+
+    assertThat(getOutboxEntryCount()).isZero();
+  }
+
+  @Test
+  public void shouldWriteOutboxInBatches() {
+    // given
+    engineConfig.setAsyncDbHistoryWriterBatchSize(2);
+    for (int i = 0; i < 5; i++) {
+      completeTask(runtimeService.startProcessInstanceByKey("process"));
+    }
+
+    // when
+    long finishedProcessInstances = historyService.createHistoricProcessInstanceQuery().finished().count();
+
+    // then
+    assertThat(finishedProcessInstances).isEqualTo(5L);
+    assertThat(getOutboxEntryCount()).isZero();
+  }
+
+  @Test
+  public void shouldProvideRemovalTimeOnProcessInstanceEnd() {
+    // given
+    engineConfig.setHistoryRemovalTimeStrategy(ProcessEngineConfiguration.HISTORY_REMOVAL_TIME_STRATEGY_END);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    completeTask(processInstance);
+
+    // then
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertThat(historicProcessInstance.getRemovalTime()).isNotNull();
+
+    HistoricTaskInstance historicTask = historyService.createHistoricTaskInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertThat(historicTask.getRemovalTime()).isEqualTo(historicProcessInstance.getRemovalTime());
+  }
+
+  @Test
+  public void shouldProvideRemovalTimeOnProcessInstanceStart() {
+    // given
+    engineConfig.setHistoryRemovalTimeStrategy(ProcessEngineConfiguration.HISTORY_REMOVAL_TIME_STRATEGY_START);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    completeTask(processInstance);
+
+    // then
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertThat(historicProcessInstance.getRemovalTime()).isNotNull();
+
+    HistoricTaskInstance historicTask = historyService.createHistoricTaskInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertThat(historicTask.getRemovalTime()).isEqualTo(historicProcessInstance.getRemovalTime());
+  }
+
+  @Test
+  public void shouldOrderOutboxEntriesBySequenceCounter() {
+    // given
+    ProcessInstance first = runtimeService.startProcessInstanceByKey("process");
+    ProcessInstance second = runtimeService.startProcessInstanceByKey("process");
+    ProcessInstance third = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    List<HistoryEventOutboxEntity> entries = commandExecutor.execute(commandContext ->
+        commandContext.getHistoryEventOutboxManager().findHistoryEventOutboxEntries(10));
+
+    // then
+    assertThat(entries).hasSize(3);
+    assertThat(entries.get(0).getSequenceCounter()).isLessThan(entries.get(1).getSequenceCounter());
+    assertThat(entries.get(1).getSequenceCounter()).isLessThan(entries.get(2).getSequenceCounter());
+    assertThat(entries.get(0).getHistoryEvents().get(0).getProcessInstanceId()).isEqualTo(first.getId());
+    assertThat(entries.get(1).getHistoryEvents().get(0).getProcessInstanceId()).isEqualTo(second.getId());
+    assertThat(entries.get(2).getHistoryEvents().get(0).getProcessInstanceId()).isEqualTo(third.getId());
+  }
+
+  @Test
+  public void shouldRetryFailingEntryBeforeLaterEntries() {
+    // given
+    HistoryEventOutboxEntity failingEntry = insertUndeserializableEntry();
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    engineConfig.getHistoryEventOutboxWriter().writeAll();
+
+    // then
+    assertThat(getFailureCount(failingEntry)).isEqualTo(1);
+    assertThat(getOutboxEntryCount()).isEqualTo(2L);
+
+    deleteOutboxEntry(failingEntry);
+    completeTask(processInstance);
+  }
+
+  @Test
+  public void shouldSkipEntryThatFailedRepeatedly() {
+    // given
+    engineConfig.setAsyncDbHistoryWriterRetries(2);
+    HistoryEventOutboxEntity failingEntry = insertUndeserializableEntry();
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    engineConfig.getHistoryEventOutboxWriter().writeAll();
+
+    // when
+    engineConfig.getHistoryEventOutboxWriter().writeAll();
+
+    // then
+    assertThat(getFailureCount(failingEntry)).isEqualTo(2);
+    assertThat(getOutboxEntryCount()).isEqualTo(1L);
+    assertThat(new HistoricProcessInstanceQueryImpl(commandExecutor).processInstanceId(processInstance.getId()).count()).isEqualTo(1L);
+
+    deleteOutboxEntry(failingEntry);
+    completeTask(processInstance);
+  }
+
+  @Test
+  public void shouldOnlyDeserializeHistoryEvents() throws Exception {
+    // given
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new ArrayList<>(Collections.singletonList(new HashMap<String, String>())));
+    }
+    HistoryEventOutboxEntity entry = new HistoryEventOutboxEntity();
+    entry.setBytes(bytes.toByteArray());
+
+    // when/then
+    assertThatThrownBy(entry::getHistoryEvents)
+        .isInstanceOf(ProcessEngineException.class)
+        .hasMessageContaining("java.util.HashMap");
+  }
+
+  @Test
+  public void shouldNotWriteOutboxBeforeHistoryQueryByDefault() {
+    assertThat(new StandaloneInMemProcessEngineConfiguration().isAsyncDbHistoryQueryConsistency()).isFalse();
+  }
+
+  protected void completeTask(ProcessInstance processInstance) {
+    Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+    taskService.complete(task.getId());
+  }
+
+  protected HistoryEventOutboxEntity insertUndeserializableEntry() {
+    return commandExecutor.execute(commandContext -> {
+      HistoryEventOutboxEntity entry = new HistoryEventOutboxEntity();
+      entry.setCreateTime(new Date());
+      entry.setBytes("not a history event".getBytes());
+      commandContext.getDbEntityManager().insert(entry);
+      return entry;
+    });
+  }
+
+  protected int getFailureCount(HistoryEventOutboxEntity entry) {
+    return commandExecutor.execute(commandContext -> commandContext.getDbEntityManager()
+        .selectById(HistoryEventOutboxEntity.class, entry.getId())
+        .getFailureCount());
+  }
+
+  protected void deleteOutboxEntry(HistoryEventOutboxEntity entry) {
+    commandExecutor.execute(commandContext -> {
+      commandContext.getHistoryEventOutboxManager().deleteHistoryEventOutboxEntry(entry);
+      return null;
+    });
+  }
+
+  protected long getOutboxEntryCount() {
+    return commandExecutor.execute(commandContext -> commandContext.getHistoryEventOutboxManager().findHistoryEventOutboxEntryCount());
+  }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.jobexecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationListener;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationService;
+import org.cibseven.bpm.engine.impl.cluster.ClusterNotificationType;
+import org.cibseven.bpm.engine.impl.cluster.JdbcPollingClusterNotificationService;
+import org.cibseven.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ClusterNotificationServiceTest {
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl configuration;
+  protected RecordingClusterNotificationService recordingService;
+
+  protected JdbcPollingClusterNotificationService localNode;
+  protected JdbcPollingClusterNotificationService remoteNode;
+  protected List<ClusterNotificationType> receivedNotifications;
+
+  @Before
+  public void setUp() {
+    configuration = engineRule.getProcessEngineConfiguration();
+    recordingService = new RecordingClusterNotificationService();
+    configuration.setClusterNotificationService(recordingService);
+
+    receivedNotifications = new CopyOnWriteArrayList<>();
+    localNode = new JdbcPollingClusterNotificationService();
+    localNode.setPollIntervalInMillis(20);
+    localNode.addListener(receivedNotifications::add);
+    remoteNode = new JdbcPollingClusterNotificationService();
+    remoteNode.setPollIntervalInMillis(20);
+  }
+
+  @After
+  public void tearDown() {
+    configuration.setClusterNotificationService(null);
+
+    localNode.stop();
+    remoteNode.stop();
+    configuration.getCommandExecutorTxRequired().execute(commandContext -> {
+      for (ClusterNotificationType type : ClusterNotificationType.values()) {
+        PropertyEntity property = commandContext.getPropertyManager()
+            .findPropertyById(JdbcPollingClusterNotificationService.PROPERTY_NAME_PREFIX + type.getName());
+        if (property != null) {
+          commandContext.getPropertyManager().delete(property);
+        }
+      }
+      return null;
+    });
+  }
+
+  @Test
+  public void shouldPublishJobAddedAfterCommit() {
+    // given
+    BpmnModelInstance process = Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .userTask().camundaAsyncBefore()
+        .endEvent()
+        .done();
+    testRule.deploy(process);
+
+    // when
+    engineRule.getRuntimeService().startProcessInstanceByKey("process");
+
+    // then
+    assertThat(recordingService.published).containsExactly(ClusterNotificationType.JOB_ADDED);
+  }
+
+  @Test
+  public void shouldPublishExternalTaskAvailableAfterCommit() {
+    // given
+    BpmnModelInstance process = Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .serviceTask().camundaExternalTask("topic")
+        .endEvent()
+        .done();
+    testRule.deploy(process);
+
+    // when
+    engineRule.getRuntimeService().startProcessInstanceByKey("process");
+
+    // then
+    assertThat(recordingService.published).containsExactly(ClusterNotificationType.EXTERNAL_TASK_AVAILABLE);
+  }
+
+  @Test
+  public void shouldNotPublishOnRollback() {
+    // given
+    BpmnModelInstance process = Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .serviceTask().camundaAsyncBefore().camundaExpression("${true}")
+        .serviceTask().camundaExpression("${unknownBean.fail()}")
+        .endEvent()
+        .done();
+    testRule.deploy(process);
+    engineRule.getRuntimeService().startProcessInstanceByKey("process");
+    recordingService.published.clear();
+    String jobId = engineRule.getManagementService().createJobQuery().singleResult().getId();
+
+    // when
+    try {
+      engineRule.getManagementService().executeJob(jobId);
+    } catch (RuntimeException e) {
+      // expected
+    }
+
+    // then
+    assertThat(recordingService.published).isEmpty();
+  }
+
+  @Test
+  public void shouldReceiveNotificationOfOtherNode() throws InterruptedException {
+    // given
+    localNode.start(configuration);
+    remoteNode.start(configuration);
+    waitForConnection(localNode);
+    waitForConnection(remoteNode);
+
+    // when
+    remoteNode.publish(ClusterNotificationType.JOB_ADDED);
+
+    // then
+    waitForNotifications(1);
+    assertThat(receivedNotifications).containsExactly(ClusterNotificationType.JOB_ADDED);
+  }
+
+  @Test
+  public void shouldCoalesceNotificationsOfSameType() throws InterruptedException {
+    // given
+    localNode.start(configuration);
+    waitForConnection(localNode);
+
+    // when
+    remoteNode.publish(ClusterNotificationType.EXTERNAL_TASK_AVAILABLE);
+    remoteNode.publish(ClusterNotificationType.EXTERNAL_TASK_AVAILABLE);
+    remoteNode.start(configuration);
+
+    // then
+    waitForNotifications(1);
+    Thread.sleep(200);
+    assertThat(receivedNotifications).containsExactly(ClusterNotificationType.EXTERNAL_TASK_AVAILABLE);
+  }
+
+  @Test
+  public void shouldNotReceiveOwnNotification() throws InterruptedException {
+    // given
+    localNode.start(configuration);
+    waitForConnection(localNode);
+
+    // when
+    localNode.publish(ClusterNotificationType.JOB_ADDED);
+
+    // then
+    Thread.sleep(200);
+    assertThat(receivedNotifications).isEmpty();
+  }
+
+  @Test
+  public void shouldUpdatePropertyAtMostOncePerPollInterval() throws InterruptedException {
+    // given
+    JdbcPollingClusterNotificationService node = new JdbcPollingClusterNotificationService();
+    node.setPollIntervalInMillis(1000);
+    node.start(configuration);
+    try {
+      waitForConnection(node);
+      int initialRevision = getRevision(ClusterNotificationType.JOB_ADDED);
+      node.publish(ClusterNotificationType.JOB_ADDED);
+      waitForRevision(ClusterNotificationType.JOB_ADDED, initialRevision + 1);
+
+      // when
+      for (int i = 0; i < 5; i++) {
+        node.publish(ClusterNotificationType.JOB_ADDED);
+      }
+
+      // then the notifications are sent with the next poll as one update
+      Thread.sleep(200);
+      assertThat(getRevision(ClusterNotificationType.JOB_ADDED)).isEqualTo(initialRevision + 1);
+      waitForRevision(ClusterNotificationType.JOB_ADDED, initialRevision + 2);
+      Thread.sleep(200);
+      assertThat(getRevision(ClusterNotificationType.JOB_ADDED)).isEqualTo(initialRevision + 2);
+    }
+    finally {
+      node.stop();
+    }
+  }
+
+  protected int getRevision(ClusterNotificationType type) {
+    return configuration.getCommandExecutorTxRequired().execute(commandContext -> commandContext.getPropertyManager()
+        .findPropertyById(JdbcPollingClusterNotificationService.PROPERTY_NAME_PREFIX + type.getName())
+        .getRevision());
+  }
+
+  protected void waitForRevision(ClusterNotificationType type, int revision) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 10000;
+    while (getRevision(type) < revision && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+  }
+
+  protected void waitForConnection(JdbcPollingClusterNotificationService service) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 10000;
+    while (!service.isConnected() && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+  }
+
+  protected void waitForNotifications(int count) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 10000;
+    while (receivedNotifications.size() < count && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+  }
+
+  public static class RecordingClusterNotificationService implements ClusterNotificationService {
+
+    protected List<ClusterNotificationType> published = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void start(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public void publish(ClusterNotificationType type) {
+      published.add(type);
+    }
+
+    @Override
+    public void addListener(ClusterNotificationListener listener) {
+    }
+
+    @Override
+    public void removeListener(ClusterNotificationListener listener) {
+    }
+  }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.jobexecutor;
+
+import static org.cibseven.bpm.engine.test.util.ClockTestUtil.incrementClock;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.session.Configuration;
+import org.cibseven.bpm.engine.impl.QueryOrderingProperty;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.cibseven.bpm.engine.impl.db.ListQueryParameterObject;
+import org.cibseven.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.cibseven.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.cibseven.bpm.engine.impl.persistence.entity.AcquirableJobEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.JobManager;
+import org.cibseven.bpm.engine.impl.util.ReflectUtil;
+import org.cibseven.bpm.engine.runtime.Job;
+import org.cibseven.bpm.engine.test.Deployment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobExecutorAcquireJobsWithSkipLockedTest extends AbstractJobExecutorAcquireJobsTest {
+
+  @Before
+  public void prepareProcessEngineConfiguration() {
+    configuration.setJobExecutorAcquireWithSkipLocked(true);
+  }
+
+  @After
+  public void resetProcessEngineConfiguration() {
+    configuration.setJobExecutorAcquireWithSkipLocked(false);
+  }
+
+  @Test
+  public void testProcessEngineConfiguration() {
+    assertTrue(configuration.isJobExecutorAcquireWithSkipLocked());
+    assertFalse(configuration.isJobExecutorAcquireByPriority());
+  }
+
+  @Test
+  @Deployment(resources = "org/cibseven/bpm/engine/test/jobexecutor/simpleAsyncProcess.bpmn20.xml")
+  public void testAcquisitionIsLimitedToPage() {
+    startProcess("simpleAsyncProcess", "servicetask1", 5);
+
+    AcquiredJobs acquiredJobs = configuration.getCommandExecutorTxRequired()
+        .execute(new AcquireJobsCmd(configuration.getJobExecutor(), 3));
+
+    assertEquals(3, acquiredJobs.size());
+    assertEquals(0, acquiredJobs.getNumberOfJobsFailedToLock());
+
+    // the acquired jobs are locked and not acquirable anymore
+    List<AcquirableJobEntity> acquirableJobs = findAcquirableJobs();
+    assertEquals(2, acquirableJobs.size());
+    for (AcquirableJobEntity acquirableJob : acquirableJobs) {
+      assertFalse(acquiredJobs.contains(acquirableJob.getId()));
+    }
+  }
+
+  @Test
+  @Deployment(resources = {
+    "org/cibseven/bpm/engine/test/jobexecutor/jobPrioProcess.bpmn20.xml",
+    "org/cibseven/bpm/engine/test/jobexecutor/timerJobPrioProcess.bpmn20.xml"
+  })
+  public void testAcquisitionByPriority() {
+    configuration.setJobExecutorAcquireByPriority(true);
+
+    // jobs with priority 5
+    startProcess("jobPrioProcess", "task2", 3);
+
+    // jobs with priority 10
+    startProcess("jobPrioProcess", "task1", 3);
+
+    // jobs with priority 8
+    startProcess("timerJobPrioProcess", "timer1", 3);
+
+    // make timers due
+    incrementClock(61);
+
+    List<AcquirableJobEntity> acquirableJobs = findAcquirableJobs();
+    assertEquals(9, acquirableJobs.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(10, findJobById(acquirableJobs.get(i).getId()).getPriority());
+    }
+
+    for (int i = 3; i < 6; i++) {
+      assertEquals(8, findJobById(acquirableJobs.get(i).getId()).getPriority());
+    }
+
+    for (int i = 6; i < 9; i++) {
+      assertEquals(5, findJobById(acquirableJobs.get(i).getId()).getPriority());
+    }
+  }
+
+  @Test
+  @Deployment(resources = "org/cibseven/bpm/engine/test/jobexecutor/simpleAsyncProcess.bpmn20.xml")
+  public void testSuspendedJobsAreNotAcquired() {
+    startProcess("simpleAsyncProcess", "servicetask1", 2);
+
+    Job job = managementService.createJobQuery().listPage(0, 1).get(0);
+    managementService.suspendJobById(job.getId());
+
+    List<AcquirableJobEntity> acquirableJobs = findAcquirableJobs();
+    assertEquals(1, acquirableJobs.size());
+    assertFalse(job.getId().equals(acquirableJobs.get(0).getId()));
+  }
+
+  @Test
+  public void testOracleStatementLocksOrderedRowsInOneQueryBlock() throws Exception {
+    Configuration mybatisConfiguration = parseMappings(DbSqlSessionFactory.ORACLE);
+
+    List<QueryOrderingProperty> orderingProperties = new ArrayList<>();
+    orderingProperties.add(JobManager.JOB_PRIORITY_ORDERING_PROPERTY);
+    orderingProperties.add(JobManager.JOB_DUEDATE_ORDERING_PROPERTY);
+
+    Map<String, Object> params = new HashMap<>();
+    params.put("now", new Date());
+    params.put("alwaysSetDueDate", false);
+    params.put("deploymentAware", false);
+    params.put("historyCleanupEnabled", true);
+    params.put("orderingProperties", orderingProperties);
+    params.put("applyOrdering", true);
+    params.put("applyExclusiveOverProcessHierarchies", false);
+    ListQueryParameterObject parameter = new ListQueryParameterObject(params, 0, 3);
+
+    String sql = mybatisConfiguration.getMappedStatement("selectNextJobsToExecuteSkipLocked_oracle")
+        .getBoundSql(parameter)
+        .getSql()
+        .replaceAll("\\s+", " ")
+        .toLowerCase();
+
+    // the rows are limited while they are fetched, not by a subquery that ignores locked rows
+    assertFalse(sql, sql.contains("rownum"));
+    assertTrue(sql, sql.matches(".*order by res\\.priority_ desc, res\\.duedate_ asc for update skip locked\\s*"));
+  }
+
+  protected Configuration parseMappings(String databaseType) throws Exception {
+    Properties properties = new Properties();
+    properties.put("prefix", "");
+    ProcessEngineConfigurationImpl.initSqlSessionFactoryProperties(properties, "", databaseType);
+
+    try (InputStreamReader reader = new InputStreamReader(
+        ReflectUtil.getResourceAsStream(ProcessEngineConfigurationImpl.DEFAULT_MYBATIS_MAPPING_FILE))) {
+      return new XMLConfigBuilder(reader, "", properties).parse();
+    }
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.jobexecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.impl.jobexecutor.GetTimersDueInLookaheadCmd;
+import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.cibseven.bpm.engine.impl.persistence.entity.AcquirableJobEntity;
+import org.cibseven.bpm.engine.impl.util.ClockUtil;
+import org.cibseven.bpm.engine.runtime.Job;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class TimerWheelJobAcquisitionTest {
+
+  protected static final BpmnModelInstance TIMER_PROCESS = Bpmn.createExecutableProcess("timerProcess")
+      .startEvent()
+      .intermediateCatchEvent("timer")
+        .timerWithDuration("PT1S")
+      .userTask("afterTimer")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected JobExecutor jobExecutor;
+
+  protected int defaultWaitTime;
+  protected long defaultMaxWait;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    jobExecutor = engineRule.getProcessEngineConfiguration().getJobExecutor();
+
+    defaultWaitTime = jobExecutor.getWaitTimeInMillis();
+    defaultMaxWait = jobExecutor.getMaxWait();
+
+    // without the timer wheel, the timer would only be acquired after this wait time
+    jobExecutor.setWaitTimeInMillis(30000);
+    jobExecutor.setMaxWait(30000);
+    jobExecutor.setTimerWheelEnabled(true);
+
+    testRule.deploy(TIMER_PROCESS);
+  }
+
+  @After
+  public void tearDown() {
+    jobExecutor.shutdown();
+    jobExecutor.setWaitTimeInMillis(defaultWaitTime);
+    jobExecutor.setMaxWait(defaultMaxWait);
+    jobExecutor.setTimerWheelEnabled(false);
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldFireTimerCreatedWhileJobExecutorIsRunning() throws InterruptedException {
+    // given
+    jobExecutor.start();
+    // wait until the acquisition is idle
+    Thread.sleep(200);
+
+    // when
+    runtimeService.startProcessInstanceByKey("timerProcess");
+
+    // then
+    waitForTimer(5000);
+    assertThat(runtimeService.createExecutionQuery().activityId("afterTimer").count()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldFireTimerFetchedInLookaheadWindow() throws InterruptedException {
+    // given a timer that is created before the job executor is started
+    runtimeService.startProcessInstanceByKey("timerProcess");
+
+    // when
+    jobExecutor.start();
+
+    // then
+    waitForTimer(5000);
+    assertThat(runtimeService.createExecutionQuery().activityId("afterTimer").count()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotUseTimerWheelWhenDisabled() {
+    // given
+    jobExecutor.setTimerWheelEnabled(false);
+
+    // when
+    jobExecutor.start();
+
+    // then
+    assertThat(jobExecutor.getTimerWheel()).isNull();
+  }
+
+  @Test
+  public void shouldFetchAtMostMaxTimersPerLookahead() {
+    // given timers that become due one after the other
+    Date start = ClockUtil.getCurrentTime();
+    for (int i = 0; i < 5; i++) {
+      ClockUtil.setCurrentTime(new Date(start.getTime() + i * 100));
+      runtimeService.startProcessInstanceByKey("timerProcess");
+    }
+    ClockUtil.setCurrentTime(start);
+    List<Date> dueDates = engineRule.getManagementService().createJobQuery().timers().orderByJobDuedate().asc().list()
+        .stream()
+        .map(Job::getDuedate)
+        .collect(Collectors.toList());
+
+    // when
+    List<AcquirableJobEntity> timers = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired()
+        .execute(new GetTimersDueInLookaheadCmd(new Date(start.getTime() + 60000), 3));
+
+    // then the earliest timers are fetched
+    assertThat(timers).extracting(AcquirableJobEntity::getDuedate).containsExactlyElementsOf(dueDates.subList(0, 3));
+  }
+
+  protected void waitForTimer(long timeout) throws InterruptedException {
+    long end = System.currentTimeMillis() + timeout;
+    while (runtimeService.createExecutionQuery().activityId("afterTimer").count() == 0
+        && System.currentTimeMillis() < end) {
+      Thread.sleep(50);
+    }
+  }
+
+}
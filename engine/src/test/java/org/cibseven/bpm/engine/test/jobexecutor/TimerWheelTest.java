@@ -0,0 +1,130 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.jobexecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.cibseven.bpm.engine.impl.jobexecutor.TimerWheel;
+import org.junit.Test;
+
+public class TimerWheelTest {
+
+  @Test
+  public void shouldExpireEntriesWhenDue() {
+    // given
+    TimerWheel timerWheel = new TimerWheel(100, 8, 0);
+    timerWheel.schedule("first", 250);
+    timerWheel.schedule("second", 400);
+
+    // then
+    assertThat(timerWheel.expire(200)).isEmpty();
+    assertThat(timerWheel.expire(300)).containsExactly("first");
+    assertThat(timerWheel.expire(350)).isEmpty();
+    assertThat(timerWheel.expire(400)).containsExactly("second");
+    assertThat(timerWheel.size()).isZero();
+  }
+
+  @Test
+  public void shouldRoundDueTimeUpToTick() {
+    // given
+    TimerWheel timerWheel = new TimerWheel(100, 8, 0);
+
+    // when
+    timerWheel.schedule("job", 250);
+
+    // then
+    assertThat(timerWheel.getNextDueTime()).isEqualTo(300);
+  }
+
+  @Test
+  public void shouldReturnNextDueTimeBeyondOneRevolution() {
+    // given
+    TimerWheel timerWheel = new TimerWheel(100, 8, 0);
+
+    // when
+    timerWheel.schedule("late", 2000);
+    timerWheel.schedule("later", 2900);
+
+    // then
+    assertThat(timerWheel.getNextDueTime()).isEqualTo(2000);
+    assertThat(timerWheel.expire(1000)).isEmpty();
+    assertThat(timerWheel.expire(2000)).containsExactly("late");
+    assertThat(timerWheel.getNextDueTime()).isEqualTo(2900);
+  }
+
+  @Test
+  public void shouldExpireAllDueEntriesAfterManyTicks() {
+    // given
+    TimerWheel timerWheel = new TimerWheel(100, 8, 0);
+    timerWheel.schedule("first", 100);
+    timerWheel.schedule("second", 700);
+    timerWheel.schedule("third", 1500);
+    timerWheel.schedule("fourth", 5000);
+
+    // when
+    assertThat(timerWheel.expire(3000)).containsExactlyInAnyOrderElementsOf(Arrays.asList("first", "second", "third"));
+
+    // then
+    assertThat(timerWheel.getNextDueTime()).isEqualTo(5000);
+  }
+
+  @Test
+  public void shouldReplaceEntryOfSameJob() {
+    // given
+    TimerWheel timerWheel = new TimerWheel(100, 8, 0);
+    timerWheel.schedule("job", 500);
+
+    // when
+    timerWheel.schedule("job", 200);
+
+    // then
+    assertThat(timerWheel.size()).isEqualTo(1);
+    assertThat(timerWheel.expire(200)).containsExactly("job");
+    assertThat(timerWheel.expire(500)).isEmpty();
+  }
+
+  @Test
+  public void shouldExpireOverdueEntryWithNextTick() {
+    // given
+    TimerWheel timerWheel = new TimerWheel(100, 8, 0);
+    timerWheel.expire(1000);
+
+    // when
+    timerWheel.schedule("overdue", 200);
+
+    // then
+    assertThat(timerWheel.getNextDueTime()).isEqualTo(1100);
+    assertThat(timerWheel.expire(1100)).isEqualTo(Collections.singletonList("overdue"));
+  }
+
+  @Test
+  public void shouldReturnNoDueTimeWhenEmpty() {
+    // given
+    TimerWheel timerWheel = new TimerWheel(100, 8, 0);
+    timerWheel.schedule("job", 300);
+
+    // when
+    timerWheel.clear();
+
+    // then
+    assertThat(timerWheel.getNextDueTime()).isEqualTo(-1);
+  }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.jobexecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.cibseven.bpm.engine.ProcessEngineException;
+import org.cibseven.bpm.engine.impl.ProcessEngineImpl;
+import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.cibseven.bpm.engine.impl.jobexecutor.RejectedJobsHandler;
+import org.cibseven.bpm.engine.impl.jobexecutor.VirtualThreadJobExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VirtualThreadJobExecutorTest {
+
+  protected BlockingVirtualThreadJobExecutor jobExecutor;
+  protected List<List<String>> rejectedBatches;
+
+  @Before
+  public void createJobExecutor() {
+    rejectedBatches = new CopyOnWriteArrayList<>();
+
+    jobExecutor = new BlockingVirtualThreadJobExecutor();
+    jobExecutor.setMaxConcurrentJobs(1);
+    jobExecutor.setRejectedJobsHandler(new RejectedJobsHandler() {
+      public void jobsRejected(List<String> jobIds, ProcessEngineImpl processEngine, JobExecutor jobExecutor) {
+        rejectedBatches.add(jobIds);
+      }
+    });
+  }
+
+  @After
+  public void shutdownJobExecutor() {
+    jobExecutor.release.countDown();
+    jobExecutor.shutdown();
+  }
+
+  @Test
+  public void shouldExecuteBatchOnVirtualThread() throws InterruptedException {
+    assumeVirtualThreadsSupported();
+
+    // given
+    jobExecutor.start();
+
+    // when
+    jobExecutor.executeJobs(Collections.singletonList("job"), null);
+
+    // then
+    assertThat(jobExecutor.started.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(jobExecutor.executingThreads).hasSize(1);
+    assertThat(jobExecutor.executingThreads.get(0)).startsWith(jobExecutor.getThreadNamePrefix());
+    assertThat(jobExecutor.getActiveJobExecutions()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldRejectBatchWhenConcurrencyLimitIsReached() throws InterruptedException {
+    assumeVirtualThreadsSupported();
+
+    // given
+    jobExecutor.start();
+    jobExecutor.executeJobs(Collections.singletonList("job1"), null);
+    assertThat(jobExecutor.started.await(10, TimeUnit.SECONDS)).isTrue();
+
+    // when
+    jobExecutor.executeJobs(Collections.singletonList("job2"), null);
+
+    // then
+    assertThat(rejectedBatches).containsExactly(Collections.singletonList("job2"));
+  }
+
+  @Test
+  public void shouldReleaseConcurrencyLimitWhenBatchIsDone() throws InterruptedException {
+    assumeVirtualThreadsSupported();
+
+    // given
+    jobExecutor.start();
+    jobExecutor.executeJobs(Collections.singletonList("job1"), null);
+    assertThat(jobExecutor.started.await(10, TimeUnit.SECONDS)).isTrue();
+
+    // when
+    jobExecutor.release.countDown();
+    assertThat(jobExecutor.finished.await(10, TimeUnit.SECONDS)).isTrue();
+    waitForNoActiveJobExecutions();
+
+    jobExecutor.executeJobs(Collections.singletonList("job2"), null);
+
+    // then
+    assertThat(rejectedBatches).isEmpty();
+  }
+
+  @Test
+  public void shouldFailToStartWithoutVirtualThreadSupport() {
+    assumeTrue(Runtime.version().feature() < 21);
+
+    assertThatThrownBy(() -> jobExecutor.start())
+      .isInstanceOf(ProcessEngineException.class)
+      .hasMessageContaining("Virtual threads are not supported");
+  }
+
+  @Test
+  public void shouldRejectBatchWithoutBeingStarted() {
+    // when
+    jobExecutor.executeJobs(Collections.singletonList("job"), null);
+
+    // then
+    assertThat(rejectedBatches).containsExactly(Collections.singletonList("job"));
+    assertThat(jobExecutor.getActiveJobExecutions()).isZero();
+  }
+
+  @Test
+  public void shouldStopWithoutBeingStarted() {
+    // when
+    jobExecutor.stopExecutingJobs();
+
+    // then no exception is thrown
+    assertThat(jobExecutor.isActive()).isFalse();
+  }
+
+  protected void assumeVirtualThreadsSupported() {
+    assumeTrue(Runtime.version().feature() >= 21);
+  }
+
+  protected void waitForNoActiveJobExecutions() throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 10000;
+    while (jobExecutor.getActiveJobExecutions() > 0 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+  }
+
+  public static class BlockingVirtualThreadJobExecutor extends VirtualThreadJobExecutor {
+
+    protected final CountDownLatch started = new CountDownLatch(1);
+    protected final CountDownLatch release = new CountDownLatch(1);
+    protected final CountDownLatch finished = new CountDownLatch(1);
+    protected final List<String> executingThreads = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void stopExecutingJobs() {
+      super.stopExecutingJobs();
+    }
+
+    @Override
+    public Runnable getExecuteJobsRunnable(List<String> jobIds, ProcessEngineImpl processEngine) {
+      return () -> {
+        executingThreads.add(Thread.currentThread().getName());
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        finished.countDown();
+      };
+    }
+  }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+
+import org.cibseven.bpm.engine.HistoryService;
+import org.cibseven.bpm.engine.ProcessEngineConfiguration;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.history.HistoricActivityInstance;
+import org.cibseven.bpm.engine.history.HistoricVariableInstance;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.db.DbEntity;
+import org.cibseven.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.cibseven.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.cibseven.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
+import org.cibseven.bpm.engine.impl.util.ReflectUtil;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.RequiredHistoryLevel;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class MultiRowHistoryInsertTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent("start")
+      .manualTask("task1")
+      .manualTask("task2")
+      .manualTask("task3")
+      .userTask("userTask")
+      .endEvent("end")
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl engineConfig;
+  protected DbSqlSessionFactory dbSqlSessionFactory;
+  protected RuntimeService runtimeService;
+  protected HistoryService historyService;
+
+  @Before
+  public void setUp() {
+    engineConfig = engineRule.getProcessEngineConfiguration();
+    dbSqlSessionFactory = engineConfig.getDbSqlSessionFactory();
+    runtimeService = engineRule.getRuntimeService();
+    historyService = engineRule.getHistoryService();
+
+    dbSqlSessionFactory.setJdbcMultiRowHistoryInserts(true);
+  }
+
+  @After
+  public void tearDown() {
+    dbSqlSessionFactory.setJdbcMultiRowHistoryInserts(engineConfig.isJdbcMultiRowHistoryInserts());
+  }
+
+  @Test
+  public void shouldInsertHistoricVariables() {
+    // given
+    testRule.deploy(PROCESS);
+    Map<String, Object> variables = createVariables(10);
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+
+    // then
+    assertVariableHistory(processInstance, variables);
+  }
+
+  @Test
+  public void shouldInsertMoreHistoricVariablesThanRowsPerStatement() {
+    // given
+    testRule.deploy(PROCESS);
+    Map<String, Object> variables = createVariables(DbSqlSessionFactory.MAXIMUM_ROWS_PER_MULTI_ROW_INSERT * 2 + 7);
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+
+    // then
+    assertVariableHistory(processInstance, variables);
+  }
+
+  @Test
+  public void shouldInsertHistoricActivityInstances() {
+    // given
+    testRule.deploy(PROCESS);
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    List<HistoricActivityInstance> activityInstances = historyService.createHistoricActivityInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .list();
+
+    assertThat(activityInstances)
+        .extracting(HistoricActivityInstance::getActivityId)
+        .containsExactlyInAnyOrder("start", "task1", "task2", "task3", "userTask");
+  }
+
+  @Test
+  public void shouldInsertHistoricVariableUpdates() {
+    // given
+    testRule.deploy(PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", createVariables(5));
+
+    // when
+    Map<String, Object> updatedVariables = new HashMap<>();
+    for (int i = 0; i < 5; i++) {
+      updatedVariables.put("var" + i, "updated" + i);
+    }
+    runtimeService.setVariables(processInstance.getId(), updatedVariables);
+
+    // then
+    assertVariableHistory(processInstance, updatedVariables);
+    assertThat(historyService.createHistoricDetailQuery()
+        .processInstanceId(processInstance.getId())
+        .variableUpdates()
+        .count()).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldInsertHistoricVariablesWithoutMultiRowInserts() {
+    // given
+    dbSqlSessionFactory.setJdbcMultiRowHistoryInserts(false);
+    testRule.deploy(PROCESS);
+    Map<String, Object> variables = createVariables(10);
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+
+    // then
+    assertVariableHistory(processInstance, variables);
+  }
+
+  @Test
+  public void shouldLimitRowsOfOracleInsertAllByColumns() throws Exception {
+    // given
+    DbSqlSessionFactory oracleSessionFactory = new DbSqlSessionFactory(true);
+    oracleSessionFactory.setDatabaseType(DbSqlSessionFactory.ORACLE);
+    oracleSessionFactory.setJdbcMultiRowHistoryInserts(true);
+    Configuration mybatisConfiguration = parseMappings(DbSqlSessionFactory.ORACLE);
+
+    // then
+    assertOracleInsertAllRows(oracleSessionFactory, mybatisConfiguration, HistoricActivityInstanceEventEntity.class, 47);
+    assertOracleInsertAllRows(oracleSessionFactory, mybatisConfiguration, HistoricVariableInstanceEntity.class, 41);
+    assertOracleInsertAllRows(oracleSessionFactory, mybatisConfiguration, HistoricVariableUpdateEventEntity.class, 35);
+  }
+
+  @Test
+  public void shouldNotLimitRowsOfOtherDatabasesByColumns() {
+    assertThat(dbSqlSessionFactory.getMaximumRowsPerMultiRowInsert(HistoricVariableUpdateEventEntity.class))
+        .isEqualTo(DbSqlSessionFactory.MAXIMUM_ROWS_PER_MULTI_ROW_INSERT);
+  }
+
+  protected void assertOracleInsertAllRows(DbSqlSessionFactory oracleSessionFactory, Configuration mybatisConfiguration,
+      Class<? extends DbEntity> entityType, int expectedRows) throws Exception {
+    int rows = oracleSessionFactory.getMaximumRowsPerMultiRowInsert(entityType);
+    assertThat(rows).isEqualTo(expectedRows);
+
+    List<DbEntity> entities = new ArrayList<>();
+    for (int i = 0; i < rows; i++) {
+      entities.add(entityType.getDeclaredConstructor().newInstance());
+    }
+    String statement = oracleSessionFactory.getMultiRowInsertStatement(entityType);
+    String sql = mybatisConfiguration.getMappedStatement(statement)
+        .getBoundSql(ParamNameResolver.wrapToMapIfCollection(entities, null))
+        .getSql();
+
+    int columns = 0;
+    Matcher intoClause = Pattern.compile("into\\s+\\S+\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE).matcher(sql);
+    while (intoClause.find()) {
+      columns += intoClause.group(1).split(",").length;
+    }
+    assertThat(columns).isEqualTo(rows * DbSqlSessionFactory.multiRowInsertColumns.get(entityType));
+    assertThat(columns).isLessThanOrEqualTo(DbSqlSessionFactory.MAXIMUM_COLUMNS_PER_ORACLE_INSERT_ALL);
+  }
+
+  protected Configuration parseMappings(String databaseType) throws Exception {
+    Properties properties = new Properties();
+    properties.put("prefix", "");
+    ProcessEngineConfigurationImpl.initSqlSessionFactoryProperties(properties, "", databaseType);
+
+    try (InputStreamReader reader = new InputStreamReader(
+        ReflectUtil.getResourceAsStream(ProcessEngineConfigurationImpl.DEFAULT_MYBATIS_MAPPING_FILE))) {
+      return new XMLConfigBuilder(reader, "", properties).parse();
+    }
+  }
+
+  protected Map<String, Object> createVariables(int count) {
+    Map<String, Object> variables = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      variables.put("var" + i, "value" + i);
+    }
+    return variables;
+  }
+
+  protected void assertVariableHistory(ProcessInstance processInstance, Map<String, Object> expectedVariables) {
+    List<HistoricVariableInstance> variableInstances = historyService.createHistoricVariableInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .list();
+
+    Map<String, Object> actualVariables = new HashMap<>();
+    for (HistoricVariableInstance variableInstance : variableInstances) {
+      actualVariables.put(variableInstance.getName(), variableInstance.getValue());
+    }
+    assertThat(actualVariables).isEqualTo(expectedVariables);
+
+    assertThat(historyService.createHistoricDetailQuery()
+        .processInstanceId(processInstance.getId())
+        .variableUpdates()
+        .count()).isGreaterThanOrEqualTo(expectedVariables.size());
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.cibseven.bpm.engine.ManagementService;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
+import org.cibseven.bpm.engine.impl.db.entitymanager.cache.SecondLevelEntityCache;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
+import org.cibseven.bpm.engine.management.JobDefinition;
+import org.cibseven.bpm.engine.test.ProcessEngineRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class SecondLevelEntityCacheTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask().camundaAsyncBefore().camundaExpression("${true}")
+      .endEvent()
+      .done();
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(configuration ->
+      configuration.setSecondLevelEntityCacheEnabled(true));
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected SecondLevelEntityCache secondLevelEntityCache;
+  protected CommandExecutor commandExecutor;
+  protected ManagementService managementService;
+  protected String jobDefinitionId;
+
+  @Before
+  public void setUp() {
+    ProcessEngineConfigurationImpl engineConfig = engineRule.getProcessEngineConfiguration();
+    secondLevelEntityCache = engineConfig.getSecondLevelEntityCache();
+    commandExecutor = engineConfig.getCommandExecutorTxRequired();
+    managementService = engineRule.getManagementService();
+
+    testRule.deploy(PROCESS);
+    jobDefinitionId = managementService.createJobDefinitionQuery().singleResult().getId();
+  }
+
+  @Test
+  public void shouldCacheEntitySelectedById() {
+    // when
+    JobDefinitionEntity jobDefinition = findJobDefinition();
+
+    // then
+    JobDefinitionEntity cachedJobDefinition = secondLevelEntityCache.get(JobDefinitionEntity.class, jobDefinitionId);
+    assertThat(cachedJobDefinition).isNotNull();
+    assertThat(cachedJobDefinition).isNotSameAs(jobDefinition);
+    assertThat(cachedJobDefinition.getRevision()).isEqualTo(jobDefinition.getRevision());
+  }
+
+  @Test
+  public void shouldReturnCopyOfCachedEntity() {
+    // given
+    JobDefinitionEntity jobDefinition = findJobDefinition();
+
+    // when
+    JobDefinitionEntity secondJobDefinition = findJobDefinition();
+
+    // then
+    assertThat(secondJobDefinition).isNotSameAs(jobDefinition);
+    assertThat(secondJobDefinition.getId()).isEqualTo(jobDefinitionId);
+    assertThat(secondJobDefinition.getActivityId()).isEqualTo(jobDefinition.getActivityId());
+  }
+
+  @Test
+  public void shouldInvalidateUpdatedEntity() {
+    // given
+    findJobDefinition();
+
+    // when
+    managementService.setOverridingJobPriorityForJobDefinition(jobDefinitionId, 42);
+
+    // then
+    assertThat(secondLevelEntityCache.get(JobDefinitionEntity.class, jobDefinitionId)).isNull();
+    assertThat(findJobDefinition().getOverridingJobPriority()).isEqualTo(42L);
+  }
+
+  @Test
+  public void shouldInvalidateEntitiesOfBulkUpdate() {
+    // given
+    findJobDefinition();
+
+    // when
+    managementService.suspendJobDefinitionByProcessDefinitionKey("process");
+
+    // then
+    assertThat(secondLevelEntityCache.get(JobDefinitionEntity.class, jobDefinitionId)).isNull();
+    assertThat(findJobDefinition().isSuspended()).isTrue();
+
+    JobDefinition jobDefinition = managementService.createJobDefinitionQuery().singleResult();
+    assertThat(jobDefinition.isSuspended()).isTrue();
+  }
+
+  @Test
+  public void shouldNotCacheEntitySelectedBeforeModification() {
+    // given
+    JobDefinitionEntity jobDefinition = findJobDefinition();
+    long modificationCount = secondLevelEntityCache.getModificationCount(JobDefinitionEntity.class);
+    secondLevelEntityCache.invalidate(JobDefinitionEntity.class, jobDefinitionId);
+
+    // when
+    secondLevelEntityCache.put(JobDefinitionEntity.class, jobDefinition, modificationCount);
+
+    // then
+    assertThat(secondLevelEntityCache.get(JobDefinitionEntity.class, jobDefinitionId)).isNull();
+  }
+
+  @Test
+  public void shouldExpireEntries() {
+    // given
+    SecondLevelEntityCache cache = new SecondLevelEntityCache(Collections.singleton(JobDefinitionEntity.class),
+        DbEntityCacheKeyMapping.defaultEntityCacheKeyMapping(), 10, -1);
+    JobDefinitionEntity jobDefinition = findJobDefinition();
+
+    // when
+    cache.put(JobDefinitionEntity.class, jobDefinition, cache.getModificationCount(JobDefinitionEntity.class));
+
+    // then
+    assertThat(cache.get(JobDefinitionEntity.class, jobDefinitionId)).isNull();
+  }
+
+  protected JobDefinitionEntity findJobDefinition() {
+    return commandExecutor.execute(commandContext -> commandContext.getJobDefinitionManager().findById(jobDefinitionId));
+  }
+
+}
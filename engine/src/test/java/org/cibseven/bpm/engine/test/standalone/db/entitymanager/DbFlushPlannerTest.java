@@ -0,0 +1,147 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.standalone.db.entitymanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.db.DbEntity;
+import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
+import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbFlushPlanner;
+import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.cibseven.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.cibseven.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.junit.Test;
+
+public class DbFlushPlannerTest {
+
+  protected DbFlushPlanner planner = new DbFlushPlanner(5);
+
+  @Test
+  public void shouldNotPartitionSmallFlush() {
+    // given
+    List<DbOperation> operations = new ArrayList<>();
+    addInserts(operations, ExecutionEntity.class, 2);
+    addInserts(operations, VariableInstanceEntity.class, 3);
+
+    // when
+    List<List<DbOperation>> parts = planner.partition(operations);
+
+    // then
+    assertThat(parts).containsExactly(operations);
+    assertThat(planner.countStatementBatches(parts)).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldNotSplitStatementRunThatFitsIntoPart() {
+    // given
+    List<DbOperation> operations = new ArrayList<>();
+    addInserts(operations, ExecutionEntity.class, 3);
+    addInserts(operations, VariableInstanceEntity.class, 4);
+    addInserts(operations, ByteArrayEntity.class, 1);
+
+    // when
+    List<List<DbOperation>> parts = planner.partition(operations);
+
+    // then
+    assertThat(parts).hasSize(2);
+    assertThat(parts.get(0)).containsExactlyElementsOf(operations.subList(0, 3));
+    assertThat(parts.get(1)).containsExactlyElementsOf(operations.subList(3, 8));
+    // a fixed partition into 5 + 3 operations would execute 4 statement batches
+    assertThat(planner.countStatementBatches(parts)).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldSplitStatementRunThatExceedsPart() {
+    // given
+    List<DbOperation> operations = new ArrayList<>();
+    addInserts(operations, ExecutionEntity.class, 1);
+    addInserts(operations, VariableInstanceEntity.class, 12);
+
+    // when
+    List<List<DbOperation>> parts = planner.partition(operations);
+
+    // then
+    assertThat(parts).hasSize(4);
+    assertThat(parts.get(0)).containsExactlyElementsOf(operations.subList(0, 1));
+    assertThat(parts.get(1)).containsExactlyElementsOf(operations.subList(1, 6));
+    assertThat(parts.get(2)).containsExactlyElementsOf(operations.subList(6, 11));
+    assertThat(parts.get(3)).containsExactlyElementsOf(operations.subList(11, 13));
+    assertThat(planner.countStatementBatches(parts)).isEqualTo(4);
+  }
+
+  @Test
+  public void shouldPreserveOrderOfOperations() {
+    // given
+    List<DbOperation> operations = new ArrayList<>();
+    addInserts(operations, ExecutionEntity.class, 4);
+    addInserts(operations, VariableInstanceEntity.class, 3);
+    addInserts(operations, ExecutionEntity.class, 2);
+    operations.add(new DbBulkOperation(DbOperationType.DELETE_BULK, ByteArrayEntity.class, "deleteByteArrays", "a"));
+    operations.add(new DbBulkOperation(DbOperationType.DELETE_BULK, ByteArrayEntity.class, "deleteByteArrays", "b"));
+
+    // when
+    List<List<DbOperation>> parts = planner.partition(operations);
+
+    // then
+    List<DbOperation> flattened = new ArrayList<>();
+    parts.forEach(flattened::addAll);
+    assertThat(flattened).containsExactlyElementsOf(operations);
+    assertThat(parts).allSatisfy(part -> assertThat(part).hasSizeLessThanOrEqualTo(5));
+    assertThat(planner.countStatementBatches(parts)).isEqualTo(4);
+  }
+
+  @Test
+  public void shouldDistinguishOperationTypes() {
+    // given
+    List<DbOperation> operations = new ArrayList<>();
+    addOperations(operations, DbOperationType.INSERT, VariableInstanceEntity.class, 2);
+    addOperations(operations, DbOperationType.UPDATE, VariableInstanceEntity.class, 2);
+    addOperations(operations, DbOperationType.DELETE, VariableInstanceEntity.class, 2);
+
+    // when
+    List<List<DbOperation>> parts = planner.partition(operations);
+
+    // then
+    assertThat(planner.countStatementBatches(parts)).isEqualTo(3);
+  }
+
+  protected void addInserts(List<DbOperation> operations, Class<? extends DbEntity> entityType, int count) {
+    addOperations(operations, DbOperationType.INSERT, entityType, count);
+  }
+
+  protected void addOperations(List<DbOperation> operations, DbOperationType type, Class<? extends DbEntity> entityType, int count) {
+    for (int i = 0; i < count; i++) {
+      DbEntityOperation operation = new DbEntityOperation();
+      operation.setOperationType(type);
+      try {
+        DbEntity entity = entityType.getDeclaredConstructor().newInstance();
+        entity.setId(entityType.getSimpleName() + operations.size());
+        operation.setEntity(entity);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException(e);
+      }
+      operations.add(operation);
+    }
+  }
+
+}
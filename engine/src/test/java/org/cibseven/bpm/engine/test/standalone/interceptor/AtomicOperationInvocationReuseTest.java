@@ -0,0 +1,141 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.engine.test.standalone.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.cibseven.bpm.engine.ManagementService;
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.runtime.Job;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.cibseven.bpm.engine.test.util.ProcessEngineTestRule;
+import org.cibseven.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.cibseven.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.cibseven.commons.testing.ProcessEngineLoggingRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+public class AtomicOperationInvocationReuseTest {
+
+  protected static final String CONTEXT_LOGGER = "org.cibseven.bpm.engine.context";
+  protected static final String INCREMENT_COUNTER = "${execution.setVariable('counter', counter + 1)}";
+  protected static final long STEPS = 30;
+
+  @ClassRule
+  public static final ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule(
+      c -> c.setEnableAtomicOperationInvocationReuse(true));
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  @Rule
+  public ProcessEngineLoggingRule loggingRule = new ProcessEngineLoggingRule()
+      .watch(CONTEXT_LOGGER)
+      .level(Level.DEBUG);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+  }
+
+  @Test
+  public void shouldExecuteStraightThroughProcess() {
+    // given
+    testRule.deploy(straightThroughProcess(false));
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("counter", 0L));
+
+    // then
+    assertThat(runtimeService.getVariable(processInstance.getId(), "counter")).isEqualTo(STEPS);
+  }
+
+  @Test
+  public void shouldExecuteAsynchronousContinuation() {
+    // given
+    testRule.deploy(straightThroughProcess(true));
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("counter", 0L));
+    assertThat(runtimeService.getVariable(processInstance.getId(), "counter")).isEqualTo(0L);
+
+    // when
+    Job job = managementService.createJobQuery().singleResult();
+    managementService.executeJob(job.getId());
+
+    // then
+    assertThat(runtimeService.getVariable(processInstance.getId(), "counter")).isEqualTo(STEPS);
+  }
+
+  @Test
+  public void shouldLogBpmnStackTraceOfFailedInvocation() {
+    // given
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+        .startEvent("start")
+        .manualTask("manualTask").name("Manual Task")
+        .serviceTask("failingTask").camundaExpression("${unknownBean.fail()}")
+        .endEvent()
+        .done());
+
+    // when
+    assertThatThrownBy(() -> runtimeService.startProcessInstanceByKey("process"))
+      .hasMessageContaining("unknownBean");
+
+    // then
+    List<ILoggingEvent> log = loggingRule.getFilteredLog(CONTEXT_LOGGER, "BPMN Stack Trace");
+    assertThat(log).hasSize(1);
+    assertThat(log.get(0).getFormattedMessage())
+      .contains("\tfailingTask (activity-execute, ")
+      .contains("\tfailingTask, name=failingTask\n\t  ^\n\t  |\n\tmanualTask, name=Manual Task\n\t  ^\n\t  |\n\tstart, name=start\n");
+  }
+
+  protected BpmnModelInstance straightThroughProcess(boolean asyncAfterStart) {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .camundaAsyncAfter(asyncAfterStart);
+
+    for (int i = 0; i < STEPS; i++) {
+      builder = builder.manualTask("task" + i)
+          .camundaExecutionListenerExpression("end", INCREMENT_COUNTER);
+    }
+
+    return builder.userTask("waitState")
+        .endEvent()
+        .done();
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.qa.performance.engine.jmh;
+
+import org.cibseven.bpm.engine.RuntimeService;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.runtime.ProcessInstance;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.cibseven.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Executes a straight-through process, i.e. a process without wait states,
+ * which only exercises the atomic operations of the PVM.
+ */
+@State(Scope.Benchmark)
+public class AtomicOperationBenchmark extends ProcessEngineBenchmark {
+
+  protected static final String PROCESS_KEY = "straightThrough";
+
+  @Param({"30"})
+  public int steps;
+
+  @Param({"false", "true"})
+  public boolean invocationReuse;
+
+  protected RuntimeService runtimeService;
+
+  @Override
+  protected void configure(ProcessEngineConfigurationImpl configuration) {
+    configuration.setEnableAtomicOperationInvocationReuse(invocationReuse);
+  }
+
+  @Setup(Level.Trial)
+  public void deployProcess() {
+    runtimeService = processEngine.getRuntimeService();
+
+    processEngine.getRepositoryService()
+      .createDeployment()
+      .addModelInstance("straightThrough.bpmn", createProcess(steps))
+      .deploy();
+  }
+
+  @Benchmark
+  public ProcessInstance startStraightThroughProcess() {
+    return runtimeService.startProcessInstanceByKey(PROCESS_KEY);
+  }
+
+  protected static BpmnModelInstance createProcess(int steps) {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess(PROCESS_KEY)
+        .startEvent();
+
+    for (int i = 0; i < steps; i++) {
+      builder = builder.manualTask("task" + i);
+    }
+
+    return builder.endEvent().done();
+  }
+
+}
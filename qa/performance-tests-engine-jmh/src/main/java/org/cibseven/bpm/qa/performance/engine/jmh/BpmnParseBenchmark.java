@@ -0,0 +1,112 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.qa.performance.engine.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.cibseven.bpm.engine.impl.bpmn.deployer.BpmnDeployer;
+import org.cibseven.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.cibseven.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.persistence.deploy.Deployer;
+import org.cibseven.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.cibseven.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.cibseven.bpm.model.bpmn.Bpmn;
+import org.cibseven.bpm.model.bpmn.BpmnModelInstance;
+import org.cibseven.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parses a process with service tasks, gateways and boundary events with the
+ * {@link BpmnParser} of the process engine. Nothing is deployed.
+ */
+@State(Scope.Benchmark)
+public class BpmnParseBenchmark extends ProcessEngineBenchmark {
+
+  @Param({"10", "100"})
+  public int tasks;
+
+  @Param({"true", "false"})
+  public boolean validateSchema;
+
+  protected byte[] bpmnXml;
+  protected BpmnParser bpmnParser;
+  protected DeploymentEntity deployment;
+  protected CommandExecutor commandExecutor;
+
+  @Setup(Level.Trial)
+  public void prepareParse() {
+    bpmnXml = Bpmn.convertToString(createProcess(tasks)).getBytes(StandardCharsets.UTF_8);
+
+    for (Deployer deployer : processEngineConfiguration.getDeployers()) {
+      if (deployer instanceof BpmnDeployer) {
+        bpmnParser = ((BpmnDeployer) deployer).getBpmnParser();
+      }
+    }
+
+    deployment = new DeploymentEntity();
+    deployment.setId("benchmark");
+
+    commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+  }
+
+  @Benchmark
+  public List<ProcessDefinitionEntity> parse() {
+    return commandExecutor.execute(commandContext -> {
+      BpmnParse bpmnParse = bpmnParser.createParse()
+          .sourceInputStream(new ByteArrayInputStream(bpmnXml))
+          .deployment(deployment)
+          .name("benchmark.bpmn");
+
+      if (!validateSchema) {
+        bpmnParse.setSchemaResource(null);
+      }
+
+      return bpmnParse.execute().getProcessDefinitions();
+    });
+  }
+
+  protected static BpmnModelInstance createProcess(int tasks) {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("parse")
+        .startEvent();
+
+    for (int i = 0; i < tasks; i++) {
+      builder = builder.exclusiveGateway("gateway" + i)
+          .condition("yes", "${true}")
+        .serviceTask("task" + i)
+          .camundaExpression("${execution.getId()}")
+          .camundaInputParameter("input", "${" + i + "}")
+        .boundaryEvent("timer" + i)
+          .timerWithDuration("PT1H")
+          .endEvent()
+        .moveToNode("gateway" + i)
+          .condition("no", "${false}")
+          .endEvent()
+        .moveToNode("task" + i);
+    }
+
+    return builder.endEvent().done();
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.qa.performance.engine.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cibseven.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.cibseven.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.cibseven.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Operations of the {@link DbEntityCache} as performed by a command which
+ * loads, looks up and flushes a number of executions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DbEntityCacheBenchmark {
+
+  @Param({"10", "1000"})
+  public int entities;
+
+  protected ExecutionEntity[] executions;
+  protected DbEntityCache filledCache;
+
+  @Setup(Level.Trial)
+  public void createEntities() {
+    executions = new ExecutionEntity[entities];
+    filledCache = new DbEntityCache();
+
+    for (int i = 0; i < entities; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId("execution" + i);
+      execution.setProcessInstanceId("execution0");
+      execution.setActivityId("activity" + i);
+      executions[i] = execution;
+
+      filledCache.putPersistent(execution);
+    }
+  }
+
+  @Benchmark
+  public DbEntityCache putPersistent() {
+    DbEntityCache cache = new DbEntityCache();
+    for (ExecutionEntity execution : executions) {
+      cache.putPersistent(execution);
+    }
+    return cache;
+  }
+
+  @Benchmark
+  public void get(Blackhole blackhole) {
+    for (ExecutionEntity execution : executions) {
+      blackhole.consume(filledCache.get(ExecutionEntity.class, execution.getId()));
+    }
+  }
+
+  @Benchmark
+  public List<ExecutionEntity> getEntitiesByType() {
+    return filledCache.getEntitiesByType(ExecutionEntity.class);
+  }
+
+  /**
+   * Determines the dirty entities like the flush of the entity manager.
+   */
+  @Benchmark
+  public int determineDirtyEntities() {
+    int dirtyEntities = 0;
+    for (CachedDbEntity cachedEntity : filledCache.getCachedEntities()) {
+      if (cachedEntity.isDirty()) {
+        dirtyEntities++;
+      }
+    }
+    return dirtyEntities;
+  }
+
+}
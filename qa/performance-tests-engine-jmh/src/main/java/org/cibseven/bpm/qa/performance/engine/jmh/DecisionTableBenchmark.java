@@ -0,0 +1,80 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.qa.performance.engine.jmh;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.cibseven.bpm.dmn.engine.DmnDecision;
+import org.cibseven.bpm.dmn.engine.DmnDecisionTableResult;
+import org.cibseven.bpm.dmn.engine.DmnEngine;
+import org.cibseven.bpm.dmn.engine.DmnEngineConfiguration;
+import org.cibseven.bpm.engine.variable.VariableMap;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluates a decision table with 51 rules with the default DMN engine,
+ * i.e. with FEEL input entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionTableBenchmark {
+
+  protected static final String DMN_RESOURCE = "org/cibseven/bpm/qa/performance/engine/jmh/discount.dmn";
+
+  @Param({"discountFirst", "discountCollect"})
+  public String decisionKey;
+
+  protected DmnEngine dmnEngine;
+  protected DmnDecision decision;
+  protected VariableMap variables;
+
+  @Setup(Level.Trial)
+  public void parseDecision() {
+    dmnEngine = DmnEngineConfiguration.createDefaultDmnEngineConfiguration().buildEngine();
+
+    InputStream inputStream = getClass().getClassLoader().getResourceAsStream(DMN_RESOURCE);
+    decision = dmnEngine.parseDecision(decisionKey, inputStream);
+
+    // matches a rule in the middle of the table
+    variables = Variables.createVariables()
+        .putValue("amount", 2650)
+        .putValue("category", "premium");
+  }
+
+  @Benchmark
+  public DmnDecisionTableResult evaluate() {
+    return dmnEngine.evaluateDecisionTable(decision, variables);
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.qa.performance.engine.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.el.Expression;
+import org.cibseven.bpm.engine.impl.el.ExpressionManager;
+import org.cibseven.bpm.engine.impl.el.StartProcessVariableScope;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Evaluates JUEL expressions with the expression manager of the process
+ * engine. Expressions are evaluated within a command, as the delegate
+ * interceptor requires a command context. To keep the overhead of the command
+ * small, each command evaluates the expression {@value #EVALUATIONS} times.
+ */
+@State(Scope.Benchmark)
+public class ExpressionBenchmark extends ProcessEngineBenchmark {
+
+  protected static final int EVALUATIONS = 100;
+
+  @Param({
+    "${order.amount > 100}",
+    "${order.customer.vip && order.amount > 100}",
+    "${order.getDiscount(10) * 2}"
+  })
+  public String expressionText;
+
+  protected ExpressionManager expressionManager;
+  protected Expression expression;
+  protected CommandExecutor commandExecutor;
+
+  @Override
+  protected void configure(ProcessEngineConfigurationImpl configuration) {
+    Map<Object, Object> beans = new HashMap<>();
+    beans.put("order", new Order(250, new Customer(true)));
+    configuration.setBeans(beans);
+  }
+
+  @Setup(Level.Trial)
+  public void createExpression() {
+    expressionManager = processEngineConfiguration.getExpressionManager();
+    expression = expressionManager.createExpression(expressionText);
+    commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVALUATIONS)
+  public Object evaluate() {
+    return commandExecutor.execute(commandContext -> {
+      Object value = null;
+      for (int i = 0; i < EVALUATIONS; i++) {
+        value = expression.getValue(StartProcessVariableScope.getSharedInstance());
+      }
+      return value;
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVALUATIONS)
+  public Object createAndEvaluate() {
+    return commandExecutor.execute(commandContext -> {
+      Object value = null;
+      for (int i = 0; i < EVALUATIONS; i++) {
+        value = expressionManager.createExpression(expressionText)
+            .getValue(StartProcessVariableScope.getSharedInstance());
+      }
+      return value;
+    });
+  }
+
+  public static class Order {
+
+    protected long amount;
+    protected Customer customer;
+
+    public Order(long amount, Customer customer) {
+      this.amount = amount;
+      this.customer = customer;
+    }
+
+    public long getAmount() {
+      return amount;
+    }
+
+    public Customer getCustomer() {
+      return customer;
+    }
+
+    public long getDiscount(int percent) {
+      return amount * percent / 100;
+    }
+
+  }
+
+  public static class Customer {
+
+    protected boolean vip;
+
+    public Customer(boolean vip) {
+      this.vip = vip;
+    }
+
+    public boolean isVip() {
+      return vip;
+    }
+
+  }
+
+}
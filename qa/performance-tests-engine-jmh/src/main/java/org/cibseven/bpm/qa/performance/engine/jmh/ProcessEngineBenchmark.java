@@ -0,0 +1,81 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.qa.performance.engine.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cibseven.bpm.engine.ProcessEngine;
+import org.cibseven.bpm.engine.ProcessEngineConfiguration;
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Base class for benchmarks that need a process engine. Each trial builds
+ * a new process engine on an in-memory H2 database without history and
+ * without job executor, so that the benchmarks measure the engine itself.</p>
+ *
+ * <p>Subclasses can adjust the configuration in
+ * {@link #configure(ProcessEngineConfigurationImpl)}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class ProcessEngineBenchmark {
+
+  protected ProcessEngine processEngine;
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  @Setup(Level.Trial)
+  public void buildProcessEngine() {
+    String name = getClass().getSimpleName();
+
+    ProcessEngineConfigurationImpl configuration = new StandaloneInMemProcessEngineConfiguration();
+    configuration.setProcessEngineName(name);
+    configuration.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    configuration.setHistory(ProcessEngineConfiguration.HISTORY_NONE);
+    configuration.setJobExecutorActivate(false);
+    configuration.setMetricsEnabled(false);
+    configure(configuration);
+
+    processEngine = configuration.buildProcessEngine();
+    processEngineConfiguration = configuration;
+  }
+
+  @TearDown(Level.Trial)
+  public void closeProcessEngine() {
+    if (processEngine != null) {
+      processEngine.close();
+      processEngine = null;
+    }
+  }
+
+  protected void configure(ProcessEngineConfigurationImpl configuration) {
+    // nothing to do by default
+  }
+
+}
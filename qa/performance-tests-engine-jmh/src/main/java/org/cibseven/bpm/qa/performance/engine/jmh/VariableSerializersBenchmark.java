@@ -0,0 +1,196 @@
+/*
+ * Copyright CIB software GmbH and/or licensed to CIB software GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. CIB software licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.cibseven.bpm.qa.performance.engine.jmh;
+
+import java.util.Date;
+import java.util.HashMap;
+
+import org.cibseven.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.cibseven.bpm.engine.impl.interceptor.CommandExecutor;
+import org.cibseven.bpm.engine.impl.variable.serializer.CompactJavaObjectSerializer;
+import org.cibseven.bpm.engine.impl.variable.serializer.DefaultVariableSerializers;
+import org.cibseven.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.cibseven.bpm.engine.impl.variable.serializer.ValueFields;
+import org.cibseven.bpm.engine.impl.variable.serializer.VariableSerializers;
+import org.cibseven.bpm.engine.variable.Variables;
+import org.cibseven.bpm.engine.variable.impl.value.UntypedValueImpl;
+import org.cibseven.bpm.engine.variable.value.TypedValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Writes and reads variable values with the {@link DefaultVariableSerializers}
+ * of the process engine, like a variable instance does when it is set or read.
+ * The serializers require a command context, so each command serializes the
+ * value {@value #OPERATIONS} times.
+ */
+@State(Scope.Benchmark)
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class VariableSerializersBenchmark extends ProcessEngineBenchmark {
+
+  protected static final int OPERATIONS = 100;
+
+  @Param({"string", "long", "date", "object", "compactObject"})
+  public String valueType;
+
+  protected CommandExecutor commandExecutor;
+  protected VariableSerializers variableSerializers;
+  protected TypedValue value;
+
+  protected TypedValueSerializer serializer;
+  protected InMemoryValueFields serializedFields;
+
+  @Override
+  protected void configure(ProcessEngineConfigurationImpl configuration) {
+    configuration.setJavaSerializationFormatEnabled(true);
+  }
+
+  @Setup(Level.Trial)
+  public void prepareValue() {
+    commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    variableSerializers = processEngineConfiguration.getVariableSerializers();
+    value = createValue(valueType);
+
+    serializedFields = new InMemoryValueFields();
+    serializer = commandExecutor.execute(commandContext -> writeValue(serializedFields));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public ValueFields write() {
+    return commandExecutor.execute(commandContext -> {
+      InMemoryValueFields valueFields = null;
+      for (int i = 0; i < OPERATIONS; i++) {
+        valueFields = new InMemoryValueFields();
+        writeValue(valueFields);
+      }
+      return valueFields;
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public TypedValue read() {
+    return commandExecutor.execute(commandContext -> {
+      TypedValue typedValue = null;
+      for (int i = 0; i < OPERATIONS; i++) {
+        typedValue = serializer.readValue(serializedFields, true, false);
+      }
+      return typedValue;
+    });
+  }
+
+  protected TypedValueSerializer writeValue(ValueFields valueFields) {
+    TypedValue typedValue = value;
+    TypedValueSerializer valueSerializer = variableSerializers.findSerializerForValue(typedValue);
+    if (typedValue instanceof UntypedValueImpl) {
+      typedValue = valueSerializer.convertToTypedValue((UntypedValueImpl) typedValue);
+    }
+    valueSerializer.writeValue(typedValue, valueFields);
+    return valueSerializer;
+  }
+
+  protected static TypedValue createValue(String valueType) {
+    switch (valueType) {
+      case "string":
+        return Variables.untypedValue("a string value of a process variable");
+      case "long":
+        return Variables.untypedValue(42L);
+      case "date":
+        return Variables.untypedValue(new Date(0));
+      case "object":
+        return Variables.untypedValue(createObject());
+      case "compactObject":
+        return Variables.objectValue(createObject())
+            .serializationDataFormat(CompactJavaObjectSerializer.SERIALIZATION_DATA_FORMAT)
+            .create();
+      default:
+        throw new IllegalArgumentException("Unknown value type " + valueType);
+    }
+  }
+
+  protected static HashMap<String, Object> createObject() {
+    HashMap<String, Object> object = new HashMap<>();
+    for (int i = 0; i < 20; i++) {
+      object.put("key" + i, "value" + i);
+    }
+    return object;
+  }
+
+  /**
+   * The value columns of a variable instance without the entity around it.
+   */
+  public static class InMemoryValueFields implements ValueFields {
+
+    protected String textValue;
+    protected String textValue2;
+    protected Long longValue;
+    protected Double doubleValue;
+    protected byte[] byteArrayValue;
+
+    public String getName() {
+      return "benchmark";
+    }
+
+    public String getTextValue() {
+      return textValue;
+    }
+
+    public void setTextValue(String textValue) {
+      this.textValue = textValue;
+    }
+
+    public String getTextValue2() {
+      return textValue2;
+    }
+
+    public void setTextValue2(String textValue2) {
+      this.textValue2 = textValue2;
+    }
+
+    public Long getLongValue() {
+      return longValue;
+    }
+
+    public void setLongValue(Long longValue) {
+      this.longValue = longValue;
+    }
+
+    public Double getDoubleValue() {
+      return doubleValue;
+    }
+
+    public void setDoubleValue(Double doubleValue) {
+      this.doubleValue = doubleValue;
+    }
+
+    public byte[] getByteArrayValue() {
+      return byteArrayValue;
+    }
+
+    public void setByteArrayValue(byte[] bytes) {
+      this.byteArrayValue = bytes;
+    }
+
+  }
+
+}
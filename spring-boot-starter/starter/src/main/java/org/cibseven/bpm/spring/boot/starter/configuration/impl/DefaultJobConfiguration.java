@@ -24,6 +24,7 @@ import java.util.Optional;
 import org.cibseven.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.cibseven.bpm.engine.impl.jobexecutor.JobHandler;
 import org.cibseven.bpm.engine.impl.jobexecutor.NotifyAcquisitionRejectedJobsHandler;
+import org.cibseven.bpm.engine.impl.jobexecutor.VirtualThreadJobExecutor;
 import org.cibseven.bpm.engine.spring.SpringProcessEngineConfiguration;
 import org.cibseven.bpm.engine.spring.components.jobexecutor.SpringJobExecutor;
 import org.cibseven.bpm.spring.boot.starter.configuration.CamundaJobConfiguration;
@@ -101,21 +102,30 @@ public class DefaultJobConfiguration extends AbstractCamundaConfiguration implem
     @ConditionalOnMissingBean(JobExecutor.class)
     @ConditionalOnProperty(prefix = "camunda.bpm.job-execution", name = "enabled", havingValue = "true", matchIfMissing = true)
     public static JobExecutor jobExecutor(@Qualifier(CAMUNDA_TASK_EXECUTOR_QUALIFIER) final TaskExecutor taskExecutor, CamundaBpmProperties properties) {
-      final SpringJobExecutor springJobExecutor = new SpringJobExecutor();
-      springJobExecutor.setTaskExecutor(taskExecutor);
-      springJobExecutor.setRejectedJobsHandler(new NotifyAcquisitionRejectedJobsHandler());
-
       JobExecutionProperty jobExecution = properties.getJobExecution();
-      Optional.ofNullable(jobExecution.getLockTimeInMillis()).ifPresent(springJobExecutor::setLockTimeInMillis);
-      Optional.ofNullable(jobExecution.getMaxJobsPerAcquisition()).ifPresent(springJobExecutor::setMaxJobsPerAcquisition);
-      Optional.ofNullable(jobExecution.getWaitTimeInMillis()).ifPresent(springJobExecutor::setWaitTimeInMillis);
-      Optional.ofNullable(jobExecution.getMaxWait()).ifPresent(springJobExecutor::setMaxWait);
-      Optional.ofNullable(jobExecution.getBackoffTimeInMillis()).ifPresent(springJobExecutor::setBackoffTimeInMillis);
-      Optional.ofNullable(jobExecution.getMaxBackoff()).ifPresent(springJobExecutor::setMaxBackoff);
-      Optional.ofNullable(jobExecution.getBackoffDecreaseThreshold()).ifPresent(springJobExecutor::setBackoffDecreaseThreshold);
-      Optional.ofNullable(jobExecution.getWaitIncreaseFactor()).ifPresent(springJobExecutor::setWaitIncreaseFactor);
-
-      return springJobExecutor;
+
+      final JobExecutor jobExecutor;
+      if (jobExecution.isVirtualThreads()) {
+        final VirtualThreadJobExecutor virtualThreadJobExecutor = new VirtualThreadJobExecutor();
+        virtualThreadJobExecutor.setMaxConcurrentJobs(jobExecution.getMaxConcurrentJobs());
+        jobExecutor = virtualThreadJobExecutor;
+      } else {
+        final SpringJobExecutor springJobExecutor = new SpringJobExecutor();
+        springJobExecutor.setTaskExecutor(taskExecutor);
+        jobExecutor = springJobExecutor;
+      }
+      jobExecutor.setRejectedJobsHandler(new NotifyAcquisitionRejectedJobsHandler());
+
+      Optional.ofNullable(jobExecution.getLockTimeInMillis()).ifPresent(jobExecutor::setLockTimeInMillis);
+      Optional.ofNullable(jobExecution.getMaxJobsPerAcquisition()).ifPresent(jobExecutor::setMaxJobsPerAcquisition);
+      Optional.ofNullable(jobExecution.getWaitTimeInMillis()).ifPresent(jobExecutor::setWaitTimeInMillis);
+      Optional.ofNullable(jobExecution.getMaxWait()).ifPresent(jobExecutor::setMaxWait);
+      Optional.ofNullable(jobExecution.getBackoffTimeInMillis()).ifPresent(jobExecutor::setBackoffTimeInMillis);
+      Optional.ofNullable(jobExecution.getMaxBackoff()).ifPresent(jobExecutor::setMaxBackoff);
+      Optional.ofNullable(jobExecution.getBackoffDecreaseThreshold()).ifPresent(jobExecutor::setBackoffDecreaseThreshold);
+      Optional.ofNullable(jobExecution.getWaitIncreaseFactor()).ifPresent(jobExecutor::setWaitIncreaseFactor);
+
+      return jobExecutor;
     }
 
     @Bean
@@ -26,6 +26,7 @@ public class FetchAndLockProperties {
 
   protected boolean uniqueWorkerRequest = false;
   protected Integer queueCapacity = 200;
+  protected Integer handlerShards = 1;
 
   public Map<String, String> getInitParams() {
     Map<String, String> initParams = new HashMap<>();
@@ -38,6 +39,10 @@ public class FetchAndLockProperties {
       initParams.put("fetch-and-lock-queue-capacity", Integer.toString(queueCapacity));
     }
 
+    if (handlerShards != 1) {
+      initParams.put("fetch-and-lock-handler-shards", Integer.toString(handlerShards));
+    }
+
     return initParams;
   }
 
@@ -58,12 +63,21 @@ public class FetchAndLockProperties {
     this.queueCapacity = queueCapacity;
   }
 
+  public Integer getHandlerShards() {
+    return handlerShards;
+  }
+
+  public void setHandlerShards(Integer handlerShards) {
+    this.handlerShards = handlerShards;
+  }
+
   @Override
   public String toString() {
     StringJoiner joinedString = joinOn(this.getClass())
 
             .add("uniqueWorkerRequest=" + uniqueWorkerRequest)
-            .add("queueCapacity=" + queueCapacity);
+            .add("queueCapacity=" + queueCapacity)
+            .add("handlerShards=" + handlerShards);
 
     return joinedString.toString();
   }